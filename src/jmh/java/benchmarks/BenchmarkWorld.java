@@ -0,0 +1,105 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package benchmarks;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.profiler.Profiler;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.GameType;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldProviderSurface;
+import net.minecraft.world.WorldSettings;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.storage.WorldInfo;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An in-memory world for benchmarks, no save handler, no server and no world generation.
+ *
+ * Every chunk is loaded, chunks are created empty the first time they are touched.
+ * Blocks are placed without notifying their neighbors, so the layout stays exactly as placed.
+ * A client world skips everything Railcraft only does on the server, like looking up trains.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public class BenchmarkWorld extends World {
+
+    static {
+        bootstrap();
+    }
+
+    private final Long2ObjectOpenHashMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+
+    public BenchmarkWorld(boolean client) {
+        super(null, new WorldInfo(new WorldSettings(29L, GameType.CREATIVE, false, false, WorldType.FLAT), "benchmark"),
+                new WorldProviderSurface(), new Profiler(), client);
+        provider.setWorld(this);
+        chunkProvider = createChunkProvider();
+    }
+
+    /**
+     * Registers the vanilla blocks, items and entities, needed before any ItemStack or block state is created.
+     */
+    public static synchronized void bootstrap() {
+        if (!Bootstrap.isRegistered())
+            Bootstrap.register();
+    }
+
+    public void set(BlockPos pos, IBlockState state) {
+        setBlockState(pos, state, 2);
+    }
+
+    @Override
+    protected IChunkProvider createChunkProvider() {
+        return new IChunkProvider() {
+            @Override
+            public @Nullable Chunk getLoadedChunk(int x, int z) {
+                return provideChunk(x, z);
+            }
+
+            @Override
+            public Chunk provideChunk(int x, int z) {
+                long key = ChunkPos.asLong(x, z);
+                Chunk chunk = chunks.get(key);
+                if (chunk == null) {
+                    chunk = new Chunk(BenchmarkWorld.this, x, z);
+                    chunks.put(key, chunk);
+                }
+                return chunk;
+            }
+
+            @Override
+            public boolean tick() {
+                return false;
+            }
+
+            @Override
+            public String makeString() {
+                return "BenchmarkChunkCache: " + chunks.size();
+            }
+
+            @Override
+            public boolean isChunkGeneratedAt(int x, int z) {
+                return true;
+            }
+        };
+    }
+
+    @Override
+    protected boolean isChunkLoaded(int x, int z, boolean allowEmpty) {
+        return true;
+    }
+}
@@ -0,0 +1,104 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package benchmarks;
+
+import mods.railcraft.api.charge.Charge;
+import mods.railcraft.api.charge.IBatteryBlock;
+import mods.railcraft.api.charge.IChargeBlock;
+import mods.railcraft.api.charge.IChargeBlock.ChargeSpec;
+import mods.railcraft.api.charge.IChargeBlock.ConnectType;
+import mods.railcraft.common.util.charge.ChargeNetwork;
+import net.minecraft.block.Block;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticks a Charge grid made of a long wire with a battery every few blocks, and rebuilds it
+ * after cutting the wire in the middle.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChargeBenchmark {
+    @Param({"64", "512"})
+    public int length;
+
+    @Param({"16"})
+    public int batterySpacing;
+
+    private Block wire;
+    private Block battery;
+    private BenchmarkWorld world;
+    private ChargeNetwork network;
+    private BlockPos middle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = new BenchmarkWorld(false);
+        wire = new ChargeBlock(new ChargeSpec(ConnectType.BLOCK, 0.025));
+        battery = new ChargeBlock(new ChargeSpec(ConnectType.BLOCK, 0.2,
+                new IBatteryBlock.Spec(IBatteryBlock.State.RECHARGEABLE, 100_000, 32.0, 0.8)));
+        network = new ChargeNetwork(Charge.distribution, world);
+        for (int x = 0; x < length; x++) {
+            BlockPos pos = new BlockPos(x, 64, 0);
+            IBlockState state = (x % batterySpacing == 0 ? battery : wire).getDefaultState();
+            world.set(pos, state);
+            network.addNode(pos, state);
+        }
+        middle = new BlockPos(length / 2 + 1, 64, 0);
+        // Let the queue drain and the grid form
+        for (int i = 0; i < 10; i++) {
+            network.tick();
+        }
+    }
+
+    @Benchmark
+    public double gridTick() {
+        network.access(middle).useCharge(16.0);
+        network.tick();
+        return network.grid(middle).getCharge();
+    }
+
+    @Benchmark
+    public int rebuild() {
+        network.removeNode(middle);
+        network.tick();
+        network.addNode(middle, wire.getDefaultState());
+        network.tick();
+        return network.grid(middle).size();
+    }
+
+    private static final class ChargeBlock extends Block implements IChargeBlock {
+        private final Map<Charge, ChargeSpec> specs;
+
+        private ChargeBlock(ChargeSpec spec) {
+            super(Material.IRON);
+            this.specs = Collections.singletonMap(Charge.distribution, spec);
+        }
+
+        @Override
+        public Map<Charge, ChargeSpec> getChargeSpecs(IBlockState state, IBlockAccess world, BlockPos pos) {
+            return specs;
+        }
+    }
+}
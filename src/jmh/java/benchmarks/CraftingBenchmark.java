@@ -0,0 +1,135 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package benchmarks;
+
+import mods.railcraft.api.crafting.ICokeOvenRecipe;
+import mods.railcraft.api.crafting.ICrusherRecipe;
+import mods.railcraft.api.crafting.IRollingMachineRecipe;
+import mods.railcraft.common.util.crafting.CokeOvenCraftingManager;
+import mods.railcraft.common.util.crafting.RockCrusherCraftingManager;
+import mods.railcraft.common.util.crafting.RollingMachineCraftingManager;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.init.Items;
+import net.minecraft.inventory.Container;
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.Ingredient;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up recipes in the coke oven, rock crusher and rolling machine managers, filled with
+ * synthetic recipes over the vanilla items.
+ *
+ * The hit cases look up the last recipe registered and the miss cases an item without a recipe,
+ * so both walk the whole list as long as the lookups are linear.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CraftingBenchmark {
+    @Param({"100", "1000"})
+    public int recipes;
+
+    private ItemStack hit;
+    private ItemStack miss;
+    private InventoryCrafting hitGrid;
+    private InventoryCrafting missGrid;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkWorld.bootstrap();
+        List<Item> items = new ArrayList<>();
+        for (Item item : Item.REGISTRY) {
+            if (item != Items.AIR)
+                items.add(item);
+        }
+        ItemStack output = new ItemStack(Items.DIAMOND);
+        for (int i = 0; i < recipes; i++) {
+            ItemStack input = new ItemStack(items.get(i % items.size()), 1, i / items.size());
+            Ingredient ingredient = Ingredient.fromStacks(input);
+            hit = input;
+
+            CokeOvenCraftingManager.getInstance().addRecipe(
+                    CokeOvenCraftingManager.getInstance().create(ingredient, output, null, 1800));
+            RockCrusherCraftingManager.getInstance().createRecipeBuilder()
+                    .input(ingredient)
+                    .addOutput(output, 1.0F)
+                    .buildAndRegister();
+            Ingredient[][] grid = new Ingredient[3][3];
+            for (Ingredient[] row : grid) {
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = Ingredient.fromItem(Items.IRON_INGOT);
+                }
+            }
+            grid[1][1] = ingredient;
+            RollingMachineCraftingManager.getInstance().newShapedRecipeBuilder()
+                    .grid(grid)
+                    .output(output)
+                    .buildAndRegister();
+        }
+        miss = new ItemStack(Items.DIAMOND, 1, 1000);
+        hitGrid = grid(hit);
+        missGrid = grid(miss);
+    }
+
+    private static InventoryCrafting grid(ItemStack center) {
+        InventoryCrafting inv = new InventoryCrafting(new Container() {
+            @Override
+            public boolean canInteractWith(EntityPlayer playerIn) {
+                return false;
+            }
+        }, 3, 3);
+        for (int slot = 0; slot < 9; slot++) {
+            inv.setInventorySlotContents(slot, slot == 4 ? center.copy() : new ItemStack(Items.IRON_INGOT));
+        }
+        return inv;
+    }
+
+    @Benchmark
+    public @Nullable ICokeOvenRecipe cokeOvenHit() {
+        return CokeOvenCraftingManager.getInstance().getRecipe(hit);
+    }
+
+    @Benchmark
+    public @Nullable ICokeOvenRecipe cokeOvenMiss() {
+        return CokeOvenCraftingManager.getInstance().getRecipe(miss);
+    }
+
+    @Benchmark
+    public @Nullable ICrusherRecipe rockCrusherHit() {
+        return RockCrusherCraftingManager.getInstance().getRecipe(hit);
+    }
+
+    @Benchmark
+    public @Nullable ICrusherRecipe rockCrusherMiss() {
+        return RockCrusherCraftingManager.getInstance().getRecipe(miss);
+    }
+
+    @Benchmark
+    public @Nullable IRollingMachineRecipe rollingMachineHit() {
+        return RollingMachineCraftingManager.getInstance().findMatching(hitGrid);
+    }
+
+    @Benchmark
+    public @Nullable IRollingMachineRecipe rollingMachineMiss() {
+        return RollingMachineCraftingManager.getInstance().findMatching(missGrid);
+    }
+}
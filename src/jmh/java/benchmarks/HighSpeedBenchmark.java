@@ -0,0 +1,67 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package benchmarks;
+
+import mods.railcraft.common.blocks.tracks.behaivor.HighSpeedTools;
+import net.minecraft.block.BlockRail;
+import net.minecraft.block.BlockRailBase.EnumRailDirection;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks ahead from a high speed cart on a straight line of track, and on a line ending in a slope.
+ *
+ * The track is placed in a client world so the rails keep the shapes they are placed with.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HighSpeedBenchmark {
+    private static final int LENGTH = 16;
+
+    private BenchmarkWorld world;
+    private BlockPos straight;
+    private BlockPos slope;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = new BenchmarkWorld(true);
+        straight = layLine(0, false);
+        slope = layLine(8, true);
+    }
+
+    private BlockPos layLine(int z, boolean endInSlope) {
+        for (int x = 0; x < LENGTH; x++) {
+            world.set(new BlockPos(x, 63, z), Blocks.STONE.getDefaultState());
+            EnumRailDirection shape = endInSlope && x == LENGTH / 2 + HighSpeedTools.LOOK_AHEAD_DIST
+                    ? EnumRailDirection.ASCENDING_EAST : EnumRailDirection.EAST_WEST;
+            world.set(new BlockPos(x, 64, z), Blocks.RAIL.getDefaultState().withProperty(BlockRail.SHAPE, shape));
+        }
+        return new BlockPos(LENGTH / 2, 64, z);
+    }
+
+    @Benchmark
+    public float straight() {
+        return HighSpeedTools.speedForNextTrack(world, straight, 0, null);
+    }
+
+    @Benchmark
+    public float slope() {
+        return HighSpeedTools.speedForNextTrack(world, slope, 0, null);
+    }
+}
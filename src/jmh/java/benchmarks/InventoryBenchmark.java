@@ -0,0 +1,82 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package benchmarks;
+
+import mods.railcraft.common.util.inventory.InventoryAdvanced;
+import mods.railcraft.common.util.inventory.InventoryManifest;
+import mods.railcraft.common.util.inventory.wrappers.IInventoryComposite;
+import mods.railcraft.common.util.inventory.wrappers.InventoryComposite;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds manifests of a few chests full of mixed items and shuttles single items between two chests,
+ * which is what loaders and unloaders spend their time on.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+    private static final int CHEST_SIZE = 27;
+
+    @Param({"1", "4"})
+    public int chests;
+
+    private IInventoryComposite source;
+    private IInventoryComposite dest;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkWorld.bootstrap();
+        ItemStack[] items = {
+                new ItemStack(Items.COAL), new ItemStack(Items.COAL, 1, 1), new ItemStack(Items.IRON_INGOT),
+                new ItemStack(Items.GOLD_INGOT), new ItemStack(Items.REDSTONE), new ItemStack(Blocks.COBBLESTONE),
+                new ItemStack(Blocks.LOG), new ItemStack(Blocks.LOG, 1, 2), new ItemStack(Items.WHEAT),
+        };
+        Object[] sources = new Object[chests];
+        Object[] dests = new Object[chests];
+        for (int i = 0; i < chests; i++) {
+            InventoryAdvanced from = new InventoryAdvanced(CHEST_SIZE);
+            InventoryAdvanced to = new InventoryAdvanced(CHEST_SIZE);
+            for (int slot = 0; slot < CHEST_SIZE; slot++) {
+                ItemStack stack = items[(slot + i) % items.length].copy();
+                stack.setCount(32);
+                from.setInventorySlotContents(slot, stack);
+                // Leave the destination mostly full so inserting has to look around
+                if (slot < CHEST_SIZE - 2)
+                    to.setInventorySlotContents(slot, stack.copy());
+            }
+            sources[i] = from;
+            dests[i] = to;
+        }
+        source = InventoryComposite.of(sources);
+        dest = InventoryComposite.of(dests);
+    }
+
+    @Benchmark
+    public InventoryManifest manifest() {
+        return InventoryManifest.create(source);
+    }
+
+    @Benchmark
+    public ItemStack moveOneItem() {
+        source.moveOneItemTo(dest);
+        return dest.moveOneItemTo(source);
+    }
+}
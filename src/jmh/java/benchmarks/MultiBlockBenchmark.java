@@ -0,0 +1,101 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package benchmarks;
+
+import mods.railcraft.common.blocks.multi.MultiBlockPattern;
+import mods.railcraft.common.blocks.multi.TileMultiBlock;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests a hollow cube pattern against a structure that matches and one that only fails near the end of the scan.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiBlockBenchmark {
+    private static final int SIZE = 5;
+
+    private MultiBlockPattern pattern;
+    private TileMultiBlock valid;
+    private TileMultiBlock broken;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkWorld world = new BenchmarkWorld(false);
+        char[][][] map = new char[SIZE][SIZE][SIZE];
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    int depth = Math.min(Math.min(Math.min(x, y), z), Math.min(Math.min(SIZE - 1 - x, SIZE - 1 - y), SIZE - 1 - z));
+                    map[y][x][z] = depth == 0 ? 'O' : depth == 1 ? 'B' : 'A';
+                }
+            }
+        }
+        pattern = new MultiBlockPattern(map, 2, 1, 2);
+        valid = build(world, new BlockPos(0, 64, 0), map);
+        broken = build(world, new BlockPos(64, 64, 0), map);
+        // The pattern is scanned x, y, z in order, so this wall block is one of the last tested
+        BlockPos last = broken.getPos().subtract(pattern.getMasterOffset()).add(SIZE - 2, SIZE - 2, SIZE - 2);
+        world.set(last, Blocks.AIR.getDefaultState());
+        if (pattern.testPattern(valid) != MultiBlockPattern.State.VALID)
+            throw new IllegalStateException("Structure doesn't match its own pattern");
+    }
+
+    private TileMultiBlock build(BenchmarkWorld world, BlockPos master, char[][][] map) {
+        BlockPos origin = master.subtract(pattern.getMasterOffset());
+        IBlockState wall = Blocks.BRICK_BLOCK.getDefaultState();
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                for (int z = 0; z < SIZE; z++) {
+                    if (map[y][x][z] == 'B')
+                        world.set(origin.add(x, y, z), wall);
+                }
+            }
+        }
+        TileMultiBlock tile = new TileMultiBlock(Collections.singletonList(pattern)) {
+            @Override
+            protected boolean isMapPositionValid(BlockPos pos, char mapPos) {
+                IBlockState other = world.getBlockState(pos);
+                switch (mapPos) {
+                    case 'B':
+                        return other == wall;
+                    case 'A':
+                        return world.isAirBlock(pos);
+                    default:
+                        return other != wall;
+                }
+            }
+        };
+        tile.setWorld(world);
+        tile.setPos(master);
+        return tile;
+    }
+
+    @Benchmark
+    public MultiBlockPattern.State testValid() {
+        return pattern.testPattern(valid);
+    }
+
+    @Benchmark
+    public MultiBlockPattern.State testBroken() {
+        return pattern.testPattern(broken);
+    }
+}
@@ -0,0 +1,80 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package benchmarks;
+
+import mods.railcraft.common.worldgen.NoiseGen;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sampling a chunk column of noise one point at a time against the batch fill.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoiseBenchmark {
+    private final NoiseGen cloudNoise = new NoiseGen.NoiseGenSimplex(new Random(29), 0.0018);
+    private final NoiseGen veinNoise = new NoiseGen.NoiseGenSimplex(new Random(29), 0.015);
+    private final double[] field = new double[16 * 16];
+    private final double[] volume = new double[16 * 8 * 16];
+    private int chunkX;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        chunkX = 0;
+    }
+
+    private int nextChunk() {
+        return (chunkX++ & 1023) << 4;
+    }
+
+    @Benchmark
+    public void cloudSinglePoint(Blackhole blackhole) {
+        int x = nextChunk();
+        for (int dx = 0; dx < 16; dx++) {
+            for (int dz = 0; dz < 16; dz++) {
+                blackhole.consume(cloudNoise.noise(x + dx, dz));
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] cloudBatch() {
+        cloudNoise.noise(field, nextChunk(), 0, 16, 16);
+        return field;
+    }
+
+    @Benchmark
+    public void veinSinglePoint(Blackhole blackhole) {
+        int x = nextChunk();
+        for (int dx = 0; dx < 16; dx++) {
+            for (int dy = 0; dy < 8; dy++) {
+                for (int dz = 0; dz < 16; dz++) {
+                    blackhole.consume(veinNoise.noise(x + dx, 40 + dy, dz));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public double[] veinBatch() {
+        veinNoise.noise(volume, nextChunk(), 40, 0, 16, 8, 16);
+        return volume;
+    }
+}
@@ -0,0 +1,94 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package benchmarks;
+
+import mods.railcraft.common.util.routing.ITileRouting;
+import mods.railcraft.common.util.routing.RoutingLogic;
+import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.entity.item.EntityMinecartEmpty;
+import net.minecraft.item.ItemStack;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a routing table of a typical size and evaluates it against a cart.
+ *
+ * The cart lives in a client world, so the routing logic doesn't go looking for its train.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutingBenchmark {
+    private static final String[] TABLE = {
+            "// Express line",
+            "Name?=Express [0-9]+",
+            "Redstone=true",
+            "AND",
+            "Type=minecraft:chest_minecart",
+            "Name=Local",
+            "OR",
+            "NOT",
+            "OR",
+            "Name?=Freight.*",
+            "Type=minecraft:furnace_minecart",
+            "AND",
+            "OR",
+    };
+
+    private Deque<String> table;
+    private RoutingLogic logic;
+    private EntityMinecart cart;
+    private final ITileRouting tile = new ITileRouting() {
+        @Override
+        public ItemStack getRoutingTable() {
+            return ItemStack.EMPTY;
+        }
+
+        @Override
+        public void setRoutingTable(ItemStack stack) {
+        }
+
+        @Override
+        public boolean isPowered() {
+            return true;
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkWorld world = new BenchmarkWorld(true);
+        table = new ArrayDeque<>(Arrays.asList(TABLE));
+        logic = RoutingLogic.buildLogic(table);
+        if (!logic.isValid())
+            throw new IllegalStateException("Routing table doesn't parse: " + logic.getError());
+        cart = new EntityMinecartEmpty(world, 0.5, 64.0, 0.5);
+        cart.setCustomNameTag("Express 42");
+    }
+
+    @Benchmark
+    public RoutingLogic parse() {
+        return RoutingLogic.buildLogic(table);
+    }
+
+    @Benchmark
+    public int evaluate() {
+        return logic.evaluate(tile, cart);
+    }
+}
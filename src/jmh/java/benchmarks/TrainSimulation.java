@@ -0,0 +1,514 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package benchmarks;
+
+import mods.railcraft.common.blocks.tracks.outfitted.kits.TrackKitJunction;
+import mods.railcraft.common.blocks.tracks.outfitted.kits.TrackKitLocking;
+import mods.railcraft.common.carts.EntityLocomotive;
+import mods.railcraft.common.carts.EntityLocomotiveCreative;
+import mods.railcraft.common.carts.LinkageHandler;
+import mods.railcraft.common.carts.LinkageManager;
+import mods.railcraft.common.carts.MinecartHooks;
+import mods.railcraft.common.carts.Train;
+import mods.railcraft.common.carts.TrainTransferHelper;
+import mods.railcraft.common.core.RailcraftConfig;
+import mods.railcraft.common.util.inventory.InvTools;
+import mods.railcraft.common.util.profiler.TickProfiler;
+import mods.railcraft.common.util.profiler.TickProfiler.Section;
+import net.minecraft.block.BlockRail;
+import net.minecraft.block.BlockRailBase.EnumRailDirection;
+import net.minecraft.block.BlockRailPowered;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.entity.item.EntityMinecartChest;
+import net.minecraft.entity.item.EntityMinecartEmpty;
+import net.minecraft.init.Blocks;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.dedicated.DedicatedServer;
+import net.minecraft.util.datafix.DataFixesManager;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.IBlockAccess;
+import net.minecraftforge.event.entity.minecart.MinecartUpdateEvent;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.IFMLSidedHandler;
+import net.minecraftforge.fml.relauncher.Side;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Runs trains around synthetic track loops without a client, server or network, and reports
+ * how long each cart subsystem took per tick.
+ *
+ * Run with: ./gradlew simulate -Psimulate.args="loops=4 trains=8 carts=5 locos=1 cross=1 ticks=12000 seed=29"
+ *
+ * Each loop is a rectangle of vanilla rail with a stretch of powered rail on both long sides to keep
+ * the carts moving, and a gate in the middle of the top side counting the carts going through.
+ * A narrow crossing loop runs north to south over the top side of the first loop, the two crossings
+ * are junctions whose direction comes from the Railcraft junction kit, and the carts going over them
+ * in either direction are counted.
+ *
+ * The first trains are pulled by a creative locomotive with chest carts behind it. Their route passes
+ * a stop on the bottom side of the first loop that locks the train down, unloads and then loads it through
+ * the Railcraft train transfer helper, and starts it again the way a Locking Track does. The other trains
+ * are plain minecarts, they pass the stop without halting.
+ *
+ * Every tick the carts are moved, then handed to the Railcraft linkage and minecart hooks the same way
+ * the update event would, then the trains are ticked and the stop does its work.
+ * Outfitted track needs its block and tile registered by the mod loader, so the junctions are plain rails
+ * that ask a junction kit for their direction, and the stop is run by the simulation instead of a loader tile.
+ *
+ * The layout, the cart ids and the world random all come from the seed, so two runs with the same
+ * arguments simulate the same thing.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public final class TrainSimulation {
+    private static final int BOOSTER = 8;
+    private static final int CROSS_WIDTH = 8;
+    private static final double CART_SPACING = 1.6;
+    private static final double START_SPEED = 0.4;
+    private static final int TICKS_PER_HOUR = 20 * 60 * 60;
+    private static final int STOP_ITEMS_PER_TICK = 16;
+    private static final int STOP_COOLDOWN = 100;
+    private static final UUID STOP_LOCK = new UUID(0L, 29L);
+    private static @Nullable MinecraftServer server;
+
+    private final int loops;
+    private final int trains;
+    private final int carts;
+    private final int locos;
+    private final int crossTrains;
+    private final int width;
+    private final int height;
+    private final Random random;
+    private final BenchmarkWorld world = new BenchmarkWorld(false);
+    private final JunctionRail junctionRail = new JunctionRail();
+    private final List<Rect> rects = new ArrayList<>();
+    private final List<BlockPos> junctions = new ArrayList<>();
+    private final List<EntityMinecart> cartList = new ArrayList<>();
+    private final int[] gatePasses;
+    private int[] junctionPasses = new int[0];
+    private double[] lastX = new double[0];
+    private long[] lastBlock = new long[0];
+    private long physicsTime;
+
+    private final BlockPos stopPos;
+    private @Nullable EntityMinecart heldCart;
+    private boolean loading;
+    private long heldSince;
+    private @Nullable UUID releasedTrain;
+    private long releasedAt;
+    private int stopsServed;
+    private long itemsMoved;
+    private long dwellTicks;
+
+    private TrainSimulation(Map<String, Integer> settings) {
+        loops = settings.getOrDefault("loops", 4);
+        trains = settings.getOrDefault("trains", 8);
+        carts = settings.getOrDefault("carts", 5);
+        locos = settings.getOrDefault("locos", 1);
+        crossTrains = settings.getOrDefault("cross", 1);
+        width = settings.getOrDefault("width", 64);
+        height = settings.getOrDefault("height", 16);
+        if (width < 4 * CROSS_WIDTH || height < 12)
+            throw new IllegalArgumentException("The loops must be at least " + 4 * CROSS_WIDTH + " wide and 12 high to fit the crossing");
+        if (locos > trains)
+            throw new IllegalArgumentException("More locomotives than trains");
+        random = new Random(settings.getOrDefault("seed", 29));
+        world.rand.setSeed(random.nextLong());
+        gatePasses = new int[loops];
+        stopPos = new BlockPos(width / 2, 64, loopZ(0) + height - 1);
+    }
+
+    public static void main(String[] args) throws ReflectiveOperationException, IOException {
+        Map<String, Integer> settings = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            if (pair.length != 2)
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            settings.put(pair[0], Integer.valueOf(pair[1]));
+        }
+        int warmup = settings.getOrDefault("warmup", 200);
+        int ticks = settings.getOrDefault("ticks", 12000);
+
+        installHeadlessSide();
+        // The config file isn't loaded, locomotives would have no pull
+        Field horsepower = RailcraftConfig.class.getDeclaredField("locomotiveHorsepower");
+        horsepower.setAccessible(true);
+        horsepower.setInt(null, settings.getOrDefault("horsepower", 15));
+
+        TrainSimulation simulation = new TrainSimulation(settings);
+        simulation.layTrack();
+        simulation.spawnTrains();
+
+        TickProfiler.setEnabled(true);
+        for (int i = 0; i < warmup; i++) {
+            simulation.tick();
+        }
+        simulation.resetStats();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long allocated = allocatedBytes(threads);
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            simulation.tick();
+        }
+        long total = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes(threads);
+        TickProfiler.setEnabled(false);
+
+        simulation.report(ticks, total, allocated < 0 ? -1 : allocatedAfter - allocated);
+    }
+
+    /**
+     * FML only knows which side it's on once the mod loader has started, give it one that
+     * reports a server with a stub instance that treats this thread as the server thread,
+     * so the server thread checks pass.
+     */
+    private static void installHeadlessSide() throws ReflectiveOperationException, IOException {
+        Field field = FMLCommonHandler.class.getDeclaredField("sidedDelegate");
+        field.setAccessible(true);
+        if (field.get(FMLCommonHandler.instance()) != null)
+            return;
+        Object side = Proxy.newProxyInstance(TrainSimulation.class.getClassLoader(), new Class<?>[]{IFMLSidedHandler.class},
+                (proxy, method, args) -> {
+                    Class<?> type = method.getReturnType();
+                    if (type == Side.class)
+                        return Side.SERVER;
+                    if (type == MinecraftServer.class)
+                        return server;
+                    if (type == boolean.class)
+                        return false;
+                    if (type.isPrimitive() && type != void.class)
+                        return 0;
+                    return null;
+                });
+        field.set(FMLCommonHandler.instance(), side);
+        server = stubServer();
+    }
+
+    /**
+     * A dedicated server that is constructed but never started, only good for asking which thread it runs on.
+     * Its save directory is a throwaway temporary directory, nothing is written to it.
+     */
+    private static MinecraftServer stubServer() throws ReflectiveOperationException, IOException {
+        File saves = Files.createTempDirectory("railcraft-simulation").toFile();
+        saves.deleteOnExit();
+        MinecraftServer server = new DedicatedServer(saves, DataFixesManager.createFixer(), null, null, null, null);
+        Field thread = MinecraftServer.class.getDeclaredField("serverThread");
+        thread.setAccessible(true);
+        thread.set(server, Thread.currentThread());
+        return server;
+    }
+
+    private static long allocatedBytes(ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        return -1;
+    }
+
+    private int loopZ(int loop) {
+        return loop * (height + 4);
+    }
+
+    private void layTrack() {
+        for (int loop = 0; loop < loops; loop++) {
+            rects.add(new Rect(0, loopZ(loop), width, height));
+        }
+        // Reaches into the inside of the first loop, with room for a train on each side of the crossing
+        int crossX = width * 3 / 4;
+        int reach = height - 6;
+        rects.add(new Rect(crossX, loopZ(0) - reach, CROSS_WIDTH, reach * 2 + 1));
+        junctions.add(new BlockPos(crossX, 64, loopZ(0)));
+        junctions.add(new BlockPos(crossX + CROSS_WIDTH - 1, 64, loopZ(0)));
+        junctionPasses = new int[junctions.size()];
+
+        IBlockState floor = Blocks.STONE.getDefaultState();
+        // Placing a rail reshapes it to fit its neighbors, so the shapes are set in a second pass
+        for (int pass = 0; pass < 2; pass++) {
+            for (Rect rect : rects) {
+                for (int x = rect.x; x < rect.x + rect.width; x++) {
+                    for (int z = rect.z; z < rect.z + rect.height; z++) {
+                        EnumRailDirection shape = rect.shapeAt(x, z);
+                        if (shape == null)
+                            continue;
+                        BlockPos pos = new BlockPos(x, 64, z);
+                        if (junctions.contains(pos)) {
+                            if (pass == 0) {
+                                world.set(pos.down(), floor);
+                                world.set(pos, junctionRail.getDefaultState());
+                            }
+                        } else if (pass == 0) {
+                            world.set(pos.down(), floor);
+                            world.set(pos, rect.isBooster(x, z) ? Blocks.GOLDEN_RAIL.getDefaultState() : Blocks.RAIL.getDefaultState());
+                        } else if (rect.isBooster(x, z)) {
+                            world.set(pos, Blocks.GOLDEN_RAIL.getDefaultState()
+                                    .withProperty(BlockRailPowered.SHAPE, shape)
+                                    .withProperty(BlockRailPowered.POWERED, true));
+                        } else {
+                            world.set(pos, Blocks.RAIL.getDefaultState().withProperty(BlockRail.SHAPE, shape));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void spawnTrains() {
+        int trainLength = (int) Math.ceil(carts * CART_SPACING) + 4;
+        int perSide = (width - 2) / trainLength;
+        if (trains > loops * perSide * 2)
+            throw new IllegalArgumentException("Too many trains, the loops only fit " + loops * perSide * 2);
+        for (int train = 0; train < trains; train++) {
+            int loop = train % loops;
+            int slot = train / loops;
+            boolean top = slot % 2 == 0;
+            // Clockwise: east along the top side, west along the bottom side
+            double direction = top ? 1.0 : -1.0;
+            double head = top ? 1 + (slot / 2 + 1) * trainLength : width - 2 - (slot / 2 + 1) * trainLength;
+            double z = loopZ(loop) + (top ? 0 : height - 1) + 0.5;
+            boolean loco = train < locos;
+            spawnTrain(i -> head - direction * i * CART_SPACING + 0.5, i -> z, direction * START_SPEED, 0.0, loco);
+        }
+        // Southbound on the west side of the crossing loop, the first junction is just ahead
+        Rect cross = rects.get(rects.size() - 1);
+        int reach = cross.height / 2;
+        if (crossTrains > 0 && (crossTrains - 1) * trainLength + (carts - 1) * CART_SPACING + 3 > reach)
+            throw new IllegalArgumentException("Too many trains for the crossing loop");
+        for (int train = 0; train < crossTrains; train++) {
+            double head = loopZ(0) - 2 - train * trainLength;
+            spawnTrain(i -> cross.x + 0.5, i -> head - i * CART_SPACING + 0.5, 0.0, START_SPEED, false);
+        }
+        lastX = new double[cartList.size()];
+        lastBlock = new long[cartList.size()];
+        for (int i = 0; i < lastX.length; i++) {
+            EntityMinecart cart = cartList.get(i);
+            lastX[i] = cart.posX;
+            lastBlock[i] = blockOf(cart).toLong();
+        }
+    }
+
+    private void spawnTrain(IntToDoubleFunction x, IntToDoubleFunction z, double motionX, double motionZ, boolean loco) {
+        EntityMinecart previous = null;
+        for (int i = 0; i < carts; i++) {
+            EntityMinecart cart;
+            if (loco && i == 0) {
+                EntityLocomotive locomotive = new EntityLocomotiveCreative(world, x.applyAsDouble(i), 64.0625, z.applyAsDouble(i));
+                locomotive.setMode(EntityLocomotive.LocoMode.RUNNING);
+                locomotive.setSpeed(EntityLocomotive.LocoSpeed.NORMAL);
+                cart = locomotive;
+            } else if (loco) {
+                cart = new EntityMinecartChest(world, x.applyAsDouble(i), 64.0625, z.applyAsDouble(i));
+            } else {
+                cart = new EntityMinecartEmpty(world, x.applyAsDouble(i), 64.0625, z.applyAsDouble(i));
+            }
+            cart.setUniqueId(new UUID(random.nextLong(), random.nextLong()));
+            cart.motionX = motionX;
+            cart.motionZ = motionZ;
+            // Minecarts face the way they move, locomotives push the way they face
+            cart.rotationYaw = cart.prevRotationYaw = (float) Math.toDegrees(Math.atan2(motionZ, motionX));
+            world.spawnEntity(cart);
+            if (previous != null)
+                LinkageManager.INSTANCE.createLink(previous, cart);
+            cartList.add(cart);
+            previous = cart;
+        }
+    }
+
+    private static BlockPos blockOf(EntityMinecart cart) {
+        return new BlockPos(MathHelper.floor(cart.posX), MathHelper.floor(cart.posY), MathHelper.floor(cart.posZ));
+    }
+
+    private void tick() {
+        world.getWorldInfo().setWorldTotalTime(world.getTotalWorldTime() + 1);
+        // Like the holding profile of a Locking Track, the locked cart doesn't move at all
+        if (heldCart != null) {
+            heldCart.motionX = 0.0;
+            heldCart.motionZ = 0.0;
+        }
+        long start = System.nanoTime();
+        for (EntityMinecart cart : cartList) {
+            world.updateEntity(cart);
+        }
+        physicsTime += System.nanoTime() - start;
+
+        for (EntityMinecart cart : cartList) {
+            MinecartUpdateEvent event = new MinecartUpdateEvent(cart, blockOf(cart));
+            LinkageHandler.getInstance().onMinecartUpdate(event);
+            MinecartHooks.INSTANCE.onMinecartUpdate(event);
+        }
+        Train.tickTrains(world);
+        tickStop();
+
+        double gate = width / 2 + 0.5;
+        for (int i = 0; i < lastX.length; i++) {
+            EntityMinecart cart = cartList.get(i);
+            int loop = Math.floorDiv(MathHelper.floor(cart.posZ), height + 4);
+            if (loop >= 0 && loop < loops && MathHelper.floor(cart.posZ) == loopZ(loop)
+                    && lastX[i] < gate && cart.posX >= gate)
+                gatePasses[loop]++;
+            lastX[i] = cart.posX;
+
+            long block = blockOf(cart).toLong();
+            if (block != lastBlock[i]) {
+                for (int j = 0; j < junctions.size(); j++) {
+                    if (junctions.get(j).toLong() == block)
+                        junctionPasses[j]++;
+                }
+                lastBlock[i] = block;
+            }
+        }
+    }
+
+    /**
+     * Locks down a locomotive train that reaches the stop, empties its chest carts, fills them up again
+     * and then releases the train. Other trains roll through.
+     */
+    private void tickStop() {
+        long time = world.getTotalWorldTime();
+        if (heldCart == null) {
+            for (EntityMinecart cart : cartList) {
+                if (!(cart instanceof EntityLocomotive) || !blockOf(cart).equals(stopPos))
+                    continue;
+                UUID train = Train.getTrainUUID(cart);
+                if (train != null && train.equals(releasedTrain) && time - releasedAt < STOP_COOLDOWN)
+                    continue;
+                heldCart = cart;
+                heldSince = time;
+                loading = false;
+                Train.get(cart).ifPresent(t -> t.addLock(STOP_LOCK));
+                break;
+            }
+            return;
+        }
+        EntityMinecart cart = heldCart;
+        for (int i = 0; i < STOP_ITEMS_PER_TICK; i++) {
+            if (!loading) {
+                if (InvTools.isEmpty(TrainTransferHelper.INSTANCE.pullStack(cart, stack -> true)))
+                    loading = true;
+                else
+                    itemsMoved++;
+            } else {
+                ItemStack remainder = TrainTransferHelper.INSTANCE.pushStack(cart, new ItemStack(Blocks.COBBLESTONE));
+                if (!InvTools.isEmpty(remainder)) {
+                    releaseStop(cart, time);
+                    return;
+                }
+                itemsMoved++;
+            }
+        }
+    }
+
+    private void releaseStop(EntityMinecart cart, long time) {
+        Train.get(cart).ifPresent(t -> t.removeLock(STOP_LOCK));
+        releasedTrain = Train.getTrainUUID(cart);
+        releasedAt = time;
+        // The stop is on the westbound side
+        cart.motionX = -TrackKitLocking.START_BOOST;
+        heldCart = null;
+        stopsServed++;
+        dwellTicks += time - heldSince;
+    }
+
+    private void resetStats() {
+        TickProfiler.reset();
+        Arrays.fill(gatePasses, 0);
+        Arrays.fill(junctionPasses, 0);
+        physicsTime = 0;
+        stopsServed = 0;
+        itemsMoved = 0;
+        dwellTicks = 0;
+    }
+
+    private void report(int ticks, long total, long allocated) {
+        System.out.printf("Simulated %d ticks, %d loops, %d trains of %d carts, %d locomotives, %d crossing trains%n",
+                ticks, loops, trains, carts, locos, crossTrains);
+        System.out.printf("  %-14s %,12d ns/tick%n", "total", total / ticks);
+        System.out.printf("  %-14s %,12d ns/tick%n", "cart physics", physicsTime / ticks);
+        for (Section section : Section.VALUES) {
+            TickProfiler.Histogram histogram = TickProfiler.getHistogram(section);
+            if (histogram.getCount() > 0)
+                System.out.printf("  %-14s %,12d ns/tick, p99 %,d ns%n", section.getName(), histogram.getTotal() / ticks,
+                        histogram.getPercentile(0.99));
+        }
+        if (allocated >= 0)
+            System.out.printf("  %-14s %,12d bytes/tick%n", "allocated", allocated / ticks);
+        int live = (int) cartList.stream().filter(EntityMinecart::isEntityAlive).count();
+        System.out.printf("  %-14s %d of %d%n", "carts alive", live, cartList.size());
+        for (int loop = 0; loop < loops; loop++) {
+            System.out.printf("  gate %-9d %,12.0f carts/hour%n", loop, gatePasses[loop] * (double) TICKS_PER_HOUR / ticks);
+        }
+        for (int junction = 0; junction < junctions.size(); junction++) {
+            System.out.printf("  junction %-5d %,12.0f carts/hour%n", junction, junctionPasses[junction] * (double) TICKS_PER_HOUR / ticks);
+        }
+        System.out.printf("  %-14s %,12d trains, %,d items, %,d ticks per stop%n", "stop", stopsServed, itemsMoved,
+                stopsServed == 0 ? 0 : dwellTicks / stopsServed);
+    }
+
+    /**
+     * A rectangle of track, corners included, with boosters on the north and south sides.
+     */
+    private static final class Rect {
+        final int x;
+        final int z;
+        final int width;
+        final int height;
+
+        Rect(int x, int z, int width, int height) {
+            this.x = x;
+            this.z = z;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Nullable EnumRailDirection shapeAt(int x, int z) {
+            boolean west = x == this.x;
+            boolean east = x == this.x + width - 1;
+            boolean north = z == this.z;
+            boolean south = z == this.z + height - 1;
+            if (north)
+                return west ? EnumRailDirection.SOUTH_EAST : east ? EnumRailDirection.SOUTH_WEST : EnumRailDirection.EAST_WEST;
+            if (south)
+                return west ? EnumRailDirection.NORTH_EAST : east ? EnumRailDirection.NORTH_WEST : EnumRailDirection.EAST_WEST;
+            if (west || east)
+                return EnumRailDirection.NORTH_SOUTH;
+            return null;
+        }
+
+        boolean isBooster(int x, int z) {
+            int offset = x - this.x;
+            return (z == this.z || z == this.z + height - 1)
+                    && offset >= width / 4 && offset < width / 4 + Math.min(BOOSTER, width / 2);
+        }
+    }
+
+    /**
+     * Stands in for an outfitted track with a junction kit, the kit picks the direction from the cart's heading.
+     */
+    private static final class JunctionRail extends BlockRail {
+        private final TrackKitJunction kit = new TrackKitJunction();
+
+        @Override
+        public EnumRailDirection getRailDirection(IBlockAccess world, BlockPos pos, IBlockState state, @Nullable EntityMinecart cart) {
+            return kit.getRailDirection(state, cart);
+        }
+    }
+}
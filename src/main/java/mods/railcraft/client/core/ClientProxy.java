@@ -34,6 +34,7 @@ import mods.railcraft.common.core.RailcraftObjects;
 import mods.railcraft.common.items.IRailcraftItemSimple;
 import mods.railcraft.common.items.RailcraftItems;
 import mods.railcraft.common.items.firestone.TileRitual;
+import mods.railcraft.common.util.effects.EffectManager;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.sounds.SoundRegistry;
 import net.minecraft.block.Block;
@@ -156,6 +157,7 @@ public class ClientProxy extends CommonProxy implements ISelectiveResourceReload
         SoundRegistry.setupBlockSounds();
 
         MinecraftForge.EVENT_BUS.register(LocomotiveKeyHandler.INSTANCE);
+        MinecraftForge.EVENT_BUS.register(EffectManager.instance);
 
         if (!RailcraftItems.GOGGLES.isEnabled())
             MinecraftForge.EVENT_BUS.register(AuraKeyHandler.INSTANCE);
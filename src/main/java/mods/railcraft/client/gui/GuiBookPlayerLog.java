@@ -10,17 +10,18 @@
 
 package mods.railcraft.client.gui;
 
-import com.google.common.collect.Multimap;
 import com.mojang.authlib.GameProfile;
+import mods.railcraft.common.blocks.logbook.VisitorLog;
 import mods.railcraft.common.core.RailcraftConstants;
 import mods.railcraft.common.plugins.forge.LocalizationPlugin;
 import net.minecraft.util.ResourceLocation;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 
 /**
  * Created by CovertJaguar on 6/23/2017 for Railcraft.
@@ -32,33 +33,44 @@ public class GuiBookPlayerLog extends GuiBook {
     public static final ResourceLocation TEXTURE = new ResourceLocation(RailcraftConstants.GUI_TEXTURE_FOLDER + "logbook.png");
     public static final String LOG_TAG = "gui.railcraft.logbook.";
 
-    public GuiBookPlayerLog(Multimap<LocalDate, GameProfile> log) {
+    public GuiBookPlayerLog(VisitorLog log) {
         super(TEXTURE, LOG_TAG, LocalizationPlugin.translate(LOG_TAG + "title"), "CovertJaguar", getPages(log), false);
     }
 
-    private static List<List<String>> getPages(Multimap<LocalDate, GameProfile> log) {
+    private static List<List<String>> getPages(VisitorLog log) {
         List<List<String>> pages = new ArrayList<>();
-        List<LocalDate> days = new ArrayList<>(log.keySet());
-        days.sort(Comparator.reverseOrder());
         try {
-            for (LocalDate day : days) {
-                List<String> page = makePage(pages, day);
-                for (GameProfile profile : log.get(day)) {
+            for (LocalDate day : log.getDays()) {
+                List<String> page = makePage(pages, day.toString());
+                for (GameProfile profile : log.getVisitors(day)) {
                     if (page.size() > RailcraftConstants.BOOK_LINES_PER_PAGE)
-                        page = makePage(pages, day);
+                        page = makePage(pages, day.toString());
                     page.add(profile.getName());
                 }
             }
+            addCounts(pages, LocalizationPlugin.translate(LOG_TAG + "weekly"), log.getWeeks());
+            addCounts(pages, LocalizationPlugin.translate(LOG_TAG + "monthly"), log.getMonths());
         } catch (TooManyPagesException ignored) {
         }
         return pages;
     }
 
-    private static List<String> makePage(List<List<String>> pages, LocalDate date) throws TooManyPagesException {
+    private static void addCounts(List<List<String>> pages, String title, NavigableMap<LocalDate, Integer> counts) throws TooManyPagesException {
+        if (counts.isEmpty())
+            return;
+        List<String> page = makePage(pages, title);
+        for (Map.Entry<LocalDate, Integer> entry : counts.descendingMap().entrySet()) {
+            if (page.size() > RailcraftConstants.BOOK_LINES_PER_PAGE)
+                page = makePage(pages, title);
+            page.add(entry.getKey() + ": " + entry.getValue());
+        }
+    }
+
+    private static List<String> makePage(List<List<String>> pages, String title) throws TooManyPagesException {
         if (pages.size() >= RailcraftConstants.BOOK_MAX_PAGES)
             throw new TooManyPagesException();
         LinkedList<String> page = new LinkedList<>();
-        page.add(date.toString());
+        page.add(title);
         page.add("----------------------------------");
         pages.add(page);
         return page;
@@ -12,15 +12,18 @@ package mods.railcraft.client.gui;
 import mods.railcraft.common.blocks.machine.manipulator.TileDispenserTrain;
 import mods.railcraft.common.core.RailcraftConstants;
 import mods.railcraft.common.gui.containers.ContainerDispenserTrain;
+import mods.railcraft.common.plugins.forge.LocalizationPlugin;
 import net.minecraft.entity.player.InventoryPlayer;
 
 public class GuiDispenserTrain extends TileGui {
 
+    private final TileDispenserTrain tile;
+
     public GuiDispenserTrain(InventoryPlayer inv, TileDispenserTrain tile) {
         super(tile, new ContainerDispenserTrain(inv, tile), RailcraftConstants.GUI_TEXTURE_FOLDER + "gui_dispenser_train.png");
         xSize = 176;
         ySize = 198;
-        TileDispenserTrain tile1 = tile;
+        this.tile = tile;
     }
 
     @Override
@@ -28,5 +31,9 @@ public class GuiDispenserTrain extends TileGui {
         super.drawGuiContainerForegroundLayer(mouseX, mouseY);
         fontRenderer.drawString("Pattern", 10, 20, 0x404040);
         fontRenderer.drawString("Buffer", 10, 56, 0x404040);
+        if (tile.getStatus() != TileDispenserTrain.AssemblyStatus.OK) {
+            String status = LocalizationPlugin.translate(tile.getStatus().getLocalizationTag());
+            fontRenderer.drawString(status, xSize - 8 - fontRenderer.getStringWidth(status), 20, 0x802020);
+        }
     }
 }
@@ -11,6 +11,7 @@
 package mods.railcraft.client.particles;
 
 import net.minecraft.client.particle.Particle;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
 
@@ -27,7 +28,50 @@ public class ParticleBase extends Particle {
     }
 
     public ParticleBase(World par1World, Vec3d start, Vec3d vel) {
-        super(par1World, start.x, start.y, start.z, vel.x, vel.y, vel.z);
+        super(par1World, start.x, start.y, start.z);
+        init(start, vel);
+    }
+
+    /**
+     * Puts an expired particle back in the state a new one starts in, so it can be added
+     * to the particle manager again. See {@link ParticlePool}.
+     */
+    protected void reset(Vec3d start, Vec3d vel) {
+        isExpired = false;
+        onGround = false;
+        particleAngle = prevParticleAngle = 0.0F;
+        init(start, vel);
+    }
+
+    /**
+     * Shared by new and reused particles, so both start out the same way.
+     * Sets what the {@link Particle} constructor with a speed does, including the random spread around the velocity.
+     */
+    private void init(Vec3d start, Vec3d vel) {
+        setPosition(start.x, start.y, start.z);
+        prevPosX = posX;
+        prevPosY = posY;
+        prevPosZ = posZ;
+        canCollide = true;
+        particleAge = 0;
+        particleAlpha = 1.0F;
+        particleRed = particleGreen = particleBlue = 1.0F;
+        particleTextureJitterX = rand.nextFloat() * 3.0F;
+        particleTextureJitterY = rand.nextFloat() * 3.0F;
+        particleScale = (rand.nextFloat() * 0.5F + 0.5F) * 2.0F;
+        particleMaxAge = (int) (4.0F / (rand.nextFloat() * 0.9F + 0.1F));
+        motionX = vel.x + (Math.random() * 2.0D - 1.0D) * 0.4D;
+        motionY = vel.y + (Math.random() * 2.0D - 1.0D) * 0.4D;
+        motionZ = vel.z + (Math.random() * 2.0D - 1.0D) * 0.4D;
+        float speed = (float) (Math.random() + Math.random() + 1.0D) * 0.15F;
+        float length = MathHelper.sqrt(motionX * motionX + motionY * motionY + motionZ * motionZ);
+        motionX = motionX / length * speed * 0.4D;
+        motionY = motionY / length * speed * 0.4D + 0.1D;
+        motionZ = motionZ / length * speed * 0.4D;
+    }
+
+    public World getWorld() {
+        return world;
     }
 
     public void setParticleGravity(float particleGravity) {
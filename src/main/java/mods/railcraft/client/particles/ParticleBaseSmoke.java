@@ -23,6 +23,16 @@ public abstract class ParticleBaseSmoke extends ParticleBase {
 
     protected ParticleBaseSmoke(World world, Vec3d start, Vec3d vel, float scale) {
         super(world, start, new Vec3d(0, 0, 0));
+        initSmoke(vel, scale);
+    }
+
+    protected void reset(Vec3d start, Vec3d vel, float scale) {
+        reset(start, new Vec3d(0, 0, 0));
+        particleGravity = 0.0F;
+        initSmoke(vel, scale);
+    }
+
+    private void initSmoke(Vec3d vel, float scale) {
         this.motionX *= 0.1;
         this.motionY *= 0.1;
         this.motionZ *= 0.1;
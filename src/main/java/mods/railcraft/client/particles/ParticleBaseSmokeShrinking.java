@@ -20,13 +20,19 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 @SideOnly(Side.CLIENT)
 public abstract class ParticleBaseSmokeShrinking extends ParticleBaseSmoke {
 
-    private final float originalScale;
+    private float originalScale;
 
     protected ParticleBaseSmokeShrinking(World world, Vec3d start, Vec3d vel, float scale) {
         super(world, start, vel, scale);
         this.originalScale = particleScale;
     }
 
+    @Override
+    protected void reset(Vec3d start, Vec3d vel, float scale) {
+        super.reset(start, vel, scale);
+        this.originalScale = particleScale;
+    }
+
     @Override
     public void renderParticle(BufferBuilder worldRendererIn, Entity entityIn, float par2, float par3, float par4, float par5, float par6, float par7) {
         float age = ((float) particleAge + par2) / (float) particleMaxAge * 32.0F;
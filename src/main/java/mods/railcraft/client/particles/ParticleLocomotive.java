@@ -23,6 +23,16 @@ public class ParticleLocomotive extends ParticleBaseSmoke {
 
     public ParticleLocomotive(World par1World, Vec3d start, Vec3d vel, float scale) {
         super(par1World, start, vel, scale);
+        initLocomotive(scale);
+    }
+
+    public ParticleLocomotive reuse(Vec3d start) {
+        reset(start, new Vec3d(0, 0, 0), 2.5f);
+        initLocomotive(2.5f);
+        return this;
+    }
+
+    private void initLocomotive(float scale) {
         this.particleGravity = -0.01F;
         this.particleRed = this.particleGreen = this.particleBlue = (float) (Math.abs(ParticleHelper.RANDOM.nextGaussian()) * 0.2);
         this.particleMaxAge = (int) (24.0D / (Math.random() * 0.5D + 0.2D));
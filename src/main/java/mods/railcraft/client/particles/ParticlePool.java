@@ -0,0 +1,90 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.client.particles;
+
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Hands out particles that have already expired, so the common smoke and steam effects
+ * don't allocate a new particle every time.
+ *
+ * The particle manager drops a particle in the same tick it expires, so once a particle
+ * is no longer alive nothing else holds on to it. Once per tick the particles handed out so far
+ * are swept and every expired one, whatever its age, is collected for reuse.
+ * If none are left the caller creates a new particle.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+@SideOnly(Side.CLIENT)
+public final class ParticlePool<T extends ParticleBase> {
+    private final List<T> issued = new ArrayList<>();
+    private final Deque<T> expired = new ArrayDeque<>();
+    private final int capacity;
+    private @Nullable World world;
+    private long sweptTick = Long.MIN_VALUE;
+
+    public ParticlePool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return an expired particle ready to be reset, or null if none is available
+     */
+    public @Nullable T take(World world) {
+        if (this.world != world) {
+            issued.clear();
+            expired.clear();
+            this.world = world;
+        }
+        long tick = world.getTotalWorldTime();
+        if (sweptTick != tick) {
+            sweptTick = tick;
+            sweep();
+        }
+        T particle = expired.pollFirst();
+        if (particle != null)
+            issued.add(particle);
+        return particle;
+    }
+
+    private void sweep() {
+        int kept = 0;
+        for (int i = 0; i < issued.size(); i++) {
+            T particle = issued.get(i);
+            if (particle.isAlive())
+                issued.set(kept++, particle);
+            else
+                expired.addLast(particle);
+        }
+        issued.subList(kept, issued.size()).clear();
+    }
+
+    /**
+     * Tracks a newly created particle so it can be handed out again once it expires.
+     */
+    public T add(T particle) {
+        if (particle.getWorld() != world || size() >= capacity)
+            return particle;
+        issued.add(particle);
+        return particle;
+    }
+
+    public int size() {
+        return issued.size() + expired.size();
+    }
+}
@@ -23,6 +23,16 @@ public class ParticleSteam extends ParticleBaseSmokeShrinking {
 
     public ParticleSteam(World world, Vec3d start, Vec3d vel, float scale) {
         super(world, start, vel, scale);
+        initSteam(scale);
+    }
+
+    public ParticleSteam reuse(Vec3d start, Vec3d vel, float scale) {
+        reset(start, vel, scale);
+        initSteam(scale);
+        return this;
+    }
+
+    private void initSteam(float scale) {
         this.particleGravity = ParticleHelper.SMOKE_GRAVITY;
         this.particleRed = this.particleGreen = this.particleBlue = (float) (Math.random() * 0.4) + 0.4f;
         this.particleMaxAge = (int) (8.0D / (Math.random() * 0.8D + 0.2D));
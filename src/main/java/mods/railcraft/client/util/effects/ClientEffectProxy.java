@@ -14,6 +14,7 @@ import mods.railcraft.client.core.AuraKeyHandler;
 import mods.railcraft.client.particles.*;
 import mods.railcraft.client.render.tesr.TESRSignals;
 import mods.railcraft.api.charge.Charge;
+import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.items.ItemGoggles;
 import mods.railcraft.common.items.ItemGoggles.GoggleAura;
 import mods.railcraft.common.items.RailcraftItems;
@@ -24,13 +25,17 @@ import mods.railcraft.common.util.effects.EffectManager;
 import mods.railcraft.common.util.effects.EffectManager.IEffectSource;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.misc.MiscTools;
+import mods.railcraft.common.util.network.PacketDispatcher;
 import mods.railcraft.common.util.network.PacketEffect.Effect;
+import mods.railcraft.common.util.network.PacketParticleSetting;
 import mods.railcraft.common.util.network.RailcraftInputStream;
 import mods.railcraft.common.util.sounds.RailcraftSoundEvents;
 import mods.railcraft.common.util.sounds.SoundHelper;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.particle.Particle;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.init.SoundEvents;
 import net.minecraft.item.ItemStack;
 import net.minecraft.tileentity.TileEntity;
@@ -41,11 +46,16 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
+import net.minecraftforge.client.event.RenderGameOverlayEvent;
 import net.minecraftforge.fml.client.FMLClientHandler;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.relauncher.ReflectionHelper;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.Set;
 
@@ -60,6 +70,13 @@ import static net.minecraft.util.EnumParticleTypes.PORTAL;
 public class ClientEffectProxy extends CommonEffectProxy {
     public static final short TELEPORT_PARTICLES = 64;
     public static final short TRACKING_DISTANCE = 32 * 32;
+    private static final int POOL_SIZE = 512;
+    private final ParticlePool<ParticleSteam> steamPool = new ParticlePool<>(POOL_SIZE);
+    private final ParticlePool<ParticleLocomotive> locomotivePool = new ParticlePool<>(POOL_SIZE);
+    private final ParticleStats particleStats = new ParticleStats();
+    private int particlesThisTick;
+    private @Nullable EntityPlayer syncedPlayer;
+    private int syncedParticleSetting;
 
     public ClientEffectProxy() {
         SignalTools.effectManager = this;
@@ -141,6 +158,8 @@ public class ClientEffectProxy extends CommonEffectProxy {
             double px = pos.getX() + getRandomParticleOffset();
             double py = pos.getY() + getRandomParticleOffset();
             double pz = pos.getZ() + getRandomParticleOffset();
+            if (!canSpawnParticle(px, py, pz))
+                return;
 
             TESRSignals.ColorProfile colorProfile = TESRSignals.ColorProfile.COORD_RAINBOW;
             if (isGoggleAuraActive(GoggleAura.SIGNALLING))
@@ -163,6 +182,8 @@ public class ClientEffectProxy extends CommonEffectProxy {
             double px = start.getX() + 0.5 + rand.nextGaussian() * 0.1;
             double py = start.getY() + 0.5 + rand.nextGaussian() * 0.1;
             double pz = start.getZ() + 0.5 + rand.nextGaussian() * 0.1;
+            if (!canSpawnParticle(px, py, pz))
+                return;
             Particle particle = new ParticleHeatTrail(dest.getWorld(), new Vec3d(px, py, pz), colorSeed, EffectManager.getEffectSource(dest));
             spawnParticle(particle);
         }
@@ -205,6 +226,41 @@ public class ClientEffectProxy extends CommonEffectProxy {
             case ZAP_DEATH:
                 doZapDeath(data);
                 break;
+            case BATCH:
+                doBatch(data);
+                break;
+        }
+    }
+
+    private void doBatch(RailcraftInputStream data) throws IOException {
+        int count = data.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            // Each entry is read from its own stream, some effects stop reading early when skipped
+            byte[] entry = new byte[data.readUnsignedShort()];
+            data.readFully(entry);
+            handleEffectPacket(new RailcraftInputStream(new ByteArrayInputStream(entry)));
+        }
+    }
+
+    /**
+     * Resets the particle budget and keeps the server informed of our particle setting,
+     * see {@link mods.railcraft.common.util.effects.EffectBatcher}.
+     */
+    @SubscribeEvent
+    public void tick(TickEvent.ClientTickEvent event) {
+        if (event.phase != TickEvent.Phase.END)
+            return;
+        particlesThisTick = 0;
+        Minecraft mc = Minecraft.getMinecraft();
+        if (mc.player == null || mc.getConnection() == null) {
+            syncedPlayer = null;
+            return;
+        }
+        int setting = mc.gameSettings.particleSetting;
+        if (mc.player != syncedPlayer || setting != syncedParticleSetting) {
+            syncedPlayer = mc.player;
+            syncedParticleSetting = setting;
+            PacketDispatcher.sendToServer(new PacketParticleSetting(setting));
         }
     }
 
@@ -230,6 +286,8 @@ public class ClientEffectProxy extends CommonEffectProxy {
                 double xParticle = xCorner + rand.nextFloat() * 16;
                 double yParticle = yCorner + rand.nextFloat() * 16;
                 double zParticle = zCorner + rand.nextFloat() * 16;
+                if (!canSpawnParticle(xParticle, yParticle, zParticle))
+                    continue;
 
                 Particle particle = new ParticleChunkLoader(world, new Vec3d(xParticle, yParticle, zParticle), es);
                 spawnParticle(particle);
@@ -257,7 +315,10 @@ public class ClientEffectProxy extends CommonEffectProxy {
         double vx = rand.nextGaussian() * 0.1;
         double vy = rand.nextDouble() * 0.01;
         double vz = rand.nextGaussian() * 0.1;
-        spawnParticle(new ParticleSteam(world, es.getPosF().add(0.0, yOffset, 0.0), new Vec3d(vx, vy, vz)));
+        Vec3d start = es.getPosF().add(0.0, yOffset, 0.0);
+        if (!canSpawnParticle(start.x, start.y, start.z))
+            return;
+        spawnParticle(steamParticle(world, start, new Vec3d(vx, vy, vz), 1.0F));
     }
 
     @Override
@@ -265,27 +326,46 @@ public class ClientEffectProxy extends CommonEffectProxy {
         if (thinParticles(true))
             return;
         IEffectSource es = EffectManager.getEffectSource(source);
+        Vec3d start = es.getPosF();
+        if (!canSpawnParticle(start.x, start.y, start.z))
+            return;
         vel = vel.add(rand.nextGaussian() * 0.02, rand.nextGaussian() * 0.02, rand.nextGaussian() * 0.02);
-        ParticleSteam fx = new ParticleSteam(world, es.getPosF(), vel, 1.5F);
+        ParticleSteam fx = steamParticle(world, start, vel, 1.5F);
         fx.setParticleGravity(0F);
         spawnParticle(fx);
     }
 
     @Override
     public void chimneyEffect(World world, double x, double y, double z, EnumColor color) {
-        if (thinParticles(false))
+        if (thinParticles(false) || !canSpawnParticle(x, y, z))
             return;
         spawnParticle(new ParticleChimney(world, new Vec3d(x, y, z), color));
     }
 
     @Override
     public void locomotiveEffect(World world, double x, double y, double z) {
-        if (thinParticles(false))
+        if (thinParticles(false) || !canSpawnParticle(x, y, z))
             return;
+        Vec3d start = new Vec3d(x, y, z);
         if (SeasonPlugin.HALLOWEEN && rand.nextInt(4) == 0) {
-            spawnParticle(new ParticlePumpkin(world, new Vec3d(x, y, z)));
+            spawnParticle(new ParticlePumpkin(world, start));
+            return;
+        }
+        ParticleLocomotive particle = locomotivePool.take(world);
+        if (particle != null) {
+            particleStats.reused++;
+            spawnParticle(particle.reuse(start));
         } else
-            spawnParticle(new ParticleLocomotive(world, new Vec3d(x, y, z)));
+            spawnParticle(locomotivePool.add(new ParticleLocomotive(world, start)));
+    }
+
+    private ParticleSteam steamParticle(World world, Vec3d start, Vec3d vel, float scale) {
+        ParticleSteam particle = steamPool.take(world);
+        if (particle != null) {
+            particleStats.reused++;
+            return particle.reuse(start, vel, scale);
+        }
+        return steamPool.add(new ParticleSteam(world, start, vel, scale));
     }
 
     @Override
@@ -362,6 +442,47 @@ public class ClientEffectProxy extends CommonEffectProxy {
         }
     }
 
+    /**
+     * Applies the per tick particle budget and thins out particles from distant sources.
+     *
+     * Sources close to the player can use the whole budget, farther sources are cut off
+     * once part of it is used up, so nearby effects keep spawning when the budget runs low.
+     * Beyond the detail distance the chance of spawning falls off with the square of the distance.
+     */
+    private boolean canSpawnParticle(double x, double y, double z) {
+        Entity viewer = Minecraft.getMinecraft().getRenderViewEntity();
+        if (viewer == null)
+            return true;
+        double distSq = viewer.getDistanceSq(x, y, z);
+        int budget = RailcraftConfig.particleBudget();
+        if (distSq > 48 * 48)
+            budget /= 4;
+        else if (distSq > 16 * 16)
+            budget /= 2;
+        if (particlesThisTick >= budget) {
+            particleStats.dropped++;
+            return false;
+        }
+        double detail = RailcraftConfig.particleDetailDistance();
+        if (distSq > detail * detail && rand.nextDouble() >= detail * detail / distSq) {
+            particleStats.thinned++;
+            return false;
+        }
+        return true;
+    }
+
+    public ParticleStats getParticleStats() {
+        return particleStats;
+    }
+
+    @SubscribeEvent
+    public void debugOverlay(RenderGameOverlayEvent.Text event) {
+        if (!Minecraft.getMinecraft().gameSettings.showDebugInfo)
+            return;
+        event.getLeft().add(String.format("Railcraft particles: %d spawned, %d reused, %d dropped, %d thinned",
+                particleStats.spawned, particleStats.reused, particleStats.dropped, particleStats.thinned));
+    }
+
     private boolean thinParticles(boolean canDisable) {
         Minecraft mc = FMLClientHandler.instance().getClient();
         int particleSetting = mc.gameSettings.particleSetting;
@@ -376,5 +497,33 @@ public class ClientEffectProxy extends CommonEffectProxy {
     protected void spawnParticle(Particle particle) {
         Minecraft mc = FMLClientHandler.instance().getClient();
         mc.effectRenderer.addEffect(particle);
+        particlesThisTick++;
+        particleStats.spawned++;
+    }
+
+    /**
+     * Running totals since the client started, shown on the debug screen.
+     */
+    public static final class ParticleStats {
+        private long spawned;
+        private long reused;
+        private long dropped;
+        private long thinned;
+
+        public long getSpawned() {
+            return spawned;
+        }
+
+        public long getReused() {
+            return reused;
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public long getThinned() {
+            return thinned;
+        }
     }
 }
@@ -18,7 +18,11 @@ import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.network.IGuiReturnHandler;
 import mods.railcraft.common.util.network.RailcraftInputStream;
 import mods.railcraft.common.util.network.RailcraftOutputStream;
+import mods.railcraft.common.util.profiler.TickProfiler;
+import mods.railcraft.common.util.profiler.TickProfiler.Section;
 import mods.railcraft.common.util.routing.ITileRouting;
+import mods.railcraft.common.util.tasks.ScheduledTask;
+import mods.railcraft.common.util.tasks.TileTask;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.item.EntityMinecart;
@@ -39,6 +43,7 @@ public class TileDetector extends RailcraftTickingTileEntity implements IGuiRetu
     public Detector detector = Detector.DUMMY;
     //    private boolean tested;
     private int powerDelay;
+    private final ScheduledTask detectionTask = new ScheduledTask(TileTask.DETECTION, () -> detector.updateInterval(), this::testCarts);
 
     public Detector getDetector() {
         return detector;
@@ -151,17 +156,22 @@ public class TileDetector extends RailcraftTickingTileEntity implements IGuiRetu
 //        }
         if (powerDelay > 0)
             powerDelay--;
-        else if (detector.updateInterval() == 0 || clock % detector.updateInterval() == 0) {
-            int newPowerState = detector.shouldTest() ? detector.testCarts(getCarts()) : PowerPlugin.NO_POWER;
-            if (newPowerState != powerState) {
-                powerState = newPowerState;
-                if (powerState > PowerPlugin.NO_POWER)
-                    powerDelay = CartConstants.DETECTED_POWER_OUTPUT_FADE;
-                sendUpdateToClient();
-                world.notifyNeighborsOfStateChange(getPos(), getBlockType(), true);
-                WorldPlugin.notifyBlocksOfNeighborChangeOnSide(world, getPos(), getBlockType(), getBlockState().getValue(BlockDetector.FRONT));
-            }
+        else
+            detectionTask.tick(world);
+    }
+
+    private void testCarts() {
+        long start = TickProfiler.start();
+        int newPowerState = detector.shouldTest() ? detector.testCarts(getCarts()) : PowerPlugin.NO_POWER;
+        if (newPowerState != powerState) {
+            powerState = newPowerState;
+            if (powerState > PowerPlugin.NO_POWER)
+                powerDelay = CartConstants.DETECTED_POWER_OUTPUT_FADE;
+            sendUpdateToClient();
+            world.notifyNeighborsOfStateChange(getPos(), getBlockType(), true);
+            WorldPlugin.notifyBlocksOfNeighborChangeOnSide(world, getPos(), getBlockType(), getBlockState().getValue(BlockDetector.FRONT));
         }
+        TickProfiler.stop(Section.DETECTION, start, world, pos);
     }
 
     @Override
@@ -0,0 +1,92 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.blocks.logbook;
+
+import com.google.common.collect.MapMaker;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+
+import java.util.*;
+
+/**
+ * Logs players in the logbooks around them as they move, instead of every logbook searching for players.
+ *
+ * Loaded logbooks are filed by chunk. A player is only checked against the logbooks in the chunks around
+ * them, and only on the ticks they moved to another block.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public enum LogbookTracker {
+    INSTANCE;
+
+    public static final double RADIUS = 16;
+    private final Map<World, Long2ObjectMap<Set<TileLogbook>>> logbooks = new MapMaker().weakKeys().makeMap();
+    private final Map<UUID, Long> lastPositions = new HashMap<>();
+
+    void add(TileLogbook logbook) {
+        logbooks.computeIfAbsent(logbook.getWorld(), w -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(chunkKey(logbook), c -> new HashSet<>())
+                .add(logbook);
+    }
+
+    void remove(TileLogbook logbook) {
+        Long2ObjectMap<Set<TileLogbook>> chunks = logbooks.get(logbook.getWorld());
+        if (chunks == null)
+            return;
+        long key = chunkKey(logbook);
+        Set<TileLogbook> chunk = chunks.get(key);
+        if (chunk != null && chunk.remove(logbook) && chunk.isEmpty())
+            chunks.remove(key);
+    }
+
+    private static long chunkKey(TileLogbook logbook) {
+        return ChunkPos.asLong(logbook.getPos().getX() >> 4, logbook.getPos().getZ() >> 4);
+    }
+
+    @SubscribeEvent
+    public void tick(TickEvent.PlayerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || event.side != Side.SERVER)
+            return;
+        EntityPlayer player = event.player;
+        long pos = player.getPosition().toLong();
+        Long last = lastPositions.put(player.getUniqueID(), pos);
+        if (last != null && last == pos)
+            return;
+        Long2ObjectMap<Set<TileLogbook>> chunks = logbooks.get(player.world);
+        if (chunks == null || chunks.isEmpty())
+            return;
+        int chunkX = MathHelper.floor(player.posX) >> 4;
+        int chunkZ = MathHelper.floor(player.posZ) >> 4;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                Set<TileLogbook> chunk = chunks.get(ChunkPos.asLong(chunkX + dx, chunkZ + dz));
+                if (chunk == null)
+                    continue;
+                for (TileLogbook logbook : chunk) {
+                    if (logbook.getPos().distanceSqToCenter(player.posX, player.posY, player.posZ) <= RADIUS * RADIUS)
+                        logbook.logVisitor(player.getGameProfile());
+                }
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void loggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        lastPositions.remove(event.player.getUniqueID());
+    }
+}
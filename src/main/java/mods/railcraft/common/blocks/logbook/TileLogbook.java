@@ -7,111 +7,83 @@
  permission unless otherwise specified on the
  license page at http://railcraft.info/wiki/info:license.
  -----------------------------------------------------------------------------*/
-
 package mods.railcraft.common.blocks.logbook;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
 import com.mojang.authlib.GameProfile;
 import mods.railcraft.api.core.RailcraftConstantsAPI;
-import mods.railcraft.common.blocks.RailcraftTickingTileEntity;
-import mods.railcraft.common.plugins.forge.NBTPlugin;
-import mods.railcraft.common.util.entity.EntitySearcher;
+import mods.railcraft.common.blocks.RailcraftTileEntity;
+import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.network.RailcraftInputStream;
 import mods.railcraft.common.util.network.RailcraftOutputStream;
-import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.nbt.NBTTagList;
 
 import java.io.IOException;
 import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 /**
  * Created by CovertJaguar on 6/23/2017 for Railcraft.
  *
+ * Visitors are logged by the {@link LogbookTracker} as they move around the logbook.
+ *
  * @author CovertJaguar <http://www.railcraft.info>
  */
-public class TileLogbook extends RailcraftTickingTileEntity {
-    private static final float SEARCH_RADIUS = 16;
-    private final Multimap<LocalDate, GameProfile> log = HashMultimap.create();
+public class TileLogbook extends RailcraftTileEntity {
+    private VisitorLog log = new VisitorLog(RailcraftConfig.logbookRetentionDays());
+    private LocalDate lastRollUp = LocalDate.MIN;
 
-    public Multimap<LocalDate, GameProfile> getLog() {
+    public VisitorLog getLog() {
+        rollUp(LocalDate.now());
         return log;
     }
 
-    @Override
-    public void update() {
-        super.update();
-        if (Game.isClient(world))
-            return;
-
-        if (clock % 32 == 0) {
-            List<EntityPlayer> players = EntitySearcher.find(EntityPlayer.class).around(getPos()).outTo(SEARCH_RADIUS).in(world);
-            if (!players.isEmpty()) {
-                LocalDate date = LocalDate.now();
-                log.putAll(date, players.stream().map(EntityPlayer::getGameProfile).collect(Collectors.toList()));
-            }
-        }
+    void logVisitor(GameProfile profile) {
+        LocalDate today = LocalDate.now();
+        rollUp(today);
+        if (log.addVisit(today, profile))
+            markDirty();
     }
 
-    public static NBTTagCompound convertLogToNBT(Multimap<LocalDate, GameProfile> log) {
-        NBTTagCompound nbt = new NBTTagCompound();
-        LocalDate monthAgo = LocalDate.now().minusMonths(1);
-
-        NBTTagList logList = new NBTTagList();
-        for (Map.Entry<LocalDate, Collection<GameProfile>> entry : log.asMap().entrySet()) {
-            if (entry.getKey().isBefore(monthAgo))
-                continue;
-            NBTTagCompound dateEntry = new NBTTagCompound();
-            NBTTagList players = new NBTTagList();
-            for (GameProfile player : entry.getValue()) {
-                NBTTagCompound playerTag = NBTPlugin.makeGameProfileTag(player);
-                if (playerTag != null)
-                    players.appendTag(playerTag);
-            }
-            dateEntry.setString("date", entry.getKey().toString());
-            dateEntry.setTag("players", players);
-            logList.appendTag(dateEntry);
+    private void rollUp(LocalDate today) {
+        if (!today.equals(lastRollUp)) {
+            log.rollUp(today);
+            lastRollUp = today;
         }
-        nbt.setTag("entries", logList);
-        return nbt;
     }
 
-    public static Multimap<LocalDate, GameProfile> convertLogFromNBT(NBTTagCompound data) {
-        Multimap<LocalDate, GameProfile> log = HashMultimap.create();
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        if (Game.isHost(world))
+            LogbookTracker.INSTANCE.add(this);
+    }
 
-        LocalDate monthAgo = LocalDate.now().minusMonths(1);
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        if (Game.isHost(world))
+            LogbookTracker.INSTANCE.remove(this);
+    }
 
-        List<NBTTagCompound> logList = NBTPlugin.getNBTList(data, "entries", NBTTagCompound.class);
-        for (NBTTagCompound dateEntry : logList) {
-            try {
-                LocalDate date = LocalDate.parse(dateEntry.getString("date"));
-                if (date.isBefore(monthAgo))
-                    continue;
-                List<NBTTagCompound> playerList = NBTPlugin.getNBTList(dateEntry, "players", NBTTagCompound.class);
-                Set<GameProfile> players = playerList.stream().map(NBTPlugin::readGameProfileTag).collect(Collectors.toSet());
-                log.putAll(date, players);
-            } catch (DateTimeParseException ignored) {
-            }
-        }
-        return log;
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        if (Game.isHost(world))
+            LogbookTracker.INSTANCE.remove(this);
     }
 
     @Override
     public NBTTagCompound writeToNBT(NBTTagCompound data) {
-        data.setTag("log", convertLogToNBT(log));
+        data.setTag("log", getLog().writeToNBT());
         return super.writeToNBT(data);
     }
 
     @Override
     public void readFromNBT(NBTTagCompound data) {
         super.readFromNBT(data);
-        log.clear();
-        log.putAll(convertLogFromNBT(data.getCompoundTag("log")));
+        log = VisitorLog.readFromNBT(data.getCompoundTag("log"), RailcraftConfig.logbookRetentionDays());
+        lastRollUp = LocalDate.MIN;
     }
 
     @Override
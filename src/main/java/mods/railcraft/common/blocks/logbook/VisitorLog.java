@@ -0,0 +1,228 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.blocks.logbook;
+
+import com.mojang.authlib.GameProfile;
+import mods.railcraft.common.plugins.forge.NBTPlugin;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * The visitors of a logbook, kept small enough to save and send in one piece no matter how long the logbook has been around.
+ *
+ * Names are kept for the last few days only. Older days are rolled up into the number of visits per week,
+ * and after a while into the number of visits per month, until those drop off the end as well.
+ * A visit is one player seen on one day. Each player is stored once in a table and days refer to them by index.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public final class VisitorLog {
+    public static final int WEEKS_KEPT = 13;
+    public static final int MONTHS_KEPT = 24;
+
+    private final int retentionDays;
+    private final List<GameProfile> profiles = new ArrayList<>();
+    private final Map<UUID, Integer> profileIndex = new HashMap<>();
+    private final NavigableMap<LocalDate, BitSet> days = new TreeMap<>();
+    private final NavigableMap<LocalDate, Integer> weeks = new TreeMap<>();
+    private final NavigableMap<LocalDate, Integer> months = new TreeMap<>();
+
+    public VisitorLog(int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * @return true if the player hadn't been logged on that day yet
+     */
+    public boolean addVisit(LocalDate date, GameProfile profile) {
+        int index = intern(profile);
+        BitSet visitors = days.computeIfAbsent(date, d -> new BitSet());
+        if (visitors.get(index))
+            return false;
+        visitors.set(index);
+        return true;
+    }
+
+    private int intern(GameProfile profile) {
+        UUID id = profile.getId() != null ? profile.getId() : UUID.nameUUIDFromBytes(String.valueOf(profile.getName()).getBytes());
+        Integer index = profileIndex.get(id);
+        if (index == null) {
+            index = profiles.size();
+            profiles.add(new GameProfile(id, profile.getName()));
+            profileIndex.put(id, index);
+        }
+        return index;
+    }
+
+    /**
+     * Moves everything that has aged out of its window to the next coarser one, and forgets the players nobody refers to anymore.
+     */
+    public void rollUp(LocalDate today) {
+        LocalDate oldestDay = today.minusDays(retentionDays - 1);
+        boolean dropped = false;
+        while (!days.isEmpty() && days.firstKey().isBefore(oldestDay)) {
+            Map.Entry<LocalDate, BitSet> day = days.pollFirstEntry();
+            weeks.merge(day.getKey().with(DayOfWeek.MONDAY), day.getValue().cardinality(), Integer::sum);
+            dropped = true;
+        }
+        LocalDate oldestWeek = today.with(DayOfWeek.MONDAY).minusWeeks(WEEKS_KEPT - 1);
+        while (!weeks.isEmpty() && weeks.firstKey().isBefore(oldestWeek)) {
+            Map.Entry<LocalDate, Integer> week = weeks.pollFirstEntry();
+            months.merge(week.getKey().withDayOfMonth(1), week.getValue(), Integer::sum);
+        }
+        LocalDate oldestMonth = today.withDayOfMonth(1).minusMonths(MONTHS_KEPT - 1);
+        while (!months.isEmpty() && months.firstKey().isBefore(oldestMonth)) {
+            months.pollFirstEntry();
+        }
+        if (dropped)
+            compact();
+    }
+
+    private void compact() {
+        BitSet used = new BitSet();
+        days.values().forEach(used::or);
+        if (used.cardinality() == profiles.size())
+            return;
+        int[] remap = new int[profiles.size()];
+        List<GameProfile> kept = new ArrayList<>();
+        for (int i = 0; i < profiles.size(); i++) {
+            remap[i] = kept.size();
+            if (used.get(i))
+                kept.add(profiles.get(i));
+        }
+        for (Map.Entry<LocalDate, BitSet> day : days.entrySet()) {
+            BitSet visitors = new BitSet();
+            day.getValue().stream().forEach(i -> visitors.set(remap[i]));
+            day.setValue(visitors);
+        }
+        profiles.clear();
+        profileIndex.clear();
+        for (GameProfile profile : kept) {
+            profileIndex.put(profile.getId(), profiles.size());
+            profiles.add(profile);
+        }
+    }
+
+    /**
+     * @return the days names are still kept for, newest first
+     */
+    public NavigableSet<LocalDate> getDays() {
+        return days.descendingKeySet();
+    }
+
+    public List<GameProfile> getVisitors(LocalDate date) {
+        BitSet visitors = days.get(date);
+        if (visitors == null)
+            return Collections.emptyList();
+        List<GameProfile> list = new ArrayList<>();
+        visitors.stream().forEach(i -> list.add(profiles.get(i)));
+        return list;
+    }
+
+    /**
+     * @return the number of visits per week, keyed by the Monday starting the week
+     */
+    public NavigableMap<LocalDate, Integer> getWeeks() {
+        return Collections.unmodifiableNavigableMap(weeks);
+    }
+
+    /**
+     * @return the number of visits per month, keyed by the first of the month
+     */
+    public NavigableMap<LocalDate, Integer> getMonths() {
+        return Collections.unmodifiableNavigableMap(months);
+    }
+
+    public int getProfileCount() {
+        return profiles.size();
+    }
+
+    public NBTTagCompound writeToNBT() {
+        NBTTagCompound nbt = new NBTTagCompound();
+        NBTTagList profileList = new NBTTagList();
+        for (GameProfile profile : profiles) {
+            NBTTagCompound tag = new NBTTagCompound();
+            tag.setUniqueId("id", profile.getId());
+            tag.setString("name", String.valueOf(profile.getName()));
+            profileList.appendTag(tag);
+        }
+        nbt.setTag("profiles", profileList);
+        NBTTagList dayList = new NBTTagList();
+        for (Map.Entry<LocalDate, BitSet> day : days.entrySet()) {
+            NBTTagCompound tag = new NBTTagCompound();
+            tag.setInteger("day", (int) day.getKey().toEpochDay());
+            tag.setIntArray("visitors", day.getValue().stream().toArray());
+            dayList.appendTag(tag);
+        }
+        nbt.setTag("days", dayList);
+        nbt.setIntArray("weeks", writeCounts(weeks));
+        nbt.setIntArray("months", writeCounts(months));
+        return nbt;
+    }
+
+    private static int[] writeCounts(Map<LocalDate, Integer> counts) {
+        int[] array = new int[counts.size() * 2];
+        int i = 0;
+        for (Map.Entry<LocalDate, Integer> entry : counts.entrySet()) {
+            array[i++] = (int) entry.getKey().toEpochDay();
+            array[i++] = entry.getValue();
+        }
+        return array;
+    }
+
+    private static void readCounts(int[] array, Map<LocalDate, Integer> counts) {
+        for (int i = 0; i + 1 < array.length; i += 2) {
+            counts.put(LocalDate.ofEpochDay(array[i]), array[i + 1]);
+        }
+    }
+
+    public static VisitorLog readFromNBT(NBTTagCompound data, int retentionDays) {
+        VisitorLog log = new VisitorLog(retentionDays);
+        if (data.hasKey("entries")) {
+            readLegacy(data, log);
+            return log;
+        }
+        for (NBTTagCompound tag : NBTPlugin.getNBTList(data, "profiles", NBTTagCompound.class)) {
+            log.intern(new GameProfile(tag.getUniqueId("id"), tag.getString("name")));
+        }
+        for (NBTTagCompound tag : NBTPlugin.getNBTList(data, "days", NBTTagCompound.class)) {
+            BitSet visitors = new BitSet();
+            for (int index : tag.getIntArray("visitors")) {
+                if (index >= 0 && index < log.profiles.size())
+                    visitors.set(index);
+            }
+            log.days.put(LocalDate.ofEpochDay(tag.getInteger("day")), visitors);
+        }
+        readCounts(data.getIntArray("weeks"), log.weeks);
+        readCounts(data.getIntArray("months"), log.months);
+        return log;
+    }
+
+    /**
+     * Logbooks used to save a list of full player profiles per date.
+     */
+    private static void readLegacy(NBTTagCompound data, VisitorLog log) {
+        for (NBTTagCompound dateEntry : NBTPlugin.getNBTList(data, "entries", NBTTagCompound.class)) {
+            try {
+                LocalDate date = LocalDate.parse(dateEntry.getString("date"));
+                for (NBTTagCompound player : NBTPlugin.getNBTList(dateEntry, "players", NBTTagCompound.class)) {
+                    log.addVisit(date, NBTPlugin.readGameProfileTag(player));
+                }
+            } catch (DateTimeParseException ignored) {
+            }
+        }
+    }
+}
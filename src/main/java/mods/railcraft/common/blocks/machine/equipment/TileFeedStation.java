@@ -14,6 +14,7 @@ import mods.railcraft.common.blocks.machine.TileMachineItem;
 import mods.railcraft.common.gui.EnumGui;
 import mods.railcraft.common.gui.GuiHandler;
 import mods.railcraft.common.plugins.forge.PowerPlugin;
+import mods.railcraft.common.util.entity.EntitySensor;
 import mods.railcraft.common.util.entity.ai.EntityAIMateBreeding;
 import mods.railcraft.common.util.inventory.AdjacentInventoryCache;
 import mods.railcraft.common.util.inventory.InvTools;
@@ -41,11 +42,11 @@ import net.minecraftforge.fml.common.network.NetworkRegistry;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.apache.logging.log4j.Level;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.util.List;
 import java.util.Random;
 
 import static mods.railcraft.common.util.inventory.InvTools.sizeOf;
@@ -61,6 +62,7 @@ public class TileFeedStation extends TileMachineItem implements ITileExtraDataHa
     private int feedTime;
     private byte feedCounter;
     private boolean powered;
+    private @Nullable EntitySensor.Region<EntityAnimal> animals;
     private final InventoryComposite feedInv = InventoryComposite.of(InventoryAdaptor.get(this));
     protected final AdjacentInventoryCache invCache = new AdjacentInventoryCache(tileCache, tile -> !getClass().isInstance(tile), InventorySorter.SIZE_DESCENDING);
 
@@ -97,14 +99,20 @@ public class TileFeedStation extends TileMachineItem implements ITileExtraDataHa
         feed = getStackInSlot(0);
 
         feedTime--;
-        if (!powered && !InvTools.isEmpty(feed) && feedTime <= 0) {
-            feedTime = MIN_FEED_INTERVAL + rand.nextInt(FEED_VARIANCE);
+        boolean armed = !powered && !InvTools.isEmpty(feed);
+        // Stations that are powered or out of feed won't look, so let the sensor forget them until they will
+        if (!armed) {
+            if (animals != null)
+                releaseSensor();
+            return;
+        }
+        if (animals == null)
+            animals = EntitySensor.register(this, EntityAnimal.class, getFeedArea());
 
-            //TODO: test (maybe we can draw this somehow?)
-            AxisAlignedBB box = AABBFactory.start().createBoxForTileAt(getPos()).raiseFloor(-1).raiseCeiling(2).expandHorizontally(AREA).build();
-            List<EntityAnimal> animals = world.getEntitiesWithinAABB(EntityAnimal.class, box);
+        if (feedTime <= 0) {
+            feedTime = MIN_FEED_INTERVAL + rand.nextInt(FEED_VARIANCE);
 
-            for (EntityAnimal target : animals) {
+            for (EntityAnimal target : animals.getEntities()) {
                 if (target.isBreedingItem(getStackInSlot(0)) && feedAnimal(target)) {
                     if (feedCounter <= 0) {
                         setInventorySlotContents(0, InvTools.depleteItem(feed));
@@ -118,6 +126,28 @@ public class TileFeedStation extends TileMachineItem implements ITileExtraDataHa
         }
     }
 
+    //TODO: test (maybe we can draw this somehow?)
+    private AxisAlignedBB getFeedArea() {
+        return AABBFactory.start().createBoxForTileAt(getPos()).raiseFloor(-1).raiseCeiling(2).expandHorizontally(AREA).build();
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        releaseSensor();
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        releaseSensor();
+    }
+
+    private void releaseSensor() {
+        EntitySensor.release(this);
+        animals = null;
+    }
+
     public void sendFeedPacket(EntityAnimal animal) {
         try {
             PacketTileExtraData pkt = new PacketTileExtraData(this);
@@ -41,6 +41,8 @@ public abstract class TileRollingMachine extends TileMachineBase {
     public boolean useLast;
     protected boolean isWorking, paused;
     private @Nullable IRollingMachineRecipe currentRecipe;
+    private @Nullable IRollingMachineRecipe matchingRecipe;
+    private boolean matrixChanged = true;
     private ItemStack currentRecipeOutput = ItemStack.EMPTY;
     private int progress;
     private int processTime = PROCESS_TIME;
@@ -67,6 +69,7 @@ public abstract class TileRollingMachine extends TileMachineBase {
 
         invResult.readFromNBT("invResult", data);
         InvTools.readInvFromNBT(craftMatrix, "Crafting", data);
+        matrixChanged = true;
     }
 
     @Override
@@ -113,6 +116,17 @@ public abstract class TileRollingMachine extends TileMachineBase {
         return inv;
     }
 
+    /**
+     * The recipe matching the craft matrix, only looked up again after the matrix changes.
+     */
+    public @Nullable IRollingMachineRecipe getMatchingRecipe() {
+        if (matrixChanged) {
+            matchingRecipe = RollingMachineCraftingManager.getInstance().findMatching(craftMatrix);
+            matrixChanged = false;
+        }
+        return matchingRecipe;
+    }
+
     public void onGuiClosed(EntityPlayer player) {
     }
 
@@ -129,7 +143,7 @@ public abstract class TileRollingMachine extends TileMachineBase {
             return;
 
         if (clock % 8 == 0) {
-            currentRecipe = RollingMachineCraftingManager.getInstance().findMatching(craftMatrix);
+            currentRecipe = getMatchingRecipe();
             if (currentRecipe != null) {
                 currentRecipeOutput = currentRecipe.getOutput(craftMatrix);
                 findMoreStuff();
@@ -195,7 +209,7 @@ public abstract class TileRollingMachine extends TileMachineBase {
     }
 
     public boolean canMakeMore() {
-        if (RollingMachineCraftingManager.getInstance().findMatching(craftMatrix) == null)
+        if (getMatchingRecipe() == null)
             return false;
         if (useLast)
             return true;
@@ -209,7 +223,7 @@ public abstract class TileRollingMachine extends TileMachineBase {
         return false;
     }
 
-    private static class RollingContainer extends Container {
+    private class RollingContainer extends Container {
 
         Container listener;
 
@@ -220,6 +234,7 @@ public abstract class TileRollingMachine extends TileMachineBase {
 
         @Override
         public void onCraftMatrixChanged(IInventory inventoryIn) {
+            matrixChanged = true;
             if (listener != null)
                 listener.onCraftMatrixChanged(inventoryIn);
         }
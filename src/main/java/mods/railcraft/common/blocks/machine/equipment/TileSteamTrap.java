@@ -18,6 +18,7 @@ import mods.railcraft.common.fluids.TankManager;
 import mods.railcraft.common.fluids.tanks.FilteredTank;
 import mods.railcraft.common.plugins.forge.PowerPlugin;
 import mods.railcraft.common.util.effects.EffectManager;
+import mods.railcraft.common.util.entity.EntitySensor;
 import mods.railcraft.common.util.entity.RailcraftDamageSource;
 import mods.railcraft.common.util.misc.AABBFactory;
 import mods.railcraft.common.util.misc.Game;
@@ -42,7 +43,7 @@ import net.minecraftforge.fluids.capability.CapabilityFluidHandler;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Collection;
 
 /**
  * @author CovertJaguar <http://www.railcraft.info/>
@@ -55,6 +56,8 @@ public abstract class TileSteamTrap extends TileMachineBase implements ISteamUse
     protected EnumFacing direction = EnumFacing.NORTH;
     protected boolean powered;
     private byte jet;
+    private @Nullable EntitySensor.Region<EntityLivingBase> steamArea;
+    private boolean sensing;
     private final TankManager tankManager = new TankManager();
     private final FilteredTank tank;
 
@@ -109,13 +112,46 @@ public abstract class TileSteamTrap extends TileMachineBase implements ISteamUse
             for (EntityLivingBase entity : getEntitiesInSteamArea()) {
                 entity.attackEntityFrom(RailcraftDamageSource.STEAM, DAMAGE);
             }
+        // Traps waiting on steam or a signal don't look, so let the sensor forget them until they do
+        if (!sensing && steamArea != null)
+            releaseSensor();
+        sensing = false;
+    }
+
+    public Collection<EntityLivingBase> getEntitiesInSteamArea() {
+        sensing = true;
+        if (steamArea == null)
+            steamArea = EntitySensor.register(this, EntityLivingBase.class, getSteamArea());
+        return steamArea.getEntities();
     }
 
     //TODO: test, can we draw this?
-    public List<EntityLivingBase> getEntitiesInSteamArea() {
+    private AxisAlignedBB getSteamArea() {
         Vec3d jetVector = new Vec3d(direction.getDirectionVec()).scale(RANGE).add(0.5D, 0.5D, 0.5D);
-        AxisAlignedBB area = AABBFactory.start().box().expandToCoordinate(jetVector).offset(getPos()).build();
-        return world.getEntitiesWithinAABB(EntityLivingBase.class, area);
+        return AABBFactory.start().box().expandToCoordinate(jetVector).offset(getPos()).build();
+    }
+
+    private void setDirection(EnumFacing direction) {
+        this.direction = direction;
+        if (steamArea != null)
+            steamArea.setBox(getSteamArea());
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        releaseSensor();
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        releaseSensor();
+    }
+
+    private void releaseSensor() {
+        EntitySensor.release(this);
+        steamArea = null;
     }
 
     protected abstract void triggerCheck();
@@ -140,7 +176,7 @@ public abstract class TileSteamTrap extends TileMachineBase implements ISteamUse
     public void onBlockPlacedBy(IBlockState state, @Nullable EntityLivingBase entityLiving, ItemStack stack) {
         super.onBlockPlacedBy(state, entityLiving, stack);
         if (entityLiving != null)
-            direction = MiscTools.getSideFacingPlayer(getPos(), entityLiving);
+            setDirection(MiscTools.getSideFacingPlayer(getPos(), entityLiving));
     }
 
     @Override
@@ -152,9 +188,9 @@ public abstract class TileSteamTrap extends TileMachineBase implements ISteamUse
     @Override
     public boolean rotateBlock(EnumFacing axis) {
         if (direction == axis)
-            direction = axis.getOpposite();
+            setDirection(axis.getOpposite());
         else
-            direction = axis;
+            setDirection(axis);
         markBlockForUpdate();
         return true;
     }
@@ -171,7 +207,7 @@ public abstract class TileSteamTrap extends TileMachineBase implements ISteamUse
     @Override
     public void readFromNBT(NBTTagCompound data) {
         super.readFromNBT(data);
-        direction = EnumFacing.byIndex(data.getByte("direction"));
+        setDirection(EnumFacing.byIndex(data.getByte("direction")));
         powered = data.getBoolean("powered");
         tankManager.readTanksFromNBT(data);
     }
@@ -11,9 +11,13 @@ package mods.railcraft.common.blocks.machine.manipulator;
 
 import mods.railcraft.api.carts.CartToolsAPI;
 import mods.railcraft.api.items.IMinecartItem;
+import mods.railcraft.common.blocks.tracks.TrackTools;
 import mods.railcraft.common.carts.CartTools;
+import mods.railcraft.common.carts.IRailcraftCartContainer;
 import mods.railcraft.common.carts.ItemCartWorldspike;
 import mods.railcraft.common.carts.ItemLocomotive;
+import mods.railcraft.common.carts.LinkageHandler;
+import mods.railcraft.common.carts.RailcraftCarts;
 import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.gui.EnumGui;
 import mods.railcraft.common.gui.GuiHandler;
@@ -21,14 +25,24 @@ import mods.railcraft.common.util.entity.EntitySearcher;
 import mods.railcraft.common.util.inventory.InvTools;
 import mods.railcraft.common.util.inventory.InventoryManifest;
 import mods.railcraft.common.util.inventory.InventoryAdvanced;
+import mods.railcraft.common.util.inventory.wrappers.InventoryCopy;
+import mods.railcraft.common.util.misc.Game;
+import net.minecraft.block.BlockRailBase.EnumRailDirection;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.entity.item.EntityMinecartEmpty;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.inventory.Container;
 import net.minecraft.item.ItemMinecart;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.WorldServer;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.function.Predicate;
 
 public class TileDispenserTrain extends TileDispenserCart {
@@ -39,6 +53,7 @@ public class TileDispenserTrain extends TileDispenserCart {
     private byte patternIndex;
     private boolean spawningTrain;
     private EntityMinecart lastCart;
+    private AssemblyStatus status = AssemblyStatus.OK;
 
     public TileDispenserTrain() {
         setInventorySize(BUFFER_SIZE);
@@ -53,6 +68,18 @@ public class TileDispenserTrain extends TileDispenserCart {
         return invPattern;
     }
 
+    public AssemblyStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(AssemblyStatus status) {
+        if (this.status != status) {
+            this.status = status;
+            if (Game.isHost(world))
+                world.updateComparatorOutputLevel(getPos(), getBlockType());
+        }
+    }
+
     @Override
     public boolean openGui(EntityPlayer player) {
         GuiHandler.openGui(EnumGui.TRAIN_DISPENSER, player, world, getPos());
@@ -97,6 +124,117 @@ public class TileDispenserTrain extends TileDispenserCart {
         return false;
     }
 
+    /**
+     * The carts of the pattern up to the first empty slot, front of the train first.
+     */
+    private List<ItemStack> getConsist() {
+        List<ItemStack> consist = new ArrayList<>();
+        for (int slot = 0; slot < getPattern().getSizeInventory(); slot++) {
+            ItemStack spawn = getPattern().getStackInSlot(slot);
+            if (InvTools.isEmpty(spawn))
+                break;
+            consist.add(spawn);
+        }
+        return consist;
+    }
+
+    /**
+     * Places the whole train in one go ahead of the dispenser with the front of the train furthest out,
+     * each cart as far from the next as the linkage handler keeps linked carts, and links the carts to each other.
+     * Nothing is placed unless every cart is in the buffer and the track is long enough and clear.
+     * If a cart can't be placed or linked anyway, the carts placed so far are removed and their items go back into the buffer.
+     */
+    private AssemblyStatus assembleTrain() {
+        List<ItemStack> consist = getConsist();
+        if (consist.isEmpty())
+            return AssemblyStatus.OK;
+
+        InventoryCopy buffer = new InventoryCopy(this);
+        for (ItemStack spawn : consist) {
+            if (InvTools.isEmpty(buffer.removeOneItem(new MinecartItemType(spawn))))
+                return AssemblyStatus.MISSING_ITEM;
+        }
+
+        double[] offsets = getOffsets(consist);
+        EnumRailDirection straight = facing.getAxis() == EnumFacing.Axis.X ? EnumRailDirection.EAST_WEST : EnumRailDirection.NORTH_SOUTH;
+        for (int i = 1; i <= blocksOut(offsets[0]); i++) {
+            BlockPos pos = getPos().offset(facing, i);
+            if (!world.isBlockLoaded(pos))
+                return AssemblyStatus.UNLOADED;
+            IBlockState state = world.getBlockState(pos);
+            if (!TrackTools.isRailBlock(state) || TrackTools.getTrackDirectionRaw(state) != straight)
+                return AssemblyStatus.TRACK_SHORT;
+            if (!EntitySearcher.findMinecarts().around(pos).in(world).isEmpty())
+                return AssemblyStatus.TRACK_BLOCKED;
+        }
+
+        List<ItemStack> removed = new ArrayList<>();
+        List<EntityMinecart> train = new ArrayList<>();
+        for (int i = 0; i < consist.size(); i++) {
+            ItemStack cartItem = removeOneItem(new MinecartItemType(consist.get(i)));
+            int blocks = blocksOut(offsets[i]);
+            EntityMinecart cartPlaced = InvTools.isEmpty(cartItem) ? null
+                    : CartTools.placeCart(getOwner(), cartItem, (WorldServer) world, getPos().offset(facing, blocks));
+            if (cartPlaced == null) {
+                if (!InvTools.isEmpty(cartItem))
+                    addStack(cartItem);
+                return discardTrain(train, removed, AssemblyStatus.TRACK_BLOCKED);
+            }
+            removed.add(cartItem);
+            train.add(cartPlaced);
+            // Carts are placed in the middle of their track, slide them along it to their spot in the train
+            double shift = offsets[i] - blocks;
+            cartPlaced.setPosition(cartPlaced.posX + facing.getXOffset() * shift, cartPlaced.posY, cartPlaced.posZ + facing.getZOffset() * shift);
+        }
+        for (int i = 1; i < train.size(); i++) {
+            if (!CartToolsAPI.linkageManager().createLink(train.get(i - 1), train.get(i)))
+                return discardTrain(train, removed, AssemblyStatus.LINK_FAILED);
+        }
+        timeSinceLastSpawn = 0;
+        return AssemblyStatus.OK;
+    }
+
+    /**
+     * How far out from the dispenser each cart of the consist goes, in blocks. The back of the train sits in the middle
+     * of the first track and every cart ahead of it is as far from the one behind as the linkage handler keeps them.
+     */
+    private double[] getOffsets(List<ItemStack> consist) {
+        EntityMinecart[] carts = consist.stream().map(this::makeSample).toArray(EntityMinecart[]::new);
+        double[] offsets = new double[carts.length];
+        offsets[carts.length - 1] = 1;
+        for (int i = carts.length - 2; i >= 0; i--) {
+            offsets[i] = offsets[i + 1] + LinkageHandler.getInstance().getOptimalDistance(carts[i], carts[i + 1]);
+        }
+        return offsets;
+    }
+
+    /**
+     * A cart of the same kind that is never spawned, only asked how far it likes to be from the carts it's linked to.
+     * Carts from other mods are asked as a plain minecart.
+     */
+    private EntityMinecart makeSample(ItemStack spawn) {
+        IRailcraftCartContainer type = RailcraftCarts.getCartType(spawn);
+        if (type != null && type.isEnabled())
+            return type.makeCart(spawn, world, 0, 0, 0);
+        return new EntityMinecartEmpty(world);
+    }
+
+    /**
+     * @return the track block a cart at this many blocks out from the dispenser sits on
+     */
+    private static int blocksOut(double offset) {
+        return (int) Math.floor(offset + 0.5);
+    }
+
+    private AssemblyStatus discardTrain(List<EntityMinecart> train, List<ItemStack> removed, AssemblyStatus status) {
+        for (EntityMinecart cart : train) {
+            CartToolsAPI.linkageManager().breakLinks(cart);
+            cart.setDead();
+        }
+        removed.forEach(this::addStack);
+        return status;
+    }
+
     private void resetSpawnSequence() {
         patternIndex = 0;
         spawningTrain = false;
@@ -114,10 +252,12 @@ public class TileDispenserTrain extends TileDispenserCart {
     @Override
     public void onPulse() {
         EntityMinecart cart = EntitySearcher.findMinecarts().around(getPos().offset(facing)).in(world).any();
-        if (cart == null)
-            if (!spawningTrain && canBuildTrain())
-                if (timeSinceLastSpawn > RailcraftConfig.getCartDispenserMinDelay() * 20)
-                    spawningTrain = true;
+        if (cart == null && !spawningTrain && timeSinceLastSpawn > RailcraftConfig.getCartDispenserMinDelay() * 20) {
+            if (isAssembling())
+                setStatus(assembleTrain());
+            else if (canBuildTrain())
+                spawningTrain = true;
+        }
 //            else if(!spawningTrain) {
 //                ItemStack cartStack = InventoryTools.moveItemStack(cart.getCartItem(), invBuffer);
 //                if(cartStack == null) {
@@ -126,6 +266,20 @@ public class TileDispenserTrain extends TileDispenserCart {
 //            }
     }
 
+    private boolean isAssembling() {
+        return RailcraftConfig.trainDispenserAssemble() && facing.getAxis().isHorizontal();
+    }
+
+    /**
+     * While placing whole trains, tells why the last train couldn't be placed, zero if it was.
+     */
+    @Override
+    public int getComparatorInputOverride() {
+        if (isAssembling())
+            return status.ordinal();
+        return Container.calcRedstoneFromInventory(this);
+    }
+
     @Override
     public int getInventoryStackLimit() {
         return 64;
@@ -137,6 +291,7 @@ public class TileDispenserTrain extends TileDispenserCart {
 
         data.setBoolean("spawningTrain", spawningTrain);
         data.setByte("patternIndex", patternIndex);
+        data.setByte("status", (byte) status.ordinal());
 
         getPattern().writeToNBT("invPattern", data);
         return data;
@@ -148,6 +303,7 @@ public class TileDispenserTrain extends TileDispenserCart {
 
         spawningTrain = data.getBoolean("spawningTrain");
         patternIndex = data.getByte("patternIndex");
+        status = AssemblyStatus.VALUES[data.getByte("status") % AssemblyStatus.VALUES.length];
 
         if (data.hasKey("pattern")) {
             NBTTagCompound pattern = data.getCompoundTag("pattern");
@@ -156,6 +312,24 @@ public class TileDispenserTrain extends TileDispenserCart {
             getPattern().readFromNBT("invPattern", data);
     }
 
+    /**
+     * Why the last train couldn't be placed, the comparator output is the ordinal.
+     */
+    public enum AssemblyStatus {
+        OK,
+        MISSING_ITEM,
+        TRACK_SHORT,
+        TRACK_BLOCKED,
+        UNLOADED,
+        LINK_FAILED;
+
+        public static final AssemblyStatus[] VALUES = values();
+
+        public String getLocalizationTag() {
+            return "gui.railcraft.dispenser.train.status." + name().toLowerCase(Locale.ROOT);
+        }
+    }
+
     private static class MinecartItemType implements Predicate<ItemStack> {
 
         private final ItemStack original;
@@ -33,6 +33,10 @@ import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.network.IGuiReturnHandler;
 import mods.railcraft.common.util.network.RailcraftInputStream;
 import mods.railcraft.common.util.network.RailcraftOutputStream;
+import mods.railcraft.common.util.profiler.TickProfiler;
+import mods.railcraft.common.util.profiler.TickProfiler.Section;
+import mods.railcraft.common.util.tasks.ScheduledTask;
+import mods.railcraft.common.util.tasks.TileTask;
 import net.minecraft.block.Block;
 import net.minecraft.entity.item.EntityMinecart;
 import net.minecraft.entity.player.EntityPlayer;
@@ -57,6 +61,7 @@ public abstract class TileManipulatorCart extends TileManipulator implements IHa
     private final MultiButtonController<EnumRedstoneMode> redstoneModeController = MultiButtonController.create(0, getValidRedstoneModes());
     protected @Nullable EntityMinecart currentCart;
     private boolean powered;
+    private final ScheduledTask transferTask = new ScheduledTask(TileTask.TRANSFER, 1, this::processCurrentCart);
     private boolean sendCartGateAction;
     private boolean processing;
     private int pause;
@@ -231,8 +236,8 @@ public abstract class TileManipulatorCart extends TileManipulator implements IHa
         if (isPaused())
             return;
 
-        // Play time!
-        processCart(cart);
+        // Play time! Transfers are never deferred, so this runs every tick
+        transferTask.tick(world);
 
         // We did something!
         if (isProcessing())
@@ -251,6 +256,14 @@ public abstract class TileManipulatorCart extends TileManipulator implements IHa
 
     protected abstract void processCart(EntityMinecart cart);
 
+    private void processCurrentCart() {
+        if (currentCart == null)
+            return;
+        long start = TickProfiler.start();
+        processCart(currentCart);
+        TickProfiler.stop(Section.TRANSFER, start, world, pos);
+    }
+
     @Override
     public final boolean canConnectRedstone(@Nullable EnumFacing dir) {
         return true;
@@ -21,6 +21,8 @@ import mods.railcraft.common.plugins.forge.WorldPlugin;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.network.RailcraftInputStream;
 import mods.railcraft.common.util.network.RailcraftOutputStream;
+import mods.railcraft.common.util.tasks.ScheduledTask;
+import mods.railcraft.common.util.tasks.TileTask;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
@@ -36,6 +38,10 @@ public class TileBoxReceiver extends TileBoxActionManager implements IReceiverTi
 
     private static final int FORCED_UPDATE = 512;
     private final SimpleSignalReceiver receiver = new SimpleSignalReceiver(getLocalizationTag(), this);
+    private final ScheduledTask syncTask = new ScheduledTask(TileTask.SYNC, FORCED_UPDATE, () -> {
+        updateNeighbors();
+        sendUpdateToClient();
+    });
 
     @Override
     public IEnumMachine<?> getMachineType() {
@@ -55,10 +61,7 @@ public class TileBoxReceiver extends TileBoxActionManager implements IReceiverTi
             return;
         }
         receiver.tickServer();
-        if (clock % FORCED_UPDATE == 0) {
-            updateNeighbors();
-            sendUpdateToClient();
-        }
+        syncTask.tick(world);
     }
 
     @Override
@@ -11,6 +11,8 @@
 package mods.railcraft.common.blocks.machine.wayobjects.signals;
 
 import mods.railcraft.common.plugins.forge.NBTPlugin;
+import mods.railcraft.common.util.profiler.TickProfiler;
+import mods.railcraft.common.util.profiler.TickProfiler.Section;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.math.BlockPos;
@@ -48,8 +50,11 @@ public class TokenManager {
 
     @SubscribeEvent
     public void tick(TickEvent.WorldTickEvent event) {
-        if (event.side == Side.SERVER && event.phase == TickEvent.Phase.END)
+        if (event.side == Side.SERVER && event.phase == TickEvent.Phase.END) {
+            long start = TickProfiler.start();
             getManager(event.world).tick(event.world);
+            TickProfiler.stop(Section.TOKENS, start, event.world);
+        }
     }
 
     public static class TokenWorldManager extends WorldSavedData {
@@ -0,0 +1,306 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.blocks.multi;
+
+import mods.railcraft.common.core.RailcraftConfig;
+import mods.railcraft.common.fluids.Fluids;
+import mods.railcraft.common.fluids.tanks.StandardTank;
+import mods.railcraft.common.plugins.forge.WorldPlugin;
+import mods.railcraft.common.util.steam.SteamBoiler;
+import mods.railcraft.common.util.steam.SteamTurbine;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.fluids.capability.CapabilityFluidHandler;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A group of Boilers and Steam Turbines that are connected to each other, either directly or through pipes.
+ *
+ * When plant mode is enabled, the plant takes over the per tick work of its members. Every few ticks it advances
+ * the boilers, moves the steam straight into the turbines, runs the turbines and returns the water to the boilers,
+ * instead of each tile pushing fluids through the pipes on its own.
+ *
+ * Pipes and other fluid handlers between the members are treated as lossless, they are only used to find the members.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public final class SteamPlant {
+
+    private static final int MAX_SEARCH = 4096;
+    private static final int SEARCH_INTERVAL = 200;
+    private static final int REBUILD_INTERVAL = 1200;
+
+    private final List<TileBoilerFirebox> boilers;
+    private final List<TileSteamTurbine> turbines;
+    private final long built;
+    private long lastStep;
+
+    private SteamPlant(List<TileBoilerFirebox> boilers, List<TileSteamTurbine> turbines, long time) {
+        this.boilers = boilers;
+        this.turbines = turbines;
+        this.built = time;
+        this.lastStep = time;
+    }
+
+    private static @Nullable SteamPlant build(TileMultiBlock start) {
+        World world = start.getWorld();
+        Set<BlockPos> visited = new HashSet<>();
+        Deque<BlockPos> queue = new ArrayDeque<>();
+        Set<TileBoilerFirebox> boilers = new LinkedHashSet<>();
+        Set<TileSteamTurbine> turbines = new LinkedHashSet<>();
+
+        addStructure(start, visited, queue, boilers, turbines);
+        while (!queue.isEmpty() && visited.size() < MAX_SEARCH) {
+            BlockPos pos = queue.poll();
+            for (EnumFacing side : EnumFacing.VALUES) {
+                BlockPos next = pos.offset(side);
+                if (visited.contains(next) || !world.isBlockLoaded(next))
+                    continue;
+                TileEntity tile = WorldPlugin.getBlockTile(world, next);
+                if (tile instanceof TileBoiler || tile instanceof TileSteamTurbine) {
+                    addStructure((TileMultiBlock) tile, visited, queue, boilers, turbines);
+                } else {
+                    visited.add(next);
+                    if (tile != null && tile.hasCapability(CapabilityFluidHandler.FLUID_HANDLER_CAPABILITY, side.getOpposite()))
+                        queue.add(next);
+                }
+            }
+        }
+
+        if (boilers.isEmpty() || turbines.isEmpty())
+            return null;
+        return new SteamPlant(new ArrayList<>(boilers), new ArrayList<>(turbines), world.getTotalWorldTime());
+    }
+
+    private static void addStructure(TileMultiBlock tile, Set<BlockPos> visited, Deque<BlockPos> queue,
+                                     Set<TileBoilerFirebox> boilers, Set<TileSteamTurbine> turbines) {
+        TileMultiBlock master = tile.getMasterBlock();
+        if (master == null || !master.isValidMaster()) {
+            visited.add(tile.getPos());
+            return;
+        }
+        if (master instanceof TileBoilerFirebox)
+            boilers.add((TileBoilerFirebox) master);
+        else if (master instanceof TileSteamTurbine)
+            turbines.add((TileSteamTurbine) master);
+        for (TileMultiBlock component : master.getComponents()) {
+            if (visited.add(component.getPos()))
+                queue.add(component.getPos());
+        }
+    }
+
+    /**
+     * Points the links of all the members at this plant, any plant a member belonged to before is broken up.
+     */
+    private void join() {
+        boilers.forEach(boiler -> leave(boiler.plantLink));
+        turbines.forEach(turbine -> leave(turbine.plantLink));
+        boilers.forEach(boiler -> boiler.plantLink.plant = this);
+        turbines.forEach(turbine -> turbine.plantLink.plant = this);
+    }
+
+    private void leave(Link link) {
+        if (link.plant != null && link.plant != this)
+            link.plant.invalidate();
+    }
+
+    private boolean isIntact(long time) {
+        if (time - built >= REBUILD_INTERVAL)
+            return false;
+        return boilers.stream().allMatch(SteamPlant::isMember) && turbines.stream().allMatch(SteamPlant::isMember);
+    }
+
+    private static boolean isMember(TileMultiBlock tile) {
+        return !tile.isInvalid() && tile.isValidMaster();
+    }
+
+    private void invalidate() {
+        boilers.forEach(boiler -> boiler.plantLink.release(this));
+        turbines.forEach(turbine -> turbine.plantLink.release(this));
+    }
+
+    private void update(long time) {
+        int ticks = (int) (time - lastStep);
+        if (ticks < RailcraftConfig.steamPlantInterval())
+            return;
+        if (!isIntact(time)) {
+            invalidate();
+            return;
+        }
+        lastStep = time;
+        step(boilers, turbines, ticks);
+    }
+
+    /**
+     * Advances the boilers, moves the steam into the turbines, runs the turbines and moves the water back.
+     */
+    public static void step(List<? extends IBoiler> boilers, List<? extends ITurbine> turbines, int ticks) {
+        for (IBoiler boiler : boilers) {
+            boiler.simulate(ticks);
+        }
+
+        List<StandardTank> steamSources = new ArrayList<>(boilers.size());
+        int[] steam = new int[boilers.size()];
+        for (int i = 0; i < boilers.size(); i++) {
+            SteamBoiler boiler = boilers.get(i).getSteamBoiler();
+            StandardTank tank = boiler.getTankSteam();
+            steamSources.add(tank);
+            // Same rule as the per tick push, a boiling boiler keeps half of its steam as a buffer
+            steam[i] = boiler.isBoiling() ? Math.max(0, tank.getFluidAmount() - tank.getCapacity() / 2) : tank.getFluidAmount();
+        }
+        List<StandardTank> steamSinks = new ArrayList<>(turbines.size());
+        turbines.forEach(turbine -> steamSinks.add(turbine.getSteamTurbine().getTankSteam()));
+        share(steamSources, steam, steamSinks, Fluids.STEAM);
+
+        for (ITurbine turbine : turbines) {
+            turbine.simulate(ticks);
+        }
+
+        List<StandardTank> waterSources = new ArrayList<>(turbines.size());
+        int[] water = new int[turbines.size()];
+        for (int i = 0; i < turbines.size(); i++) {
+            StandardTank tank = turbines.get(i).getSteamTurbine().getTankWater();
+            waterSources.add(tank);
+            water[i] = tank.getFluidAmount();
+        }
+        List<StandardTank> waterSinks = new ArrayList<>(boilers.size());
+        boilers.forEach(boiler -> waterSinks.add(boiler.getSteamBoiler().getTankWater()));
+        share(waterSources, water, waterSinks, Fluids.WATER);
+    }
+
+    /**
+     * Splits the offered fluid evenly between the sinks, any share a sink can't hold is passed on to the others.
+     */
+    private static void share(List<StandardTank> sources, int[] offered, List<StandardTank> sinks, Fluids fluid) {
+        int remaining = Arrays.stream(offered).sum();
+        if (remaining <= 0)
+            return;
+        int total = remaining;
+        boolean[] full = new boolean[sinks.size()];
+        int open = sinks.size();
+        while (remaining > 0 && open > 0) {
+            int portion = Math.max(1, remaining / open);
+            for (int i = 0; i < sinks.size() && remaining > 0; i++) {
+                if (full[i])
+                    continue;
+                int amount = Math.min(portion, remaining);
+                int filled = sinks.get(i).fillInternal(fluid.get(amount), true);
+                remaining -= filled;
+                if (filled < amount) {
+                    full[i] = true;
+                    open--;
+                }
+            }
+        }
+
+        int delivered = total - remaining;
+        for (int i = 0; i < sources.size() && delivered > 0; i++) {
+            int drained = Math.min(offered[i], delivered);
+            if (drained > 0)
+                sources.get(i).drainInternal(drained, true);
+            delivered -= drained;
+        }
+    }
+
+    /**
+     * Held by the master of each Boiler and Steam Turbine, tracks the plant it belongs to.
+     */
+    static final class Link {
+        private @Nullable SteamPlant plant;
+        private long nextSearch;
+
+        /**
+         * Called by the master every tick.
+         *
+         * @return true if the master is simulated by a plant and should skip its own steam processing
+         */
+        boolean update(TileMultiBlock owner) {
+            if (!RailcraftConfig.steamPlantMode()) {
+                if (plant != null)
+                    plant.invalidate();
+                return false;
+            }
+            long time = owner.getWorld().getTotalWorldTime();
+            if (plant == null) {
+                if (time < nextSearch)
+                    return false;
+                nextSearch = time + SEARCH_INTERVAL;
+                SteamPlant built = build(owner);
+                if (built == null)
+                    return false;
+                built.join();
+                if (plant == null)
+                    return false;
+            }
+            plant.update(time);
+            return plant != null;
+        }
+
+        private void release(SteamPlant old) {
+            if (plant == old)
+                plant = null;
+        }
+
+        void reset() {
+            if (plant != null)
+                plant.invalidate();
+            nextSearch = 0;
+        }
+    }
+
+    /**
+     * Held by every block of a member that pushes fluids to its neighbors.
+     *
+     * In a plant the pushes only happen after the plant stepped, each block then catches up on all the ticks
+     * stepped since its own last push, so it doesn't matter whether the block ticks before or after the master.
+     */
+    static final class PushTimer {
+        private long lastPush = Long.MIN_VALUE;
+
+        /**
+         * @return the number of ticks the push should cover, 1 when not in a plant, 0 when the push should be skipped
+         */
+        int getPushTicks(Link link, long time) {
+            SteamPlant plant = link.plant;
+            if (plant == null) {
+                lastPush = time;
+                return 1;
+            }
+            long pushed = Math.max(lastPush, plant.built - 1);
+            if (plant.lastStep <= pushed)
+                return 0;
+            lastPush = plant.lastStep;
+            return (int) (plant.lastStep - pushed);
+        }
+    }
+
+    /**
+     * A boiler as seen by the plant.
+     */
+    public interface IBoiler {
+        SteamBoiler getSteamBoiler();
+
+        void simulate(int ticks);
+    }
+
+    /**
+     * A turbine as seen by the plant.
+     */
+    public interface ITurbine {
+        SteamTurbine getSteamTurbine();
+
+        void simulate(int ticks);
+    }
+}
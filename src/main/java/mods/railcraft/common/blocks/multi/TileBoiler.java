@@ -10,6 +10,7 @@
 package mods.railcraft.common.blocks.multi;
 
 import mods.railcraft.common.blocks.RailcraftBlocks;
+import mods.railcraft.common.fluids.AdjacentFluidCache;
 import mods.railcraft.common.fluids.FluidTools;
 import mods.railcraft.common.fluids.Fluids;
 import mods.railcraft.common.fluids.TankManager;
@@ -30,6 +31,7 @@ import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.FluidUtil;
 import net.minecraftforge.fluids.capability.CapabilityFluidHandler;
+import net.minecraftforge.fluids.capability.IFluidHandler;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
@@ -59,6 +61,7 @@ public abstract class TileBoiler extends TileMultiBlock implements IBoilerContai
     protected final FilteredTank tankWater;
     protected final FilteredTank tankSteam;
     private boolean explode;
+    private final SteamPlant.PushTimer pushTimer = new SteamPlant.PushTimer();
 
     static {
         fireboxBlocks.add(RailcraftBlocks.BOILER_FIREBOX_SOLID.getDefaultState());
@@ -236,8 +239,12 @@ public abstract class TileBoiler extends TileMultiBlock implements IBoilerContai
             if (mBlock != null) {
                 StandardTank tank = mBlock.tankManager.get(TANK_STEAM);
                 FluidStack steam = tank.getFluid();
-                if (steam != null && (!mBlock.boiler.isBoiling() || steam.amount >= tank.getCapacity() / 2))
-                    mBlock.tankManager.push(tileCache, getOutputFilter(), EnumFacing.VALUES, TANK_STEAM, TRANSFER_RATE);
+                int pushTicks = pushTimer.getPushTicks(mBlock.plantLink, world.getTotalWorldTime());
+                if (pushTicks > 0 && steam != null && (!mBlock.boiler.isBoiling() || steam.amount >= tank.getCapacity() / 2)) {
+                    // Each neighbor can take up to the transfer rate, balancing only matters when there isn't enough for all of them
+                    List<IFluidHandler> targets = AdjacentFluidCache.of(tileCache).getHandlers(getOutputFilter(), EnumFacing.VALUES);
+                    mBlock.tankManager.pushBalanced(targets, TANK_STEAM, TRANSFER_RATE * pushTicks * targets.size(), TRANSFER_RATE * pushTicks);
+                }
             }
         }
     }
@@ -45,11 +45,12 @@ import static net.minecraft.util.EnumParticleTypes.SMOKE_NORMAL;
 /**
  * @author CovertJaguar <http://www.railcraft.info>
  */
-public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInventory, ITileLit {
+public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInventory, ITileLit, SteamPlant.IBoiler {
 
     protected static final int SLOT_LIQUID_INPUT = 0;
     protected static final int SLOT_LIQUID_OUTPUT = 1;
     public final SteamBoiler boiler;
+    final SteamPlant.Link plantLink = new SteamPlant.Link();
     private boolean wasLit;
     protected final InventoryAdvanced inventory;
     protected final InventoryMapper invWaterInput = InventoryMapper.make(this, SLOT_LIQUID_INPUT, 1);
@@ -137,7 +138,8 @@ public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInve
         if (isMaster) {
             process();
 
-            boiler.tick(getNumTanks());
+            if (!plantLink.update(this))
+                boiler.tick(getNumTanks());
 
             if (clock % FluidTools.BUCKET_FILL_TIME == 0)
                 processBuckets();
@@ -146,6 +148,22 @@ public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInve
 
     protected abstract void process();
 
+    @Override
+    public SteamBoiler getSteamBoiler() {
+        return boiler;
+    }
+
+    /**
+     * Advances the boiler by several ticks at once, used when the firebox is part of a {@link SteamPlant}.
+     */
+    @Override
+    public void simulate(int ticks) {
+        int numTanks = getNumTanks();
+        for (int i = 0; i < ticks; i++) {
+            boiler.tick(numTanks);
+        }
+    }
+
     protected void processBuckets() {
         FluidTools.drainContainers(tankManager, inventory, SLOT_LIQUID_INPUT, SLOT_LIQUID_OUTPUT);
     }
@@ -165,6 +183,7 @@ public abstract class TileBoilerFirebox extends TileBoiler implements ISidedInve
     private void reset() {
         tankManager.get(TANK_STEAM).setFluid(null);
         boiler.reset();
+        plantLink.reset();
     }
 
     @Override
@@ -25,6 +25,10 @@ import mods.railcraft.common.util.network.PacketDispatcher;
 import mods.railcraft.common.util.network.PacketTileRequest;
 import mods.railcraft.common.util.network.RailcraftInputStream;
 import mods.railcraft.common.util.network.RailcraftOutputStream;
+import mods.railcraft.common.util.profiler.TickProfiler;
+import mods.railcraft.common.util.profiler.TickProfiler.Section;
+import mods.railcraft.common.util.tasks.ScheduledTask;
+import mods.railcraft.common.util.tasks.TileTask;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.EntityLiving;
 import net.minecraft.entity.player.EntityPlayer;
@@ -48,6 +52,7 @@ public abstract class TileMultiBlock extends RailcraftTickingTileEntity implemen
     private static final int UNKNOWN_STATE_RECHECK = 256;
     private static final int NETWORK_RECHECK = 16;
     private final Timer netTimer = new Timer();
+    private final ScheduledTask formationTask = new ScheduledTask(TileTask.FORMATION, UNKNOWN_STATE_RECHECK, this::checkFormation);
     private final List<? extends MultiBlockPattern> patterns;
     private final List<TileMultiBlock> components = new ArrayList<>();
     private final List<TileMultiBlock> componentsView = Collections.unmodifiableList(components);
@@ -147,14 +152,20 @@ public abstract class TileMultiBlock extends RailcraftTickingTileEntity implemen
     public void update() {
         super.update();
         if (Game.isHost(world)) {
-            if (state == MultiBlockState.UNKNOWN && clock % UNKNOWN_STATE_RECHECK == 0)
-                testIfMasterBlock(); //                ClientProxy.getMod().totalMultiBlockUpdates++;
+            if (state == MultiBlockState.UNKNOWN)
+                formationTask.tick(world); //                ClientProxy.getMod().totalMultiBlockUpdates++;
         } else if (requestPacket && netTimer.hasTriggered(world, NETWORK_RECHECK)) {
             PacketDispatcher.sendToServer(new PacketTileRequest(this));
             requestPacket = false;
         }
     }
 
+    private void checkFormation() {
+        long start = TickProfiler.start();
+        testIfMasterBlock();
+        TickProfiler.stop(Section.FORMATION, start, world, pos);
+    }
+
     private void testIfMasterBlock() {
 //        System.out.println("testing structure");
         testPatterns();
@@ -13,6 +13,7 @@ import mods.railcraft.api.charge.IBatteryBlock;
 import mods.railcraft.common.blocks.interfaces.ITileTanks;
 import mods.railcraft.common.blocks.multi.BlockSteamTurbine.Texture;
 import mods.railcraft.common.core.RailcraftConstants;
+import mods.railcraft.common.fluids.AdjacentFluidCache;
 import mods.railcraft.common.fluids.FluidTools;
 import mods.railcraft.common.fluids.Fluids;
 import mods.railcraft.common.fluids.TankManager;
@@ -31,7 +32,10 @@ import mods.railcraft.common.util.inventory.InvTools;
 import mods.railcraft.common.util.inventory.InventoryAdvanced;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.misc.Predicates;
+import mods.railcraft.common.util.network.RailcraftInputStream;
+import mods.railcraft.common.util.network.RailcraftOutputStream;
 import mods.railcraft.common.util.steam.ISteamUser;
+import mods.railcraft.common.util.steam.SteamTurbine;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
@@ -43,10 +47,11 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.energy.CapabilityEnergy;
 import net.minecraftforge.energy.IEnergyStorage;
-import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.CapabilityFluidHandler;
+import net.minecraftforge.fluids.capability.IFluidHandler;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -55,17 +60,14 @@ import java.util.stream.Collectors;
 /**
  * @author CovertJaguar <http://www.railcraft.info>
  */
-public final class TileSteamTurbine extends TileMultiBlockCharge implements IMultiEmitterDelegate, IEnergyStorage, INeedsMaintenance, ISteamUser, ITileTanks {
+public final class TileSteamTurbine extends TileMultiBlockCharge implements IMultiEmitterDelegate, IEnergyStorage, INeedsMaintenance, ISteamUser, ITileTanks, SteamPlant.ITurbine {
 
-    public static final int IC2_OUTPUT = 225;
+    public static final int IC2_OUTPUT = SteamTurbine.IC2_OUTPUT;
     private static final int FE_OUTPUT = 900;
-    private static final int STEAM_USAGE = 360;
-    private static final int WATER_OUTPUT = 4;
+    public static final int WATER_OUTPUT = 4;
     private static final List<MultiBlockPattern> patterns = new ArrayList<>();
 
     private final InventoryAdvanced inv = new InventoryAdvanced(1).callbackTile(this);
-    public float output;
-    private final FluidStack waterFilter = Fluids.WATER.get(2);
     protected final FilteredTank tankSteam = new FilteredTank(FluidTools.BUCKET_VOLUME * 4, this);
     protected final FilteredTank tankWater = new FilteredTank(FluidTools.BUCKET_VOLUME * 4, this);
     protected final TankManager tankManager = new TankManager();
@@ -74,8 +76,10 @@ public final class TileSteamTurbine extends TileMultiBlockCharge implements IMul
     private byte gaugeState;
     // mainGauge is a renderer field 
     public double mainGauge;
-    private double energy;
+    public final SteamTurbine turbine = new SteamTurbine(tankSteam, tankWater).setRotor(this::useRotor);
     private @Nullable TileEntity emitterDelegate;
+    final SteamPlant.Link plantLink = new SteamPlant.Link();
+    private final SteamPlant.PushTimer pushTimer = new SteamPlant.PushTimer();
 
     static {
         char[][][] map1 = {
@@ -155,50 +159,70 @@ public final class TileSteamTurbine extends TileMultiBlockCharge implements IMul
     public void update() {
         super.update();
 
+        int pushTicks = 1;
         if (Game.isHost(world)) {
             if (isValidMaster()) {
                 addToNet();
-                boolean addedEnergy = false;
-                if (energy < IC2_OUTPUT) {
-                    FluidStack steam = tankSteam.drainInternal(STEAM_USAGE, false);
-//                if(steam != null) System.out.println("steam=" + steam.amount);
-                    if (steam != null && steam.amount >= STEAM_USAGE) {
-                        ItemStack rotor = inv.getStackInSlot(0);
-                        if (RailcraftItems.TURBINE_ROTOR.isEqual(rotor) /*&& rotor.getItemDamage() < rotor.getMaxDamage() - 5*/) {
-                            addedEnergy = true;
-                            energy += IC2_OUTPUT;
-                            tankSteam.drainInternal(STEAM_USAGE, true);
-                            tankWater.fillInternal(waterFilter, true);
-
-                            inv.setInventorySlotContents(0, ((ItemTurbineRotor) rotor.getItem()).useRotor(rotor));
-                        }
-                    }
-                }
-
-                output = (float) ((output * 49D + (addedEnergy ? 100D : 0D)) / 50D);
+                if (!plantLink.update(this)) {
+                    turbine.tick();
 
-//                System.out.println("output=" + output);
-//                System.out.println("addedEnergy=" + addedEnergy);
-                if (clock % 4 == 0) {
-                    gaugeState = (byte) getOutput();
-                    WorldPlugin.addBlockEvent(world, getPos(), getBlockType(), 1, gaugeState);
-                }
+                    if (clock % 4 == 0)
+                        updateGauge();
 
-                IBatteryBlock battery = getBattery();
-                if (battery.needsCharging()) {
-                    battery.addCharge(energy);
-                    energy = 0;
+                    IBatteryBlock battery = getBattery();
+                    if (battery.needsCharging())
+                        battery.addCharge(turbine.drainEnergy());
                 }
             } else dropFromNet();
+            TileSteamTurbine mBlock = (TileSteamTurbine) getMasterBlock();
+            if (mBlock != null)
+                pushTicks = pushTimer.getPushTicks(mBlock.plantLink, world.getTotalWorldTime());
         }
 
         TankManager tMan = getTankManager();
-        if (!tMan.isEmpty())
-            tMan.push(tileCache, Predicates.instanceOf(TileBoilerFirebox.class), EnumFacing.HORIZONTALS, TANK_WATER, WATER_OUTPUT);
+        if (pushTicks > 0 && !tMan.isEmpty()) {
+            // Each firebox can take up to the water output, balancing only matters when there isn't enough for all of them
+            List<IFluidHandler> targets = AdjacentFluidCache.of(tileCache).getHandlers(Predicates.instanceOf(TileBoilerFirebox.class), EnumFacing.HORIZONTALS);
+            tMan.pushBalanced(targets, TANK_WATER, WATER_OUTPUT * pushTicks * targets.size(), WATER_OUTPUT * pushTicks);
+        }
 
         EnergyPlugin.pushToTiles(this, FE_OUTPUT);
     }
 
+    private boolean useRotor() {
+        ItemStack rotor = inv.getStackInSlot(0);
+        if (RailcraftItems.TURBINE_ROTOR.isEqual(rotor) /*&& rotor.getItemDamage() < rotor.getMaxDamage() - 5*/) {
+            inv.setInventorySlotContents(0, ((ItemTurbineRotor) rotor.getItem()).useRotor(rotor));
+            return true;
+        }
+        return false;
+    }
+
+    private void updateGauge() {
+        byte state = (byte) getOutput();
+        if (state != gaugeState) {
+            gaugeState = state;
+            WorldPlugin.addBlockEvent(world, getPos(), getBlockType(), 1, gaugeState);
+        }
+    }
+
+    @Override
+    public SteamTurbine getSteamTurbine() {
+        return turbine;
+    }
+
+    /**
+     * Runs several ticks worth of the turbine at once, used when the turbine is part of a {@link SteamPlant}.
+     */
+    @Override
+    public void simulate(int ticks) {
+        IBatteryBlock battery = getBattery();
+        double produced = turbine.simulate(ticks, battery.needsCharging());
+        if (produced > 0)
+            battery.addCharge(produced);
+        updateGauge();
+    }
+
     private void addToNet() {
         if (emitterDelegate == null)
             try {
@@ -232,6 +256,7 @@ public final class TileSteamTurbine extends TileMultiBlockCharge implements IMul
     protected void onMasterReset() {
         super.onMasterReset();
         dropFromNet();
+        plantLink.reset();
     }
 
     @Override
@@ -246,24 +271,22 @@ public final class TileSteamTurbine extends TileMultiBlockCharge implements IMul
 
     public void removeEnergy(double amount) {
         TileSteamTurbine mBlock = (TileSteamTurbine) getMasterBlock();
-        if (mBlock != null) {
-            mBlock.energy -= amount;
-            if (mBlock.energy < 0) mBlock.energy = 0;
-        }
+        if (mBlock != null)
+            mBlock.turbine.removeEnergy(amount);
     }
 
     public double getEnergy() {
         TileSteamTurbine mBlock = (TileSteamTurbine) getMasterBlock();
         if (mBlock == null)
             return 0;
-        return mBlock.energy;
+        return mBlock.turbine.getEnergy();
     }
 
     public float getOutput() {
         TileSteamTurbine mBlock = (TileSteamTurbine) getMasterBlock();
         if (mBlock == null)
             return 0;
-        return mBlock.output;
+        return mBlock.turbine.output;
     }
 
     public float getMainGauge() {
@@ -278,8 +301,8 @@ public final class TileSteamTurbine extends TileMultiBlockCharge implements IMul
         super.writeToNBT(data);
         inv.writeToNBT("rotor", data);
         tankManager.writeTanksToNBT(data);
-        data.setFloat("energy", (float) energy);
-        data.setFloat("output", output);
+        data.setFloat("energy", (float) turbine.getEnergy());
+        data.setFloat("output", turbine.output);
         return data;
     }
 
@@ -288,8 +311,20 @@ public final class TileSteamTurbine extends TileMultiBlockCharge implements IMul
         super.readFromNBT(data);
         inv.readFromNBT("rotor", data);
         tankManager.readTanksFromNBT(data);
-        energy = data.getFloat("energy");
-        output = data.getFloat("output");
+        turbine.setEnergy(data.getFloat("energy"));
+        turbine.output = data.getFloat("output");
+    }
+
+    @Override
+    public void writePacketData(RailcraftOutputStream data) throws IOException {
+        super.writePacketData(data);
+        data.writeByte(gaugeState);
+    }
+
+    @Override
+    public void readPacketData(RailcraftInputStream data) throws IOException {
+        super.readPacketData(data);
+        gaugeState = data.readByte();
     }
 
     @Override
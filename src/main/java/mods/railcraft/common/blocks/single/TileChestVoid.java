@@ -9,24 +9,32 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.blocks.single;
 
+import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.gui.EnumGui;
+import mods.railcraft.common.items.IMagnifiable;
 import mods.railcraft.common.util.chest.ChestLogic;
 import mods.railcraft.common.util.chest.VoidChestLogic;
 import mods.railcraft.common.util.misc.Game;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.EnumHand;
 import org.jetbrains.annotations.Nullable;
 
 /**
  * @author CovertJaguar <http://www.railcraft.info>
  */
-public class TileChestVoid extends TileChestRailcraft {
-
-    private static final int TICK_PER_VOID = 8;
+public class TileChestVoid extends TileChestRailcraft implements IMagnifiable {
 
     @Override
     protected ChestLogic createLogic() {
         return new VoidChestLogic(getWorld(), this);
     }
 
+    private VoidChestLogic getVoidLogic() {
+        return (VoidChestLogic) logic;
+    }
+
     @Nullable
     @Override
     public EnumGui getGui() {
@@ -36,8 +44,35 @@ public class TileChestVoid extends TileChestRailcraft {
     @Override
     public void update() {
         super.update();
-        if (Game.isHost(world) && clock % TICK_PER_VOID == 0) {
+        if (Game.isHost(world) && clock % RailcraftConfig.voidChestInterval() == 0) {
             logic.update();
         }
     }
+
+    @Override
+    public boolean blockActivated(EntityPlayer player, EnumHand hand, EnumFacing side, float hitX, float hitY, float hitZ) {
+        if (getVoidLogic().interact(player, hand)) {
+            markDirty();
+            return true;
+        }
+        return super.blockActivated(player, hand, side, hitX, hitY, hitZ);
+    }
+
+    @Override
+    public void onMagnify(EntityPlayer viewer) {
+        getVoidLogic().sendReport(viewer);
+    }
+
+    @Override
+    public NBTTagCompound writeToNBT(NBTTagCompound data) {
+        super.writeToNBT(data);
+        getVoidLogic().writeToNBT(data);
+        return data;
+    }
+
+    @Override
+    public void readFromNBT(NBTTagCompound data) {
+        super.readFromNBT(data);
+        getVoidLogic().readFromNBT(data);
+    }
 }
@@ -18,6 +18,7 @@ import mods.railcraft.common.blocks.interfaces.ITileRotate;
 import mods.railcraft.common.blocks.tracks.TrackTools;
 import mods.railcraft.common.blocks.tracks.force.BlockTrackForce;
 import mods.railcraft.common.blocks.tracks.force.TileTrackForce;
+import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.items.IMagnifiable;
 import mods.railcraft.common.plugins.color.EnumColor;
 import mods.railcraft.common.plugins.forge.ChatPlugin;
@@ -32,6 +33,7 @@ import net.minecraft.block.BlockRailBase.EnumRailDirection;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.init.Blocks;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
@@ -51,9 +53,16 @@ public class TileForceTrackEmitter extends RailcraftTickingTileEntity implements
     private static final double BASE_DRAW = 22;
     private static final double CHARGE_PER_TRACK = 2;
     private static final int TICKS_PER_ACTION = 2;
-    // TODO the neighbor update from force tracks is probably good enough
+    /**
+     * The last track tells the emitter when the way ahead changes, but with no track out yet
+     * nothing does, so an empty emitter still looks again every so often.
+     */
     static final int TICKS_PER_REFRESH = 64;
-    public static final int MAX_TRACKS = 64;
+    private static final int NORMAL_UPDATE = 3;
+    /**
+     * Sends the change to clients without telling the neighbors, they are told once the whole run is done.
+     */
+    private static final int BATCHED_UPDATE = 2;
     boolean powered;
     EnumFacing facing = EnumFacing.NORTH;
     int numTracks;
@@ -72,7 +81,7 @@ public class TileForceTrackEmitter extends RailcraftTickingTileEntity implements
         EXTENDED(true) {
             @Override
             State afterUseCharge(TileForceTrackEmitter emitter) {
-                return emitter.clock % TICKS_PER_REFRESH == 0 ? EXTENDING : this;
+                return emitter.numTracks == 0 && emitter.clock % TICKS_PER_REFRESH == 0 ? EXTENDING : this;
             }
 
             @Override
@@ -102,21 +111,14 @@ public class TileForceTrackEmitter extends RailcraftTickingTileEntity implements
         EXTENDING(true) {
             @Override
             State afterUseCharge(TileForceTrackEmitter emitter) {
+                if (RailcraftConfig.forceTrackBulk())
+                    return emitter.extendAll();
+                if (emitter.clock % TICKS_PER_ACTION == 0)
+                    return emitter.extend(NORMAL_UPDATE);
                 if (emitter.isOutOfPower())
                     return HALTED;
-                if (emitter.numTracks >= MAX_TRACKS)
+                if (emitter.numTracks >= RailcraftConfig.forceTrackMaxLength())
                     return EXTENDED;
-                if (emitter.clock % TICKS_PER_ACTION == 0) {
-                    BlockPos toPlace = emitter.pos.up().offset(emitter.facing, emitter.numTracks + 1);
-                    if (WorldPlugin.isBlockLoaded(emitter.world, toPlace)) {
-                        IBlockState blockState = WorldPlugin.getBlockState(emitter.world, toPlace);
-                        EnumRailDirection direction = TrackTools.getAxisAlignedDirection(emitter.facing);
-                        if (!emitter.placeTrack(toPlace, blockState, direction))
-                            return EXTENDED;
-                    } else {
-                        return HALTED;
-                    }
-                }
                 return this;
             }
         },
@@ -127,6 +129,10 @@ public class TileForceTrackEmitter extends RailcraftTickingTileEntity implements
             @Override
             State whenNoCharge(TileForceTrackEmitter emitter) {
                 if (emitter.numTracks > 0) {
+                    if (RailcraftConfig.forceTrackBulk()) {
+                        emitter.removeTracks(0);
+                        return RETRACTED;
+                    }
                     if (emitter.clock % TICKS_PER_ACTION == 0) {
                         emitter.removeFirstTrack();
                     }
@@ -226,13 +232,68 @@ public class TileForceTrackEmitter extends RailcraftTickingTileEntity implements
         EffectManager.instance.forceTrackSpawnEffect(world, pos, color.getHexColor());
     }
 
+    BlockPos getTrackPos(int index) {
+        return pos.up().offset(facing, index + 1);
+    }
+
+    /**
+     * Places the next track.
+     *
+     * @param flags the block update flags to place it with
+     * @return the state to be in afterwards
+     */
+    State extend(int flags) {
+        if (isOutOfPower())
+            return State.HALTED;
+        if (numTracks >= RailcraftConfig.forceTrackMaxLength())
+            return State.EXTENDED;
+        BlockPos toPlace = getTrackPos(numTracks);
+        if (!WorldPlugin.isBlockLoaded(world, toPlace))
+            return State.HALTED;
+        IBlockState blockState = WorldPlugin.getBlockState(world, toPlace);
+        EnumRailDirection direction = TrackTools.getAxisAlignedDirection(facing);
+        if (!placeTrack(toPlace, blockState, direction, flags))
+            return State.EXTENDED;
+        return State.EXTENDING;
+    }
+
+    /**
+     * Places as much of the run as is loaded and powered in one go.
+     *
+     * @return the state to be in afterwards
+     */
+    State extendAll() {
+        int first = numTracks;
+        State next;
+        do {
+            next = extend(BATCHED_UPDATE);
+        } while (next == State.EXTENDING);
+        notifyRun(first, numTracks);
+        return next;
+    }
+
+    /**
+     * Tells the neighbors of the tracks from first up to, but not including, last about the change,
+     * once for the whole run instead of after every track.
+     */
+    private void notifyRun(int first, int last) {
+        Block trackForce = TRACK_FORCE.block();
+        if (trackForce == null)
+            return;
+        for (int index = first; index < last; index++) {
+            BlockPos track = getTrackPos(index);
+            if (WorldPlugin.isBlockLoaded(world, track))
+                WorldPlugin.notifyBlocksOfNeighborChange(world, track, trackForce);
+        }
+    }
+
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
-    boolean placeTrack(BlockPos toPlace, IBlockState prevState, EnumRailDirection direction) {
+    boolean placeTrack(BlockPos toPlace, IBlockState prevState, EnumRailDirection direction, int flags) {
         BlockTrackForce trackForce = (BlockTrackForce) TRACK_FORCE.block();
         if (trackForce != null && WorldPlugin.isBlockAir(getWorld(), toPlace, prevState)) {
             spawnParticles(toPlace);
             IBlockState place = trackForce.getDefaultState().withProperty(BlockTrackForce.SHAPE, direction);
-            WorldPlugin.setBlockState(world, toPlace, place);
+            WorldPlugin.setBlockState(world, toPlace, place, flags);
             TileEntity tile = WorldPlugin.getBlockTile(world, toPlace);
             if (tile instanceof TileTrackForce) {
                 TileTrackForce track = (TileTrackForce) tile;
@@ -271,20 +332,34 @@ public class TileForceTrackEmitter extends RailcraftTickingTileEntity implements
     }
 
     void removeFirstTrack() {
-        BlockPos toRemove = pos.up().offset(facing, numTracks);
-        removeTrack(toRemove);
+        removeTrack(NORMAL_UPDATE);
     }
 
-    private void removeTrack(BlockPos toRemove) {
+    /**
+     * Removes the last track, whether or not it's loaded.
+     */
+    private void removeTrack(int flags) {
+        BlockPos toRemove = getTrackPos(numTracks - 1);
         removingTrack = true;
         if (WorldPlugin.isBlockLoaded(world, toRemove) && WorldPlugin.isBlockAt(world, toRemove, TRACK_FORCE.block())) {
             spawnParticles(toRemove);
-            WorldPlugin.setBlockToAir(world, toRemove);
+            WorldPlugin.setBlockState(world, toRemove, Blocks.AIR.getDefaultState(), flags);
         }
         numTracks--;
         removingTrack = false;
     }
 
+    /**
+     * Removes the tracks from lastIndex on in one go.
+     */
+    void removeTracks(int lastIndex) {
+        int last = numTracks;
+        while (numTracks > lastIndex) {
+            removeTrack(BATCHED_UPDATE);
+        }
+        notifyRun(lastIndex, last);
+    }
+
     @Override
     public boolean rotateBlock(EnumFacing axis) {
         if (Game.isClient(world))
@@ -313,23 +388,22 @@ public class TileForceTrackEmitter extends RailcraftTickingTileEntity implements
     }
 
     public void clearTracks(int lastIndex) {
-        if (removingTrack || lastIndex == numTracks) {
+        if (removingTrack || lastIndex >= numTracks) {
             return;
         }
-        BlockPos.PooledMutableBlockPos toRemove = BlockPos.PooledMutableBlockPos.retain();
-        toRemove.setPos(pos);
-        toRemove.move(EnumFacing.UP);
-        toRemove.move(facing, numTracks);
-        while (numTracks > lastIndex) {
-            removeTrack(toRemove);
-            toRemove.move(facing.getOpposite());
-        }
-        toRemove.release();
-        notifyTrackChange();
+        removeTracks(lastIndex);
+        state = State.HALTED;
     }
 
-    public void notifyTrackChange() {
-        state = State.HALTED;
+    /**
+     * Called when something next to a track changed. Only the last track can have had the way ahead
+     * of it cleared, so only it makes the emitter try to extend again.
+     *
+     * @param index the index of the track
+     */
+    public void notifyTrackChange(int index) {
+        if (!removingTrack && index == numTracks - 1 && state == State.EXTENDED)
+            state = State.HALTED;
     }
 
     @Override
@@ -14,9 +14,13 @@ import mods.railcraft.common.blocks.RailcraftTileEntity;
 import mods.railcraft.common.blocks.single.BlockForceTrackEmitter;
 import mods.railcraft.common.blocks.single.TileForceTrackEmitter;
 import mods.railcraft.common.plugins.color.EnumColor;
+import mods.railcraft.common.plugins.forge.WorldPlugin;
 import mods.railcraft.common.util.network.RailcraftInputStream;
 import mods.railcraft.common.util.network.RailcraftOutputStream;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
@@ -37,17 +41,42 @@ public final class TileTrackForce extends RailcraftTileEntity {
     }
 
     void notifyEmitterForBreak() {
+        TileForceTrackEmitter emitter = getEmitter();
         if (emitter != null) {
             emitter.clearTracks(index);
         }
     }
 
     void notifyEmitterForTrackChange() {
+        TileForceTrackEmitter emitter = getEmitter();
         if (emitter != null) {
-            emitter.notifyTrackChange();
+            emitter.notifyTrackChange(index);
         }
     }
 
+    /**
+     * The emitter isn't saved, after a reload the track finds it again from its index.
+     */
+    private @Nullable TileForceTrackEmitter getEmitter() {
+        if (emitter != null && !emitter.isInvalid())
+            return emitter;
+        emitter = null;
+        for (EnumFacing side : EnumFacing.HORIZONTALS) {
+            BlockPos emitterPos = getPos().down().offset(side, index + 1);
+            if (!WorldPlugin.isBlockLoaded(world, emitterPos))
+                continue;
+            TileEntity tile = WorldPlugin.getBlockTile(world, emitterPos);
+            if (tile instanceof TileForceTrackEmitter) {
+                TileForceTrackEmitter candidate = (TileForceTrackEmitter) tile;
+                if (candidate.getFacing() == side.getOpposite() && candidate.getNumberOfTracks() > index) {
+                    emitter = candidate;
+                    break;
+                }
+            }
+        }
+        return emitter;
+    }
+
     public void setEmitter(@Nullable TileForceTrackEmitter emitter) {
         this.emitter = emitter;
         if (emitter != null) {
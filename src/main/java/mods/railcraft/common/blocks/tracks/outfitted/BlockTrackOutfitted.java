@@ -294,10 +294,9 @@ public class BlockTrackOutfitted extends BlockTrackTile<TileTrackOutfitted> impl
         if (Game.isClient(world))
             return;
 
-        TileEntity tile = WorldPlugin.getBlockTile(world, pos);
-        if (tile instanceof TileTrackOutfitted) {
-            ((TileTrackOutfitted) tile).getTrackType().getEventHandler().onEntityCollision(world, pos, state, entity);
-        }
+        TrackBehaviorCache.Behavior track = TrackBehaviorCache.get(world, pos);
+        if (track != null)
+            track.eventHandler.onEntityCollision(world, pos, state, entity);
     }
 
     @Override
@@ -345,32 +344,30 @@ public class BlockTrackOutfitted extends BlockTrackTile<TileTrackOutfitted> impl
 
     @Override
     public void onMinecartPass(World world, EntityMinecart cart, BlockPos pos) {
-        TileEntity tile = WorldPlugin.getBlockTile(world, pos);
-        if (tile instanceof TileTrackOutfitted) {
-            TileTrackOutfitted track = (TileTrackOutfitted) tile;
-            getTrackType(world, pos).getEventHandler().onMinecartPass(world, cart, pos, track.getTrackKitInstance().getTrackKit());
-            track.getTrackKitInstance().onMinecartPass(cart);
+        TrackBehaviorCache.Behavior track = TrackBehaviorCache.get(world, pos);
+        if (track != null) {
+            track.eventHandler.onMinecartPass(world, cart, pos, track.trackKit);
+            track.kitInstance.onMinecartPass(cart);
         }
     }
 
     @Override
     public EnumRailDirection getRailDirection(IBlockAccess world, BlockPos pos, IBlockState state, @Nullable EntityMinecart cart) {
-        TileEntity tile = WorldPlugin.getBlockTile(world, pos);
-        if (tile instanceof TileTrackOutfitted) {
-            TileTrackOutfitted track = (TileTrackOutfitted) tile;
-            EnumRailDirection shape = track.getTrackType().getEventHandler().getRailDirectionOverride(world, pos, state, cart);
+        TrackBehaviorCache.Behavior track = TrackBehaviorCache.get(world, pos);
+        if (track != null) {
+            EnumRailDirection shape = track.eventHandler.getRailDirectionOverride(world, pos, state, cart);
             if (shape != null)
                 return shape;
-            return track.getTrackKitInstance().getRailDirection(state, cart);
+            return track.kitInstance.getRailDirection(state, cart);
         }
         return state.getValue(getShapeProperty());
     }
 
     @Override
     public float getRailMaxSpeed(World world, EntityMinecart cart, BlockPos pos) {
-        TileEntity tile = WorldPlugin.getBlockTile(world, pos);
-        if (tile instanceof TileTrackOutfitted)
-            return ((TileTrackOutfitted) tile).getTrackKitInstance().getRailMaxSpeed(world, cart, pos);
+        TrackBehaviorCache.Behavior track = TrackBehaviorCache.get(world, pos);
+        if (track != null)
+            return track.kitInstance.getRailMaxSpeed(world, cart, pos);
         return 0.4f;
     }
 
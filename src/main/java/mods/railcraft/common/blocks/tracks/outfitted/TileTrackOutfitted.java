@@ -13,6 +13,7 @@ import mods.railcraft.api.tracks.*;
 import mods.railcraft.common.blocks.RailcraftTileEntity;
 import mods.railcraft.common.blocks.tracks.behaivor.TrackTypes;
 import mods.railcraft.common.items.IMagnifiable;
+import mods.railcraft.common.util.entity.EntitySensor;
 import mods.railcraft.common.util.network.IGuiReturnHandler;
 import mods.railcraft.common.util.network.RailcraftInputStream;
 import mods.railcraft.common.util.network.RailcraftOutputStream;
@@ -37,6 +38,7 @@ public class TileTrackOutfitted extends RailcraftTileEntity implements IOutfitte
 
     public void setTrackType(TrackType trackType) {
         this.trackType = trackType;
+        TrackBehaviorCache.invalidate(this);
     }
 
     @Override
@@ -47,6 +49,22 @@ public class TileTrackOutfitted extends RailcraftTileEntity implements IOutfitte
     public void setTrackKitInstance(ITrackKitInstance trackKit) {
         this.trackKitInstance = trackKit;
         trackKitInstance.setTile(this);
+        TrackBehaviorCache.invalidate(this);
+        EntitySensor.release(this);
+    }
+
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        TrackBehaviorCache.invalidate(this);
+        EntitySensor.release(this);
+    }
+
+    @Override
+    public void onChunkUnload() {
+        super.onChunkUnload();
+        TrackBehaviorCache.invalidate(this);
+        EntitySensor.release(this);
     }
 
     @Override
@@ -74,6 +92,7 @@ public class TileTrackOutfitted extends RailcraftTileEntity implements IOutfitte
             trackType = TrackRegistry.TRACK_TYPE.get(data);
         } else
             trackType = TrackTypes.IRON.getTrackType();
+        TrackBehaviorCache.invalidate(this);
 
         if (data.hasKey(TrackKit.NBT_TAG)) {
             TrackKit trackKit = TrackRegistry.TRACK_KIT.get(data);
@@ -99,7 +118,7 @@ public class TileTrackOutfitted extends RailcraftTileEntity implements IOutfitte
         boolean needsUpdate = false;
         TrackType type = TrackRegistry.TRACK_TYPE.get(data.readInt());
         if (trackType != type) {
-            trackType = type;
+            setTrackType(type);
             needsUpdate = true;
         }
         TrackKit kit = TrackRegistry.TRACK_KIT.get(data.readInt());
@@ -0,0 +1,131 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.blocks.tracks.outfitted;
+
+import com.google.common.collect.MapMaker;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import mods.railcraft.api.tracks.ITrackKitInstance;
+import mods.railcraft.api.tracks.TrackKit;
+import mods.railcraft.api.tracks.TrackType;
+import mods.railcraft.common.plugins.forge.WorldPlugin;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Remembers what each outfitted track does, so the cart movement hooks don't have to look up
+ * the tile and walk from it to the track type handler and the kit every time a cart touches the track.
+ *
+ * Entries are kept per world and chunk, keyed by the packed position. A tile drops its entry when
+ * its kit or type changes, when it's removed and when its chunk unloads.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public final class TrackBehaviorCache {
+
+    private static final Map<World, Long2ObjectMap<Long2ObjectMap<Behavior>>> worlds = new MapMaker().weakKeys().makeMap();
+
+    private TrackBehaviorCache() {
+    }
+
+    /**
+     * @return the behavior of the outfitted track at the position, or null if there is no outfitted track there
+     */
+    public static @Nullable Behavior get(IBlockAccess access, BlockPos pos) {
+        if (!(access instanceof World))
+            return resolve(access, pos);
+        World world = (World) access;
+        Long2ObjectMap<Behavior> chunk = chunk(world, pos, false);
+        long key = pos.toLong();
+        Behavior behavior = chunk == null ? null : chunk.get(key);
+        if (behavior != null && !behavior.tile.isInvalid())
+            return behavior;
+        behavior = resolve(world, pos);
+        if (behavior != null) {
+            if (chunk == null)
+                chunk = chunk(world, pos, true);
+            chunk.put(key, behavior);
+        } else if (chunk != null) {
+            chunk.remove(key);
+        }
+        return behavior;
+    }
+
+    static void invalidate(TileTrackOutfitted tile) {
+        World world = tile.getWorld();
+        //noinspection ConstantConditions
+        if (world == null)
+            return;
+        Long2ObjectMap<Long2ObjectMap<Behavior>> chunks = worlds.get(world);
+        if (chunks == null)
+            return;
+        long chunkKey = chunkKey(tile.getPos());
+        Long2ObjectMap<Behavior> chunk = chunks.get(chunkKey);
+        if (chunk == null)
+            return;
+        chunk.remove(tile.getPos().toLong());
+        if (chunk.isEmpty())
+            chunks.remove(chunkKey);
+    }
+
+    private static @Nullable Long2ObjectMap<Behavior> chunk(World world, BlockPos pos, boolean create) {
+        Long2ObjectMap<Long2ObjectMap<Behavior>> chunks = worlds.get(world);
+        if (chunks == null) {
+            if (!create)
+                return null;
+            chunks = new Long2ObjectOpenHashMap<>();
+            worlds.put(world, chunks);
+        }
+        long chunkKey = chunkKey(pos);
+        Long2ObjectMap<Behavior> chunk = chunks.get(chunkKey);
+        if (chunk == null && create) {
+            chunk = new Long2ObjectOpenHashMap<>();
+            chunks.put(chunkKey, chunk);
+        }
+        return chunk;
+    }
+
+    private static long chunkKey(BlockPos pos) {
+        return ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+    }
+
+    private static @Nullable Behavior resolve(IBlockAccess world, BlockPos pos) {
+        TileEntity tile = WorldPlugin.getBlockTile(world, pos);
+        if (tile instanceof TileTrackOutfitted)
+            return new Behavior((TileTrackOutfitted) tile);
+        return null;
+    }
+
+    /**
+     * Everything the cart hooks need from one outfitted track, resolved once.
+     */
+    public static final class Behavior {
+        public final TileTrackOutfitted tile;
+        public final TrackType trackType;
+        public final TrackType.EventHandler eventHandler;
+        public final ITrackKitInstance kitInstance;
+        public final TrackKit trackKit;
+
+        private Behavior(TileTrackOutfitted tile) {
+            this.tile = tile;
+            this.trackType = tile.getTrackType();
+            this.eventHandler = trackType.getEventHandler();
+            this.kitInstance = tile.getTrackKitInstance();
+            this.trackKit = kitInstance.getTrackKit();
+        }
+    }
+}
@@ -9,14 +9,17 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.blocks.tracks.outfitted.kits;
 
+import com.google.common.collect.Iterables;
 import mods.railcraft.api.items.IToolCrowbar;
 import mods.railcraft.common.blocks.tracks.outfitted.TrackKits;
 import mods.railcraft.common.carts.CartTools;
 import mods.railcraft.common.gui.EnumGui;
 import mods.railcraft.common.gui.GuiHandler;
 import mods.railcraft.common.util.effects.EffectManager;
+import mods.railcraft.common.util.entity.EntitySensor;
 import mods.railcraft.common.util.inventory.InvTools;
 import mods.railcraft.common.util.misc.AABBFactory;
+import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.misc.MiscTools;
 import mods.railcraft.common.util.network.IGuiReturnHandler;
 import mods.railcraft.common.util.network.RailcraftInputStream;
@@ -43,7 +46,6 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 public class TrackKitEmbarking extends TrackKitPowered implements IGuiReturnHandler {
@@ -63,6 +65,7 @@ public class TrackKitEmbarking extends TrackKitPowered implements IGuiReturnHand
     }
 
     private byte area = 2;
+    private @Nullable EntitySensor.Region<EntityLivingBase> boardingArea;
 
     @Nullable
     @Override
@@ -87,16 +90,27 @@ public class TrackKitEmbarking extends TrackKitPowered implements IGuiReturnHand
         return false;
     }
 
+    @Override
+    public void setPowered(boolean powered) {
+        super.setPowered(powered);
+        // Unpowered tracks don't board anyone, so let the sensor forget them until they're powered again
+        if (!powered && boardingArea != null) {
+            EntitySensor.release(getTile());
+            boardingArea = null;
+        }
+    }
+
     @Override
     public void onMinecartPass(EntityMinecart cart) {
+        if (Game.isClient(theWorldAsserted()))
+            return;
         if (isPowered() && cart.canBeRidden() && !cart.isBeingRidden() && cart.getEntityData().getInteger("MountPrevention") <= 0) {
-            int a = area;
-            AxisAlignedBB box = AABBFactory.start().createBoxForTileAt(getPos()).build();
-            box = box.grow(a, a, a);
-            List<EntityLivingBase> entities = theWorldAsserted().getEntitiesWithinAABB(EntityLivingBase.class, box);
+            if (boardingArea == null)
+                boardingArea = EntitySensor.register(getTile(), EntityLivingBase.class, getBoardingArea());
+            Set<EntityLivingBase> entities = boardingArea.getEntities();
 
             if (!entities.isEmpty()) {
-                EntityLivingBase entity = entities.get(MiscTools.RANDOM.nextInt(entities.size()));
+                EntityLivingBase entity = Iterables.get(entities, MiscTools.RANDOM.nextInt(entities.size()));
 
                 if (entity instanceof EntityPlayer) {
                     EntityPlayer player = (EntityPlayer) entity;
@@ -170,6 +184,13 @@ public class TrackKitEmbarking extends TrackKitPowered implements IGuiReturnHand
         radius = (byte) Math.max(MIN_AREA, radius);
         radius = (byte) Math.min(MAX_AREA, radius);
         area = radius;
+        if (boardingArea != null)
+            boardingArea.setBox(getBoardingArea());
+    }
+
+    private AxisAlignedBB getBoardingArea() {
+        int a = area;
+        return AABBFactory.start().createBoxForTileAt(getPos()).build().grow(a, a, a);
     }
 
 }
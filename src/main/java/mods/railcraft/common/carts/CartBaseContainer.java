@@ -43,6 +43,8 @@ import net.minecraftforge.items.CapabilityItemHandler;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 /**
@@ -56,6 +58,7 @@ public abstract class CartBaseContainer extends EntityMinecartContainer implemen
     protected @Nullable EnumFacing verticalTravelDirection;
     @SuppressWarnings("CanBeFinal")
     protected List<InventoryMapper> invMappers = new ArrayList<>();
+    private final Collection<Runnable> inventoryListeners = new LinkedHashSet<>();
 
     protected CartBaseContainer(World world) {
         super(world);
@@ -189,6 +192,55 @@ public abstract class CartBaseContainer extends EntityMinecartContainer implemen
         return null;
     }
 
+    /**
+     * Called every time the contents of the inventory may have changed, used by the {@link TrainManifest}.
+     */
+    public final void addInventoryListener(Runnable inventoryListener) {
+        inventoryListeners.add(inventoryListener);
+    }
+
+    public final void removeInventoryListener(Runnable inventoryListener) {
+        inventoryListeners.remove(inventoryListener);
+    }
+
+    private void inventoryChanged() {
+        for (Runnable listener : inventoryListeners) {
+            listener.run();
+        }
+    }
+
+    @Override
+    public void setInventorySlotContents(int index, ItemStack stack) {
+        super.setInventorySlotContents(index, stack);
+        inventoryChanged();
+    }
+
+    @Override
+    public ItemStack decrStackSize(int index, int count) {
+        ItemStack removed = super.decrStackSize(index, count);
+        inventoryChanged();
+        return removed;
+    }
+
+    @Override
+    public ItemStack removeStackFromSlot(int index) {
+        ItemStack removed = super.removeStackFromSlot(index);
+        inventoryChanged();
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        inventoryChanged();
+    }
+
+    @Override
+    public void markDirty() {
+        super.markDirty();
+        inventoryChanged();
+    }
+
     @Override
     public boolean canPassItemRequests(ItemStack stack) {
         return false;
@@ -201,6 +201,10 @@ public final class CartTools {
                 debug.add("  " + uuid);
             }
         });
+        if (cart instanceof EntityTunnelBore) {
+            EntityTunnelBore bore = (EntityTunnelBore) cart;
+            debug.add(String.format("Bore: %.2f blocks/s, %d overflow stacks", bore.getBlocksPerSecond(), bore.getOverflowSize()));
+        }
         return debug;
     }
 
@@ -11,12 +11,17 @@
 package mods.railcraft.common.carts;
 
 import mods.railcraft.common.blocks.RailcraftBlocks;
+import mods.railcraft.common.core.RailcraftConfig;
+import mods.railcraft.common.items.IMagnifiable;
 import mods.railcraft.common.util.chest.ChestLogic;
 import mods.railcraft.common.util.chest.VoidChestLogic;
 import net.minecraft.block.state.IBlockState;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.EnumHand;
 import net.minecraft.world.World;
 
-public class EntityCartChestVoid extends EntityCartChestRailcraft {
+public class EntityCartChestVoid extends EntityCartChestRailcraft implements IMagnifiable {
 
     public EntityCartChestVoid(World world) {
         super(world);
@@ -27,6 +32,32 @@ public class EntityCartChestVoid extends EntityCartChestRailcraft {
         return new VoidChestLogic(world, this);
     }
 
+    private VoidChestLogic getVoidLogic() {
+        return (VoidChestLogic) logic;
+    }
+
+    @Override
+    public boolean doInteract(EntityPlayer player, EnumHand hand) {
+        return getVoidLogic().interact(player, hand) || super.doInteract(player, hand);
+    }
+
+    @Override
+    public void onMagnify(EntityPlayer viewer) {
+        getVoidLogic().sendReport(viewer);
+    }
+
+    @Override
+    protected void writeEntityToNBT(NBTTagCompound data) {
+        super.writeEntityToNBT(data);
+        getVoidLogic().writeToNBT(data);
+    }
+
+    @Override
+    protected void readEntityFromNBT(NBTTagCompound data) {
+        super.readEntityFromNBT(data);
+        getVoidLogic().readFromNBT(data);
+    }
+
     @Override
     public IRailcraftCartContainer getCartType() {
         return RailcraftCarts.CHEST_VOID;
@@ -39,6 +70,6 @@ public class EntityCartChestVoid extends EntityCartChestRailcraft {
 
     @Override
     protected int getTickInterval() {
-        return 8;
+        return RailcraftConfig.voidChestInterval();
     }
 }
@@ -49,6 +49,7 @@ import net.minecraft.init.Items;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
 import net.minecraft.network.datasync.DataParameter;
 import net.minecraft.network.datasync.DataSerializers;
 import net.minecraft.util.*;
@@ -61,12 +62,15 @@ import net.minecraft.world.WorldServer;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.world.BlockEvent;
 import net.minecraftforge.event.world.BlockEvent.BreakEvent;
+import org.apache.commons.lang3.ArrayUtils;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Set;
 import java.util.function.BiFunction;
 
@@ -82,6 +86,9 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
     public static final int BALLAST_DELAY = 10;
     public static final int FUEL_CONSUMPTION = 12;
     public static final float HARDNESS_MULTIPLIER = 8;
+    public static final int MAX_OVERFLOW_STACKS = 27;
+    private static final int OVERFLOW_INTERVAL = 20;
+    private static final int RATE_WINDOW = 200;
     public static final Set<IBlockState> mineableStates = new HashSet<>();
     public static final Set<Block> mineableBlocks = new HashSet<>();
     public static final Set<String> mineableOreTags = new HashSet<>();
@@ -182,6 +189,14 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
     private int clock = MiscTools.RANDOM.nextInt();
     private int burnTime;
     private int fuel;
+    /**
+     * Drops that didn't fit in the train when mining in layer mode, merged into full stacks.
+     * Offered to the train again every second, the bore stops mining while it is full.
+     */
+    private final List<ItemStack> overflow = new ArrayList<>();
+    private int minedInWindow;
+    private long rateStart;
+    private float blocksPerSecond;
     private final boolean hasInit;
     private final EntityTunnelBorePart[] partArray;
 
@@ -275,6 +290,14 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
         return RailcraftCarts.BORE;
     }
 
+    @Override
+    public ItemStack[] getItemsDropped(EntityMinecart cart) {
+        ItemStack[] drops = super.getItemsDropped(cart);
+        if (overflow.isEmpty())
+            return drops;
+        return ArrayUtils.addAll(drops, overflow.toArray(new ItemStack[0]));
+    }
+
     private boolean isMineableBlock(IBlockState blockState) {
         if (RailcraftConfig.boreMinesAllBlocks())
             return true;
@@ -419,6 +442,10 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
         if (Game.isHost(world)) {
 
             updateFuel();
+            updateMiningRate();
+
+            if (clock % OVERFLOW_INTERVAL == 0)
+                flushOverflow();
 //            if(update % 64 == 0){
 //                System.out.println("bore tick");
 //            }
@@ -794,23 +821,98 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
     }
 
     protected boolean boreLayer(BlockPos targetPos, BlockRailBase.EnumRailDirection dir) {
+        if (RailcraftConfig.boreLayerMining())
+            return boreLayerBatched(targetPos, dir);
         return layerAction(targetPos, dir, true, this::mineBlock, (s, r) -> s && r);
     }
 
+    /**
+     * Mines the whole face at once. The events are still fired for each block,
+     * but the blocks are removed in a single batch and the drops are merged before they are stowed.
+     */
+    protected boolean boreLayerBatched(BlockPos targetPos, BlockRailBase.EnumRailDirection dir) {
+        if (overflow.size() >= MAX_OVERFLOW_STACKS)
+            return false;
+
+        List<BlockPos> removals = new ArrayList<>(9);
+        NonNullList<ItemStack> drops = NonNullList.create();
+        boolean cleared = layerAction(targetPos, dir, true, (pos, shape) -> {
+            if (isBlockClear(pos, shape))
+                return true;
+            if (!harvestBlock(pos, drops))
+                return false;
+            removals.add(pos);
+            damageHead();
+            return true;
+        }, (s, r) -> s && r);
+
+        minedInWindow += WorldPlugin.setBlocksToAir(world, removals);
+
+        if (!RailcraftConfig.boreDestroysBlocks() && world.getGameRules().getBoolean("doTileDrops")) {
+            List<ItemStack> merged = new ArrayList<>();
+            drops.forEach(stack -> mergeStack(merged, stack));
+            for (ItemStack stack : merged) {
+                stack = stowDrop(stack);
+                if (!InvTools.isEmpty(stack))
+                    mergeStack(overflow, stack);
+            }
+        }
+        return cleared;
+    }
+
     /**
      * @return true if the target block is clear
      */
     protected boolean mineBlock(BlockPos targetPos, BlockRailBase.EnumRailDirection preferredShape) {
+        if (isBlockClear(targetPos, preferredShape))
+            return true;
+
+        NonNullList<ItemStack> items = NonNullList.create();
+        if (!harvestBlock(targetPos, items))
+            return false;
+
+        if (!RailcraftConfig.boreDestroysBlocks() && world.getGameRules().getBoolean("doTileDrops")) {
+            for (ItemStack stack : items) {
+                stack = stowDrop(stack);
+
+                if (!InvTools.isEmpty(stack)) {
+                    float f = 0.7F;
+                    double xr = (world.rand.nextFloat() - 0.5D) * f;
+                    double yr = (world.rand.nextFloat() - 0.5D) * f;
+                    double zr = (world.rand.nextFloat() - 0.5D) * f;
+                    Vec3d spewPos = getPositionAhead(-3.2);
+                    spewPos.add(xr, 0.3 + yr, zr);
+                    EntityItem entityitem = new EntityItem(world, spewPos.x, spewPos.y, spewPos.z, stack);
+                    world.spawnEntity(entityitem);
+                }
+            }
+        }
+        WorldPlugin.setBlockToAir(world, targetPos);
+        minedInWindow++;
+
+        damageHead();
+        return true;
+    }
+
+    private boolean isBlockClear(BlockPos targetPos, BlockRailBase.EnumRailDirection preferredShape) {
         if (WorldPlugin.isBlockAir(world, targetPos))
             return true;
 
         IBlockState targetState = WorldPlugin.getBlockState(world, targetPos);
         if (TrackTools.isRailBlock(targetState)) {
             BlockRailBase.EnumRailDirection targetShape = TrackTools.getTrackDirection(world, targetPos, targetState, this);
-            if (preferredShape == targetShape)
-                return true;
-        } else if (targetState.getBlock() == Blocks.TORCH)
-            return true;
+            return preferredShape == targetShape;
+        }
+        return targetState.getBlock() == Blocks.TORCH;
+    }
+
+    /**
+     * Fires the break events and collects the drops of the target block, but doesn't remove it.
+     *
+     * @return true if the block may be removed
+     */
+    private boolean harvestBlock(BlockPos targetPos, NonNullList<ItemStack> items) {
+        IBlockState targetState = WorldPlugin.getBlockState(world, targetPos);
 
         ItemStack head = getStackInSlot(0);
         if (InvTools.isEmpty(head))
@@ -828,56 +930,109 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
         // End of Event Fire
 
         boolean silk = EnchantmentHelper.getEnchantmentLevel(Enchantments.SILK_TOUCH, head) > 0;
-        NonNullList<ItemStack> items = NonNullList.create();
+        NonNullList<ItemStack> blockDrops = NonNullList.create();
         int fortuneLevel = EnchantmentHelper.getEnchantmentLevel(Enchantments.FORTUNE, head);
 
         if (silk) {
             ItemStack stack = HarvestPlugin.getSilkTouchDrop(targetState);
             if (!InvTools.isEmpty(stack)) {
-                items.add(stack);
+                blockDrops.add(stack);
             }
             // Use modifiable lists for events
         } else {
-            targetState.getBlock().getDrops(items, world, targetPos, targetState, fortuneLevel);
+            targetState.getBlock().getDrops(blockDrops, world, targetPos, targetState, fortuneLevel);
         }
 
         // Start of Event Fire
-        BlockEvent.HarvestDropsEvent harvestDropsEvent = new BlockEvent.HarvestDropsEvent(world, targetPos, targetState, fortuneLevel, 1F, items, CartTools.getCartOwnerEntity(this), silk);
+        BlockEvent.HarvestDropsEvent harvestDropsEvent = new BlockEvent.HarvestDropsEvent(world, targetPos, targetState, fortuneLevel, 1F, blockDrops, CartTools.getCartOwnerEntity(this), silk);
         MinecraftForge.EVENT_BUS.post(harvestDropsEvent);
 
         if (harvestDropsEvent.isCanceled())
             return false;
         // End of Event Fire
 
-        if (!RailcraftConfig.boreDestroysBlocks() && world.getGameRules().getBoolean("doTileDrops")) {
-            for (ItemStack stack : items) {
-                if (StandardStackFilters.FUEL.test(stack))
-                    stack = invFuel.addStack(stack);
+        items.addAll(blockDrops);
+        return true;
+    }
 
-                if (!InvTools.isEmpty(stack) && InvTools.isStackEqualToBlock(stack, Blocks.GRAVEL))
-                    stack = invBallast.addStack(stack);
+    private void damageHead() {
+        ItemStack head = getStackInSlot(0);
+        head.damageItem(1, CartTools.getCartOwnerEntity(this));
+        if (head.getItemDamage() > head.getMaxDamage())
+            setInventorySlotContents(0, ItemStack.EMPTY);
+    }
 
-                if (!InvTools.isEmpty(stack))
-                    stack = CartToolsAPI.transferHelper().pushStack(this, stack);
+    /**
+     * Puts a drop in the fuel or ballast slots if it fits there, otherwise offers it to the train.
+     *
+     * @return the remainder
+     */
+    private ItemStack stowDrop(ItemStack stack) {
+        if (StandardStackFilters.FUEL.test(stack))
+            stack = invFuel.addStack(stack);
 
-                if (!InvTools.isEmpty(stack)) {
-                    float f = 0.7F;
-                    double xr = (world.rand.nextFloat() - 0.5D) * f;
-                    double yr = (world.rand.nextFloat() - 0.5D) * f;
-                    double zr = (world.rand.nextFloat() - 0.5D) * f;
-                    Vec3d spewPos = getPositionAhead(-3.2);
-                    spewPos.add(xr, 0.3 + yr, zr);
-                    EntityItem entityitem = new EntityItem(world, spewPos.x, spewPos.y, spewPos.z, stack);
-                    world.spawnEntity(entityitem);
-                }
+        if (!InvTools.isEmpty(stack) && InvTools.isStackEqualToBlock(stack, Blocks.GRAVEL))
+            stack = invBallast.addStack(stack);
+
+        if (!InvTools.isEmpty(stack))
+            stack = CartToolsAPI.transferHelper().pushStack(this, stack);
+        return stack;
+    }
+
+    /**
+     * Adds the stack to the list, topping up partial stacks of the same item before starting new ones.
+     */
+    private static void mergeStack(List<ItemStack> stacks, ItemStack stack) {
+        stack = stack.copy();
+        for (ItemStack target : stacks) {
+            if (InvTools.isEmpty(stack))
+                return;
+            if (!InvTools.isItemEqual(target, stack))
+                continue;
+            int moved = Math.min(target.getMaxStackSize() - InvTools.sizeOf(target), InvTools.sizeOf(stack));
+            if (moved > 0) {
+                InvTools.incSize(target, moved);
+                InvTools.decSize(stack, moved);
             }
         }
-        WorldPlugin.setBlockToAir(world, targetPos);
+        while (!InvTools.isEmpty(stack)) {
+            int size = Math.min(stack.getMaxStackSize(), InvTools.sizeOf(stack));
+            stacks.add(InvTools.copy(stack, size));
+            InvTools.decSize(stack, size);
+        }
+    }
 
-        head.damageItem(1, CartTools.getCartOwnerEntity(this));
-        if (head.getItemDamage() > head.getMaxDamage())
-            setInventorySlotContents(0, ItemStack.EMPTY);
-        return true;
+    private void flushOverflow() {
+        if (overflow.isEmpty())
+            return;
+        ListIterator<ItemStack> it = overflow.listIterator();
+        while (it.hasNext()) {
+            ItemStack stack = stowDrop(it.next());
+            if (InvTools.isEmpty(stack))
+                it.remove();
+            else
+                it.set(stack);
+        }
+    }
+
+    private void updateMiningRate() {
+        long time = world.getTotalWorldTime();
+        if (time - rateStart >= RATE_WINDOW) {
+            blocksPerSecond = time > rateStart ? minedInWindow * 20F / (time - rateStart) : 0F;
+            minedInWindow = 0;
+            rateStart = time;
+        }
+    }
+
+    /**
+     * @return the average mining rate over the last ten seconds
+     */
+    public float getBlocksPerSecond() {
+        return blocksPerSecond;
+    }
+
+    public int getOverflowSize() {
+        return overflow.size();
     }
 
     @SuppressWarnings({"SimplifiableIfStatement", "BooleanMethodIsAlwaysInverted"})
@@ -957,6 +1112,13 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
         data.setBoolean("active", isActive());
         data.setInteger("burnTime", getBurnTime());
         data.setInteger("fuel", fuel);
+        NBTTagList overflowList = new NBTTagList();
+        for (ItemStack stack : overflow) {
+            NBTTagCompound itemTag = new NBTTagCompound();
+            InvTools.writeItemToNBT(stack, itemTag);
+            overflowList.appendTag(itemTag);
+        }
+        data.setTag("overflow", overflowList);
     }
 
     @Override
@@ -967,6 +1129,13 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
         setActive(data.getBoolean("active"));
         setBurnTime(data.getInteger("burnTime"));
         setFuel(data.getInteger("fuel"));
+        overflow.clear();
+        NBTTagList overflowList = data.getTagList("overflow", 10);
+        for (int i = 0; i < overflowList.tagCount(); i++) {
+            ItemStack stack = InvTools.readItemFromNBT(overflowList.getCompoundTagAt(i));
+            if (!InvTools.isEmpty(stack))
+                overflow.add(stack);
+        }
     }
 
     protected int getDelay() {
@@ -1101,6 +1270,7 @@ public class EntityTunnelBore extends CartBaseContainer implements ILinkableCart
 
     @Override
     public void markDirty() {
+        super.markDirty();
         if (!isActive())
             setDelay(STANDARD_DELAY);
     }
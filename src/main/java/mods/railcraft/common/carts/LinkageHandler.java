@@ -16,6 +16,8 @@ import mods.railcraft.common.modules.ModuleLocomotives;
 import mods.railcraft.common.modules.RailcraftModuleManager;
 import mods.railcraft.common.util.collections.Streams;
 import mods.railcraft.common.util.misc.Vec2D;
+import mods.railcraft.common.util.profiler.TickProfiler;
+import mods.railcraft.common.util.profiler.TickProfiler.Section;
 import net.minecraft.entity.item.EntityMinecart;
 import net.minecraftforge.event.entity.EntityEvent;
 import net.minecraftforge.event.entity.minecart.MinecartUpdateEvent;
@@ -53,7 +55,7 @@ public final class LinkageHandler {
      * @param cart2 EntityMinecart
      * @return The optimal distance
      */
-    private float getOptimalDistance(EntityMinecart cart1, EntityMinecart cart2) {
+    public float getOptimalDistance(EntityMinecart cart1, EntityMinecart cart2) {
         float dist = 0;
         if (cart1 instanceof ILinkableCart)
             dist += ((ILinkableCart) cart1).getOptimalDistance(cart2);
@@ -329,10 +331,13 @@ public final class LinkageHandler {
     @SubscribeEvent
     public void onMinecartUpdate(MinecartUpdateEvent event) {
         EntityMinecart cart = event.getMinecart();
+        long start = TickProfiler.start();
 
         // Physics done here
         adjustCart(cart);
 
+        TickProfiler.stop(Section.LINKAGE, start, cart.world, event.getPos());
+
 //        savePosition(cart);
     }
 
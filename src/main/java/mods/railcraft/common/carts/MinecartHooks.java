@@ -24,6 +24,8 @@ import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.misc.MathTools;
 import mods.railcraft.common.util.misc.MiscTools;
 import mods.railcraft.common.util.misc.Vec2D;
+import mods.railcraft.common.util.profiler.TickProfiler;
+import mods.railcraft.common.util.profiler.TickProfiler.Section;
 import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
@@ -255,6 +257,7 @@ public enum MinecartHooks implements IMinecartCollisionHandler, IWorldEventListe
     @SubscribeEvent
     public void onMinecartUpdate(MinecartUpdateEvent event) {
         EntityMinecart cart = event.getMinecart();
+        long start = TickProfiler.start();
         NBTTagCompound data = cart.getEntityData();
 
         // Fix flip
@@ -338,6 +341,7 @@ public enum MinecartHooks implements IMinecartCollisionHandler, IWorldEventListe
 //                cart.applyEntityCollision(entity);
 //            }
 //        }
+        TickProfiler.stop(Section.MINECART_HOOKS, start, cart.world, event.getPos());
     }
 
     @SuppressWarnings("unused")
@@ -20,6 +20,8 @@ import mods.railcraft.common.plugins.forge.NBTPlugin;
 import mods.railcraft.common.util.collections.Streams;
 import mods.railcraft.common.util.misc.Capabilities;
 import mods.railcraft.common.util.misc.Game;
+import mods.railcraft.common.util.profiler.TickProfiler;
+import mods.railcraft.common.util.profiler.TickProfiler.Section;
 import net.minecraft.entity.item.EntityMinecart;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
@@ -57,6 +59,7 @@ public final class Train implements Iterable<EntityMinecart> {
     private State state;
     private boolean dirty = true;
     private boolean isDead;
+    private @Nullable TrainManifest manifest;
 
     Train(EntityMinecart cart) {
         this(UUID.randomUUID(),
@@ -87,13 +90,21 @@ public final class Train implements Iterable<EntityMinecart> {
         return new Object() {
             @SubscribeEvent
             public void tick(TickEvent.WorldTickEvent event) {
-                if (event.side == Side.SERVER && event.phase == TickEvent.Phase.END) {
-                    getManager(event.world).ifPresent(Manager::tick);
-                }
+                if (event.side == Side.SERVER && event.phase == TickEvent.Phase.END)
+                    tickTrains(event.world);
             }
         };
     }
 
+    /**
+     * Ticks the trains of a world, the ticker does this at the end of every server world tick.
+     */
+    public static void tickTrains(World world) {
+        long start = TickProfiler.start();
+        getManager(world).ifPresent(Manager::tick);
+        TickProfiler.stop(Section.TRAINS, start, world);
+    }
+
     public static Train forServer(EntityMinecart cart) {
         return get(cart).orElseThrow(ClientAccessException::new);
     }
@@ -197,6 +208,7 @@ public final class Train implements Iterable<EntityMinecart> {
     public void rebuild(EntityMinecart first) {
         forEach(Train::removeTrainTag);
         carts.clear();
+        releaseManifest();
         rebuild(null, first);
         markDirty();
     }
@@ -255,6 +267,7 @@ public final class Train implements Iterable<EntityMinecart> {
     private void clear() {
         forEach(Train::removeTrainTag);
         carts.clear();
+        releaseManifest();
         locks.clear();
         markDirty();
     }
@@ -335,6 +348,21 @@ public final class Train implements Iterable<EntityMinecart> {
         return Optional.of(new FluidHandlerConcatenate(cartHandlers));
     }
 
+    /**
+     * The manifest isn't saved, it is rebuilt from the carts when the train is rebuilt or loaded.
+     */
+    TrainManifest getManifest() {
+        if (manifest == null)
+            manifest = new TrainManifest(this, true);
+        return manifest;
+    }
+
+    private void releaseManifest() {
+        if (manifest != null)
+            manifest.release();
+        manifest = null;
+    }
+
     public int size() {
         return carts.size();
     }
@@ -0,0 +1,260 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.carts;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import mods.railcraft.common.fluids.FluidTools;
+import mods.railcraft.common.util.collections.StackKey;
+import mods.railcraft.common.util.inventory.InvTools;
+import mods.railcraft.common.util.inventory.wrappers.InventoryComposite;
+import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.EnumFacing;
+import net.minecraftforge.fluids.Fluid;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+import net.minecraftforge.fluids.capability.IFluidTankProperties;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Keeps track of the items and fluids carried by a train, so the {@link TrainTransferHelper}
+ * doesn't have to scan every slot of every cart for each item it moves.
+ *
+ * The item counts of the whole train are kept in one index, which answers which items the train carries
+ * and how many without visiting the carts. Each cart also keeps its own counts, so the helper can tell
+ * which cart to take an item from.
+ *
+ * A listening manifest registers with Railcraft carts through {@link CartBaseContainer#addInventoryListener(Runnable)},
+ * their counts are only rebuilt after they told us about a change. The listeners must be dropped with
+ * {@link #release()} once the manifest is no longer used. Other carts, all fluid tanks and every cart in a
+ * throwaway manifest that doesn't listen are rebuilt at most once per tick.
+ * Transfers made by the helper itself update the counts in place.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+final class TrainManifest {
+
+    private final Map<UUID, CartEntry> carts = new HashMap<>();
+    private final Object2IntOpenHashMap<StackKey> items = new Object2IntOpenHashMap<>();
+    private final Set<CartEntry> changed = new LinkedHashSet<>();
+    private final List<CartEntry> polled = new ArrayList<>();
+    private final boolean listening;
+    private long polledTick = Long.MIN_VALUE;
+
+    /**
+     * @param listening false for short lived manifests, which poll every cart instead of registering listeners
+     */
+    TrainManifest(Iterable<EntityMinecart> carts, boolean listening) {
+        this.listening = listening;
+        carts.forEach(this::get);
+    }
+
+    /**
+     * Carts not seen before are added to the manifest.
+     */
+    CartEntry get(EntityMinecart cart) {
+        CartEntry entry = carts.get(cart.getPersistentID());
+        if (entry == null || entry.cart != cart) {
+            if (entry != null)
+                remove(entry);
+            entry = new CartEntry(cart);
+            carts.put(cart.getPersistentID(), entry);
+            if (listening && cart instanceof CartBaseContainer) {
+                CartEntry listened = entry;
+                entry.listener = () -> {
+                    if (!listened.updating)
+                        changed.add(listened);
+                };
+                ((CartBaseContainer) cart).addInventoryListener(entry.listener);
+            } else {
+                polled.add(entry);
+            }
+            changed.add(entry);
+        }
+        return entry;
+    }
+
+    private void remove(CartEntry entry) {
+        entry.clearItems();
+        entry.release();
+        changed.remove(entry);
+        polled.remove(entry);
+    }
+
+    /**
+     * Removes the listeners this manifest registered with its carts.
+     */
+    void release() {
+        carts.values().forEach(CartEntry::release);
+    }
+
+    /**
+     * Brings the counts of the carts that changed up to date.
+     */
+    private void refresh() {
+        if (!polled.isEmpty()) {
+            long tick = polled.get(0).cart.world.getTotalWorldTime();
+            if (polledTick != tick) {
+                polledTick = tick;
+                changed.addAll(polled);
+            }
+        }
+        if (changed.isEmpty())
+            return;
+        for (CartEntry entry : changed) {
+            entry.scanItems();
+        }
+        changed.clear();
+    }
+
+    /**
+     * @return the item types carried by the train that pass the filter
+     */
+    List<StackKey> find(Predicate<ItemStack> filter) {
+        refresh();
+        List<StackKey> found = new ArrayList<>();
+        for (StackKey key : items.keySet()) {
+            if (filter.test(key.get()))
+                found.add(key);
+        }
+        return found;
+    }
+
+    /**
+     * @return the number of items of that type carried by the train
+     */
+    int count(StackKey key) {
+        refresh();
+        return items.getInt(key);
+    }
+
+    private static void addTo(Object2IntMap<StackKey> counts, StackKey key, int delta) {
+        int count = counts.getInt(key) + delta;
+        if (count <= 0)
+            counts.removeInt(key);
+        else
+            counts.put(key, count);
+    }
+
+    final class CartEntry {
+        final EntityMinecart cart;
+        final InventoryComposite inv;
+        final int slotCount;
+        final @Nullable IFluidHandler fluidUp;
+        final @Nullable IFluidHandler fluidDown;
+        final @Nullable IFluidHandler fluidAny;
+        private final Object2IntOpenHashMap<StackKey> cartItems = new Object2IntOpenHashMap<>();
+        private final Map<Fluid, Integer> fluids = new HashMap<>();
+        private @Nullable Runnable listener;
+        private boolean updating;
+        private long fluidTick = Long.MIN_VALUE;
+
+        private CartEntry(EntityMinecart cart) {
+            this.cart = cart;
+            this.inv = InventoryComposite.of(cart);
+            this.slotCount = inv.slotCount();
+            this.fluidUp = FluidTools.getFluidHandler(EnumFacing.UP, cart);
+            this.fluidDown = FluidTools.getFluidHandler(EnumFacing.DOWN, cart);
+            this.fluidAny = FluidTools.getFluidHandler(null, cart);
+        }
+
+        private void release() {
+            if (listener != null)
+                ((CartBaseContainer) cart).removeInventoryListener(listener);
+            listener = null;
+        }
+
+        private void clearItems() {
+            for (Object2IntMap.Entry<StackKey> item : cartItems.object2IntEntrySet()) {
+                addTo(items, item.getKey(), -item.getIntValue());
+            }
+            cartItems.clear();
+        }
+
+        private void scanItems() {
+            clearItems();
+            inv.streamStacks().forEach(stack -> adjust(StackKey.make(stack), InvTools.sizeOf(stack)));
+        }
+
+        private void adjust(StackKey key, int delta) {
+            if (delta == 0)
+                return;
+            addTo(cartItems, key, delta);
+            addTo(items, key, delta);
+        }
+
+        boolean hasInventory() {
+            return !inv.isEmpty();
+        }
+
+        /**
+         * @return the number of items of that type in this cart
+         */
+        int count(StackKey key) {
+            refresh();
+            return cartItems.getInt(key);
+        }
+
+        ItemStack addStack(ItemStack stack) {
+            refresh();
+            StackKey key = StackKey.make(stack);
+            int before = InvTools.sizeOf(stack);
+            updating = true;
+            ItemStack remainder = inv.addStack(stack);
+            updating = false;
+            adjust(key, before - InvTools.sizeOf(remainder));
+            return remainder;
+        }
+
+        ItemStack removeOne(StackKey key) {
+            refresh();
+            updating = true;
+            ItemStack removed = inv.removeOneItem(key.get());
+            updating = false;
+            if (InvTools.isEmpty(removed)) {
+                // Someone changed the inventory behind our back
+                changed.add(this);
+            } else {
+                adjust(key, -InvTools.sizeOf(removed));
+            }
+            return removed;
+        }
+
+        private void refreshFluids() {
+            long tick = cart.world.getTotalWorldTime();
+            if (fluidTick == tick)
+                return;
+            fluidTick = tick;
+            fluids.clear();
+            if (fluidAny == null)
+                return;
+            for (IFluidTankProperties tank : fluidAny.getTankProperties()) {
+                FluidStack contents = tank.getContents();
+                if (contents != null && contents.amount > 0)
+                    fluids.merge(contents.getFluid(), contents.amount, Integer::sum);
+            }
+        }
+
+        int getFluidAmount(FluidStack fluid) {
+            refreshFluids();
+            return fluids.getOrDefault(fluid.getFluid(), 0);
+        }
+
+        void adjustFluid(FluidStack fluid, int delta) {
+            if (fluidTick == cart.world.getTotalWorldTime())
+                fluids.merge(fluid.getFluid(), delta, Integer::sum);
+        }
+    }
+}
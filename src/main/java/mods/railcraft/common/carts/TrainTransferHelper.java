@@ -9,6 +9,7 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.carts;
 
+import com.google.common.collect.Iterables;
 import mods.railcraft.api.carts.IFluidCart;
 import mods.railcraft.api.carts.IItemCart;
 import mods.railcraft.api.carts.ITrainTransferHelper;
@@ -17,16 +18,15 @@ import mods.railcraft.common.fluids.FluidTools;
 import mods.railcraft.common.fluids.Fluids;
 import mods.railcraft.common.util.collections.StackKey;
 import mods.railcraft.common.util.inventory.InvTools;
-import mods.railcraft.common.util.inventory.filters.StackFilters;
-import mods.railcraft.common.util.inventory.wrappers.InventoryComposite;
 import net.minecraft.entity.item.EntityMinecart;
 import net.minecraft.item.ItemStack;
-import net.minecraft.util.EnumFacing;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.IFluidHandler;
 import net.minecraftforge.items.IItemHandlerModifiable;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -57,23 +57,24 @@ public enum TrainTransferHelper implements ITrainTransferHelper {
     // ***************************************************************************************************************************
     @Override
     public ItemStack pushStack(EntityMinecart requester, ItemStack stack) {
+        TrainManifest manifest = getManifest(requester);
         Iterable<EntityMinecart> carts = LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_A);
-        stack = _pushStack(requester, carts, stack);
+        stack = _pushStack(requester, manifest, carts, stack);
         if (InvTools.isEmpty(stack))
             return InvTools.emptyStack();
         if (LinkageManager.INSTANCE.hasLink(requester, LinkageManager.LinkType.LINK_B)) {
             carts = LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_B);
-            stack = _pushStack(requester, carts, stack);
+            stack = _pushStack(requester, manifest, carts, stack);
         }
         return stack;
     }
 
-    private ItemStack _pushStack(EntityMinecart requester, Iterable<EntityMinecart> carts, ItemStack stack) {
+    private ItemStack _pushStack(EntityMinecart requester, TrainManifest manifest, Iterable<EntityMinecart> carts, ItemStack stack) {
         for (EntityMinecart cart : carts) {
-            InventoryComposite inv = InventoryComposite.of(cart);
-            if (!inv.isEmpty() && canAcceptPushedItem(requester, cart, stack))
-                stack = inv.addStack(stack);
-            if (InvTools.isEmpty(stack) || blocksItemRequests(cart, stack))
+            TrainManifest.CartEntry entry = manifest.get(cart);
+            if (entry.hasInventory() && canAcceptPushedItem(requester, cart, stack))
+                stack = entry.addStack(stack);
+            if (InvTools.isEmpty(stack) || blocksItemRequests(entry, stack))
                 break;
         }
         return stack;
@@ -81,57 +82,50 @@ public enum TrainTransferHelper implements ITrainTransferHelper {
 
     @Override
     public ItemStack pullStack(EntityMinecart requester, Predicate<ItemStack> filter) {
+        TrainManifest manifest = getManifest(requester);
         Iterable<EntityMinecart> carts = LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_A);
-        ItemStack stack = _pullStack(requester, carts, filter);
+        ItemStack stack = _pullStack(requester, manifest, carts, filter);
         if (!InvTools.isEmpty(stack))
             return stack;
         carts = LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_B);
-        return _pullStack(requester, carts, filter);
+        return _pullStack(requester, manifest, carts, filter);
     }
 
-    private ItemStack _pullStack(EntityMinecart requester, Iterable<EntityMinecart> carts, Predicate<ItemStack> filter) {
-        ItemStack result = ItemStack.EMPTY;
-        EntityMinecart upTo = null;
-        InventoryComposite targetInv = null;
+    /**
+     * Takes the item from the nearest cart that has a match, as long as none of the carts in between block it.
+     */
+    private ItemStack _pullStack(EntityMinecart requester, TrainManifest manifest, Iterable<EntityMinecart> carts, Predicate<ItemStack> filter) {
+        List<StackKey> wanted = manifest.find(filter);
+        if (wanted.isEmpty())
+            return ItemStack.EMPTY;
+        Set<StackKey> blocked = new HashSet<>();
         for (EntityMinecart cart : carts) {
-            InventoryComposite inv = InventoryComposite.of(cart);
-            if (!inv.isEmpty()) {
-                Set<StackKey> items = inv.findAll(filter);
-                for (StackKey stackKey : items) {
-                    ItemStack stack = stackKey.get();
-                    if (canProvidePulledItem(requester, cart, stack)) {
-                        ItemStack toRemove = inv.findOne(StackFilters.of(stack));
-                        if (!InvTools.isEmpty(toRemove)) {
-                            result = toRemove;
-                            upTo = cart;
-                            targetInv = inv;
-                            break;
-                        }
+            TrainManifest.CartEntry entry = manifest.get(cart);
+            if (entry.hasInventory()) {
+                for (StackKey key : wanted) {
+                    if (!blocked.contains(key) && entry.count(key) > 0 && canProvidePulledItem(requester, cart, key.get())) {
+                        ItemStack removed = entry.removeOne(key);
+                        if (!InvTools.isEmpty(removed))
+                            return removed;
                     }
                 }
             }
-        }
-
-        if (result.isEmpty()) {
-            return ItemStack.EMPTY;
-        }
-
-        for (EntityMinecart cart : carts) {
-            if (cart == upTo) {
-                break;
-            }
-            if (blocksItemRequests(cart, result)) {
-                return ItemStack.EMPTY;
+            for (StackKey key : wanted) {
+                if (!blocked.contains(key) && blocksItemRequests(entry, key.get()))
+                    blocked.add(key);
             }
+            if (blocked.size() == wanted.size())
+                break;
         }
-
-        if (targetInv != null) {
-            return targetInv.removeOneItem(result);
-        }
-
         return ItemStack.EMPTY;
     }
 
+    private TrainManifest getManifest(EntityMinecart requester) {
+        return Train.get(requester).map(Train::getManifest).orElseGet(() -> new TrainManifest(Iterables.concat(
+                LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_A),
+                LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_B)), false));
+    }
+
     private boolean canAcceptPushedItem(EntityMinecart requester, EntityMinecart cart, ItemStack stack) {
         return !(cart instanceof IItemCart) || ((IItemCart) cart).canAcceptPushedItem(requester, stack);
     }
@@ -140,10 +134,10 @@ public enum TrainTransferHelper implements ITrainTransferHelper {
         return !(cart instanceof IItemCart) || ((IItemCart) cart).canProvidePulledItem(requester, stack);
     }
 
-    private boolean blocksItemRequests(EntityMinecart cart, ItemStack stack) {
-        if (cart instanceof IItemCart)
-            return !((IItemCart) cart).canPassItemRequests(stack);
-        return InventoryComposite.of(cart).slotCount() < NUM_SLOTS;
+    private boolean blocksItemRequests(TrainManifest.CartEntry entry, ItemStack stack) {
+        if (entry.cart instanceof IItemCart)
+            return !((IItemCart) entry.cart).canPassItemRequests(stack);
+        return entry.slotCount < NUM_SLOTS;
     }
 
     @Override
@@ -156,25 +150,27 @@ public enum TrainTransferHelper implements ITrainTransferHelper {
     // ***************************************************************************************************************************
     @Override
     public FluidStack pushFluid(EntityMinecart requester, FluidStack fluidStack) {
+        TrainManifest manifest = getManifest(requester);
         Iterable<EntityMinecart> carts = LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_A);
-        fluidStack = _pushFluid(requester, carts, fluidStack);
+        fluidStack = _pushFluid(requester, manifest, carts, fluidStack);
         if (fluidStack == null)
             return null;
         if (LinkageManager.INSTANCE.hasLink(requester, LinkageManager.LinkType.LINK_B)) {
             carts = LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_B);
-            fluidStack = _pushFluid(requester, carts, fluidStack);
+            fluidStack = _pushFluid(requester, manifest, carts, fluidStack);
         }
         return fluidStack;
     }
 
-    private @Nullable FluidStack _pushFluid(EntityMinecart requester, Iterable<EntityMinecart> carts, FluidStack fluidStack) {
+    private @Nullable FluidStack _pushFluid(EntityMinecart requester, TrainManifest manifest, Iterable<EntityMinecart> carts, FluidStack fluidStack) {
         for (EntityMinecart cart : carts) {
-            if (canAcceptPushedFluid(requester, cart, fluidStack)) {
-                IFluidHandler fluidHandler = FluidTools.getFluidHandler(EnumFacing.UP, cart);
-                if (fluidHandler != null)
-                    fluidStack.amount -= fluidHandler.fill(fluidStack, true);
+            TrainManifest.CartEntry entry = manifest.get(cart);
+            if (entry.fluidUp != null && canAcceptPushedFluid(requester, cart, entry.fluidUp, fluidStack)) {
+                int filled = entry.fluidUp.fill(fluidStack, true);
+                fluidStack.amount -= filled;
+                entry.adjustFluid(fluidStack, filled);
             }
-            if (fluidStack.amount <= 0 || blocksFluidRequests(cart, fluidStack))
+            if (fluidStack.amount <= 0 || blocksFluidRequests(entry, fluidStack))
                 break;
         }
         if (fluidStack.amount <= 0)
@@ -187,56 +183,51 @@ public enum TrainTransferHelper implements ITrainTransferHelper {
         if (fluidStack == null) {
             return null;
         }
+        TrainManifest manifest = getManifest(requester);
         Iterable<EntityMinecart> carts = LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_A);
-        FluidStack pulled = _pullFluid(requester, carts, fluidStack);
+        FluidStack pulled = _pullFluid(requester, manifest, carts, fluidStack);
         if (pulled != null)
             return pulled;
         carts = LinkageManager.INSTANCE.linkIterator(requester, LinkageManager.LinkType.LINK_B);
-        return _pullFluid(requester, carts, fluidStack);
+        return _pullFluid(requester, manifest, carts, fluidStack);
     }
 
-    private @Nullable FluidStack _pullFluid(EntityMinecart requester, Iterable<EntityMinecart> carts, FluidStack fluidStack) {
+    private @Nullable FluidStack _pullFluid(EntityMinecart requester, TrainManifest manifest, Iterable<EntityMinecart> carts, FluidStack fluidStack) {
         for (EntityMinecart cart : carts) {
-            if (canProvidePulledFluid(requester, cart, fluidStack)) {
-                IFluidHandler fluidHandler = FluidTools.getFluidHandler(EnumFacing.DOWN, cart);
-                if (fluidHandler != null) {
-                    FluidStack drained = fluidHandler.drain(fluidStack, true);
-                    if (drained != null)
-                        return drained;
+            TrainManifest.CartEntry entry = manifest.get(cart);
+            if (entry.fluidDown != null && entry.getFluidAmount(fluidStack) > 0
+                    && canProvidePulledFluid(requester, cart, entry.fluidDown, fluidStack)) {
+                FluidStack drained = entry.fluidDown.drain(fluidStack, true);
+                if (drained != null) {
+                    entry.adjustFluid(drained, -drained.amount);
+                    return drained;
                 }
             }
 
-            if (blocksFluidRequests(cart, fluidStack))
+            if (blocksFluidRequests(entry, fluidStack))
                 break;
         }
         return null;
     }
 
-    private boolean canAcceptPushedFluid(EntityMinecart requester, EntityMinecart cart, FluidStack fluid) {
-        IFluidHandler fluidHandler = FluidTools.getFluidHandler(EnumFacing.UP, cart);
-        if (fluidHandler == null)
-            return false;
+    private boolean canAcceptPushedFluid(EntityMinecart requester, EntityMinecart cart, IFluidHandler fluidHandler, FluidStack fluid) {
         if (cart instanceof IFluidCart)
             return ((IFluidCart) cart).canAcceptPushedFluid(requester, fluid);
         AdvancedFluidHandler advancedFluidHandler = new AdvancedFluidHandler(fluidHandler);
         return advancedFluidHandler.canPutFluid(new FluidStack(fluid, 1));
     }
 
-    private boolean canProvidePulledFluid(EntityMinecart requester, EntityMinecart cart, FluidStack fluid) {
-        IFluidHandler fluidHandler = FluidTools.getFluidHandler(EnumFacing.DOWN, cart);
-        if (fluidHandler == null)
-            return false;
+    private boolean canProvidePulledFluid(EntityMinecart requester, EntityMinecart cart, IFluidHandler fluidHandler, FluidStack fluid) {
         if (cart instanceof IFluidCart)
             return ((IFluidCart) cart).canProvidePulledFluid(requester, fluid);
         return !Fluids.isEmpty(fluidHandler.drain(new FluidStack(fluid, 1), false));
     }
 
-    private boolean blocksFluidRequests(EntityMinecart cart, FluidStack fluid) {
-        if (cart instanceof IFluidCart)
-            return !((IFluidCart) cart).canPassFluidRequests(fluid);
-        IFluidHandler fluidHandler = FluidTools.getFluidHandler(null, cart);
-        if (fluidHandler != null) {
-            return !hasMatchingTank(fluidHandler, fluid);
+    private boolean blocksFluidRequests(TrainManifest.CartEntry entry, FluidStack fluid) {
+        if (entry.cart instanceof IFluidCart)
+            return !((IFluidCart) entry.cart).canPassFluidRequests(fluid);
+        if (entry.fluidAny != null) {
+            return !hasMatchingTank(entry.fluidAny, fluid);
         }
         return true;
     }
@@ -8,11 +8,16 @@
  */
 package mods.railcraft.common.commands;
 
+import mods.railcraft.common.worldgen.RetrogenManager;
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
 import net.minecraft.command.ICommandSender;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityMinecart;
 import net.minecraft.entity.passive.EntityAnimal;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 
 /**
  * Commands for testing, because it was too much effort to find another mod that did them.
@@ -23,6 +28,7 @@ public class CommandAdmin extends SubCommand {
     public CommandAdmin() {
         super("admin");
         addChildCommand(new CommandAdminKill());
+        addChildCommand(new CommandAdminRetrogen());
         setPermLevel(PermLevel.ADMIN);
     }
 
@@ -60,6 +66,64 @@ public class CommandAdmin extends SubCommand {
         }
     }
 
+    private static class CommandAdminRetrogen extends SubCommand {
+        private CommandAdminRetrogen() {
+            super("retrogen");
+            addChildCommand(new CommandAdminRetrogenRegion());
+            addChildCommand(new CommandAdminRetrogenCancel());
+            setPermLevel(PermLevel.ADMIN);
+        }
+
+        @Override
+        public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+            if (args.length != 0)
+                CommandHelpers.throwWrongUsage(sender, this);
+            World world = CommandHelpers.getWorld(sender);
+            CommandHelpers.sendLocalizedChatMessage(sender, "command.railcraft.railcraft.admin.retrogen.pending", RetrogenManager.INSTANCE.getPendingCount(world));
+            for (RetrogenManager.RegionJob job : RetrogenManager.INSTANCE.getJobs(world)) {
+                CommandHelpers.sendLocalizedChatMessage(sender, "command.railcraft.railcraft.admin.retrogen.progress",
+                        job.getProgress(), job.getTotal(), job.getProgress() * 100 / job.getTotal(), job.getGenerated());
+            }
+        }
+    }
+
+    private static class CommandAdminRetrogenRegion extends SubCommand {
+        private CommandAdminRetrogenRegion() {
+            super("region");
+            setPermLevel(PermLevel.ADMIN);
+        }
+
+        /**
+         * Expects two corners in block coordinates: x1 z1 x2 z2
+         */
+        @Override
+        public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+            if (args.length != 4)
+                CommandHelpers.throwWrongUsage(sender, this);
+            World world = CommandHelpers.getWorld(sender);
+            if (!(world instanceof WorldServer))
+                CommandHelpers.throwWrongUsage(sender, this);
+            int x1 = CommandBase.parseInt(args[0]) >> 4;
+            int z1 = CommandBase.parseInt(args[1]) >> 4;
+            int x2 = CommandBase.parseInt(args[2]) >> 4;
+            int z2 = CommandBase.parseInt(args[3]) >> 4;
+            RetrogenManager.RegionJob job = RetrogenManager.INSTANCE.queueRegion((WorldServer) world, sender, x1, z1, x2, z2);
+            CommandHelpers.sendLocalizedChatMessage(sender, "command.railcraft.railcraft.admin.retrogen.region.queued", job.getTotal());
+        }
+    }
+
+    private static class CommandAdminRetrogenCancel extends SubCommand {
+        private CommandAdminRetrogenCancel() {
+            super("cancel");
+            setPermLevel(PermLevel.ADMIN);
+        }
+
+        @Override
+        public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) {
+            RetrogenManager.INSTANCE.cancelRegions(CommandHelpers.getWorld(sender));
+        }
+    }
+
     private static void kill(ICommandSender sender, Class<? extends Entity> entityClass) {
         sender.getEntityWorld()
                 .loadedEntityList
@@ -9,6 +9,7 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.commands;
 
+import mods.railcraft.api.charge.Charge;
 import mods.railcraft.api.signals.*;
 import mods.railcraft.common.blocks.RailcraftTileEntity;
 import mods.railcraft.common.blocks.machine.wayobjects.boxes.TileBoxBase;
@@ -17,8 +18,14 @@ import mods.railcraft.common.carts.Train;
 import mods.railcraft.common.items.ItemMagnifyingGlass;
 import mods.railcraft.common.plugins.forge.ChatPlugin;
 import mods.railcraft.common.plugins.forge.WorldPlugin;
+import mods.railcraft.common.util.charge.ChargeHistory;
+import mods.railcraft.common.util.charge.ChargeNetwork;
+import mods.railcraft.common.util.effects.EffectBatcher;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.misc.MiscTools;
+import mods.railcraft.common.util.profiler.TickProfiler;
+import mods.railcraft.common.util.tasks.TileTask;
+import mods.railcraft.common.util.tasks.TileTaskScheduler;
 import net.minecraft.block.Block;
 import net.minecraft.command.CommandException;
 import net.minecraft.command.ICommandSender;
@@ -39,8 +46,16 @@ import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.MessageFactory;
 import org.apache.logging.log4j.message.MessageFormatMessageFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Commands for assisting with debug operations.
@@ -56,6 +71,10 @@ public class CommandDebug extends SubCommand {
         addChildCommand(new CommandDebugTile());
         addChildCommand(new CommandTrain());
         addChildCommand(new CommandCartNumber());
+        addChildCommand(new CommandDebugCharge());
+        addChildCommand(new CommandDebugEffects());
+        addChildCommand(new CommandDebugTasks());
+        addChildCommand(new CommandDebugProfile());
     }
 
     static void printLine(ICommandSender sender, String msg, Object... args) {
@@ -223,6 +242,241 @@ public class CommandDebug extends SubCommand {
         }
     }
 
+    public static class CommandDebugCharge extends SubCommand {
+        private static final int LINES = 10;
+
+        public CommandDebugCharge() {
+            super("charge");
+            addChildCommand(new CommandDebugChargeExport());
+        }
+
+        @Override
+        public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+            ArgDeque argsQueue = ArgDeque.make(args);
+            BlockPos pos = CommandHelpers.parseBlockPos(sender, argsQueue);
+            ChargeHistory.Resolution res = ChargeHistory.Resolution.SECOND;
+            if (!argsQueue.isEmpty()) {
+                try {
+                    res = ChargeHistory.Resolution.valueOf(argsQueue.poll().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException ex) {
+                    CommandHelpers.throwWrongUsage(sender, this);
+                }
+            }
+
+            World world = CommandHelpers.getWorld(sender);
+            ChargeNetwork.ChargeGrid grid = ((ChargeNetwork) Charge.distribution.network(world)).grid(pos);
+            if (grid.isNull())
+                throw new BlockNotFoundException();
+            printLine(sender, "{0}: charge={1}/{2}, losses={3}/t, usage={4}/t", grid, grid.getCharge(), grid.getCapacity(), grid.getLosses(), grid.getAverageUsagePerTick());
+            grid.getHistory().ifPresent(history -> printHistory(sender, history, res));
+            ChargeNetwork.ChargeNode node = ((ChargeNetwork) Charge.distribution.network(world)).access(pos);
+            node.getHistory().ifPresent(history -> {
+                printLine(sender, "{0}:", node);
+                printHistory(sender, history, res);
+            });
+        }
+
+        private void printHistory(ICommandSender sender, ChargeHistory history, ChargeHistory.Resolution res) {
+            int size = Math.min(LINES, history.size(res));
+            for (int age = 0; age < size; age++) {
+                printLine(sender, "-{0}s: charge={1}, draw={2}/t, losses={3}/t", (long) (age + 1) * res.ticks / 20,
+                        history.get(res, ChargeHistory.Metric.CHARGE, age),
+                        history.get(res, ChargeHistory.Metric.DRAW, age),
+                        history.get(res, ChargeHistory.Metric.LOSSES, age));
+            }
+        }
+    }
+
+    public static class CommandDebugChargeExport extends SubCommand {
+        public CommandDebugChargeExport() {
+            super("export");
+            setPermLevel(PermLevel.ADMIN);
+        }
+
+        @Override
+        public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+            if (args.length != 0)
+                CommandHelpers.throwWrongUsage(sender, this);
+
+            World world = CommandHelpers.getWorld(sender);
+            ChargeNetwork network = (ChargeNetwork) Charge.distribution.network(world);
+            File file = new File(world.getSaveHandler().getWorldDirectory(), "railcraft/charge_history_dim" + world.provider.getDimension() + ".csv");
+            int count = 0;
+            try {
+                Files.createDirectories(file.getParentFile().toPath());
+                try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                    out.append("source,resolution,age_seconds,charge,draw,losses\n");
+                    for (ChargeNetwork.ChargeGrid grid : network.getGrids()) {
+                        Optional<ChargeHistory> history = grid.getHistory();
+                        if (!history.isPresent())
+                            continue;
+                        BlockPos pos = grid.stream().filter(n -> n.getBattery().isPresent())
+                                .map(ChargeNetwork.ChargeNode::getPos).findFirst().orElse(BlockPos.ORIGIN);
+                        writeHistory(out, "grid@" + label(pos), history.get());
+                        for (ChargeNetwork.ChargeNode node : grid) {
+                            if (node.getHistory().isPresent())
+                                writeHistory(out, "node@" + label(node.getPos()), node.getHistory().get());
+                        }
+                        count++;
+                    }
+                }
+            } catch (IOException ex) {
+                Game.log(Level.ERROR, "Failed to write charge history to {0}: {1}", file, ex);
+                throw new CommandException("commands.generic.exception");
+            }
+            printLine(sender, "Wrote the history of {0} grids to {1}", count, file);
+        }
+
+        private static String label(BlockPos pos) {
+            return pos.getX() + ";" + pos.getY() + ";" + pos.getZ();
+        }
+
+        private static void writeHistory(Writer out, String label, ChargeHistory history) throws IOException {
+            for (ChargeHistory.Resolution res : ChargeHistory.Resolution.values()) {
+                history.writeCSV(out, label, res);
+            }
+        }
+    }
+
+    public static class CommandDebugEffects extends SubCommand {
+        public CommandDebugEffects() {
+            super("effects");
+            addChildCommand(new Reset());
+        }
+
+        @Override
+        public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+            if (args.length != 0)
+                CommandHelpers.throwWrongUsage(sender, this);
+
+            EffectBatcher.Stats stats = EffectBatcher.INSTANCE.getStats();
+            printLine(sender, "Effects: queued={0}, merged={1}, culled={2}", stats.getQueued(), stats.getMerged(), stats.getCulled());
+            printLine(sender, "Packets: sent={0}, saved={1}", stats.getPackets(), stats.getPacketsSaved());
+            printLine(sender, "Bytes: sent={0}, saved={1}", stats.getBytesSent(), stats.getBytesSaved());
+        }
+
+        static final class Reset extends SubCommand {
+            Reset() {
+                super("reset");
+                setPermLevel(PermLevel.ADMIN);
+            }
+
+            @Override
+            public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+                if (args.length != 0)
+                    CommandHelpers.throwWrongUsage(sender, this);
+
+                EffectBatcher.INSTANCE.getStats().reset();
+            }
+        }
+    }
+
+    public static class CommandDebugTasks extends SubCommand {
+        public CommandDebugTasks() {
+            super("tasks");
+            addChildCommand(new Reset());
+        }
+
+        @Override
+        public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+            if (args.length != 0)
+                CommandHelpers.throwWrongUsage(sender, this);
+
+            TileTaskScheduler scheduler = TileTaskScheduler.INSTANCE;
+            printLine(sender, "Tile tasks over {0} ticks:", scheduler.getTicks());
+            for (TileTask task : TileTask.VALUES) {
+                printLine(sender, "{0}: {1} ms/t, runs={2}, deferred={3}", task.getName(),
+                        String.format(Locale.ROOT, "%.3f", scheduler.getAverageTime(task)), scheduler.getRuns(task), scheduler.getDeferrals(task));
+            }
+        }
+
+        static final class Reset extends SubCommand {
+            Reset() {
+                super("reset");
+                setPermLevel(PermLevel.ADMIN);
+            }
+
+            @Override
+            public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+                if (args.length != 0)
+                    CommandHelpers.throwWrongUsage(sender, this);
+
+                TileTaskScheduler.INSTANCE.reset();
+            }
+        }
+    }
+
+    public static class CommandDebugProfile extends SubCommand {
+        private static final int TOP = 5;
+
+        public CommandDebugProfile() {
+            super("profile");
+            addChildCommand(new Toggle("start", true));
+            addChildCommand(new Toggle("stop", false));
+            addChildCommand(new Reset());
+        }
+
+        @Override
+        public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+            if (args.length != 0)
+                CommandHelpers.throwWrongUsage(sender, this);
+
+            double seconds = TickProfiler.getElapsed() / 1e9;
+            printLine(sender, "Profiler {0}, {1}s of samples", TickProfiler.isEnabled() ? "running" : "stopped", String.format(Locale.ROOT, "%.1f", seconds));
+            for (TickProfiler.Section section : TickProfiler.Section.VALUES) {
+                TickProfiler.Histogram histogram = TickProfiler.getHistogram(section);
+                long count = histogram.getCount();
+                if (count == 0)
+                    continue;
+                printLine(sender, "{0}: {1} ms/s, samples={2}, mean={3}us, p50<{4}us, p99<{5}us, max={6}us", section.getName(),
+                        String.format(Locale.ROOT, "%.3f", seconds > 0 ? histogram.getTotal() / 1e6 / seconds : 0.0), count,
+                        histogram.getTotal() / count / 1000, histogram.getPercentile(0.5) / 1000,
+                        histogram.getPercentile(0.99) / 1000, histogram.getMax() / 1000);
+                for (Map.Entry<Integer, Long> dim : TickProfiler.getTopDimensions(section, TOP)) {
+                    printLine(sender, "  dim {0}: {1} ms", dim.getKey(), dim.getValue() / 1000000);
+                }
+            }
+            printLine(sender, "Most expensive chunks:");
+            for (Map.Entry<String, Long> chunk : TickProfiler.getTopChunks(TOP)) {
+                printLine(sender, "  {0}: {1} ms", chunk.getKey(), chunk.getValue() / 1000000);
+            }
+        }
+
+        static final class Toggle extends SubCommand {
+            private final boolean enable;
+
+            Toggle(String name, boolean enable) {
+                super(name);
+                this.enable = enable;
+                setPermLevel(PermLevel.ADMIN);
+            }
+
+            @Override
+            public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+                if (args.length != 0)
+                    CommandHelpers.throwWrongUsage(sender, this);
+
+                TickProfiler.setEnabled(enable);
+                printLine(sender, "Profiler {0}", enable ? "started" : "stopped");
+            }
+        }
+
+        static final class Reset extends SubCommand {
+            Reset() {
+                super("reset");
+                setPermLevel(PermLevel.ADMIN);
+            }
+
+            @Override
+            public void executeSubCommand(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+                if (args.length != 0)
+                    CommandHelpers.throwWrongUsage(sender, this);
+
+                TickProfiler.reset();
+            }
+        }
+    }
+
     public static class CommandDebugTileController extends SubCommand {
         public CommandDebugTileController() {
             super("controller");
@@ -19,6 +19,8 @@ import mods.railcraft.common.items.Metal;
 import mods.railcraft.common.modules.RailcraftModuleManager;
 import mods.railcraft.common.plugins.forge.CraftingPlugin;
 import mods.railcraft.common.plugins.forge.DataManagerPlugin;
+import mods.railcraft.common.plugins.forge.FuelPlugin;
+import mods.railcraft.common.plugins.forge.OreDictPlugin;
 import mods.railcraft.common.util.misc.BallastRegistry;
 import mods.railcraft.common.util.misc.BlinkTick;
 import mods.railcraft.common.util.misc.Game;
@@ -185,6 +187,18 @@ public final class Railcraft {
         RailcraftConfig.postInit();
     }
 
+    @Mod.EventHandler
+    public void loadComplete(FMLLoadCompleteEvent event) {
+        FuelPlugin.invalidateCache();
+        OreDictPlugin.rebuildCache();
+    }
+
+    @Mod.EventHandler
+    public void idMapping(FMLModIdMappingEvent event) {
+        // The ore table is keyed by item ids, which change here without any ore being registered
+        OreDictPlugin.invalidateCache();
+    }
+
     @Mod.EventHandler
     public void serverStarting(FMLServerStartingEvent event) {
         CommandHandler commandManager = (CommandHandler) event.getServer().getCommandManager();
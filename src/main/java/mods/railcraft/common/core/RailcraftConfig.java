@@ -25,6 +25,7 @@ import mods.railcraft.common.util.collections.ItemMap;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.misc.MiscTools;
 import mods.railcraft.common.util.steam.SteamConstants;
+import mods.railcraft.common.util.tasks.TileTask;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityList;
 import net.minecraft.util.ResourceLocation;
@@ -78,6 +79,7 @@ public class RailcraftConfig {
     private static float maxHighSpeed = 1.1f;
     private static boolean boreDestroysBlocks;
     private static boolean boreMinesAllBlocks;
+    private static boolean boreLayerMining;
     private static boolean locomotiveDamageMobs;
     private static boolean printLinkingDebug;
     private static boolean printWorldspikeDebug;
@@ -103,6 +105,8 @@ public class RailcraftConfig {
     private static int minecartTankFillRate = 32;
     private static int launchRailMaxForce;
     private static int cartDispenserDelay;
+    private static boolean trainDispenserAssemble;
+    private static int gaugeSyncInterval = 1;
     private static int minecartStackSize;
     private static int maxTankSize;
     private static int locomotiveHorsepower;
@@ -111,13 +115,27 @@ public class RailcraftConfig {
     private static int villagerID;
     private static String[] enchantments;
     private static int vanillaOreGenChance = 100;
+    private static int retrogenTickBudget = 5;
     private static int locomotiveLightLevel;
+    private static int particleBudget;
+    private static int particleDetailDistance;
     private static float boreMiningSpeedMultiplier = 1F;
     private static float chargeLossMultiplier = 1F;
     private static float boilerMultiplierFuel = 1F;
     private static float boilerMultiplierBiofuel = 1F;
     private static float fuelPerSteamMultiplier = SteamConstants.FUEL_PER_BOILER_CYCLE;
     private static float steamLocomotiveEfficiencyMultiplier = 3F;
+    private static boolean steamPlantMode;
+    private static int steamPlantInterval = 10;
+    private static boolean tileTaskScheduling;
+    private static final int[] tileTaskBudgets = new int[TileTask.VALUES.length];
+    private static int tileTaskTickLimit;
+    private static int logbookRetentionDays;
+    private static int forceTrackMaxLength;
+    private static boolean forceTrackBulk;
+    private static int voidChestItemsPerOperation;
+    private static int voidChestInterval;
+    private static int metalsChestItemsPerOperation;
     private static boolean allowTankStacking;
     public static Configuration configMain;
     public static Configuration configBlocks;
@@ -206,6 +224,8 @@ public class RailcraftConfig {
         enableGhostTrain = get(configClient, "client", "enableGhostTrain", true, "change to '{t}=false' to disable Ghost Train rendering");
         enablePolarExpress = get(configClient, "client", "enablePolarExpress", true, "change to '{t}=false' to disable Polar Express (snow) rendering");
         locomotiveLightLevel = get(configClient, "client", "locomotiveLightLevel", 0, 14, 15, "change '14' to a number ranging from '0' to '15' to represent the dynamic lighting of the locomotive when Dynamic Lights mod is present.\nIf it is '0' then locomotive lightning will be disabled.");
+        particleBudget = get(configClient, "client", "particleBudget", 16, 256, 4096, "change '256' to the maximum number of Railcraft particles spawned per tick, nearby sources take priority, min=16, default=256, max=4096");
+        particleDetailDistance = get(configClient, "client", "particleDetailDistance", 8, 24, 128, "change '24' to the distance in blocks beyond which Railcraft particle sources start spawning fewer particles, min=8, default=24, max=128");
     }
 
     private static void loadEnchantment() {
@@ -245,6 +265,7 @@ public class RailcraftConfig {
 
     private static void loadBlockTweaks() {
         cartDispenserDelay = get(CAT_TWEAKS_BLOCKS + ".cartdispenser", "delay", 0, 0, Integer.MAX_VALUE, "set the minimum number of seconds between cart dispensing, default=0");
+        trainDispenserAssemble = get(CAT_TWEAKS_BLOCKS + ".traindispenser", "assemble", true, "change to '{t}=false' to have Train Dispensers place one cart at a time instead of checking the track and placing the whole train at once");
 
         maxTankSize = get(CAT_TWEAKS_BLOCKS + ".irontank", "maxsize", 3, 9, 9, "Allows you to set the max Iron Tank base dimension, valid values are 3, 5, 7, and 9");
 
@@ -258,7 +279,29 @@ public class RailcraftConfig {
         boilerMultiplierFuel = get(CAT_TWEAKS_BLOCKS + ".boiler", "fuelMultiplier", 0.2F, 1.0F, 10F, "adjust the heat value of Fuel in a Boiler, min=0.2, default=1.0, max=10.0");
         boilerMultiplierBiofuel = get(CAT_TWEAKS_BLOCKS + ".boiler", "biofuelMultiplier", 0.2F, 1.0F, 10F, "adjust the heat value of BioFuel in a Boiler, min=0.2, default=1.0, max=10.0");
 
+        gaugeSyncInterval = get(CAT_TWEAKS_BLOCKS + ".gui", "gauge.sync.interval", 1, 1, 20, "the number of ticks between updates of fluid gauges and meters in open GUIs, larger values save bandwidth on busy servers, min=1, default=1, max=20");
+
         fuelPerSteamMultiplier = get(CAT_TWEAKS + ".steam", "fuelPerSteamMultiplier", 0.2F, 1.0F, 6.0F, "adjust the amount of fuel used to create Steam, min=0.2, default=1.0, max=6.0");
+        steamPlantMode = get(CAT_TWEAKS + ".steam", "plant", false, "change to '{t}=true' to simulate Boilers and Steam Turbines connected by pipes as a single plant, steam and water are moved between them directly, saves cpu power on large power stations");
+        steamPlantInterval = get(CAT_TWEAKS + ".steam", "plant.interval", 1, 10, 10, "the number of ticks simulated at once by a steam plant, larger values save more cpu power, min=1, default=10, max=10");
+
+        tileTaskScheduling = get(CAT_TWEAKS_BLOCKS + ".tasks", "scheduling", true, "change to '{t}=false' to always run periodic tile work on time, even when the server is falling behind");
+        for (TileTask task : TileTask.VALUES) {
+            tileTaskBudgets[task.ordinal()] = get(CAT_TWEAKS_BLOCKS + ".tasks", "budget." + task.getName(), 100, task.getDefaultBudget(), 50000,
+                    "the time in microseconds tiles may spend on " + task.getName() + " work each tick" + (task.isDeferrable() ? " before the rest is deferred" : ", only used for reporting since this work is never deferred") + ", min=100, default=" + task.getDefaultBudget() + ", max=50000");
+        }
+        tileTaskTickLimit = get(CAT_TWEAKS_BLOCKS + ".tasks", "tick.limit", 10, 40, 1000, "the length of a server tick in milliseconds after which deferrable tile work waits for the next tick, min=10, default=40, max=1000");
+
+        logbookRetentionDays = get(CAT_TWEAKS_BLOCKS + ".logbook", "retention", 1, 30, 365, "the number of days Logbooks list visitors by name, older days are only kept as weekly and monthly visit counts, min=1, default=30, max=365");
+
+        forceTrackMaxLength = get(CAT_TWEAKS_BLOCKS + ".forcetrack", "max.length", 1, 64, 256, "the maximum number of tracks a Force Track Emitter projects, each one adds to its charge draw, min=1, default=64, max=256");
+        forceTrackBulk = get(CAT_TWEAKS_BLOCKS + ".forcetrack", "bulk", true, "change to '{t}=false' to have Force Track Emitters build and clear their tracks one at a time instead of all at once");
+
+        voidChestItemsPerOperation = get(CAT_TWEAKS_BLOCKS + ".voidchest", "items.per.operation", 1, 1, 64, "the number of items Void Chests and Void Chest Carts destroy each time, min=1, default=1, max=64");
+        float voidChestRate = get(CAT_TWEAKS_BLOCKS + ".voidchest", "operations.per.second", 0.05F, 2.5F, 20F, "how many times a second Void Chests and Void Chest Carts destroy items, min=0.05, default=2.5, max=20.0");
+        voidChestInterval = Math.max(1, Math.round(20F / voidChestRate));
+
+        metalsChestItemsPerOperation = get(CAT_TWEAKS_BLOCKS + ".metalschest", "items.per.operation", 9, 576, 3456, "the number of items Metals Chests and Metals Chest Carts may convert each time, nine nuggets or ingots make one condensing, min=9, default=576, max=3456");
     }
 
     private static void loadItemTweaks() {
@@ -301,6 +344,7 @@ public class RailcraftConfig {
         boreDestroysBlocks = get(CAT_TWEAKS_CARTS + ".bore", "destroyBlocks", false, "change to '{t}=true' to cause the Bore to destroy the blocks it mines instead of dropping them");
         boreMinesAllBlocks = get(CAT_TWEAKS_CARTS + ".bore", "mineAllBlocks", true, "change to '{t}=false' to enable mining checks, use true setting with caution, especially on servers");
         boreMiningSpeedMultiplier = get(CAT_TWEAKS_CARTS + ".bore", "miningSpeed", 0.1f, 1.0f, 50.0f, "adjust the speed at which the Bore mines blocks, min=0.1, default=1.0, max=50.0");
+        boreLayerMining = get(CAT_TWEAKS_CARTS + ".bore", "layerMining", false, "change to '{t}=true' to have the Bore remove each layer in one batch, drops that don't fit in the train are held in the Bore instead of being spilled on the ground");
 
         steamLocomotiveEfficiencyMultiplier = get(CAT_TWEAKS_CARTS + ".locomotive.steam", "efficiencyMultiplier", 0.2F, 3.0F, 12.0F, "adjust the multiplier used when calculating fuel use, min=0.2, default=3.0, max=12.0");
 
@@ -394,6 +438,8 @@ public class RailcraftConfig {
 //        mineStandardOreGenChance = get(configMain, CAT_WORLD_GEN + ".tweak", "mineStandardOreChance", 0, 20, 100, "chance that standard Ore will spawn in the core of Railcraft Ore Mines, min=0, default=20, max=100");
         vanillaOreGenChance = get(configMain, CAT_WORLD_GEN + ".tweak", "vanillaOreGenChance", 0, 100, 100, "chance that vanilla ore gen (Iron, Gold) will spawn ore uniformly throughout the world, set to zero to disable, min=0, default=100, max=100");
 
+        retrogenTickBudget = get(configMain, CAT_WORLD_GEN + ".retrogen", "tickBudget", 1, 5, 50, "the number of milliseconds per world tick that may be spent on retrogen, retrogen is enabled per generator in the ore configs, min=1, default=5, max=50");
+
         villagerID = configMain.get(CAT_WORLD_GEN + ".id", "workshop", 456).getInt(456);
     }
 
@@ -718,6 +764,10 @@ public class RailcraftConfig {
         return boreMiningSpeedMultiplier;
     }
 
+    public static boolean boreLayerMining() {
+        return boreLayerMining;
+    }
+
     public static boolean locomotiveDamageMobs() {
         return locomotiveDamageMobs;
     }
@@ -730,6 +780,14 @@ public class RailcraftConfig {
         return locomotiveLightLevel;
     }
 
+    public static int particleBudget() {
+        return particleBudget;
+    }
+
+    public static int particleDetailDistance() {
+        return particleDetailDistance;
+    }
+
     public static boolean printLinkingDebug() {
         return printLinkingDebug;
     }
@@ -826,6 +884,14 @@ public class RailcraftConfig {
         return cartDispenserDelay;
     }
 
+    public static boolean trainDispenserAssemble() {
+        return trainDispenserAssemble;
+    }
+
+    public static int gaugeSyncInterval() {
+        return gaugeSyncInterval;
+    }
+
     public static int getTankCartFillRate() {
         return minecartTankFillRate;
     }
@@ -866,10 +932,61 @@ public class RailcraftConfig {
         return steamLocomotiveEfficiencyMultiplier;
     }
 
+    public static boolean steamPlantMode() {
+        return steamPlantMode;
+    }
+
+    public static int steamPlantInterval() {
+        return steamPlantInterval;
+    }
+
+    public static boolean tileTaskScheduling() {
+        return tileTaskScheduling;
+    }
+
+    public static int tileTaskBudget(TileTask task) {
+        return tileTaskBudgets[task.ordinal()];
+    }
+
+    public static int tileTaskTickLimit() {
+        return tileTaskTickLimit;
+    }
+
+    public static int logbookRetentionDays() {
+        return logbookRetentionDays;
+    }
+
+    public static int forceTrackMaxLength() {
+        return forceTrackMaxLength;
+    }
+
+    public static boolean forceTrackBulk() {
+        return forceTrackBulk;
+    }
+
+    public static int voidChestItemsPerOperation() {
+        return voidChestItemsPerOperation;
+    }
+
+    /**
+     * @return the number of ticks between two Void Chest operations
+     */
+    public static int voidChestInterval() {
+        return voidChestInterval;
+    }
+
+    public static int metalsChestItemsPerOperation() {
+        return metalsChestItemsPerOperation;
+    }
+
     public static int vanillaOreGenChance() {
         return vanillaOreGenChance;
     }
 
+    public static int retrogenTickBudget() {
+        return retrogenTickBudget;
+    }
+
     public static int villagerID() {
         return villagerID;
     }
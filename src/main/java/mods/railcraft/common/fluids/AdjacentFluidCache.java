@@ -0,0 +1,119 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.fluids;
+
+import com.google.common.collect.MapMaker;
+import mods.railcraft.common.util.misc.AdjacentTileCache;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Remembers the fluid handler of each neighbor, so tiles that push or pull every tick don't ask for the capability every time.
+ *
+ * A side is looked up again when the {@link AdjacentTileCache} reports it changed or is purged, which includes
+ * every neighbor block change, and when the tile on the side isn't the one the handler came from or was invalidated.
+ * Handlers are also looked up again every {@link #REFRESH_INTERVAL} ticks, since a neighbor can hand out
+ * a different handler without changing, like a multiblock that was rebuilt with a new master.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public final class AdjacentFluidCache implements AdjacentTileCache.ICacheListener {
+    public static final int REFRESH_INTERVAL = 20;
+    private static final Map<AdjacentTileCache, AdjacentFluidCache> caches = new MapMaker().weakKeys().weakValues().makeMap();
+
+    private final Function<EnumFacing, @Nullable TileEntity> tiles;
+    private final BiFunction<TileEntity, EnumFacing, @Nullable IFluidHandler> lookup;
+    private final LongSupplier clock;
+    private final IFluidHandler[] handlers = new IFluidHandler[6];
+    private final TileEntity[] sources = new TileEntity[6];
+    private final long[] expires = new long[6];
+    private long lookups;
+
+    /**
+     * @return the fluid cache of the tile cache, the tile cache keeps it alive
+     */
+    public static AdjacentFluidCache of(AdjacentTileCache cache) {
+        return caches.computeIfAbsent(cache, c -> {
+            AdjacentFluidCache fluidCache = new AdjacentFluidCache(c::getTileOnSide, AdjacentFluidCache::lookup,
+                    () -> c.getSource().getWorld().getTotalWorldTime());
+            c.addListener(fluidCache);
+            return fluidCache;
+        });
+    }
+
+    public AdjacentFluidCache(Function<EnumFacing, @Nullable TileEntity> tiles,
+                              BiFunction<TileEntity, EnumFacing, @Nullable IFluidHandler> lookup, LongSupplier clock) {
+        this.tiles = tiles;
+        this.lookup = lookup;
+        this.clock = clock;
+        purge();
+    }
+
+    private static @Nullable IFluidHandler lookup(TileEntity tile, EnumFacing side) {
+        if (!TankManager.TANK_FILTER.apply(tile, side.getOpposite()))
+            return null;
+        return FluidTools.getFluidHandler(side.getOpposite(), tile);
+    }
+
+    /**
+     * @return the fluid handlers of the neighbors passing the filter, in the order of the sides
+     */
+    public List<IFluidHandler> getHandlers(Predicate<? super TileEntity> filter, EnumFacing... sides) {
+        List<IFluidHandler> targets = new ArrayList<>(sides.length);
+        for (EnumFacing side : sides) {
+            TileEntity tile = tiles.apply(side);
+            if (tile == null || !filter.test(tile))
+                continue;
+            int s = side.ordinal();
+            long now = clock.getAsLong();
+            if (expires[s] <= now || sources[s] != tile || tile.isInvalid()) {
+                handlers[s] = lookup.apply(tile, side);
+                sources[s] = tile;
+                expires[s] = now + REFRESH_INTERVAL;
+                lookups++;
+            }
+            if (handlers[s] != null)
+                targets.add(handlers[s]);
+        }
+        return targets;
+    }
+
+    /**
+     * @return the number of times a handler was asked for so far
+     */
+    public long getLookups() {
+        return lookups;
+    }
+
+    @Override
+    public void changed(EnumFacing side) {
+        handlers[side.ordinal()] = null;
+        sources[side.ordinal()] = null;
+        expires[side.ordinal()] = Long.MIN_VALUE;
+    }
+
+    @Override
+    public void purge() {
+        Arrays.fill(handlers, null);
+        Arrays.fill(sources, null);
+        Arrays.fill(expires, Long.MIN_VALUE);
+    }
+}
@@ -379,17 +379,7 @@ public final class FluidTools {
     }
 
     public static Collection<IFluidHandler> findNeighbors(AdjacentTileCache cache, Predicate<? super TileEntity> filter, EnumFacing... sides) {
-        List<IFluidHandler> targets = new ArrayList<>();
-        for (EnumFacing side : sides) {
-            TileEntity tile = cache.getTileOnSide(side);
-            if (tile == null) continue;
-            if (!TankManager.TANK_FILTER.apply(tile, side.getOpposite())) continue;
-            if (!filter.test(tile)) continue;
-            IFluidHandler tank = FluidTools.getFluidHandler(side.getOpposite(), tile);
-            if (tank != null)
-                targets.add(tank);
-        }
-        return targets;
+        return AdjacentFluidCache.of(cache).getHandlers(filter, sides);
     }
 
     static final class WaterBottleEventHandler {
@@ -19,6 +19,7 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
+import net.minecraftforge.fluids.Fluid;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.FluidUtil;
 import net.minecraftforge.fluids.capability.CapabilityFluidHandler;
@@ -31,6 +32,7 @@ import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
+import java.util.function.ToIntBiFunction;
 
 /**
  * @author CovertJaguar <http://www.railcraft.info>
@@ -44,6 +46,8 @@ public class TankManager extends ForwardingList<StandardTank> implements IFluidH
     };
     public static final BiFunction<TileEntity, EnumFacing, Boolean> TANK_FILTER = (t, f) -> t.hasCapability(CapabilityFluidHandler.FLUID_HANDLER_CAPABILITY, f);
     private final List<StandardTank> tanks = new ArrayList<>();
+    private final Map<Fluid, StandardTank> fluidIndex = new HashMap<>();
+    private int rotation;
 
     @Override
     protected List<StandardTank> delegate() {
@@ -98,12 +102,39 @@ public class TankManager extends ForwardingList<StandardTank> implements IFluidH
         return stream().filter(tank -> !tank.isHidden()).flatMap(t -> Arrays.stream(t.getTankProperties())).toArray(IFluidTankProperties[]::new);
     }
 
+    /**
+     * The tank that last took or gave the fluid, as long as it still holds it.
+     */
+    private @Nullable StandardTank findTank(FluidStack resource) {
+        StandardTank tank = fluidIndex.get(resource.getFluid());
+        if (tank != null && tank.getTankIndex() < tanks.size() && tanks.get(tank.getTankIndex()) == tank
+                && resource.isFluidEqual(tank.getFluid()))
+            return tank;
+        return null;
+    }
+
+    /**
+     * Fills the tank already holding the fluid if there is one, otherwise the first tank that takes it.
+     */
     @Override
-    public int fill(FluidStack resource, boolean doFill) {
+    public int fill(@Nullable FluidStack resource, boolean doFill) {
+        if (resource == null)
+            return 0;
+        StandardTank indexed = findTank(resource);
+        if (indexed != null) {
+            int filled = indexed.fill(resource, doFill);
+            if (filled > 0)
+                return filled;
+        }
         for (StandardTank tank : tanks) {
+            if (tank == indexed)
+                continue;
             int filled = tank.fill(resource, doFill);
-            if (filled > 0)
+            if (filled > 0) {
+                if (doFill)
+                    fluidIndex.put(resource.getFluid(), tank);
                 return filled;
+            }
         }
         return 0;
     }
@@ -117,11 +148,23 @@ public class TankManager extends ForwardingList<StandardTank> implements IFluidH
 
     @Nullable
     @Override
-    public FluidStack drain(FluidStack resource, boolean doDrain) {
+    public FluidStack drain(@Nullable FluidStack resource, boolean doDrain) {
+        if (resource == null)
+            return null;
+        StandardTank indexed = findTank(resource);
+        if (indexed != null) {
+            FluidStack fluidStack = indexed.drain(resource, doDrain);
+            if (fluidStack != null)
+                return fluidStack;
+        }
         for (StandardTank tank : tanks) {
+            if (tank == indexed)
+                continue;
             FluidStack fluidStack = tank.drain(resource, doDrain);
-            if (fluidStack != null)
+            if (fluidStack != null) {
+                fluidIndex.put(resource.getFluid(), tank);
                 return fluidStack;
+            }
         }
         return null;
     }
@@ -189,4 +232,101 @@ public class TankManager extends ForwardingList<StandardTank> implements IFluidH
     public void transfer(Collection<IFluidHandler> targets, int tankIndex, BiConsumer<IFluidHandler, IFluidHandler> transfer) {
         targets.forEach(them -> transfer.accept(get(tankIndex), them));
     }
+
+    /**
+     * Like {@link #pull(AdjacentTileCache, Predicate, EnumFacing[], int, int)},
+     * but the amount is the total taken from all the neighbors together, see {@link #transferBalanced(List, int, ToIntBiFunction)}.
+     */
+    public int pullBalanced(AdjacentTileCache cache, Predicate<? super TileEntity> filter, EnumFacing[] sides, int tankIndex, int amount) {
+        return pullBalanced(AdjacentFluidCache.of(cache).getHandlers(filter, sides), tankIndex, amount);
+    }
+
+    /**
+     * Like {@link #push(AdjacentTileCache, Predicate, EnumFacing[], int, int)},
+     * but the amount is the total given to all the neighbors together, see {@link #transferBalanced(List, int, ToIntBiFunction)}.
+     */
+    public int pushBalanced(AdjacentTileCache cache, Predicate<? super TileEntity> filter, EnumFacing[] sides, int tankIndex, int amount) {
+        return pushBalanced(AdjacentFluidCache.of(cache).getHandlers(filter, sides), tankIndex, amount);
+    }
+
+    public int pullBalanced(List<IFluidHandler> targets, int tankIndex, int amount) {
+        StandardTank tank = get(tankIndex);
+        return transferBalanced(targets, amount, (them, share) -> amountOf(FluidUtil.tryFluidTransfer(tank, them, share, true)));
+    }
+
+    public int pushBalanced(List<IFluidHandler> targets, int tankIndex, int amount) {
+        return pushBalanced(targets, tankIndex, amount, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #pushBalanced(List, int, int)}, but no target is given more than the limit.
+     */
+    public int pushBalanced(List<IFluidHandler> targets, int tankIndex, int amount, int perTarget) {
+        StandardTank tank = get(tankIndex);
+        return transferBalanced(targets, amount, perTarget, (them, share) -> amountOf(FluidUtil.tryFluidTransfer(them, tank, share, true)));
+    }
+
+    /**
+     * Moves up to the amount in total, shared out evenly between the targets in one call.
+     *
+     * What's left over after dividing goes one unit each to the first targets in line, and the target first in line
+     * moves along every call, so over time every target gets the same. A target that takes less than its share
+     * is left out of the next round, and the rest is shared out again among the others until all of it is moved
+     * or nobody takes any more.
+     *
+     * @return the amount moved
+     */
+    public int transferBalanced(List<IFluidHandler> targets, int amount, ToIntBiFunction<IFluidHandler, Integer> transfer) {
+        return transferBalanced(targets, amount, Integer.MAX_VALUE, transfer);
+    }
+
+    /**
+     * Like {@link #transferBalanced(List, int, ToIntBiFunction)}, but a target that has moved the limit is left out
+     * of the following rounds, so one target can't take what the others don't.
+     *
+     * @return the amount moved
+     */
+    public int transferBalanced(List<IFluidHandler> targets, int amount, int perTarget, ToIntBiFunction<IFluidHandler, Integer> transfer) {
+        int size = targets.size();
+        if (size == 0 || amount <= 0)
+            return 0;
+        int first = Math.floorMod(rotation++, size);
+        boolean[] done = new boolean[size];
+        int[] given = new int[size];
+        int open = size;
+        int moved = 0;
+        boolean progress = true;
+        while (moved < amount && open > 0 && progress) {
+            progress = false;
+            int share = (amount - moved) / open;
+            int extra = (amount - moved) % open;
+            for (int i = 0; i < size; i++) {
+                int target = (first + i) % size;
+                if (done[target])
+                    continue;
+                int wanted = share;
+                if (extra > 0) {
+                    wanted++;
+                    extra--;
+                }
+                wanted = Math.min(wanted, perTarget - given[target]);
+                if (wanted <= 0)
+                    continue;
+                int got = transfer.applyAsInt(targets.get(target), wanted);
+                moved += got;
+                given[target] += got;
+                if (got > 0)
+                    progress = true;
+                if (got < wanted || given[target] >= perTarget) {
+                    done[target] = true;
+                    open--;
+                }
+            }
+        }
+        return moved;
+    }
+
+    private static int amountOf(@Nullable FluidStack fluidStack) {
+        return fluidStack == null ? 0 : fluidStack.amount;
+    }
 }
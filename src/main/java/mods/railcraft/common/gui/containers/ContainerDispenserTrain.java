@@ -15,15 +15,22 @@ import mods.railcraft.common.gui.slots.SlotMinecart;
 import mods.railcraft.common.gui.slots.SlotMinecartFilter;
 import mods.railcraft.common.util.inventory.InvTools;
 import net.minecraft.entity.player.InventoryPlayer;
+import net.minecraft.inventory.IContainerListener;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemStack;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
 import org.jetbrains.annotations.Nullable;
 
 public class ContainerDispenserTrain extends RailcraftContainer {
 
+    private final TileDispenserTrain tile;
+    private TileDispenserTrain.AssemblyStatus prevStatus;
+
     public ContainerDispenserTrain(InventoryPlayer playerInv, TileDispenserTrain tile) {
         super(tile);
+        this.tile = tile;
 
         for (int i = 0; i < 9; i++) {
             addSlot(new SlotDispenserTrain(tile.getPattern(), i, 8 + i * 18, 31));
@@ -46,6 +53,32 @@ public class ContainerDispenserTrain extends RailcraftContainer {
         }
     }
 
+    @Override
+    public void addListener(IContainerListener listener) {
+        super.addListener(listener);
+        listener.sendWindowProperty(this, 0, tile.getStatus().ordinal());
+    }
+
+    @Override
+    public void sendUpdateToClient() {
+        super.sendUpdateToClient();
+        TileDispenserTrain.AssemblyStatus status = tile.getStatus();
+
+        for (IContainerListener listener : listeners) {
+            if (prevStatus != status)
+                listener.sendWindowProperty(this, 0, status.ordinal());
+        }
+
+        prevStatus = status;
+    }
+
+    @Override
+    @SideOnly(Side.CLIENT)
+    public void updateProgressBar(int id, int value) {
+        if (id == 0)
+            tile.setStatus(TileDispenserTrain.AssemblyStatus.VALUES[value % TileDispenserTrain.AssemblyStatus.VALUES.length]);
+    }
+
     private class SlotDispenserTrain extends SlotMinecartFilter {
 
         public SlotDispenserTrain(IInventory iinventory, int slotIndex, int posX, int posY) {
@@ -16,7 +16,6 @@ import mods.railcraft.common.gui.slots.SlotOutput;
 import mods.railcraft.common.gui.slots.SlotUnshiftable;
 import mods.railcraft.common.gui.slots.SlotUntouchable;
 import mods.railcraft.common.plugins.forge.LocalizationPlugin;
-import mods.railcraft.common.util.crafting.RollingMachineCraftingManager;
 import mods.railcraft.common.util.inventory.InvTools;
 import mods.railcraft.common.util.misc.Game;
 import net.minecraft.entity.player.EntityPlayer;
@@ -112,7 +111,7 @@ public class ContainerRollingMachine extends RailcraftContainer {
 
     @Override
     public final void onCraftMatrixChanged(IInventory inv) {
-        IRollingMachineRecipe output = RollingMachineCraftingManager.getInstance().findMatching(craftMatrix);
+        IRollingMachineRecipe output = tile.getMatchingRecipe();
         craftResult.setInventorySlotContents(0, output == null ? ItemStack.EMPTY : output.getOutput(craftMatrix));
     }
 
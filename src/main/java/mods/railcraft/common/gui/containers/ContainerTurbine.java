@@ -49,23 +49,23 @@ public class ContainerTurbine extends RailcraftContainer {
     public void sendUpdateToClient() {
         super.sendUpdateToClient();
         for (IContainerListener listener : listeners) {
-            if (lastOutput != Math.round(tile.output))
-                listener.sendWindowProperty(this, 0, Math.round(tile.output));
+            if (lastOutput != Math.round(tile.turbine.output))
+                listener.sendWindowProperty(this, 0, Math.round(tile.turbine.output));
         }
-        lastOutput = Math.round(tile.output);
+        lastOutput = Math.round(tile.turbine.output);
     }
 
     @Override
     public void addListener(IContainerListener listener) {
         super.addListener(listener);
-        listener.sendWindowProperty(this, 0, Math.round(tile.output));
+        listener.sendWindowProperty(this, 0, Math.round(tile.turbine.output));
     }
 
     @Override
     public void updateProgressBar(int id, int data) {
         switch (id) {
             case 0:
-                tile.output = data;
+                tile.turbine.output = data;
                 break;
         }
     }
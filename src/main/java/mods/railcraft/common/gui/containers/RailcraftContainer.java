@@ -14,6 +14,7 @@ import mods.railcraft.common.gui.widgets.Widget;
 import mods.railcraft.common.util.inventory.InvTools;
 import mods.railcraft.common.util.network.PacketBuilder;
 import mods.railcraft.common.util.network.RailcraftInputStream;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.inventory.*;
@@ -25,6 +26,7 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static mods.railcraft.common.util.inventory.InvTools.*;
 
@@ -35,6 +37,11 @@ public abstract class RailcraftContainer extends Container {
     @Nullable
     private final IInventory callback;
     private final List<Widget> widgets = new ArrayList<>();
+    private final Map<IContainerListener, long[]> syncedWidgetHashes = new Reference2ObjectOpenHashMap<>();
+    private final List<Widget> changedWidgets = new ArrayList<>();
+    private long[] widgetHashes = new long[0];
+    private boolean[] widgetsDue = new boolean[0];
+    private int syncClock;
 
     protected RailcraftContainer(IInventory inv) {
         this.callback = inv;
@@ -72,12 +79,50 @@ public abstract class RailcraftContainer extends Container {
         }
     }
 
+    /**
+     * Sends every widget whose sync hash changed since it was last sent to a listener,
+     * coalesced into a single packet per listener.
+     */
     private void sendWidgetsServerData() {
-        widgets.forEach(this::sendWidgetServerData);
-    }
+        int size = widgets.size();
+        if (widgetHashes.length != size) {
+            widgetHashes = new long[size];
+            widgetsDue = new boolean[size];
+            syncedWidgetHashes.clear();
+        }
+        if (syncedWidgetHashes.size() > listeners.size())
+            syncedWidgetHashes.keySet().retainAll(listeners);
+
+        syncClock++;
+        for (int i = 0; i < size; i++) {
+            Widget widget = widgets.get(i);
+            widgetsDue[i] = widget.hasServerSyncData() && syncClock % widget.getServerSyncInterval() == 0;
+            if (widgetsDue[i])
+                widgetHashes[i] = widget.getServerSyncHash();
+        }
 
-    private void sendWidgetServerData(Widget widget) {
-        listeners.forEach(l -> PacketBuilder.instance().sendGuiWidgetPacket(l, windowId, widget));
+        for (IContainerListener listener : listeners) {
+            long[] synced = syncedWidgetHashes.get(listener);
+            boolean initial = synced == null;
+            if (initial) {
+                synced = new long[size];
+                syncedWidgetHashes.put(listener, synced);
+            }
+            for (int i = 0; i < size; i++) {
+                Widget widget = widgets.get(i);
+                if (initial && widget.hasServerSyncData()) {
+                    synced[i] = widget.getServerSyncHash();
+                    changedWidgets.add(widget);
+                } else if (widgetsDue[i] && synced[i] != widgetHashes[i]) {
+                    synced[i] = widgetHashes[i];
+                    changedWidgets.add(widget);
+                }
+            }
+            if (!changedWidgets.isEmpty()) {
+                PacketBuilder.instance().sendGuiWidgetPacket(listener, windowId, changedWidgets);
+                changedWidgets.clear();
+            }
+        }
     }
 
     public void sendUpdateToClient() {
@@ -12,7 +12,7 @@ package mods.railcraft.common.gui.widgets;
 import mods.railcraft.client.gui.GuiContainerRailcraft;
 import mods.railcraft.client.render.tools.FluidRenderer;
 import mods.railcraft.client.render.tools.OpenGL;
-import mods.railcraft.common.fluids.Fluids;
+import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.fluids.tanks.StandardTank;
 import mods.railcraft.common.gui.tooltips.ToolTip;
 import mods.railcraft.common.util.network.RailcraftInputStream;
@@ -31,8 +31,6 @@ import java.io.IOException;
 public class FluidGaugeWidget extends Widget {
 
     public final StandardTank tank;
-    private FluidStack lastSyncedFluidStack;
-    private int syncCounter;
 
     public FluidGaugeWidget(StandardTank tank, int x, int y, int u, int v, int w, int h) {
         super(x, y, u, v, w, h);
@@ -40,18 +38,31 @@ public class FluidGaugeWidget extends Widget {
     }
 
     @Override
-    public boolean hasServerSyncData(IContainerListener listener) {
-        syncCounter++;
-        return syncCounter % 16 == 0 || !Fluids.areIdentical(lastSyncedFluidStack, tank.getFluid());
+    public boolean hasServerSyncData() {
+        return true;
+    }
+
+    @Override
+    public long getServerSyncHash() {
+        FluidStack fluidStack = tank.getFluid();
+        if (fluidStack == null)
+            return -1;
+        int fluidHash = fluidStack.getFluid().getName().hashCode();
+        if (fluidStack.tag != null)
+            fluidHash = 31 * fluidHash + fluidStack.tag.hashCode();
+        return ((long) fluidHash << 32) | (fluidStack.amount & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public int getServerSyncInterval() {
+        return RailcraftConfig.gaugeSyncInterval();
     }
 
     @Override
     public void writeServerSyncData(IContainerListener listener, RailcraftOutputStream data) throws IOException {
         super.writeServerSyncData(listener, data);
-        FluidStack fluidStack = tank.getFluid();
 //        Game.log(Level.INFO, "fluid write {0}", tank.getFluidAmount());
-        lastSyncedFluidStack = fluidStack == null ? null : fluidStack.copy();
-        data.writeFluidStack(fluidStack);
+        data.writeFluidStack(tank.getFluid());
     }
 
     @Override
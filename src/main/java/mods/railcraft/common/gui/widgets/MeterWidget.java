@@ -9,6 +9,7 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.gui.widgets;
 
+import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.gui.tooltips.ToolTip;
 import mods.railcraft.common.util.network.RailcraftInputStream;
 import mods.railcraft.common.util.network.RailcraftOutputStream;
@@ -17,8 +18,6 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * @author CovertJaguar <http://www.railcraft.info>
@@ -27,7 +26,6 @@ public class MeterWidget extends Widget {
 
     public final IIndicatorController controller;
     protected final boolean vertical;
-    private Map<IContainerListener, Double> previousValues = new HashMap<>();
     boolean first = true;
     private double measurement;
 
@@ -58,16 +56,23 @@ public class MeterWidget extends Widget {
     }
 
     @Override
-    public boolean hasServerSyncData(IContainerListener listener) {
-        double previousValue = previousValues.getOrDefault(listener, 0.0);
-        return previousValue != controller.getServerValue();
+    public boolean hasServerSyncData() {
+        return true;
+    }
+
+    @Override
+    public long getServerSyncHash() {
+        return Double.doubleToLongBits(controller.getServerValue());
+    }
+
+    @Override
+    public int getServerSyncInterval() {
+        return RailcraftConfig.gaugeSyncInterval();
     }
 
     @Override
     public void writeServerSyncData(IContainerListener listener, RailcraftOutputStream data) throws IOException {
-        double value = controller.getServerValue();
-        data.writeDouble(value);
-        previousValues.put(listener, value);
+        data.writeDouble(controller.getServerValue());
     }
 
     @Override
@@ -75,10 +75,28 @@ public class Widget {
         return null;
     }
 
-    public boolean hasServerSyncData(IContainerListener listener) {
+    /**
+     * Whether this widget sends any data from the server to the client.
+     */
+    public boolean hasServerSyncData() {
         return false;
     }
 
+    /**
+     * A cheap summary of the data written by {@link #writeServerSyncData(IContainerListener, RailcraftOutputStream)}.
+     * The widget is only sent to a listener when this value differs from the one last sent to it.
+     */
+    public long getServerSyncHash() {
+        return 0;
+    }
+
+    /**
+     * The number of ticks between checks of {@link #getServerSyncHash()}.
+     */
+    public int getServerSyncInterval() {
+        return 1;
+    }
+
     public void writeServerSyncData(IContainerListener listener, RailcraftOutputStream data) throws IOException {
     }
 
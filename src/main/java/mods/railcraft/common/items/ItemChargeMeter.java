@@ -17,6 +17,7 @@ import mods.railcraft.common.plugins.forge.ChatPlugin;
 import mods.railcraft.common.plugins.forge.CraftingPlugin;
 import mods.railcraft.common.plugins.forge.WorldPlugin;
 import mods.railcraft.common.util.charge.BatteryBlock;
+import mods.railcraft.common.util.charge.ChargeHistory;
 import mods.railcraft.common.util.charge.ChargeNetwork;
 import mods.railcraft.common.util.inventory.InvTools;
 import mods.railcraft.common.util.misc.Capabilities;
@@ -126,6 +127,10 @@ public class ItemChargeMeter extends ItemRailcraft implements IActivationBlockin
                                 node.getChargeSpec().getLosses() * RailcraftConfig.chargeLossMultiplier(),
                                 battery.getEfficiency() * 100.0);
                     }
+                    node.getHistory().filter(h -> h.size(ChargeHistory.Resolution.MINUTE) > 0).ifPresent(history ->
+                            sendChat(player, "gui.railcraft.charge.meter.history",
+                                    history.get(ChargeHistory.Resolution.MINUTE, ChargeHistory.Metric.DRAW, 0),
+                                    history.size(ChargeHistory.Resolution.HOUR) > 0 ? history.get(ChargeHistory.Resolution.HOUR, ChargeHistory.Metric.DRAW, 0) : "-"));
                 });
                 returnValue = EnumActionResult.SUCCESS;
             }
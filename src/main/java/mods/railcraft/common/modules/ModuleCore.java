@@ -34,13 +34,17 @@ import mods.railcraft.common.gui.GuiHandler;
 import mods.railcraft.common.items.*;
 import mods.railcraft.common.plugins.buildcraft.BuildcraftPlugin;
 import mods.railcraft.common.plugins.forge.CraftingPlugin;
+import mods.railcraft.common.plugins.forge.FuelPlugin;
 import mods.railcraft.common.plugins.forge.LootPlugin;
 import mods.railcraft.common.plugins.forge.OreDictPlugin;
 import mods.railcraft.common.util.charge.CapabilityCartBatterySetup;
+import mods.railcraft.common.util.effects.EffectBatcher;
+import mods.railcraft.common.util.entity.EntitySensor;
 import mods.railcraft.common.util.entity.RailcraftDamageSource;
 import mods.railcraft.common.util.inventory.InvTools;
 import mods.railcraft.common.util.misc.Game;
 import mods.railcraft.common.util.network.PacketBuilder;
+import mods.railcraft.common.util.tasks.TileTaskScheduler;
 import net.minecraft.block.BlockDispenser;
 import net.minecraft.creativetab.CreativeTabs;
 import net.minecraft.dispenser.BehaviorDefaultDispenseItem;
@@ -159,6 +163,11 @@ public class ModuleCore extends RailcraftModulePayload {
                 MinecraftForge.EVENT_BUS.register(new MinecartRiderAIDisabler());
                 MinecraftForge.EVENT_BUS.register(new ShuntingAuraTickHandler());
                 MinecraftForge.EVENT_BUS.register(Train.getTicker());
+                MinecraftForge.EVENT_BUS.register(EffectBatcher.INSTANCE);
+                MinecraftForge.EVENT_BUS.register(TileTaskScheduler.INSTANCE);
+                MinecraftForge.EVENT_BUS.register(EntitySensor.getTicker());
+                MinecraftForge.EVENT_BUS.register(FuelPlugin.getEventHandler());
+                MinecraftForge.EVENT_BUS.register(OreDictPlugin.getEventHandler());
                 MinecraftForge.EVENT_BUS.register(new Object() {
                     @SubscribeEvent
                     public void logout(PlayerEvent.PlayerLoggedOutEvent event) {
@@ -11,8 +11,10 @@ package mods.railcraft.common.modules;
 
 import mods.railcraft.api.core.RailcraftModule;
 import mods.railcraft.common.blocks.RailcraftBlocks;
+import mods.railcraft.common.blocks.logbook.LogbookTracker;
 import mods.railcraft.common.blocks.tracks.outfitted.TrackKits;
 import mods.railcraft.common.carts.RailcraftCarts;
+import net.minecraftforge.common.MinecraftForge;
 
 @RailcraftModule(value = "railcraft:extras", softDependencyClasses = ModuleTracks.class, description = "silly stuff, launch track, tnt carts, work cart")
 public class ModuleExtras extends RailcraftModulePayload {
@@ -20,6 +22,8 @@ public class ModuleExtras extends RailcraftModulePayload {
         setEnabledEventHandler(new ModuleEventHandler() {
             @Override
             public void construction() {
+                MinecraftForge.EVENT_BUS.register(LogbookTracker.INSTANCE);
+
                 add(
                         TrackKits.PRIMING,
                         TrackKits.LAUNCHER,
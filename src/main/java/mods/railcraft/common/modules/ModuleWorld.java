@@ -110,9 +110,11 @@ public class ModuleWorld extends RailcraftModulePayload {
 
                     OreGeneratorFactory genFactory = new OreGeneratorFactory(oreConfig);
                     GameRegistry.registerWorldGenerator(genFactory.worldGen, genFactory.settings.weight);
+                    RetrogenManager.INSTANCE.register(genFactory.worldGen);
                     if (oreConfig.hasChanged())
                         oreConfig.save();
                 }
+                MinecraftForge.EVENT_BUS.register(RetrogenManager.INSTANCE);
             }
 
             private void generateDefaultMine(int defaultWeight, int defaultDepth, int defaultRange, int defaultBlockCount, int defaultSeed, Metal metal, String fileName) {
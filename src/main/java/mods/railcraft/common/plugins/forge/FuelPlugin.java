@@ -9,6 +9,9 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.plugins.forge;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import mods.railcraft.common.fluids.FluidItemHelper;
 import mods.railcraft.common.fluids.Fluids;
 import mods.railcraft.common.util.inventory.InvTools;
@@ -16,21 +19,29 @@ import mods.railcraft.common.util.misc.Game;
 import net.minecraft.init.Items;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntityFurnace;
 import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.oredict.OreDictionary;
 import org.apache.logging.log4j.util.Strings;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
 
 /**
  * @author CovertJaguar <http://www.railcraft.info>
  */
 public class FuelPlugin {
 
-    private static ItemStack lastFuel;
-    private static int lastFuelValue;
+    public static final int CACHE_SIZE = 256;
+    private static final Cache<FuelKey, Integer> fuelValues = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).recordStats().build();
 
     /**
      * Internal function that provides custom fuel values before requesting them
-     * from Minecraft. It also caches the last fuel hit to reduce cpu cycles.
+     * from Minecraft. It also caches the fuel values it found to reduce cpu cycles,
+     * stacks with NBT are cached apart from the plain item since fluid containers keep their contents there.
+     * Safe to call from any thread.
      *
      * @param stack The item to test
      * @return The fuel value
@@ -39,12 +50,33 @@ public class FuelPlugin {
         if (InvTools.isEmpty(stack))
             return 0;
 
-        if (InvTools.isItemEqualSemiStrict(stack, lastFuel))
-            return lastFuelValue;
+        FuelKey key = new FuelKey(stack.getItem(), stack.getMetadata(), stack.getTagCompound());
+        Integer value = fuelValues.getIfPresent(key);
+        if (value == null) {
+            value = findFuelValue(stack);
+            fuelValues.put(key.copy(), value);
+        }
+        return value;
+    }
+
+    /**
+     * Forgets every fuel value found so far, call when recipes or the ore dictionary change.
+     */
+    public static void invalidateCache() {
+        fuelValues.invalidateAll();
+    }
+
+    public static CacheStats getCacheStats() {
+        return fuelValues.stats();
+    }
 
-        lastFuel = stack;
-        lastFuelValue = findFuelValue(stack);
-        return lastFuelValue;
+    public static Object getEventHandler() {
+        return new Object() {
+            @SubscribeEvent
+            public void onOreRegister(OreDictionary.OreRegisterEvent event) {
+                invalidateCache();
+            }
+        };
     }
 
     private static int findFuelValue(ItemStack stack) {
@@ -76,4 +108,37 @@ public class FuelPlugin {
         return 0;
     }
 
+    /**
+     * Looks the stack up without copying it, the tag is only copied when the key goes into the cache.
+     */
+    private static final class FuelKey {
+        private final Item item;
+        private final int metadata;
+        private final @Nullable NBTTagCompound tag;
+        private final int hash;
+
+        private FuelKey(Item item, int metadata, @Nullable NBTTagCompound tag) {
+            this.item = item;
+            this.metadata = metadata;
+            this.tag = tag;
+            this.hash = 31 * (31 * item.hashCode() + metadata) + Objects.hashCode(tag);
+        }
+
+        private FuelKey copy() {
+            return tag == null ? this : new FuelKey(item, metadata, tag.copy());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof FuelKey))
+                return false;
+            FuelKey other = (FuelKey) obj;
+            return item == other.item && metadata == other.metadata && hash == other.hash && Objects.equals(tag, other.tag);
+        }
+    }
 }
@@ -9,17 +9,21 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.plugins.forge;
 
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import mods.railcraft.common.util.inventory.InvTools;
 import mods.railcraft.common.util.misc.Predicates;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.init.Blocks;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.oredict.OreDictionary;
-import org.apache.commons.lang3.ArrayUtils;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static mods.railcraft.common.util.inventory.InvTools.setSize;
@@ -29,6 +33,10 @@ import static mods.railcraft.common.util.inventory.InvTools.setSize;
  */
 public final class OreDictPlugin {
 
+    private static final int[] NO_IDS = new int[0];
+    private static volatile @Nullable OreTable table;
+    private static int builds;
+
     public static void registerNewTags() {
         OreDictionary.registerOre("gateWood", Blocks.ACACIA_FENCE_GATE);
         OreDictionary.registerOre("gateWood", Blocks.BIRCH_FENCE_GATE);
@@ -39,27 +47,38 @@ public final class OreDictPlugin {
     }
 
     public static boolean isOreType(String oreName, ItemStack stack) {
-        if (!oreExists(oreName))
+        if (InvTools.isEmpty(stack) || !oreExists(oreName))
             return false;
         int id = OreDictionary.getOreID(oreName);
-        int[] stackIds = OreDictionary.getOreIDs(stack);
-        return ArrayUtils.contains(stackIds, id);
-//        List<ItemStack> ores = OreDictionary.getOres(oreName);
-//        for (ItemStack ore : ores) {
-//            if (InvTools.isItemEqual(ore, stack))
-//                return true;
-//        }
-//        return false;
+        OreTable table = getTable();
+        int item = Item.getIdFromItem(stack.getItem());
+        if (id >= table.items.length || item < 0 || !table.items[id].get(item))
+            return false;
+        return Arrays.binarySearch(table.getIds(stack), id) >= 0;
     }
 
     public static boolean matches(ItemStack prototype, ItemStack target) {
-        int[] prototypeIds = OreDictionary.getOreIDs(prototype);
-        int[] targetIds = OreDictionary.getOreIDs(target);
-        return Arrays.stream(targetIds).anyMatch(id -> ArrayUtils.contains(prototypeIds, id));
+        if (InvTools.isEmpty(prototype) || InvTools.isEmpty(target))
+            return false;
+        OreTable table = getTable();
+        int[] prototypeIds = table.getIds(prototype);
+        int[] targetIds = table.getIds(target);
+        int p = 0, t = 0;
+        while (p < prototypeIds.length && t < targetIds.length) {
+            if (prototypeIds[p] == targetIds[t])
+                return true;
+            if (prototypeIds[p] < targetIds[t])
+                p++;
+            else
+                t++;
+        }
+        return false;
     }
 
     public static List<String> getOreTags(ItemStack stack) {
-        int[] ids = OreDictionary.getOreIDs(stack);
+        if (InvTools.isEmpty(stack))
+            return Collections.emptyList();
+        int[] ids = getTable().getIds(stack);
         return Arrays.stream(ids).mapToObj(OreDictionary::getOreName).collect(Collectors.toList());
     }
 
@@ -80,13 +99,126 @@ public final class OreDictPlugin {
     }
 
     public static Set<IBlockState> getOreBlockStates() {
-        String[] names = OreDictionary.getOreNames();
-        return Arrays.stream(names)
-                .filter(n -> n.startsWith("ore"))
-                .flatMap(n -> OreDictionary.getOres(n).stream())
-                .map(InvTools::getBlockStateFromStack)
-                .filter(Predicates.realBlock())
-                .collect(Collectors.toSet());
+        return getTable().getOreBlockStates();
+    }
+
+    /**
+     * Drops the membership table, it is built again on the next lookup.
+     * Called when ores are registered and when item ids are remapped, since the table is keyed by item id.
+     */
+    public static synchronized void invalidateCache() {
+        table = null;
+    }
+
+    /**
+     * Builds the membership table now instead of on the next lookup.
+     */
+    public static synchronized void rebuildCache() {
+        table = new OreTable();
+        builds++;
+    }
+
+    /**
+     * @return the number of times the membership table was built so far
+     */
+    public static synchronized int getBuilds() {
+        return builds;
+    }
+
+    private static OreTable getTable() {
+        OreTable current = table;
+        if (current != null)
+            return current;
+        synchronized (OreDictPlugin.class) {
+            if (table == null)
+                rebuildCache();
+            return table;
+        }
+    }
+
+    public static Object getEventHandler() {
+        return new Object() {
+            @SubscribeEvent
+            public void onOreRegister(OreDictionary.OreRegisterEvent event) {
+                invalidateCache();
+            }
+        };
+    }
+
+    private static long key(int item, int meta) {
+        return ((long) item << 32) | (meta & 0xFFFFFFFFL);
+    }
+
+    /**
+     * A snapshot of the ore dictionary, made so lookups don't allocate.
+     *
+     * Each item and metadata maps to the sorted ids of its ores, wildcard entries included,
+     * and each ore id has a bitset of the item ids with at least one stack in it, so most misses never reach the map.
+     */
+    private static final class OreTable {
+        private final Long2ObjectMap<int[]> ids = new Long2ObjectOpenHashMap<>();
+        private final BitSet[] items;
+        @Nullable
+        private Set<IBlockState> oreBlockStates;
+
+        OreTable() {
+            String[] names = OreDictionary.getOreNames();
+            items = new BitSet[names.length];
+            Long2ObjectMap<IntSet> sets = new Long2ObjectOpenHashMap<>();
+            for (String name : names) {
+                int id = OreDictionary.getOreID(name);
+                if (id >= items.length)
+                    continue;
+                items[id] = new BitSet();
+                for (ItemStack ore : OreDictionary.getOres(name)) {
+                    if (InvTools.isEmpty(ore))
+                        continue;
+                    int item = Item.getIdFromItem(ore.getItem());
+                    if (item < 0)
+                        continue;
+                    items[id].set(item);
+                    sets.computeIfAbsent(key(item, ore.getItemDamage()), k -> new IntOpenHashSet()).add(id);
+                }
+            }
+            for (int id = 0; id < items.length; id++) {
+                if (items[id] == null)
+                    items[id] = new BitSet();
+            }
+            for (Long2ObjectMap.Entry<IntSet> entry : sets.long2ObjectEntrySet()) {
+                long key = entry.getLongKey();
+                IntSet set = entry.getValue();
+                if ((int) key != OreDictionary.WILDCARD_VALUE) {
+                    IntSet wildcard = sets.get(key((int) (key >>> 32), OreDictionary.WILDCARD_VALUE));
+                    if (wildcard != null)
+                        set.addAll(wildcard);
+                }
+                int[] array = set.toIntArray();
+                Arrays.sort(array);
+                ids.put(key, array);
+            }
+        }
+
+        int[] getIds(ItemStack stack) {
+            int item = Item.getIdFromItem(stack.getItem());
+            if (item < 0)
+                return NO_IDS;
+            int[] array = ids.get(key(item, stack.getItemDamage()));
+            if (array == null)
+                array = ids.get(key(item, OreDictionary.WILDCARD_VALUE));
+            return array == null ? NO_IDS : array;
+        }
+
+        synchronized Set<IBlockState> getOreBlockStates() {
+            if (oreBlockStates == null) {
+                oreBlockStates = Collections.unmodifiableSet(Arrays.stream(OreDictionary.getOreNames())
+                        .filter(n -> n.startsWith("ore"))
+                        .flatMap(n -> OreDictionary.getOres(n).stream())
+                        .map(InvTools::getBlockStateFromStack)
+                        .filter(Predicates.realBlock())
+                        .collect(Collectors.toSet()));
+            }
+            return oreBlockStates;
+        }
     }
 
 }
@@ -9,25 +9,38 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.plugins.forge;
 
+import it.unimi.dsi.fastutil.longs.Long2IntLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import mods.railcraft.api.core.RailcraftFakePlayer;
 import mods.railcraft.common.util.misc.Game;
 import net.minecraft.block.Block;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.init.Blocks;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.ChunkCache;
 import net.minecraft.world.IBlockAccess;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
+import net.minecraft.world.WorldType;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.ForgeEventFactory;
 import net.minecraftforge.event.world.BlockEvent;
 import org.apache.logging.log4j.Level;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -125,6 +138,73 @@ public class WorldPlugin {
         return world.setBlockToAir(pos);
     }
 
+    /**
+     * Removes a group of blocks at once. The light checks and neighbor updates are run after all the blocks
+     * are gone, so each of them only sees the final state instead of being repeated for every removal.
+     *
+     * Light is checked once per column, at the highest removed block, the increase spreads down and sideways
+     * into the other removed blocks from there. Only removed light sources get a check of their own.
+     * Each block next to the group is told about the change once, blocks inside the group are air and don't care.
+     *
+     * Unlike {@link #setBlockToAir(World, BlockPos)}, no block snapshots are captured.
+     *
+     * @return the number of blocks removed
+     */
+    public static int setBlocksToAir(World world, List<BlockPos> positions) {
+        IBlockState air = Blocks.AIR.getDefaultState();
+        List<BlockPos> removed = new ArrayList<>(positions.size());
+        List<IBlockState> oldStates = new ArrayList<>(positions.size());
+        LongSet removedKeys = new LongOpenHashSet(positions.size());
+        List<BlockPos> emitters = new ArrayList<>();
+        Long2ObjectMap<BlockPos> columns = new Long2ObjectOpenHashMap<>();
+        for (BlockPos pos : positions) {
+            if (world.isOutsideBuildHeight(pos) || !world.isBlockLoaded(pos))
+                continue;
+            Chunk chunk = world.getChunk(pos);
+            IBlockState oldState = chunk.getBlockState(pos);
+            int oldOpacity = oldState.getLightOpacity(world, pos);
+            int oldLight = oldState.getLightValue(world, pos);
+            if (chunk.setBlockState(pos, air) == null)
+                continue;
+            removed.add(pos);
+            oldStates.add(oldState);
+            removedKeys.add(pos.toLong());
+            if (oldLight != air.getLightValue(world, pos)) {
+                emitters.add(pos);
+            } else if (oldOpacity != air.getLightOpacity(world, pos)) {
+                long column = ChunkPos.asLong(pos.getX(), pos.getZ());
+                BlockPos top = columns.get(column);
+                if (top == null || top.getY() < pos.getY())
+                    columns.put(column, pos);
+            }
+        }
+        emitters.forEach(world::checkLight);
+        columns.values().forEach(world::checkLight);
+
+        boolean notifyNeighbors = world.getWorldType() != WorldType.DEBUG_ALL_BLOCK_STATES;
+        Long2IntMap neighbors = new Long2IntLinkedOpenHashMap();
+        for (int i = 0; i < removed.size(); i++) {
+            BlockPos pos = removed.get(i);
+            if (world.getChunk(pos).isPopulated())
+                world.notifyBlockUpdate(pos, oldStates.get(i), air, 3);
+            if (!notifyNeighbors || ForgeEventFactory.onNeighborNotify(world, pos, air, EnumSet.allOf(EnumFacing.class), false).isCanceled())
+                continue;
+            for (EnumFacing side : EnumFacing.VALUES) {
+                long neighbor = pos.offset(side).toLong();
+                if (!removedKeys.contains(neighbor) && !neighbors.containsKey(neighbor))
+                    neighbors.put(neighbor, i);
+            }
+        }
+        for (Long2IntMap.Entry neighbor : neighbors.long2IntEntrySet()) {
+            BlockPos pos = BlockPos.fromLong(neighbor.getLongKey());
+            BlockPos source = removed.get(neighbor.getIntValue());
+            Block oldBlock = oldStates.get(neighbor.getIntValue()).getBlock();
+            world.neighborChanged(pos, oldBlock, source);
+            world.observedNeighborChanged(pos, oldBlock, source);
+        }
+        return removed.size();
+    }
+
     public static boolean destroyBlock(World world, BlockPos pos, boolean dropBlock) {
         return world.destroyBlock(pos, dropBlock);
     }
@@ -17,7 +17,10 @@ import mods.railcraft.common.carts.Train;
 import mods.railcraft.common.util.misc.Capabilities;
 import net.minecraft.entity.item.EntityMinecart;
 import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.WeakReference;
+import java.util.Optional;
 import java.util.Random;
 
 /**
@@ -50,6 +53,9 @@ public class CartBattery implements IBatteryCart {
     protected double lastTickDraw;
     protected int clock = rand.nextInt();
     protected int drewFromTrack;
+    private @Nullable ChargeNetwork.ChargeNode trackNode;
+    private @Nullable WeakReference<EntityMinecart> supplierCart;
+    private @Nullable IBatteryCart supplier;
 
     public CartBattery() {
         this(Type.USER, 5000.0, 0.0);
@@ -167,14 +173,32 @@ public class CartBattery implements IBatteryCart {
         if (drewFromTrack > 0)
             drewFromTrack--;
         else if (type == Type.USER && charge < (capacity * 0.5) && clock % DRAW_INTERVAL == 0) {
-            Train.streamCarts(owner)
-                    .flatMap(c -> Capabilities.stream(c, CapabilitiesCharge.CART_BATTERY, null))
-                    .filter(c -> c.getType() != Type.USER && c.getCharge() > 0)
-                    .findAny()
-                    .ifPresent(c -> charge += c.removeCharge(capacity - charge));
+            IBatteryCart battery = findSupplier(owner);
+            if (battery != null)
+                charge += battery.removeCharge(capacity - charge);
         }
     }
 
+    /**
+     * The last cart we drew from is reused as long as it's still in our train and has charge left,
+     * so the train only has to be searched when it changes or the supplier runs dry.
+     */
+    private @Nullable IBatteryCart findSupplier(EntityMinecart owner) {
+        EntityMinecart cart = supplierCart == null ? null : supplierCart.get();
+        if (cart != null && supplier != null && !cart.isDead && supplier.getCharge() > 0
+                && Train.areInSameTrain(owner, cart))
+            return supplier;
+        supplierCart = null;
+        supplier = null;
+        Train.streamCarts(owner).filter(c -> {
+            Optional<IBatteryCart> battery = Capabilities.get(c, CapabilitiesCharge.CART_BATTERY, null)
+                    .filter(b -> b.getType() != Type.USER && b.getCharge() > 0);
+            battery.ifPresent(b -> supplier = b);
+            return battery.isPresent();
+        }).findFirst().ifPresent(c -> supplierCart = new WeakReference<>(c));
+        return supplier;
+    }
+
     /**
      * If you want to be able to draw power from the track, this function
      * needs to be called once per tick. Server side only. Generally this
@@ -195,10 +219,21 @@ public class CartBattery implements IBatteryCart {
     @Override
     public void tickOnTrack(EntityMinecart owner, BlockPos pos) {
         if (!owner.world.isRemote && type == Type.USER && needsCharging()) {
-            double drawnFromTrack = Charge.distribution.network(owner.world).access(pos).removeCharge(capacity - charge);
-            if (drawnFromTrack > 0.0)
-                drewFromTrack = DRAW_INTERVAL * 4;
-            charge += drawnFromTrack;
+            ChargeNetwork.ChargeNode node = trackNode;
+            if (node == null || !node.isValid() || !node.getPos().equals(pos)) {
+                node = (ChargeNetwork.ChargeNode) Charge.distribution.network(owner.world).access(pos);
+                trackNode = node.isValid() ? node : null;
+            }
+            node.requestTraction(this, capacity - charge);
         }
     }
+
+    /**
+     * Called by the grid's {@link TractionScheduler} with this cart's share of the charge it withdrew.
+     */
+    void receiveTraction(double amount) {
+        if (amount > 0.0)
+            drewFromTrack = DRAW_INTERVAL * 4;
+        charge += amount;
+    }
 }
@@ -0,0 +1,131 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.util.charge;
+
+import java.io.IOException;
+
+/**
+ * Fixed size history of a Charge grid.
+ *
+ * Each tick the stored charge, the charge drawn and the losses are added to an accumulator for every resolution.
+ * When a resolution's period is complete the per tick averages are written to its ring buffer, overwriting the oldest sample.
+ * All storage is allocated up front, recording never allocates.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public final class ChargeHistory {
+
+    public enum Resolution {
+        SECOND(20, 300),
+        MINUTE(20 * 60, 120),
+        HOUR(20 * 60 * 60, 168);
+
+        public final int ticks;
+        public final int samples;
+
+        Resolution(int ticks, int samples) {
+            this.ticks = ticks;
+            this.samples = samples;
+        }
+    }
+
+    public enum Metric {
+        CHARGE,
+        DRAW,
+        LOSSES
+    }
+
+    private static final Resolution[] RESOLUTIONS = Resolution.values();
+    private static final Metric[] METRICS = Metric.values();
+    private static final int WIDTH = METRICS.length;
+
+    private final float[][] samples = new float[RESOLUTIONS.length][];
+    private final int[] head = new int[RESOLUTIONS.length];
+    private final int[] size = new int[RESOLUTIONS.length];
+    private final double[] sums = new double[RESOLUTIONS.length * WIDTH];
+    private final int[] ticks = new int[RESOLUTIONS.length];
+
+    public ChargeHistory() {
+        for (Resolution res : RESOLUTIONS) {
+            samples[res.ordinal()] = new float[res.samples * WIDTH];
+        }
+    }
+
+    void record(double charge, double draw, double losses) {
+        for (int r = 0; r < RESOLUTIONS.length; r++) {
+            int base = r * WIDTH;
+            sums[base] += charge;
+            sums[base + 1] += draw;
+            sums[base + 2] += losses;
+            if (++ticks[r] >= RESOLUTIONS[r].ticks)
+                flush(r);
+        }
+    }
+
+    private void flush(int r) {
+        int base = r * WIDTH;
+        int slot = head[r] * WIDTH;
+        for (int m = 0; m < WIDTH; m++) {
+            samples[r][slot + m] = (float) (sums[base + m] / ticks[r]);
+            sums[base + m] = 0.0;
+        }
+        ticks[r] = 0;
+        head[r] = (head[r] + 1) % RESOLUTIONS[r].samples;
+        if (size[r] < RESOLUTIONS[r].samples)
+            size[r]++;
+    }
+
+    void copyFrom(ChargeHistory other) {
+        for (int r = 0; r < RESOLUTIONS.length; r++) {
+            System.arraycopy(other.samples[r], 0, samples[r], 0, samples[r].length);
+        }
+        System.arraycopy(other.head, 0, head, 0, head.length);
+        System.arraycopy(other.size, 0, size, 0, size.length);
+        System.arraycopy(other.sums, 0, sums, 0, sums.length);
+        System.arraycopy(other.ticks, 0, ticks, 0, ticks.length);
+    }
+
+    /**
+     * @return the number of complete samples available at this resolution
+     */
+    public int size(Resolution res) {
+        return size[res.ordinal()];
+    }
+
+    /**
+     * Returns the per tick average of a metric over one sample period.
+     *
+     * @param age 0 for the most recent complete sample, up to {@code size(res) - 1} for the oldest
+     */
+    public double get(Resolution res, Metric metric, int age) {
+        int r = res.ordinal();
+        if (age < 0 || age >= size[r])
+            throw new IndexOutOfBoundsException("age: " + age + ", size: " + size[r]);
+        int slot = Math.floorMod(head[r] - 1 - age, res.samples);
+        return samples[r][slot * WIDTH + metric.ordinal()];
+    }
+
+    /**
+     * Writes the samples at the given resolution as CSV rows, oldest first.
+     *
+     * Each row starts with the given label, followed by the age in seconds and the metrics.
+     */
+    public void writeCSV(Appendable out, String label, Resolution res) throws IOException {
+        for (int age = size(res) - 1; age >= 0; age--) {
+            out.append(label).append(',').append(res.name())
+                    .append(',').append(Long.toString((long) (age + 1) * res.ticks / 20));
+            for (Metric metric : METRICS) {
+                out.append(',').append(Float.toString((float) get(res, metric, age)));
+            }
+            out.append('\n');
+        }
+    }
+}
@@ -13,6 +13,8 @@ package mods.railcraft.common.util.charge;
 import com.google.common.collect.MapMaker;
 import mods.railcraft.api.charge.Charge;
 import mods.railcraft.common.util.misc.Game;
+import mods.railcraft.common.util.profiler.TickProfiler;
+import mods.railcraft.common.util.profiler.TickProfiler.Section;
 import net.minecraft.world.World;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
@@ -41,7 +43,9 @@ public enum ChargeManager implements Charge.IManager {
     @SubscribeEvent
     public void tick(TickEvent.WorldTickEvent event) {
         if (event.side == Side.SERVER && event.phase == TickEvent.Phase.END) {
+            long start = TickProfiler.start();
             ((ChargeNetwork) network(event.world)).tick();
+            TickProfiler.stop(Section.CHARGE, start, event.world);
         }
     }
 
@@ -144,6 +144,7 @@ public class ChargeNetwork implements Charge.INetwork {
         // clean up any preexisting node
         if (oldNode != null) {
             oldNode.invalid = true;
+            node.history = oldNode.history;
             if (oldNode.chargeGrid.isActive()) {
                 node.chargeGrid = oldNode.chargeGrid;
                 node.chargeGrid.add(node);
@@ -196,6 +197,10 @@ public class ChargeNetwork implements Charge.INetwork {
         queue.put(pos.toImmutable(), null);
     }
 
+    public Collection<ChargeGrid> getGrids() {
+        return Collections.unmodifiableSet(grids);
+    }
+
     public ChargeGrid grid(BlockPos pos) {
         return access(pos).getGrid();
     }
@@ -229,6 +234,9 @@ public class ChargeNetwork implements Charge.INetwork {
         private double totalLosses;
         private double chargeUsedThisTick;
         private double averageUsagePerTick;
+        private @Nullable ChargeHistory history;
+        private final List<ChargeNode> recordedNodes = new ArrayList<>();
+        private final TractionScheduler traction = new TractionScheduler();
 
         @Override
         protected Set<ChargeNode> delegate() {
@@ -241,6 +249,12 @@ public class ChargeNetwork implements Charge.INetwork {
             if (added)
                 totalLosses += chargeNode.chargeSpec.getLosses();
             chargeNode.chargeGrid = this;
+            chargeNode.lastHistory = null;
+            if (chargeNode.history == null && chargeNode.chargeBattery.isPresent())
+                chargeNode.history = new ChargeHistory();
+            recordedNodes.removeIf(n -> n.pos.equals(chargeNode.pos));
+            if (chargeNode.history != null)
+                recordedNodes.add(chargeNode);
             batteries.removeIf(b -> b.getPos().equals(chargeNode.pos));
             if (chargeNode.chargeBattery.isPresent()) {
                 batteries.removeIf(b -> b.getPos().equals(chargeNode.pos));
@@ -292,10 +306,15 @@ public class ChargeNetwork implements Charge.INetwork {
             invalid = true;
             totalLosses = 0.0;
             if (touchNodes) {
-                forEach(n -> n.chargeGrid = NULL_GRID);
+                forEach(n -> {
+                    n.chargeGrid = NULL_GRID;
+                    n.lastHistory = history;
+                });
             }
             batteries.clear();
             chargeNodes.clear();
+            recordedNodes.clear();
+            traction.clear();
             grids.remove(this);
         }
 
@@ -307,7 +326,11 @@ public class ChargeNetwork implements Charge.INetwork {
         private void tick() {
             sortBatteries();
 
-            removeCharge(getLosses());
+            // track draw used to happen during the entity update, so it still comes before the losses
+            if (traction.size() > 0)
+                traction.distribute(removeCharge(traction.getDemand()));
+
+            double lost = removeCharge(getLosses());
 
             // balance the charge in all the rechargeable batteries in the grid
             Set<BatteryBlock> rechargeable = batteries(IBatteryBlock.State.RECHARGEABLE).collect(Collectors.toSet());
@@ -330,9 +353,42 @@ public class ChargeNetwork implements Charge.INetwork {
 
             // track usage patterns
             averageUsagePerTick = (averageUsagePerTick * 49D + chargeUsedThisTick) / 50D;
+            if (history == null && !batteries.isEmpty())
+                history = new ChargeHistory();
+            if (history != null)
+                history.record(getStoredCharge(), chargeUsedThisTick - lost, lost);
+            for (int i = 0; i < recordedNodes.size(); i++) {
+                recordedNodes.get(i).recordHistory();
+            }
             chargeUsedThisTick = 0.0;
         }
 
+        /**
+         * Same as {@link #getCharge()}, without the stream.
+         */
+        private double getStoredCharge() {
+            double charge = 0.0;
+            for (int i = 0; i < batteries.size(); i++) {
+                BatteryBlock battery = batteries.get(i);
+                if (battery.getState() != IBatteryBlock.State.DISABLED)
+                    charge += battery.getCharge();
+            }
+            return charge;
+        }
+
+        private void inheritHistory(ChargeHistory previous) {
+            history = new ChargeHistory();
+            history.copyFrom(previous);
+        }
+
+        /**
+         * The history is created the first time the grid ticks with a battery in it.
+         * When a grid is split or rebuilt, the new grids start with a copy of the old history.
+         */
+        public Optional<ChargeHistory> getHistory() {
+            return Optional.ofNullable(history);
+        }
+
         private Stream<BatteryBlock> batteries(IBatteryBlock.State... state) {
             List<IBatteryBlock.State> list = Arrays.asList(state);
             return batteries.stream().filter(b -> list.contains(b.getState()));
@@ -514,6 +570,9 @@ public class ChargeNetwork implements Charge.INetwork {
         private ChargeGrid chargeGrid = NULL_GRID;
         private boolean invalid;
         private Optional<UsageRecorder> usageRecorder = Optional.empty();
+        private @Nullable ChargeHistory lastHistory;
+        private @Nullable ChargeHistory history;
+        private double drawnThisTick;
         private final Collection<BiConsumer<ChargeNode, Double>> listeners = new LinkedHashSet<>();
 
         private ChargeNode(BlockPos pos, IChargeBlock.ChargeSpec chargeSpec) {
@@ -527,6 +586,10 @@ public class ChargeNetwork implements Charge.INetwork {
             return chargeSpec;
         }
 
+        public BlockPos getPos() {
+            return pos;
+        }
+
         private void forConnections(Consumer<ChargeNode> action) {
             CONNECTION_MAPS.get(chargeSpec.getConnectType()).forEach((k, v) -> {
                 BlockPos otherPos = pos.add(k);
@@ -571,21 +634,60 @@ public class ChargeNetwork implements Charge.INetwork {
         @Override
         public boolean useCharge(double amount) {
             boolean removed = chargeGrid.useCharge(amount);
-            if (removed) {
-                listeners.forEach(c -> c.accept(this, amount));
-                usageRecorder.ifPresent(r -> r.useCharge(amount));
-            }
+            if (removed)
+                onDraw(amount);
             return removed;
         }
 
         @Override
         public double removeCharge(double desiredAmount) {
             double removed = chargeGrid.removeCharge(desiredAmount);
-            listeners.forEach(c -> c.accept(this, removed));
-            usageRecorder.ifPresent(r -> r.useCharge(removed));
+            onDraw(removed);
             return removed;
         }
 
+        /**
+         * Queues a request for charge from a cart riding on this node.
+         * The charge is delivered to the battery when the grid ticks, see {@link TractionScheduler}.
+         */
+        public void requestTraction(CartBattery battery, double amount) {
+            if (chargeGrid.isActive())
+                chargeGrid.traction.request(battery, this, amount);
+        }
+
+        void onTractionDraw(double amount) {
+            onDraw(amount);
+        }
+
+        private void onDraw(double amount) {
+            listeners.forEach(c -> c.accept(this, amount));
+            usageRecorder.ifPresent(r -> r.useCharge(amount));
+            drawnThisTick += amount;
+            if (history == null && amount > 0.0 && chargeGrid.isActive()) {
+                history = new ChargeHistory();
+                chargeGrid.recordedNodes.add(this);
+            }
+        }
+
+        private void recordHistory() {
+            if (history == null)
+                return;
+            double charge = chargeBattery.map(BatteryBlock::getCharge).orElse(0.0);
+            history.record(charge, drawnThisTick, chargeSpec.getLosses() * RailcraftConfig.chargeLossMultiplier());
+            drawnThisTick = 0.0;
+        }
+
+        /**
+         * The history of this node alone: its battery's charge, the charge drawn through it and its own losses.
+         *
+         * Batteries get a history when they join a grid, other nodes the first time charge is drawn through them,
+         * so idle cables never pay for one.
+         * It survives grid rebuilds and is handed to the node that replaces this one.
+         */
+        public Optional<ChargeHistory> getHistory() {
+            return Optional.ofNullable(history);
+        }
+
         public boolean isValid() {
             return !invalid;
         }
@@ -621,6 +723,8 @@ public class ChargeNetwork implements Charge.INetwork {
             if (chargeGrid.isNull()) {
                 chargeGrid = new ChargeGrid();
                 grids.add(chargeGrid);
+                if (lastHistory != null)
+                    chargeGrid.inheritHistory(lastHistory);
             }
             int originalSize = chargeGrid.size();
             chargeGrid.addAll(nullNodes);
@@ -0,0 +1,88 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.util.charge;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the charge requested by carts riding on the tracks of a Charge grid.
+ *
+ * Instead of every cart pulling from the grid's batteries on its own, the grid withdraws the
+ * total demand once per tick and splits what it got between the carts. When there isn't enough
+ * for everyone, each cart gets an equal share, and any share a cart doesn't need is divided among the rest.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+final class TractionScheduler {
+
+    private final Map<CartBattery, Request> requests = new IdentityHashMap<>();
+    private final List<Request> sorted = new ArrayList<>();
+    private double demand;
+
+    private static final class Request {
+        private final CartBattery battery;
+        private ChargeNetwork.ChargeNode node;
+        private double amount;
+
+        private Request(CartBattery battery) {
+            this.battery = battery;
+        }
+    }
+
+    /**
+     * A cart that requests more than once in a tick only keeps its last request.
+     */
+    void request(CartBattery battery, ChargeNetwork.ChargeNode node, double amount) {
+        if (amount <= 0.0)
+            return;
+        Request request = requests.computeIfAbsent(battery, Request::new);
+        demand += amount - request.amount;
+        request.node = node;
+        request.amount = amount;
+    }
+
+    int size() {
+        return requests.size();
+    }
+
+    double getDemand() {
+        return demand;
+    }
+
+    void clear() {
+        requests.clear();
+        demand = 0.0;
+    }
+
+    /**
+     * Splits the charge withdrawn from the grid between the carts and clears the requests.
+     */
+    void distribute(double available) {
+        if (requests.isEmpty())
+            return;
+        sorted.addAll(requests.values());
+        sorted.sort((a, b) -> Double.compare(a.amount, b.amount));
+        double remaining = available;
+        for (int i = 0; i < sorted.size(); i++) {
+            Request request = sorted.get(i);
+            double share = remaining / (sorted.size() - i);
+            double delivered = Math.min(request.amount, share);
+            remaining -= delivered;
+            request.battery.receiveTraction(delivered);
+            request.node.onTractionDraw(delivered);
+        }
+        sorted.clear();
+        clear();
+    }
+}
@@ -10,141 +10,181 @@
 
 package mods.railcraft.common.util.chest;
 
+import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.items.Metal;
+import mods.railcraft.common.util.inventory.InvOp;
 import mods.railcraft.common.util.inventory.InvTools;
 import mods.railcraft.common.util.inventory.filters.StackFilters;
+import mods.railcraft.common.util.inventory.iterators.IInvSlot;
+import mods.railcraft.common.util.inventory.iterators.InventoryIterator;
 import mods.railcraft.common.util.inventory.manipulators.InventoryManipulator;
 import net.minecraft.inventory.IInventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.EnumMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Predicate;
 
+import static mods.railcraft.common.util.inventory.InvTools.sizeOf;
+
 /**
  * The logic behind the metals chest.
+ *
+ * Each update counts the nuggets, ingots and blocks of every metal in one pass over the chest,
+ * then condenses nuggets into ingots and ingots into blocks as many at a time as the counts allow,
+ * and finally swaps nuggets, ingots and blocks from other mods for Railcraft ones.
+ * The number of items converted per update is limited by a budget, so a full chest may take a few updates.
  */
 public class MetalsChestLogic extends ChestLogic {
 
-    static final Map<Metal, Predicate<ItemStack>> nuggetFilters = new EnumMap<>(Metal.class);
-    static final Map<Metal, Predicate<ItemStack>> ingotFilters = new EnumMap<>(Metal.class);
-    static final Map<Metal, Predicate<ItemStack>> blockFilters = new EnumMap<>(Metal.class);
+    public static final int RATIO = 9;
+    @Nullable
+    private static List<Condenser> metals;
+    private final List<Condenser> condensers;
+    private final int itemsPerOperation;
 
-    static {
-        //TODO add compressions e.g. emerald, lapis, coke, diamond, redstone
-        for (Metal m : Metal.VALUES) {
-            nuggetFilters.put(m, StackFilters.noneOf(m.getStack(Metal.Form.NUGGET)).and(m.nuggetFilter));
-            ingotFilters.put(m, StackFilters.noneOf(m.getStack(Metal.Form.INGOT)).and(m.ingotFilter));
-            blockFilters.put(m, StackFilters.noneOf(m.getStack(Metal.Form.BLOCK)).and(m.blockFilter));
-        }
+    public MetalsChestLogic(World world, IInventory inventory) {
+        this(world, inventory, getMetals(), RailcraftConfig.metalsChestItemsPerOperation());
     }
 
-    private Target target = Target.NUGGET_CONDENSE;
-
-    public MetalsChestLogic(World world, IInventory inventory) {
+    public MetalsChestLogic(World world, IInventory inventory, List<Condenser> condensers, int itemsPerOperation) {
         super(world, inventory);
+        this.condensers = condensers;
+        this.itemsPerOperation = itemsPerOperation;
+    }
+
+    private static List<Condenser> getMetals() {
+        if (metals == null) {
+            //TODO add compressions e.g. emerald, lapis, coke, diamond, redstone
+            List<Condenser> list = new ArrayList<>();
+            for (Metal m : Metal.VALUES) {
+                list.add(new Condenser(m.nuggetFilter, m.ingotFilter, m.blockFilter,
+                        m.getStack(Metal.Form.NUGGET), m.getStack(Metal.Form.INGOT), m.getStack(Metal.Form.BLOCK)));
+            }
+            metals = Collections.unmodifiableList(list);
+        }
+        return metals;
     }
 
     @Override
     public void update() {
-        if (!target.evaluate(inventory))
-            target = target.next();
+        Tally[] tallies = count();
+        InventoryManipulator im = InventoryManipulator.get(inventory);
+        int budget = itemsPerOperation;
+        for (int i = 0; i < tallies.length && budget >= RATIO; i++) {
+            Condenser condenser = condensers.get(i);
+            Tally tally = tallies[i];
+            int ingots = convert(im, condenser.nuggetFilter, RATIO, condenser.ingot, Math.min(tally.nuggets, budget) / RATIO);
+            budget -= ingots * RATIO;
+            tally.ingots += ingots;
+            int blocks = convert(im, condenser.ingotFilter, RATIO, condenser.block, Math.min(tally.ingots, budget) / RATIO);
+            budget -= blocks * RATIO;
+        }
+        for (int i = 0; i < tallies.length && budget > 0; i++) {
+            Condenser condenser = condensers.get(i);
+            Tally tally = tallies[i];
+            budget -= convert(im, condenser.otherNuggets, 1, condenser.nugget, Math.min(tally.otherNuggets, budget));
+            budget -= convert(im, condenser.otherIngots, 1, condenser.ingot, Math.min(tally.otherIngots, budget));
+            budget -= convert(im, condenser.otherBlocks, 1, condenser.block, Math.min(tally.otherBlocks, budget));
+        }
     }
 
-    enum Target {
-
-        NUGGET_CONDENSE {
-            @Override
-            public boolean evaluate(IInventory inv) {
-                InventoryManipulator im = InventoryManipulator.get(inv);
-                for (Metal metal : Metal.VALUES) {
-                    ItemStack ingotStack = metal.getStack(Metal.Form.INGOT);
-                    if (!InvTools.isEmpty(ingotStack) && im.canRemoveItems(metal.nuggetFilter, 9) && im.canAddStack(ingotStack)) {
-                        im.removeItems(metal.nuggetFilter, 9);
-                        im.addStack(ingotStack);
-                        return true;
-                    }
-                }
-                return false;
+    private Tally[] count() {
+        Tally[] tallies = new Tally[condensers.size()];
+        for (int i = 0; i < tallies.length; i++) {
+            tallies[i] = new Tally();
+        }
+        for (IInvSlot slot : InventoryIterator.getVanilla(inventory)) {
+            ItemStack stack = slot.getStack();
+            if (InvTools.isEmpty(stack) || !slot.canTakeStackFromSlot(stack))
+                continue;
+            for (int i = 0; i < tallies.length; i++) {
+                if (condensers.get(i).tally(stack, tallies[i]))
+                    break;
             }
+        }
+        return tallies;
+    }
 
-        },
-        INGOT_CONDENSE {
-            @Override
-            public boolean evaluate(IInventory inv) {
-                InventoryManipulator im = InventoryManipulator.get(inv);
-                for (Metal metal : Metal.VALUES) {
-                    ItemStack blockStack = metal.getStack(Metal.Form.BLOCK);
-                    if (!InvTools.isEmpty(blockStack) && im.canRemoveItems(metal.ingotFilter, 9) && im.canAddStack(blockStack)) {
-                        im.removeItems(metal.ingotFilter, 9);
-                        im.addStack(blockStack);
-                        return true;
-                    }
-                }
-                return false;
-            }
+    /**
+     * Swaps inputs for outputs, checking for room and enough inputs before anything is removed.
+     * If all the outputs don't fit, half as many are tried until they do.
+     *
+     * @return the number of outputs made
+     */
+    private static int convert(InventoryManipulator im, Predicate<ItemStack> input, int ratio, ItemStack output, int outputs) {
+        if (outputs <= 0 || InvTools.isEmpty(output))
+            return 0;
+        // Only take whole multiples of the ratio, anything short of one more output stays in the chest
+        int available = im.removeItems(input, outputs * ratio, InvOp.SIMULATE).stream().mapToInt(InvTools::sizeOf).sum();
+        outputs = Math.min(outputs, available / ratio);
+        while (outputs > 0 && !im.canAddStack(InvTools.copy(output, outputs))) {
+            outputs /= 2;
+        }
+        if (outputs <= 0)
+            return 0;
+        im.removeItems(input, outputs * ratio);
+        im.addStack(InvTools.copy(output, outputs));
+        return outputs;
+    }
 
-        },
-        NUGGET_SWAP {
-            @Override
-            public boolean evaluate(IInventory inv) {
-                InventoryManipulator im = InventoryManipulator.get(inv);
-                for (Metal metal : Metal.VALUES) {
-                    Predicate<ItemStack> filter = nuggetFilters.get(metal);
-                    ItemStack nuggetStack = metal.getStack(Metal.Form.NUGGET);
-                    if (!InvTools.isEmpty(nuggetStack) && im.canRemoveItems(filter, 1) && im.canAddStack(nuggetStack)) {
-                        im.removeItems(filter, 1);
-                        im.addStack(nuggetStack);
-                        return true;
-                    }
-                }
-                return false;
-            }
+    /**
+     * The three forms of one material and the Railcraft stack each of them condenses or swaps into.
+     */
+    public static final class Condenser {
+        public final Predicate<ItemStack> nuggetFilter;
+        public final Predicate<ItemStack> ingotFilter;
+        public final Predicate<ItemStack> blockFilter;
+        public final ItemStack nugget;
+        public final ItemStack ingot;
+        public final ItemStack block;
+        private final Predicate<ItemStack> otherNuggets;
+        private final Predicate<ItemStack> otherIngots;
+        private final Predicate<ItemStack> otherBlocks;
+
+        public Condenser(Predicate<ItemStack> nuggetFilter, Predicate<ItemStack> ingotFilter, Predicate<ItemStack> blockFilter,
+                         ItemStack nugget, ItemStack ingot, ItemStack block) {
+            this.nuggetFilter = nuggetFilter;
+            this.ingotFilter = ingotFilter;
+            this.blockFilter = blockFilter;
+            this.nugget = nugget;
+            this.ingot = ingot;
+            this.block = block;
+            otherNuggets = StackFilters.noneOf(nugget).and(nuggetFilter);
+            otherIngots = StackFilters.noneOf(ingot).and(ingotFilter);
+            otherBlocks = StackFilters.noneOf(block).and(blockFilter);
+        }
 
-        },
-        INGOT_SWAP {
-            @Override
-            public boolean evaluate(IInventory inv) {
-                InventoryManipulator im = InventoryManipulator.get(inv);
-                for (Metal metal : Metal.VALUES) {
-                    Predicate<ItemStack> filter = ingotFilters.get(metal);
-                    ItemStack ingotStack = metal.getStack(Metal.Form.INGOT);
-                    if (!InvTools.isEmpty(ingotStack) && im.canRemoveItems(filter, 1) && im.canAddStack(ingotStack)) {
-                        im.removeItems(filter, 1);
-                        im.addStack(ingotStack);
-                        return true;
-                    }
-                }
-                return false;
+        /**
+         * @return true if the stack is one of the three forms
+         */
+        private boolean tally(ItemStack stack, Tally tally) {
+            if (nuggetFilter.test(stack)) {
+                tally.nuggets += sizeOf(stack);
+                if (otherNuggets.test(stack))
+                    tally.otherNuggets += sizeOf(stack);
+                return true;
             }
-
-        },
-        BLOCK_SWAP {
-            @Override
-            public boolean evaluate(IInventory inv) {
-                InventoryManipulator im = InventoryManipulator.get(inv);
-                for (Metal metal : Metal.VALUES) {
-                    Predicate<ItemStack> filter = blockFilters.get(metal);
-                    ItemStack blockStack = metal.getStack(Metal.Form.BLOCK);
-                    if (!InvTools.isEmpty(blockStack) && im.canRemoveItems(filter, 1) && im.canAddStack(blockStack)) {
-                        im.removeItems(filter, 1);
-                        im.addStack(blockStack);
-                        return true;
-                    }
-                }
-                return false;
+            if (ingotFilter.test(stack)) {
+                tally.ingots += sizeOf(stack);
+                if (otherIngots.test(stack))
+                    tally.otherIngots += sizeOf(stack);
+                return true;
             }
-
-        };
-
-        public static final Target[] VALUES = values();
-
-        public abstract boolean evaluate(IInventory inv);
-
-        public Target next() {
-            return VALUES[(ordinal() + 1) % VALUES.length];
+            if (blockFilter.test(stack)) {
+                if (otherBlocks.test(stack))
+                    tally.otherBlocks += sizeOf(stack);
+                return true;
+            }
+            return false;
         }
+    }
 
+    private static final class Tally {
+        private int nuggets, ingots;
+        private int otherNuggets, otherIngots, otherBlocks;
     }
 }
@@ -10,28 +10,210 @@
 
 package mods.railcraft.common.util.chest;
 
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import mods.railcraft.api.items.IFilterItem;
+import mods.railcraft.common.core.RailcraftConfig;
+import mods.railcraft.common.plugins.forge.ChatPlugin;
+import mods.railcraft.common.plugins.forge.NBTPlugin;
+import mods.railcraft.common.util.collections.ItemKey;
 import mods.railcraft.common.util.inventory.InvTools;
+import mods.railcraft.common.util.inventory.InventoryAdvanced;
+import mods.railcraft.common.util.misc.Game;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.inventory.IInventory;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.EnumHand;
+import net.minecraft.util.ResourceLocation;
 import net.minecraft.world.World;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static mods.railcraft.common.util.inventory.InvTools.sizeOf;
+
 /**
  * The logic behind the void chest.
+ *
+ * Each update destroys up to a set number of items, taken from the first slots that pass the filter.
+ * An empty filter lets everything through, otherwise it either lists the only items to destroy or the items to keep.
+ * Everything destroyed is counted per item for as long as the chest exists.
  */
 public class VoidChestLogic extends ChestLogic {
 
+    public static final int FILTER_SLOTS = 9;
+    private static final int TALLY_LINES = 5;
+    private final int itemsPerOperation;
+    private final InventoryAdvanced filter = new InventoryAdvanced(FILTER_SLOTS).phantom();
+    private boolean whitelist;
+    private final Object2LongMap<ItemKey> destroyed = new Object2LongOpenHashMap<>();
+    private long totalDestroyed;
+
     public VoidChestLogic(World world, IInventory inventory) {
+        this(world, inventory, RailcraftConfig.voidChestItemsPerOperation());
+    }
+
+    public VoidChestLogic(World world, IInventory inventory, int itemsPerOperation) {
         super(world, inventory);
+        this.itemsPerOperation = itemsPerOperation;
     }
 
     @Override
     public void update() {
-        for (int slot = 0; slot < inventory.getSizeInventory(); slot++) {
+        int remaining = itemsPerOperation;
+        for (int slot = 0; slot < inventory.getSizeInventory() && remaining > 0; slot++) {
             ItemStack stack = inventory.getStackInSlot(slot);
-            if (!InvTools.isEmpty(stack)) {
-                inventory.decrStackSize(slot, 1);
-                break;
+            if (!InvTools.isEmpty(stack) && canDestroy(stack)) {
+                ItemStack removed = inventory.decrStackSize(slot, Math.min(remaining, sizeOf(stack)));
+                if (!InvTools.isEmpty(removed)) {
+                    remaining -= sizeOf(removed);
+                    destroyed.merge(new ItemKey(removed), (long) sizeOf(removed), Long::sum);
+                    totalDestroyed += sizeOf(removed);
+                }
+            }
+        }
+    }
+
+    public boolean canDestroy(ItemStack stack) {
+        if (filter.hasNoItems())
+            return true;
+        return filter.streamStacks().anyMatch(f -> InvTools.matchesFilter(f, stack)) == whitelist;
+    }
+
+    public boolean isFiltered(ItemStack stack) {
+        return filter.streamStacks().anyMatch(f -> InvTools.isItemEqual(f, stack));
+    }
+
+    /**
+     * @return false if the filter is full
+     */
+    public boolean addFilter(ItemStack stack) {
+        for (int slot = 0; slot < filter.getSizeInventory(); slot++) {
+            if (InvTools.isEmpty(filter.getStackInSlot(slot))) {
+                filter.setInventorySlotContents(slot, InvTools.copyOne(stack));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void removeFilter(ItemStack stack) {
+        for (int slot = 0; slot < filter.getSizeInventory(); slot++) {
+            if (InvTools.isItemEqual(filter.getStackInSlot(slot), stack))
+                filter.setInventorySlotContents(slot, ItemStack.EMPTY);
+        }
+    }
+
+    /**
+     * Clicking with a filter item adds it to the filter or takes it back out,
+     * sneaking with an empty hand switches between destroying only the listed items and keeping them.
+     *
+     * @return true if the click was used
+     */
+    public boolean interact(EntityPlayer player, EnumHand hand) {
+        ItemStack heldItem = player.getHeldItem(hand);
+        if (heldItem.getItem() instanceof IFilterItem) {
+            if (Game.isHost(player.world)) {
+                if (isFiltered(heldItem)) {
+                    removeFilter(heldItem);
+                    ChatPlugin.sendLocalizedChatFromServer(player, "gui.railcraft.void.chest.filter.removed", heldItem.getTextComponent());
+                } else if (addFilter(heldItem)) {
+                    ChatPlugin.sendLocalizedChatFromServer(player, "gui.railcraft.void.chest.filter.added", heldItem.getTextComponent());
+                } else {
+                    ChatPlugin.sendLocalizedChatFromServer(player, "gui.railcraft.void.chest.filter.full", FILTER_SLOTS);
+                }
+            }
+            return true;
+        }
+        if (player.isSneaking() && InvTools.isEmpty(heldItem)) {
+            if (Game.isHost(player.world)) {
+                whitelist = !whitelist;
+                ChatPlugin.sendLocalizedChatFromServer(player, whitelist ? "gui.railcraft.void.chest.filter.whitelist" : "gui.railcraft.void.chest.filter.blacklist");
             }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tells the player what the chest destroys and what it has destroyed so far.
+     */
+    public void sendReport(EntityPlayer viewer) {
+        long filters = filter.streamStacks().count();
+        if (filters == 0)
+            ChatPlugin.sendLocalizedChatFromServer(viewer, "gui.railcraft.void.chest.filter.none");
+        else
+            ChatPlugin.sendLocalizedChatFromServer(viewer, whitelist ? "gui.railcraft.void.chest.filter.whitelist.count" : "gui.railcraft.void.chest.filter.blacklist.count", filters);
+        ChatPlugin.sendLocalizedChatFromServer(viewer, "gui.railcraft.void.chest.destroyed", totalDestroyed);
+        for (ItemStack stack : getMostDestroyed(TALLY_LINES)) {
+            ChatPlugin.sendLocalizedChatFromServer(viewer, "gui.railcraft.void.chest.destroyed.item", stack.getTextComponent(), getDestroyed(stack));
+        }
+    }
+
+    public InventoryAdvanced getFilter() {
+        return filter;
+    }
+
+    public boolean isWhitelist() {
+        return whitelist;
+    }
+
+    public void setWhitelist(boolean whitelist) {
+        this.whitelist = whitelist;
+    }
+
+    public long getDestroyed(ItemStack stack) {
+        return destroyed.getLong(new ItemKey(stack));
+    }
+
+    public long getTotalDestroyed() {
+        return totalDestroyed;
+    }
+
+    /**
+     * @return the items destroyed the most, most first, as stacks of one
+     */
+    public List<ItemStack> getMostDestroyed(int limit) {
+        return destroyed.object2LongEntrySet().stream()
+                .sorted(Comparator.comparingLong(Object2LongMap.Entry<ItemKey>::getLongValue).reversed())
+                .limit(limit)
+                .map(entry -> new ItemStack(entry.getKey().item, 1, entry.getKey().metadata))
+                .collect(Collectors.toList());
+    }
+
+    public void writeToNBT(NBTTagCompound data) {
+        filter.writeToNBT("voidFilter", data);
+        data.setBoolean("voidWhitelist", whitelist);
+        NBTTagList list = new NBTTagList();
+        for (Object2LongMap.Entry<ItemKey> entry : destroyed.object2LongEntrySet()) {
+            ResourceLocation name = entry.getKey().item.getRegistryName();
+            if (name == null)
+                continue;
+            NBTTagCompound tag = new NBTTagCompound();
+            tag.setString("id", name.toString());
+            tag.setShort("meta", (short) entry.getKey().metadata);
+            tag.setLong("count", entry.getLongValue());
+            list.appendTag(tag);
+        }
+        data.setTag("voided", list);
+    }
+
+    public void readFromNBT(NBTTagCompound data) {
+        filter.readFromNBT("voidFilter", data);
+        whitelist = data.getBoolean("voidWhitelist");
+        destroyed.clear();
+        totalDestroyed = 0;
+        for (NBTTagCompound tag : NBTPlugin.getNBTList(data, "voided", NBTTagCompound.class)) {
+            Item item = Item.getByNameOrId(tag.getString("id"));
+            if (item == null)
+                continue;
+            long count = tag.getLong("count");
+            destroyed.merge(new ItemKey(item, tag.getShort("meta")), count, Long::sum);
+            totalDestroyed += count;
         }
     }
 }
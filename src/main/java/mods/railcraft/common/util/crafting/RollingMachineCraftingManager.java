@@ -27,6 +27,7 @@ import net.minecraftforge.fml.common.registry.ForgeRegistries;
 import org.apache.logging.log4j.Level;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -37,7 +38,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 public final class RollingMachineCraftingManager implements IRollingMachineCraftingManager {
 
-    private final List<IRollingMachineRecipe> recipes = new ArrayList<>();
+    private final List<IRollingMachineRecipe> recipes = new RecipeList();
+    private @Nullable RollingRecipeIndex index;
     private static final RollingMachineCraftingManager INSTANCE = new RollingMachineCraftingManager();
     private static final InventoryCrafting EMPTY_CRAFTING_INVENTORY = new InventoryCrafting(new Container() {
         @Override
@@ -65,12 +67,16 @@ public final class RollingMachineCraftingManager implements IRollingMachineCraft
 
     @Override
     public IRollingMachineRecipe findMatching(InventoryCrafting inventoryCrafting) {
-        for (IRollingMachineRecipe recipe : recipes) {
-            if (recipe.test(inventoryCrafting)) {
-                return recipe;
-            }
+        return getIndex().find(inventoryCrafting);
+    }
+
+    private RollingRecipeIndex getIndex() {
+        RollingRecipeIndex index = this.index;
+        if (index == null) {
+            index = new RollingRecipeIndex(recipes);
+            this.index = index;
         }
-        return null;
+        return index;
     }
 
     @Override
@@ -149,6 +155,45 @@ public final class RollingMachineCraftingManager implements IRollingMachineCraft
         addRecipe(recipe);
     }
 
+    /**
+     * The recipe list is handed out by getRecipes() and scripts edit it directly, so every change to it
+     * throws away the index. Everything else on the list, its iterators and sub lists included, goes
+     * through these methods.
+     */
+    private final class RecipeList extends AbstractList<IRollingMachineRecipe> {
+        private final List<IRollingMachineRecipe> list = new ArrayList<>();
+
+        @Override
+        public IRollingMachineRecipe get(int i) {
+            return list.get(i);
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public IRollingMachineRecipe set(int i, IRollingMachineRecipe recipe) {
+            index = null;
+            return list.set(i, recipe);
+        }
+
+        @Override
+        public void add(int i, IRollingMachineRecipe recipe) {
+            index = null;
+            modCount++;
+            list.add(i, recipe);
+        }
+
+        @Override
+        public IRollingMachineRecipe remove(int i) {
+            index = null;
+            modCount++;
+            return list.remove(i);
+        }
+    }
+
     private static abstract class RecipeBuilderImpl<S extends RecipeBuilder<S>> implements RecipeBuilder<S> {
         List<Ingredient> ingredients;
         ItemStack output;
@@ -0,0 +1,136 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.util.crafting;
+
+import mods.railcraft.api.crafting.IRollingMachineRecipe;
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.Ingredient;
+import net.minecraftforge.oredict.OreIngredient;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Narrows the rolling machine recipes down to the few that can match a grid before testing them.
+ *
+ * Each recipe is filed under the items of its most selective ingredient, so only recipes filed under one
+ * of the items in the grid are candidates. Candidates are then skipped when they need a different number of
+ * items than the grid holds, or when the grid's items span more rows or columns than a shaped recipe has.
+ * Whatever is left is tested in registration order, so the result is always the recipe the linear scan
+ * would find. Recipes with ingredients that can't list everything they match are always tested.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public final class RollingRecipeIndex {
+    private static final int ANY = -1;
+
+    private final List<IRollingMachineRecipe> recipes;
+    private final Map<Item, BitSet> byItem = new HashMap<>();
+    private final BitSet unindexed = new BitSet();
+    private final int[] counts;
+    private final int[] widths;
+    private final int[] heights;
+
+    public RollingRecipeIndex(List<IRollingMachineRecipe> recipes) {
+        this.recipes = new ArrayList<>(recipes);
+        int size = this.recipes.size();
+        counts = new int[size];
+        widths = new int[size];
+        heights = new int[size];
+        for (int i = 0; i < size; i++) {
+            IRollingMachineRecipe recipe = this.recipes.get(i);
+            counts[i] = ANY;
+            widths[i] = Integer.MAX_VALUE;
+            heights[i] = Integer.MAX_VALUE;
+            List<Ingredient> ingredients;
+            if (recipe instanceof ShapedRollingMachineRecipe) {
+                ShapedRollingMachineRecipe shaped = (ShapedRollingMachineRecipe) recipe;
+                ingredients = shaped.getIngredients();
+                widths[i] = shaped.getWidth();
+                heights[i] = shaped.getHeight();
+                // Blank spots take nothing, but an ingredient that may be left empty makes the count unknown
+                if (ingredients.stream().noneMatch(ingredient -> ingredient != Ingredient.EMPTY && ingredient.apply(ItemStack.EMPTY)))
+                    counts[i] = (int) ingredients.stream().filter(ingredient -> ingredient != Ingredient.EMPTY).count();
+            } else if (recipe instanceof ShapelessRollingMachineRecipe) {
+                ingredients = ((ShapelessRollingMachineRecipe) recipe).getIngredients();
+                counts[i] = ingredients.size();
+            } else {
+                unindexed.set(i);
+                continue;
+            }
+            Set<Item> anchor = anchor(ingredients);
+            if (anchor.isEmpty())
+                unindexed.set(i);
+            for (Item item : anchor) {
+                byItem.computeIfAbsent(item, k -> new BitSet()).set(i);
+            }
+        }
+    }
+
+    /**
+     * @return the items of the ingredient matching the fewest items, or nothing if no ingredient can list its items
+     */
+    private static Set<Item> anchor(List<Ingredient> ingredients) {
+        Set<Item> best = Collections.emptySet();
+        for (Ingredient ingredient : ingredients) {
+            if (!isListable(ingredient) || ingredient.apply(ItemStack.EMPTY))
+                continue;
+            Set<Item> items = new HashSet<>();
+            for (ItemStack stack : ingredient.getMatchingStacks()) {
+                if (!stack.isEmpty())
+                    items.add(stack.getItem());
+            }
+            if (!items.isEmpty() && (best.isEmpty() || items.size() < best.size()))
+                best = items;
+        }
+        return best;
+    }
+
+    /**
+     * Only plain and ore dictionary ingredients are known to match nothing but their matching stacks.
+     */
+    private static boolean isListable(Ingredient ingredient) {
+        return ingredient.getClass() == Ingredient.class || ingredient.getClass() == OreIngredient.class;
+    }
+
+    public @Nullable IRollingMachineRecipe find(InventoryCrafting inv) {
+        BitSet candidates = (BitSet) unindexed.clone();
+        int filled = 0;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = -1, maxY = -1;
+        for (int slot = 0; slot < inv.getSizeInventory(); slot++) {
+            ItemStack stack = inv.getStackInSlot(slot);
+            if (stack.isEmpty())
+                continue;
+            filled++;
+            int x = slot % inv.getWidth();
+            int y = slot / inv.getWidth();
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            BitSet filed = byItem.get(stack.getItem());
+            if (filed != null)
+                candidates.or(filed);
+        }
+        int width = maxX - minX + 1;
+        int height = maxY - minY + 1;
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (counts[i] != ANY && (counts[i] != filled || widths[i] < width || heights[i] < height))
+                continue;
+            IRollingMachineRecipe recipe = recipes.get(i);
+            if (recipe.test(inv))
+                return recipe;
+        }
+        return null;
+    }
+}
@@ -82,6 +82,10 @@ public final class ShapedRollingMachineRecipe implements IRollingMachineRecipe {
         return width;
     }
 
+    public int getHeight() {
+        return height;
+    }
+
     public List<Ingredient> getIngredients() {
         return ingredients;
     }
@@ -48,7 +48,7 @@ public class CommonEffectProxy implements IEffectManager {
             RailcraftOutputStream data = pkt.getOutputStream();
             data.writeVec3d(entity.getPositionVector());
             data.writeVec3d(destination);
-            pkt.sendPacket(entity.world, entity.getPositionVector());
+            pkt.sendPacket(entity.world, entity.getPositionVector(), destination);
         } catch (IOException ignored) {
         }
 
@@ -82,7 +82,7 @@ public class CommonEffectProxy implements IEffectManager {
             RailcraftOutputStream data = pkt.getOutputStream();
             data.writeVec3d(start);
             data.writeVec3d(end);
-            pkt.sendPacket(world, start);
+            pkt.sendPacket(world, start, end);
         } catch (IOException ignored) {
         }
     }
@@ -0,0 +1,240 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.util.effects;
+
+import com.google.common.collect.MapMaker;
+import mods.railcraft.common.util.misc.Game;
+import mods.railcraft.common.util.network.PacketDispatcher;
+import mods.railcraft.common.util.network.PacketEffect;
+import mods.railcraft.common.util.network.PacketEffect.Effect;
+import mods.railcraft.common.util.network.RailcraftOutputStream;
+import mods.railcraft.common.util.network.RailcraftPacket;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Collects the effects produced on the server during a world tick and sends them to each player in one packet.
+ *
+ * Effects of the same type starting and ending in the same blocks are merged. Each player only receives
+ * the effects within the range the client would display them at, minus the ones the client's particle setting
+ * would skip anyway.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public enum EffectBatcher {
+    INSTANCE;
+
+    /**
+     * Custom payload packet id, channel name and the Railcraft packet id.
+     */
+    private static final int PACKET_OVERHEAD = 1 + 1 + RailcraftPacket.CHANNEL_NAME.length() + 1;
+    private static final int MAX_BATCH = Short.MAX_VALUE;
+
+    private final Map<World, Map<Key, Queued>> queued = new MapMaker().weakKeys().makeMap();
+    private final Map<UUID, Integer> particleSettings = new HashMap<>();
+    private final Stats stats = new Stats();
+
+    public Stats getStats() {
+        return stats;
+    }
+
+    public void setParticleSetting(EntityPlayerMP player, int setting) {
+        particleSettings.put(player.getUniqueID(), setting);
+    }
+
+    public void queue(World world, PacketEffect packet, Vec3d start, Vec3d end) {
+        Game.notClient(world);
+        Key key = new Key(packet.getEffect(), new BlockPos(start).toLong(), new BlockPos(end).toLong());
+        Map<Key, Queued> effects = queued.computeIfAbsent(world, w -> new LinkedHashMap<>());
+        Queued effect = effects.get(key);
+        stats.queued++;
+        if (effect != null) {
+            effect.copies++;
+            stats.merged++;
+        } else {
+            effects.put(key, new Queued(packet.getEffect(), start, packet.getPayload()));
+        }
+    }
+
+    @SubscribeEvent
+    public void tick(TickEvent.WorldTickEvent event) {
+        if (event.side != Side.SERVER || event.phase != TickEvent.Phase.END)
+            return;
+        Map<Key, Queued> effects = queued.remove(event.world);
+        if (effects == null || effects.isEmpty())
+            return;
+        List<Queued> batch = new ArrayList<>();
+        for (EntityPlayer entityPlayer : event.world.playerEntities) {
+            if (!(entityPlayer instanceof EntityPlayerMP))
+                continue;
+            EntityPlayerMP player = (EntityPlayerMP) entityPlayer;
+            boolean minimal = particleSettings.getOrDefault(player.getUniqueID(), 0) >= 2;
+            int unbatchedBytes = 0;
+            for (Queued effect : effects.values()) {
+                double distSq = player.getDistanceSq(effect.pos.x, effect.pos.y, effect.pos.z);
+                // Effects used to be sent to everyone within 80 blocks, one packet per effect
+                if (distSq <= 80 * 80) {
+                    stats.unbatchedPackets += effect.copies;
+                    unbatchedBytes += effect.copies * (PACKET_OVERHEAD + 1 + effect.payload.length);
+                }
+                if (distSq > effect.effect.range * effect.effect.range || (minimal && effect.effect.canDisable)) {
+                    stats.culled++;
+                    continue;
+                }
+                batch.add(effect);
+            }
+            int sentBytes = send(player, batch);
+            stats.bytesSent += sentBytes;
+            stats.bytesSaved += unbatchedBytes - sentBytes;
+            batch.clear();
+        }
+    }
+
+    private int send(EntityPlayerMP player, List<Queued> batch) {
+        if (batch.isEmpty())
+            return 0;
+        if (batch.size() == 1) {
+            Queued effect = batch.get(0);
+            PacketDispatcher.sendToPlayer(new PacketEffect(effect.effect, effect.payload), player);
+            stats.packets++;
+            return PACKET_OVERHEAD + 1 + effect.payload.length;
+        }
+        int bytes = 0;
+        for (int start = 0; start < batch.size(); start += MAX_BATCH) {
+            List<Queued> part = batch.subList(start, Math.min(batch.size(), start + MAX_BATCH));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (RailcraftOutputStream data = new RailcraftOutputStream(out)) {
+                data.writeShort(part.size());
+                for (Queued effect : part) {
+                    data.writeShort(effect.payload.length + 1);
+                    data.writeByte(effect.effect.ordinal());
+                    data.write(effect.payload);
+                }
+            } catch (IOException ignored) {
+            }
+            byte[] payload = out.toByteArray();
+            PacketDispatcher.sendToPlayer(new PacketEffect(Effect.BATCH, payload), player);
+            stats.packets++;
+            bytes += PACKET_OVERHEAD + 1 + payload.length;
+        }
+        return bytes;
+    }
+
+    @SubscribeEvent
+    public void logout(PlayerEvent.PlayerLoggedOutEvent event) {
+        particleSettings.remove(event.player.getUniqueID());
+    }
+
+    private static final class Key {
+        private final Effect effect;
+        private final long start;
+        private final long end;
+
+        private Key(Effect effect, long start, long end) {
+            this.effect = effect;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key) obj;
+            return effect == other.effect && start == other.start && end == other.end;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = effect.hashCode();
+            hash = 31 * hash + Long.hashCode(start);
+            hash = 31 * hash + Long.hashCode(end);
+            return hash;
+        }
+    }
+
+    private static final class Queued {
+        private final Effect effect;
+        private final Vec3d pos;
+        private final byte[] payload;
+        private int copies = 1;
+
+        private Queued(Effect effect, Vec3d pos, byte[] payload) {
+            this.effect = effect;
+            this.pos = pos;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Running totals since the server started, for "/railcraft debug effects".
+     */
+    public static final class Stats {
+        private long queued;
+        private long merged;
+        private long culled;
+        private long packets;
+        private long unbatchedPackets;
+        private long bytesSent;
+        private long bytesSaved;
+
+        public long getQueued() {
+            return queued;
+        }
+
+        public long getMerged() {
+            return merged;
+        }
+
+        public long getCulled() {
+            return culled;
+        }
+
+        public long getPackets() {
+            return packets;
+        }
+
+        public long getPacketsSaved() {
+            return unbatchedPackets - packets;
+        }
+
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        public long getBytesSaved() {
+            return bytesSaved;
+        }
+
+        public void reset() {
+            queued = 0;
+            merged = 0;
+            culled = 0;
+            packets = 0;
+            unbatchedPackets = 0;
+            bytesSent = 0;
+            bytesSaved = 0;
+        }
+    }
+}
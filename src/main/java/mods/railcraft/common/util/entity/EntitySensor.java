@@ -0,0 +1,312 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.util.entity;
+
+import com.google.common.collect.MapMaker;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import mods.railcraft.common.util.misc.Game;
+import mods.railcraft.common.util.profiler.TickProfiler;
+import mods.railcraft.common.util.profiler.TickProfiler.Section;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EntitySelectors;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Keeps track of the living entities inside the regions tiles have registered, so each tile doesn't have
+ * to search the world for them on its own.
+ *
+ * The sensor files every region under the chunk sections it touches. Once per tick it reads the living
+ * entities of each of those sections once and offers each entity only to the regions filed under its
+ * section, so a region's work depends on the entities near it, not on how many other regions there are.
+ * Each region then drops the entities it didn't see this tick and tells its {@link Listener} who entered
+ * and who left.
+ *
+ * Regions are only worth keeping for tiles that look at them every tick. Tiles that only need to look
+ * now and then should release their region while idle, registering again fills it right away.
+ * Regions belong to a tile and are dropped when it's invalidated or {@link #release(TileEntity) released}.
+ * The sensor only runs on the server.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public final class EntitySensor {
+    private static final Map<World, EntitySensor> sensors = new MapMaker().weakKeys().makeMap();
+
+    private final List<Region<?>> regions = new ArrayList<>();
+    private final Long2ObjectMap<Bucket> sections = new Long2ObjectOpenHashMap<>();
+    private long tick;
+    private long visits;
+
+    public static Object getTicker() {
+        return new Object() {
+            @SubscribeEvent
+            public void tick(TickEvent.WorldTickEvent event) {
+                if (event.side == Side.SERVER && event.phase == TickEvent.Phase.END) {
+                    EntitySensor sensor = sensors.get(event.world);
+                    if (sensor == null)
+                        return;
+                    long start = TickProfiler.start();
+                    sensor.tick(sectionsOf(event.world));
+                    TickProfiler.stop(Section.SENSORS, start, event.world);
+                }
+            }
+        };
+    }
+
+    /**
+     * Registers a region owned by a tile. The region is filled right away and kept up to date every tick after.
+     */
+    public static <T extends EntityLivingBase> Region<T> register(TileEntity owner, Class<T> type, AxisAlignedBB box) {
+        World world = owner.getWorld();
+        Game.notClient(world);
+        return sensors.computeIfAbsent(world, w -> new EntitySensor()).add(owner, type, box, sectionsOf(world));
+    }
+
+    /**
+     * Drops all the regions of a tile, call when it unloads or stops needing them.
+     */
+    public static void release(TileEntity owner) {
+        //noinspection ConstantConditions
+        if (owner.getWorld() == null)
+            return;
+        EntitySensor sensor = sensors.get(owner.getWorld());
+        if (sensor != null)
+            sensor.removeIf(region -> region.owner == owner);
+    }
+
+    private static SectionSource sectionsOf(World world) {
+        return (x, y, z, sink) -> {
+            Chunk chunk = world.getChunkProvider().getLoadedChunk(x, z);
+            if (chunk != null) {
+                for (EntityLivingBase entity : chunk.getEntityLists()[y].getByClass(EntityLivingBase.class)) {
+                    sink.accept(entity);
+                }
+            }
+        };
+    }
+
+    public <T extends EntityLivingBase> Region<T> add(TileEntity owner, Class<T> type, AxisAlignedBB box, SectionSource source) {
+        Region<T> region = new Region<>(this, owner, type, box);
+        regions.add(region);
+        region.forEachSection((x, y, z) -> source.collect(x, y, z, region::offer));
+        region.finish();
+        return region;
+    }
+
+    public void tick(SectionSource source) {
+        removeIf(region -> region.owner.isInvalid());
+        if (regions.isEmpty())
+            return;
+        tick++;
+        for (Region<?> region : regions) {
+            region.tick = tick;
+        }
+        for (Bucket section : sections.values()) {
+            source.collect(section.x, section.y, section.z, entity -> {
+                visits++;
+                for (Region<?> region : section.regions) {
+                    region.offer(entity);
+                }
+            });
+        }
+        for (Region<?> region : regions) {
+            region.finish();
+        }
+    }
+
+    private void removeIf(Predicate<Region<?>> filter) {
+        regions.removeIf(region -> {
+            if (filter.test(region)) {
+                region.forEachSection((x, y, z) -> unfile(region, x, y, z));
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void file(Region<?> region, int x, int y, int z) {
+        sections.computeIfAbsent(sectionKey(x, y, z), k -> new Bucket(x, y, z)).regions.add(region);
+    }
+
+    private void unfile(Region<?> region, int x, int y, int z) {
+        long key = sectionKey(x, y, z);
+        Bucket section = sections.get(key);
+        if (section != null && section.regions.remove(region) && section.regions.isEmpty())
+            sections.remove(key);
+    }
+
+    public int getRegionCount() {
+        return regions.size();
+    }
+
+    /**
+     * @return the number of entities read from the world by all ticks so far
+     */
+    public long getVisits() {
+        return visits;
+    }
+
+    private static long sectionKey(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFL) << 26 | ((long) z & 0x3FFFFFL) << 4 | y;
+    }
+
+    /**
+     * Where the sensor reads the living entities of a chunk section from.
+     */
+    @FunctionalInterface
+    public interface SectionSource {
+        void collect(int x, int y, int z, Consumer<EntityLivingBase> sink);
+    }
+
+    /**
+     * Told about the entities entering and leaving a region at the end of each sensor tick. Listeners must
+     * not add, move or release regions.
+     */
+    public interface Listener<T extends EntityLivingBase> {
+        void entered(T entity);
+
+        void left(T entity);
+    }
+
+    @FunctionalInterface
+    private interface SectionVisitor {
+        void visit(int x, int y, int z);
+    }
+
+    /**
+     * A chunk section and the regions filed under it.
+     */
+    private static final class Bucket {
+        private final int x, y, z;
+        private final List<Region<?>> regions = new ArrayList<>();
+
+        private Bucket(int x, int y, int z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
+    public static final class Region<T extends EntityLivingBase> {
+        private static final long OUTSIDE = -1;
+        private final EntitySensor sensor;
+        private final TileEntity owner;
+        private final Class<T> type;
+        private final Reference2LongOpenHashMap<T> inside = new Reference2LongOpenHashMap<>();
+        private final Set<T> view = Collections.unmodifiableSet(inside.keySet());
+        private final List<T> entered = new ArrayList<>();
+        private final List<T> left = new ArrayList<>();
+        private @Nullable Listener<? super T> listener;
+        private AxisAlignedBB box;
+        private int minX, minY, minZ, maxX, maxY, maxZ;
+        private long tick;
+        private long checks;
+
+        private Region(EntitySensor sensor, TileEntity owner, Class<T> type, AxisAlignedBB box) {
+            this.sensor = sensor;
+            this.owner = owner;
+            this.type = type;
+            this.tick = sensor.tick;
+            inside.defaultReturnValue(OUTSIDE);
+            setBox(box);
+        }
+
+        /**
+         * Moves the region, entities outside the new box leave it on the next tick.
+         */
+        public void setBox(AxisAlignedBB box) {
+            if (this.box != null)
+                forEachSection((x, y, z) -> sensor.unfile(this, x, y, z));
+            this.box = box;
+            // Entities are filed by their position but can stick out of their section, same margin as World uses
+            minX = MathHelper.floor((box.minX - World.MAX_ENTITY_RADIUS) / 16.0);
+            maxX = MathHelper.floor((box.maxX + World.MAX_ENTITY_RADIUS) / 16.0);
+            minY = MathHelper.clamp(MathHelper.floor((box.minY - World.MAX_ENTITY_RADIUS) / 16.0), 0, 15);
+            maxY = MathHelper.clamp(MathHelper.floor((box.maxY + World.MAX_ENTITY_RADIUS) / 16.0), 0, 15);
+            minZ = MathHelper.floor((box.minZ - World.MAX_ENTITY_RADIUS) / 16.0);
+            maxZ = MathHelper.floor((box.maxZ + World.MAX_ENTITY_RADIUS) / 16.0);
+            forEachSection((x, y, z) -> sensor.file(this, x, y, z));
+        }
+
+        public Region<T> setListener(@Nullable Listener<? super T> listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * @return the entities inside the region as of the last tick, they may have died since
+         */
+        public Set<T> getEntities() {
+            return view;
+        }
+
+        public boolean isEmpty() {
+            return inside.isEmpty();
+        }
+
+        /**
+         * @return the number of entities this region has been offered so far
+         */
+        public long getChecks() {
+            return checks;
+        }
+
+        private void forEachSection(SectionVisitor visitor) {
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    for (int y = minY; y <= maxY; y++) {
+                        visitor.visit(x, y, z);
+                    }
+                }
+            }
+        }
+
+        private void offer(EntityLivingBase entity) {
+            checks++;
+            if (!entity.isDead && type.isInstance(entity) && EntitySelectors.NOT_SPECTATING.apply(entity)
+                    && box.intersects(entity.getEntityBoundingBox())) {
+                T match = type.cast(entity);
+                if (inside.put(match, tick) == OUTSIDE)
+                    entered.add(match);
+            }
+        }
+
+        private void finish() {
+            for (Iterator<Reference2LongMap.Entry<T>> it = inside.reference2LongEntrySet().fastIterator(); it.hasNext(); ) {
+                Reference2LongMap.Entry<T> entry = it.next();
+                if (entry.getLongValue() != tick) {
+                    left.add(entry.getKey());
+                    it.remove();
+                }
+            }
+            if (listener != null) {
+                entered.forEach(listener::entered);
+                left.forEach(listener::left);
+            }
+            entered.clear();
+            left.clear();
+        }
+    }
+}
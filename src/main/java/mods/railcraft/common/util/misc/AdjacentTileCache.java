@@ -42,6 +42,10 @@ public final class AdjacentTileCache {
         listeners.add(listener);
     }
 
+    public TileEntity getSource() {
+        return source;
+    }
+
     private @Nullable TileEntity searchSide(EnumFacing side) {
         return WorldPlugin.getBlockTile(source.getWorld(), source.getPos().offset(side));
     }
@@ -63,12 +67,15 @@ public final class AdjacentTileCache {
     public void purge() {
         Arrays.fill(cache, null);
         resetTimers();
-        listeners.forEach(ICacheListener::purge);
     }
 
+    /**
+     * Called when a neighbor changed, listeners drop what they know about the neighbors too.
+     */
     public void resetTimers() {
         Arrays.fill(delay, DELAY_MIN);
         Arrays.stream(timer).forEach(Timer::reset);
+        listeners.forEach(ICacheListener::purge);
     }
 
     protected void setTile(EnumFacing side, @Nullable TileEntity tile) {
@@ -95,8 +102,10 @@ public final class AdjacentTileCache {
 
     public @Nullable TileEntity getTileOnSide(EnumFacing side) {
         if (Game.BUKKIT || !isInSameChunk(side)) {
-            changed(side);
-            return searchSide(side);
+            // Never cached across chunks, but listeners are only told when the tile really is a different one
+            TileEntity tile = searchSide(side);
+            setTile(side, tile);
+            return tile;
         }
         int s = side.ordinal();
         if (cache[s] != null)
@@ -9,13 +9,12 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.util.network;
 
-import com.google.common.collect.Multimap;
-import com.mojang.authlib.GameProfile;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufOutputStream;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.PooledByteBufAllocator;
 import mods.railcraft.api.signals.AbstractPair;
 import mods.railcraft.api.signals.ISignalPacketBuilder;
+import mods.railcraft.common.blocks.logbook.VisitorLog;
 import mods.railcraft.common.carts.EntityCartJukebox;
 import mods.railcraft.common.core.RailcraftConfig;
 import mods.railcraft.common.gui.widgets.Widget;
@@ -35,7 +34,7 @@ import net.minecraft.world.WorldServer;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.time.LocalDate;
+import java.util.List;
 
 /**
  * @author CovertJaguar <http://www.railcraft.info>
@@ -118,17 +117,25 @@ public final class PacketBuilder implements ISignalPacketBuilder {
         }
     }
 
-    public void sendGuiWidgetPacket(IContainerListener listener, int windowId, Widget widget) {
-        if (listener instanceof EntityPlayerMP && widget.hasServerSyncData(listener)) {
-            ByteBuf byteBuf = Unpooled.buffer();
+    public void sendGuiWidgetPacket(IContainerListener listener, int windowId, List<Widget> widgets) {
+        if (listener instanceof EntityPlayerMP && !widgets.isEmpty()) {
+            ByteBuf byteBuf = PooledByteBufAllocator.DEFAULT.heapBuffer();
             try (ByteBufOutputStream out = new ByteBufOutputStream(byteBuf);
                  RailcraftOutputStream data = new RailcraftOutputStream(out)) {
-                widget.writeServerSyncData(listener, data);
-                PacketGuiWidget pkt = new PacketGuiWidget(windowId, widget, byteBuf.array());
+                for (Widget widget : widgets) {
+                    data.writeByte(widget.getId());
+                    int lengthIndex = byteBuf.writerIndex();
+                    data.writeShort(0);
+                    widget.writeServerSyncData(listener, data);
+                    byteBuf.setShort(lengthIndex, byteBuf.writerIndex() - lengthIndex - 2);
+                }
+                PacketGuiWidget pkt = new PacketGuiWidget(windowId, widgets.size(), byteBuf);
                 PacketDispatcher.sendToPlayer(pkt, (EntityPlayerMP) listener);
             } catch (IOException ex) {
                 if (Game.DEVELOPMENT_ENVIRONMENT)
                     throw new RuntimeException(ex);
+            } finally {
+                byteBuf.release();
             }
         }
     }
@@ -138,7 +145,7 @@ public final class PacketBuilder implements ISignalPacketBuilder {
         PacketDispatcher.sendToPlayer(pkt, player);
     }
 
-    public void sendLogbookGuiPacket(EntityPlayerMP player, Multimap<LocalDate, GameProfile> log) {
+    public void sendLogbookGuiPacket(EntityPlayerMP player, VisitorLog log) {
         PacketLogbook pkt = new PacketLogbook(log);
         PacketDispatcher.sendToPlayer(pkt, player);
     }
@@ -9,6 +9,7 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.util.network;
 
+import mods.railcraft.common.util.effects.EffectBatcher;
 import mods.railcraft.common.util.effects.EffectManager;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
@@ -21,16 +22,31 @@ public class PacketEffect extends RailcraftPacket {
 
     public enum Effect {
 
-        TELEPORT,
-        FIRESPARK,
-        FORCE_SPAWN,
-        ZAP_DEATH;
+        TELEPORT(80, false),
+        FIRESPARK(80, false),
+        FORCE_SPAWN(80, true),
+        ZAP_DEATH(24, false),
+        BATCH(0, false);
         public static final Effect[] VALUES = values();
+        /**
+         * How far from the player the effect is still displayed.
+         */
+        public final double range;
+        /**
+         * Whether the client skips the effect entirely on the minimal particle setting.
+         */
+        public final boolean canDisable;
+
+        Effect(double range, boolean canDisable) {
+            this.range = range;
+            this.canDisable = canDisable;
+        }
     }
 
     private Effect effect;
     private ByteArrayOutputStream bytes;
     private RailcraftOutputStream outStream;
+    private byte[] payload;
 
     public PacketEffect() {
 
@@ -40,6 +56,11 @@ public class PacketEffect extends RailcraftPacket {
         this.effect = effect;
     }
 
+    public PacketEffect(Effect effect, byte[] payload) {
+        this.effect = effect;
+        this.payload = payload;
+    }
+
     public RailcraftOutputStream getOutputStream() {
         if (outStream == null) {
             bytes = new ByteArrayOutputStream();
@@ -48,22 +69,43 @@ public class PacketEffect extends RailcraftPacket {
         return outStream;
     }
 
+    public Effect getEffect() {
+        return effect;
+    }
+
+    public byte[] getPayload() {
+        if (payload != null)
+            return payload;
+        return bytes == null ? new byte[0] : bytes.toByteArray();
+    }
+
+    /**
+     * Effects are not sent right away, they are queued with the {@link EffectBatcher}
+     * and sent to each player at the end of the world tick.
+     */
     public void sendPacket(World world, BlockPos pos) {
-        PacketDispatcher.sendToAllAround(this, PacketDispatcher.targetPoint(world.provider.getDimension(), pos, 80));
+        sendPacket(world, new Vec3d(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5));
     }
 
     public void sendPacket(World world, Vec3d vec) {
-        PacketDispatcher.sendToAllAround(this, PacketDispatcher.targetPoint(world.provider.getDimension(), vec, 80));
+        sendPacket(world, vec, vec);
     }
 
     public void sendPacket(World world, double x, double y, double z) {
-        PacketDispatcher.sendToAllAround(this, PacketDispatcher.targetPoint(world.provider.getDimension(), x, y, z, 80));
+        sendPacket(world, new Vec3d(x, y, z));
+    }
+
+    /**
+     * For effects that travel between two points.
+     */
+    public void sendPacket(World world, Vec3d start, Vec3d end) {
+        EffectBatcher.INSTANCE.queue(world, this, start, end);
     }
 
     @Override
     public void writeData(RailcraftOutputStream data) throws IOException {
         data.writeByte(effect.ordinal());
-        data.write(bytes.toByteArray());
+        data.write(getPayload());
     }
 
     @Override
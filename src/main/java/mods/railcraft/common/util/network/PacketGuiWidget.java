@@ -8,45 +8,58 @@
  */
 package mods.railcraft.common.util.network;
 
+import io.netty.buffer.ByteBuf;
 import mods.railcraft.common.gui.containers.RailcraftContainer;
 import mods.railcraft.common.gui.widgets.Widget;
 import net.minecraft.client.entity.EntityPlayerSP;
 import net.minecraftforge.fml.client.FMLClientHandler;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.List;
 
+/**
+ * Carries the sync data of every changed widget in a window.
+ * Each entry is prefixed with the widget id and the length of its data.
+ */
 public class PacketGuiWidget extends RailcraftPacket {
 
     private byte windowId;
-    private Widget widget;
-    private byte[] payload;
+    private int count;
+    private ByteBuf payload;
 
     public PacketGuiWidget() {
     }
 
-    public PacketGuiWidget(int windowId, Widget widget, byte[] data) {
+    public PacketGuiWidget(int windowId, int count, ByteBuf payload) {
         this.windowId = (byte) windowId;
-        this.widget = widget;
-        this.payload = data;
+        this.count = count;
+        this.payload = payload;
     }
 
     @Override
     public void writeData(RailcraftOutputStream data) throws IOException {
         data.writeByte(windowId);
-        data.writeByte(widget.getId());
-        data.write(payload);
+        data.writeByte(count);
+        payload.getBytes(payload.readerIndex(), data, payload.readableBytes());
     }
 
     @Override
     public void readData(RailcraftInputStream data) throws IOException {
         windowId = data.readByte();
-        byte widgetId = data.readByte();
+        count = data.readUnsignedByte();
 
         EntityPlayerSP player = FMLClientHandler.instance().getClient().player;
 
         if (player.openContainer instanceof RailcraftContainer && player.openContainer.windowId == windowId) {
-            RailcraftContainer railcraftContainer = ((RailcraftContainer) player.openContainer);
-            railcraftContainer.getWidgets().get(widgetId).readServerSyncData(data);
+            List<Widget> widgets = ((RailcraftContainer) player.openContainer).getWidgets();
+            for (int i = 0; i < count; i++) {
+                byte widgetId = data.readByte();
+                byte[] widgetData = new byte[data.readUnsignedShort()];
+                data.readFully(widgetData);
+                if (widgetId >= 0 && widgetId < widgets.size())
+                    widgets.get(widgetId).readServerSyncData(new RailcraftInputStream(new ByteArrayInputStream(widgetData)));
+            }
         }
     }
 
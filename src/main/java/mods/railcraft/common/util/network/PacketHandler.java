@@ -120,6 +120,9 @@ public class PacketHandler {
                 case STOP_RECORD:
                     pkt = new PacketStopRecord();
                     break;
+                case PARTICLE_SETTING:
+                    pkt = new PacketParticleSetting(player);
+                    break;
                 default:
                     return;
             }
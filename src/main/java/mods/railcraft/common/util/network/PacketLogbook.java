@@ -9,10 +9,9 @@
  -----------------------------------------------------------------------------*/
 package mods.railcraft.common.util.network;
 
-import com.google.common.collect.Multimap;
-import com.mojang.authlib.GameProfile;
 import mods.railcraft.client.gui.GuiBookPlayerLog;
-import mods.railcraft.common.blocks.logbook.TileLogbook;
+import mods.railcraft.common.blocks.logbook.VisitorLog;
+import mods.railcraft.common.core.RailcraftConfig;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
@@ -20,21 +19,20 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 
 import java.io.IOException;
-import java.time.LocalDate;
 
 class PacketLogbook extends RailcraftPacket {
-    private Multimap<LocalDate, GameProfile> log;
+    private VisitorLog log;
 
     PacketLogbook() {
     }
 
-    PacketLogbook(Multimap<LocalDate, GameProfile> log) {
+    PacketLogbook(VisitorLog log) {
         this.log = log;
     }
 
     @Override
     public void writeData(RailcraftOutputStream data) throws IOException {
-        data.writeNBT(TileLogbook.convertLogToNBT(log));
+        data.writeNBT(log.writeToNBT());
     }
 
     @Override
@@ -43,7 +41,7 @@ class PacketLogbook extends RailcraftPacket {
         EntityPlayer player = Minecraft.getMinecraft().player;
         NBTTagCompound nbt = data.readNBT();
         if (nbt != null) {
-            Multimap<LocalDate, GameProfile> log = TileLogbook.convertLogFromNBT(nbt);
+            VisitorLog log = VisitorLog.readFromNBT(nbt, RailcraftConfig.logbookRetentionDays());
             Minecraft.getMinecraft().displayGuiScreen(new GuiBookPlayerLog(log));
         }
     }
@@ -0,0 +1,49 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.util.network;
+
+import mods.railcraft.common.util.effects.EffectBatcher;
+import net.minecraft.entity.player.EntityPlayerMP;
+
+import java.io.IOException;
+
+/**
+ * Tells the server which particle setting the client uses, so effects the client would skip aren't sent.
+ */
+public class PacketParticleSetting extends RailcraftPacket {
+
+    private EntityPlayerMP player;
+    private int setting;
+
+    public PacketParticleSetting(EntityPlayerMP player) {
+        this.player = player;
+    }
+
+    public PacketParticleSetting(int setting) {
+        this.setting = setting;
+    }
+
+    @Override
+    public void writeData(RailcraftOutputStream data) throws IOException {
+        data.writeByte(setting);
+    }
+
+    @Override
+    public void readData(RailcraftInputStream data) throws IOException {
+        setting = data.readByte();
+        if (player != null)
+            EffectBatcher.INSTANCE.setParticleSetting(player, setting);
+    }
+
+    @Override
+    public int getID() {
+        return PacketType.PARTICLE_SETTING.ordinal();
+    }
+}
@@ -44,6 +44,7 @@ public abstract class RailcraftPacket {
         SHUNTING_AURA,
         MOVING_SOUND,
         STOP_RECORD,
+        PARTICLE_SETTING,
     }
 
     public FMLProxyPacket getPacket() {
@@ -0,0 +1,234 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.util.profiler;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times the expensive parts of Railcraft on the server, see "/railcraft debug profile".
+ *
+ * Usage:
+ * <pre>
+ * long start = TickProfiler.start();
+ * ...
+ * TickProfiler.stop(Section.CHARGE, start, world, pos);
+ * </pre>
+ * While the profiler is stopped {@link #start()} returns 0 and {@link #stop} returns right away,
+ * so the only cost left in the hot paths is reading a flag.
+ *
+ * Each section keeps a histogram of its sample times with power of two buckets, along with
+ * the time spent per dimension and per chunk. Everything is recorded with atomics, no locks.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public final class TickProfiler {
+
+    public enum Section {
+        CHARGE("charge"),
+        TRAINS("trains"),
+        TOKENS("tokens"),
+        LINKAGE("linkage"),
+        MINECART_HOOKS("minecartHooks"),
+        FORMATION("formation"),
+        DETECTION("detection"),
+        TRANSFER("transfer"),
+        ROUTING("routing"),
+        SENSORS("sensors");
+
+        public static final Section[] VALUES = values();
+        private final String name;
+
+        Section(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final int BUCKETS = 40;
+    private static final Histogram[] histograms = new Histogram[Section.VALUES.length];
+    private static final Map<Integer, Map<Long, LongAdder>> chunks = new ConcurrentHashMap<>();
+    private static volatile boolean enabled;
+    private static long started;
+    private static long elapsed;
+
+    static {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new Histogram();
+        }
+    }
+
+    private TickProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        if (enabled == TickProfiler.enabled)
+            return;
+        if (enabled)
+            started = System.nanoTime();
+        else
+            elapsed += System.nanoTime() - started;
+        TickProfiler.enabled = enabled;
+    }
+
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(Section section, long start, World world) {
+        stop(section, start, world, null);
+    }
+
+    /**
+     * Records the time against the chunk the entity is in, the position is only looked up while the profiler runs.
+     */
+    public static void stop(Section section, long start, Entity entity) {
+        if (start == 0L || !enabled)
+            return;
+        stop(section, start, entity.world, entity.getPosition());
+    }
+
+    /**
+     * @param start the value returned by {@link #start()}
+     * @param pos   where the time was spent, if it belongs to one place
+     */
+    public static void stop(Section section, long start, World world, @Nullable BlockPos pos) {
+        if (start == 0L || !enabled || world.isRemote)
+            return;
+        long time = System.nanoTime() - start;
+        int dimension = world.provider.getDimension();
+        histograms[section.ordinal()].record(time, dimension);
+        if (pos != null)
+            chunks.computeIfAbsent(dimension, d -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), c -> new LongAdder())
+                    .add(time);
+    }
+
+    public static Histogram getHistogram(Section section) {
+        return histograms[section.ordinal()];
+    }
+
+    /**
+     * @return the time the profiler has been running since the last reset, in nanoseconds
+     */
+    public static long getElapsed() {
+        return enabled ? elapsed + System.nanoTime() - started : elapsed;
+    }
+
+    /**
+     * @return the dimensions the given section spent the most time in, most expensive first
+     */
+    public static List<Map.Entry<Integer, Long>> getTopDimensions(Section section, int limit) {
+        return top(getHistogram(section).dimensions, limit);
+    }
+
+    /**
+     * @return the chunks all sections together spent the most time in, most expensive first
+     */
+    public static List<Map.Entry<String, Long>> getTopChunks(int limit) {
+        Map<String, LongAdder> all = new HashMap<>();
+        chunks.forEach((dimension, map) -> map.forEach((chunk, time) ->
+                all.put("dim " + dimension + " chunk " + (int) (long) chunk + ", " + (int) (chunk >> 32), time)));
+        return top(all, limit);
+    }
+
+    private static <K> List<Map.Entry<K, Long>> top(Map<K, LongAdder> map, int limit) {
+        List<Map.Entry<K, Long>> entries = new ArrayList<>();
+        map.forEach((key, time) -> entries.add(new AbstractMap.SimpleImmutableEntry<>(key, time.sum())));
+        entries.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+        return entries.subList(0, Math.min(limit, entries.size()));
+    }
+
+    public static void reset() {
+        for (Histogram histogram : histograms) {
+            histogram.reset();
+        }
+        chunks.clear();
+        elapsed = 0L;
+        started = System.nanoTime();
+    }
+
+    /**
+     * Sample times of one section. Bucket n counts the samples taking less than 2^(n+1) nanoseconds.
+     */
+    public static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private final Map<Integer, LongAdder> dimensions = new ConcurrentHashMap<>();
+
+        private void record(long time, int dimension) {
+            int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(Math.max(1L, time)));
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            total.add(time);
+            max.accumulateAndGet(time, Math::max);
+            dimensions.computeIfAbsent(dimension, d -> new LongAdder()).add(time);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotal() {
+            return total.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * @param fraction between 0 and 1, for example 0.99 for the 99th percentile
+         * @return the upper bound of the bucket containing the percentile, in nanoseconds
+         */
+        public long getPercentile(double fraction) {
+            long samples = getCount();
+            if (samples == 0)
+                return 0L;
+            long rank = (long) Math.ceil(samples * fraction);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank)
+                    return 1L << (i + 1);
+            }
+            return getMax();
+        }
+
+        private void reset() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            total.reset();
+            max.set(0);
+            dimensions.clear();
+        }
+    }
+}
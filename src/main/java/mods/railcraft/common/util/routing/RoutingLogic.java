@@ -20,6 +20,8 @@ import mods.railcraft.common.gui.tooltips.ToolTip;
 import mods.railcraft.common.plugins.color.EnumColor;
 import mods.railcraft.common.plugins.forge.LocalizationPlugin;
 import mods.railcraft.common.util.collections.Streams;
+import mods.railcraft.common.util.profiler.TickProfiler;
+import mods.railcraft.common.util.profiler.TickProfiler.Section;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.item.EntityMinecart;
@@ -109,8 +111,11 @@ public final class RoutingLogic {
     public int evaluate(ITileRouting tile, EntityMinecart cart) {
         if (expressions == null)
             return NO_POWER;
+        long start = TickProfiler.start();
         EntityMinecart controllingCart = getRoutableCart(cart);
-        return expressions.stream().mapToInt(expression -> expression.evaluate(tile, controllingCart)).filter(value -> value != NO_POWER).findFirst().orElse(NO_POWER);
+        int power = expressions.stream().mapToInt(expression -> expression.evaluate(tile, controllingCart)).filter(value -> value != NO_POWER).findFirst().orElse(NO_POWER);
+        TickProfiler.stop(Section.ROUTING, start, cart);
+        return power;
     }
 
     private Expression parseLine(String line, Deque<Expression> stack) throws RoutingLogicException {
@@ -0,0 +1,115 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+package mods.railcraft.common.util.steam;
+
+import mods.railcraft.common.fluids.Fluids;
+import mods.railcraft.common.fluids.tanks.StandardTank;
+import net.minecraftforge.fluids.FluidStack;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * The steam to energy cycle of a Steam Turbine, kept apart from the tile like {@link SteamBoiler}.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public class SteamTurbine {
+
+    public static final int IC2_OUTPUT = 225;
+    public static final int STEAM_USAGE = 360;
+    private final StandardTank tankSteam;
+    private final StandardTank tankWater;
+    private final FluidStack waterFilter = Fluids.WATER.get(2);
+    private BooleanSupplier rotor = () -> false;
+    public float output;
+    private double energy;
+
+    public SteamTurbine(StandardTank tankSteam, StandardTank tankWater) {
+        this.tankSteam = tankSteam;
+        this.tankWater = tankWater;
+    }
+
+    public StandardTank getTankSteam() {
+        return tankSteam;
+    }
+
+    public StandardTank getTankWater() {
+        return tankWater;
+    }
+
+    /**
+     * @param rotor wears the rotor down by one cycle, returns false if there is no rotor to run on
+     */
+    public SteamTurbine setRotor(BooleanSupplier rotor) {
+        this.rotor = rotor;
+        return this;
+    }
+
+    public double getEnergy() {
+        return energy;
+    }
+
+    public void setEnergy(double energy) {
+        this.energy = energy;
+    }
+
+    public void removeEnergy(double amount) {
+        energy = Math.max(0, energy - amount);
+    }
+
+    /**
+     * Takes all the energy produced so far.
+     */
+    public double drainEnergy() {
+        double drained = energy;
+        energy = 0;
+        return drained;
+    }
+
+    /**
+     * Runs one tick of the turbine.
+     *
+     * @return true if steam was turned into energy
+     */
+    public boolean tick() {
+        boolean addedEnergy = energy < IC2_OUTPUT && generate();
+        output = (float) ((output * 49D + (addedEnergy ? 100D : 0D)) / 50D);
+        return addedEnergy;
+    }
+
+    /**
+     * Runs several ticks of the turbine at once.
+     *
+     * The charge network drains the battery every tick, so if it wants charge at the start of the run
+     * it is assumed to take all the energy produced during the run.
+     *
+     * @return the energy to add to the battery
+     */
+    public double simulate(int ticks, boolean charging) {
+        double produced = 0;
+        for (int i = 0; i < ticks; i++) {
+            tick();
+            if (charging)
+                produced += drainEnergy();
+        }
+        return produced;
+    }
+
+    private boolean generate() {
+        FluidStack steam = tankSteam.drainInternal(STEAM_USAGE, false);
+        if (steam != null && steam.amount >= STEAM_USAGE && rotor.getAsBoolean()) {
+            energy += IC2_OUTPUT;
+            tankSteam.drainInternal(STEAM_USAGE, true);
+            tankWater.fillInternal(waterFilter, true);
+            return true;
+        }
+        return false;
+    }
+}
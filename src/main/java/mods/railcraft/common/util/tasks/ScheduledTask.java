@@ -0,0 +1,74 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.util.tasks;
+
+import mods.railcraft.common.util.misc.Game;
+import mods.railcraft.common.util.misc.MiscTools;
+import net.minecraft.world.World;
+
+import java.util.function.IntSupplier;
+
+/**
+ * A piece of periodic tile work, replaces the old {@code clock % interval == 0} checks.
+ *
+ * The first run is at a random point within the first interval, so tiles placed in the same tick
+ * don't all do their work together. On the server the work is timed by the {@link TileTaskScheduler}
+ * and may be deferred to a later tick, see {@link TileTask}.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public final class ScheduledTask {
+    private final TileTask task;
+    private final IntSupplier interval;
+    private final Runnable action;
+    private long due = Long.MIN_VALUE;
+    private int deferred;
+
+    public ScheduledTask(TileTask task, int interval, Runnable action) {
+        this(task, () -> interval, action);
+    }
+
+    public ScheduledTask(TileTask task, IntSupplier interval, Runnable action) {
+        this.task = task;
+        this.interval = interval;
+        this.action = action;
+    }
+
+    /**
+     * Called by the tile every tick.
+     */
+    public void tick(World world) {
+        int period = Math.max(1, interval.getAsInt());
+        long time = world.getTotalWorldTime();
+        // Also covers the interval getting shorter and the world time being changed
+        if (due == Long.MIN_VALUE || due - time > period)
+            due = time + MiscTools.RANDOM.nextInt(period);
+        if (time < due)
+            return;
+        if (Game.isClient(world)) {
+            due = time + period;
+            action.run();
+            return;
+        }
+        if (TileTaskScheduler.INSTANCE.shouldDefer(task, deferred)) {
+            deferred++;
+            return;
+        }
+        deferred = 0;
+        due = time + period;
+        TileTaskScheduler.INSTANCE.run(task, action);
+    }
+
+    public void reset() {
+        due = Long.MIN_VALUE;
+        deferred = 0;
+    }
+}
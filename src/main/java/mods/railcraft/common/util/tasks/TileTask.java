@@ -0,0 +1,55 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.util.tasks;
+
+/**
+ * The kinds of periodic work done by tiles, each with its own time budget per tick.
+ *
+ * Deferrable tasks are the ones that can wait a few ticks without anyone noticing,
+ * they are held back when their budget is used up or the server tick is running long.
+ * Only work whose result nothing else reads within the same tick may be deferrable. Detection feeds signals,
+ * redstone and comparators that a passing cart would slip through, and transfers stall a cart waiting on a loader,
+ * so those always run on time and are only timed against their budget.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public enum TileTask {
+    FORMATION("formation", 2000, true),
+    TRANSFER("transfer", 4000, false),
+    DETECTION("detection", 2000, false),
+    SYNC("sync", 1000, false);
+
+    public static final TileTask[] VALUES = values();
+    private final String name;
+    private final int defaultBudget;
+    private final boolean deferrable;
+
+    TileTask(String name, int defaultBudget, boolean deferrable) {
+        this.name = name;
+        this.defaultBudget = defaultBudget;
+        this.deferrable = deferrable;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the default time budget per tick, in microseconds
+     */
+    public int getDefaultBudget() {
+        return defaultBudget;
+    }
+
+    public boolean isDeferrable() {
+        return deferrable;
+    }
+}
@@ -0,0 +1,98 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.util.tasks;
+
+import mods.railcraft.common.core.RailcraftConfig;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.Arrays;
+
+/**
+ * Times the {@link ScheduledTask}s run on the server and decides when deferrable work has to wait.
+ *
+ * Deferrable work is held back once its task's budget for the tick is used up, or once the server tick
+ * has been running longer than the configured limit. Nothing is held back for more than {@link #MAX_DEFERRAL}
+ * ticks in a row, so busy servers slow the work down but never stop it.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public enum TileTaskScheduler {
+    INSTANCE;
+
+    public static final int MAX_DEFERRAL = 20;
+    private static final int TASKS = TileTask.VALUES.length;
+
+    private final long[] usedThisTick = new long[TASKS];
+    private final long[] nanos = new long[TASKS];
+    private final long[] runs = new long[TASKS];
+    private final long[] deferrals = new long[TASKS];
+    private long tickStart = System.nanoTime();
+    private long ticks;
+
+    @SubscribeEvent
+    public void tick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.START)
+            return;
+        tickStart = System.nanoTime();
+        Arrays.fill(usedThisTick, 0);
+        ticks++;
+    }
+
+    boolean shouldDefer(TileTask task, int deferred) {
+        if (!RailcraftConfig.tileTaskScheduling() || !task.isDeferrable() || deferred >= MAX_DEFERRAL)
+            return false;
+        long now = System.nanoTime();
+        if (usedThisTick[task.ordinal()] < RailcraftConfig.tileTaskBudget(task) * 1000L
+                && now - tickStart < RailcraftConfig.tileTaskTickLimit() * 1000000L)
+            return false;
+        deferrals[task.ordinal()]++;
+        return true;
+    }
+
+    void run(TileTask task, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            long time = System.nanoTime() - start;
+            usedThisTick[task.ordinal()] += time;
+            nanos[task.ordinal()] += time;
+            runs[task.ordinal()]++;
+        }
+    }
+
+    /**
+     * @return the average time spent on the task per server tick, in milliseconds
+     */
+    public double getAverageTime(TileTask task) {
+        return ticks == 0 ? 0.0 : nanos[task.ordinal()] / 1000000.0 / ticks;
+    }
+
+    public long getRuns(TileTask task) {
+        return runs[task.ordinal()];
+    }
+
+    public long getDeferrals(TileTask task) {
+        return deferrals[task.ordinal()];
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public void reset() {
+        Arrays.fill(nanos, 0);
+        Arrays.fill(runs, 0);
+        Arrays.fill(deferrals, 0);
+        ticks = 0;
+    }
+}
@@ -37,6 +37,12 @@ public class GeneratorMine extends Generator {
     private final OreGeneratorFactory.BiomeRules biomeRules;
     private final OreGeneratorFactory.GeneratorSettingsMine settings;
     private final WorldGenerator fringeGen, coreGen;
+    /**
+     * Cloud noise for the chunk currently being generated, reused between chunks.
+     * Ore placement can cascade into generating a neighboring chunk, in which case a fresh array is used.
+     */
+    private final double[] cloudField = new double[16 * 16];
+    private boolean cloudFieldInUse;
 
     protected GeneratorMine(Configuration config, OreGeneratorFactory.DimensionRules dimensionRules, OreGeneratorFactory.BiomeRules biomeRules, OreGeneratorFactory.GeneratorSettingsMine settings) {
         this.dimensionRules = dimensionRules;
@@ -70,19 +76,35 @@ public class GeneratorMine extends Generator {
         int worldZ = targetPos.getZ();
 
         boolean rich = biomeRules.isRichBiome(biome);
-        NoiseGen cloudNoise = getCloudNoise(world);
         NoiseGen veinNoise = getVeinNoise(world);
         double denseArea = rich ? settings.richLimit : settings.coreLimit;
 
-        boolean generated = attemptGen(world, rand, worldX, worldZ, settings.depth, cloudNoise, veinNoise, 16, denseArea);
-        if (generated)
-            attemptGen(world, rand, worldX, worldZ, settings.depth, cloudNoise, veinNoise, 200, denseArea);
+        double[] field = cloudFieldInUse ? new double[16 * 16] : cloudField;
+        boolean shared = field == cloudField;
+        cloudFieldInUse = true;
+        try {
+            // Outside of a mine no column can pass the fringe check, so skip this generator's placement attempts for the chunk
+            getCloudNoise(world).noise(field, worldX, worldZ, 16, 16);
+            double peak = Double.NEGATIVE_INFINITY;
+            for (double cloudStrength : field) {
+                peak = Math.max(peak, cloudStrength);
+            }
+            if (peak <= settings.fringeLimit)
+                return;
 
-        if (settings.skyGen) {
-            int y = Math.min(100 + settings.depth, world.getHeight() - settings.range * 3);
-            generated = attemptGen(world, rand, worldX, worldZ, y, cloudNoise, veinNoise, 16, denseArea);
+            boolean generated = attemptGen(world, rand, worldX, worldZ, settings.depth, field, veinNoise, 16, denseArea);
             if (generated)
-                attemptGen(world, rand, worldX, worldZ, y, cloudNoise, veinNoise, 200, denseArea);
+                attemptGen(world, rand, worldX, worldZ, settings.depth, field, veinNoise, 200, denseArea);
+
+            if (settings.skyGen) {
+                int y = Math.min(100 + settings.depth, world.getHeight() - settings.range * 3);
+                generated = attemptGen(world, rand, worldX, worldZ, y, field, veinNoise, 16, denseArea);
+                if (generated)
+                    attemptGen(world, rand, worldX, worldZ, y, field, veinNoise, 200, denseArea);
+            }
+        } finally {
+            if (shared)
+                cloudFieldInUse = false;
         }
     }
 
@@ -101,12 +123,14 @@ public class GeneratorMine extends Generator {
         return veinMap.computeIfAbsent(world, k -> new NoiseGenSimplex(new Random(getNoiseSeed(world)), settings.veinScale));
     }
 
-    private boolean attemptGen(World world, Random rand, int worldX, int worldZ, int depth, NoiseGen cloudNoise, NoiseGen veinNoise, int cycles, double denseArea) {
+    private boolean attemptGen(World world, Random rand, int worldX, int worldZ, int depth, double[] cloudField, NoiseGen veinNoise, int cycles, double denseArea) {
         boolean generated = false;
         for (int i = 0; i < cycles; i++) {
-            int x = worldX + rand.nextInt(16);
-            int z = worldZ + rand.nextInt(16);
-            double cloudStrength = cloudNoise.noise(x, z);
+            int dx = rand.nextInt(16);
+            int dz = rand.nextInt(16);
+            int x = worldX + dx;
+            int z = worldZ + dz;
+            double cloudStrength = cloudField[dx * 16 + dz];
             if (cloudStrength > settings.fringeLimit) {
                 int y = depth + Math.round((float) rand.nextGaussian() * settings.range);
                 double veinStrength = veinNoise.noise(x, y, z);
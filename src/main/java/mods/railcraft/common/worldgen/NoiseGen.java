@@ -34,6 +34,34 @@ public abstract class NoiseGen {
 
     public abstract double noise(double x, double y, double z);
 
+    /**
+     * Fills the array with a sizeX by sizeZ grid of 2D noise starting at (x, z).
+     * Values are stored x major, ie {@code out[dx * sizeZ + dz]}, and match {@link #noise(double, double)}.
+     */
+    public void noise(double[] out, int x, int z, int sizeX, int sizeZ) {
+        int index = 0;
+        for (int dx = 0; dx < sizeX; dx++) {
+            for (int dz = 0; dz < sizeZ; dz++) {
+                out[index++] = noise(x + dx, z + dz);
+            }
+        }
+    }
+
+    /**
+     * Fills the array with a sizeX by sizeY by sizeZ grid of 3D noise starting at (x, y, z).
+     * Values are stored as {@code out[(dx * sizeY + dy) * sizeZ + dz]} and match {@link #noise(double, double, double)}.
+     */
+    public void noise(double[] out, int x, int y, int z, int sizeX, int sizeY, int sizeZ) {
+        int index = 0;
+        for (int dx = 0; dx < sizeX; dx++) {
+            for (int dy = 0; dy < sizeY; dy++) {
+                for (int dz = 0; dz < sizeZ; dz++) {
+                    out[index++] = noise(x + dx, y + dy, z + dz);
+                }
+            }
+        }
+    }
+
     public boolean isLessThan(double x, double z, double level) {
         return noise(x, z) < level;
     }
@@ -62,6 +90,16 @@ public abstract class NoiseGen {
             return SimplexNoise.noise((x + xOffset) * scale, (y + yOffset) * scale, (z + zOffset) * scale);
         }
 
+        @Override
+        public void noise(double[] out, int x, int z, int sizeX, int sizeZ) {
+            SimplexNoise.noise(out, x, z, sizeX, sizeZ, xOffset, zOffset, scale);
+        }
+
+        @Override
+        public void noise(double[] out, int x, int y, int z, int sizeX, int sizeY, int sizeZ) {
+            SimplexNoise.noise(out, x, y, z, sizeX, sizeY, sizeZ, xOffset, yOffset, zOffset, scale);
+        }
+
     }
 
 }
@@ -45,7 +45,7 @@ public class OreGeneratorFactory {
     public static final String CAT = "ore";
     public final Type type;
     public final GeneratorSettings settings;
-    public final IWorldGenerator worldGen;
+    public final GeneratorRailcraftOre worldGen;
 
     public static OreGeneratorFactory makeMine(Configuration config, int defaultWeight, int defaultBlockCount, int defaultDepth, int defaultRange, int defaultSeed, String defaultFringeOre, String defaultCoreOre) {
         return new OreGeneratorFactory(config, "MINE", defaultWeight, defaultBlockCount, defaultDepth, defaultRange, defaultSeed, defaultFringeOre, defaultCoreOre);
@@ -58,7 +58,8 @@ public class OreGeneratorFactory {
     private OreGeneratorFactory(Configuration config, String defaultType, int defaultWeight, int defaultBlockCount, int defaultDepth, int defaultRange, int defaultSeed, String defaultFringeOre, String defaultCoreOre) {
         config.setCategoryComment(CAT, "Copy this file to add your own ore spawns or deleted it to disable spawning.\n" +
                 "Setting railcraft.config->worldgen.generateDefaultConfigs to true will reset the entire folder to defaults.");
-        config.setCategoryComment(CAT + ".retrogen", "Retrogen settings. You must have the Railcraft-Retrogen mod installed for these to do anything.");
+        config.setCategoryComment(CAT + ".retrogen", "Retrogen settings. Existing chunks without the marker will have this ore generated in them when they are loaded.\n" +
+                "Use '/railcraft admin retrogen region' to process an area without visiting it.");
         boolean retrogen = config.getBoolean("retrogen", CAT + ".retrogen", false, "Whether retrogen should be enabled on this generator.");
         String retrogenMarker = config.getString("retrogenMarker", CAT + ".retrogen", "RCRGMARK", "The marker used to indicate whether a chunk has generated this ore. Generally this should be unique each time you run retrogen.");
 
@@ -74,7 +75,8 @@ public class OreGeneratorFactory {
                 GeneratorSettingsMine settings = new GeneratorSettingsMine(config, defaultWeight, defaultBlockCount, defaultDepth, defaultRange, defaultSeed, defaultFringeOre, defaultCoreOre);
                 this.settings = settings;
                 IWorldGenerator genImpl = new GeneratorMine(config, dimensionRules, biomeRules, settings);
-                worldGen = new GeneratorRailcraftOre(genImpl, retrogen, retrogenMarker).setRegistryName(new ResourceLocation(RailcraftConstants.RESOURCE_DOMAIN, name));
+                worldGen = new GeneratorRailcraftOre(genImpl, retrogen, retrogenMarker);
+                worldGen.setRegistryName(new ResourceLocation(RailcraftConstants.RESOURCE_DOMAIN, name));
                 break;
             case DIFFUSE:
             default:
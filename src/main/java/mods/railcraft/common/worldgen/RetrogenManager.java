@@ -0,0 +1,319 @@
+/*------------------------------------------------------------------------------
+ Copyright (c) CovertJaguar, 2011-2018
+ http://railcraft.info
+
+ This code is the property of CovertJaguar
+ and may only be used with explicit written
+ permission unless otherwise specified on the
+ license page at http://railcraft.info/wiki/info:license.
+ -----------------------------------------------------------------------------*/
+
+package mods.railcraft.common.worldgen;
+
+import com.google.common.collect.MapMaker;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import mods.railcraft.common.commands.CommandHelpers;
+import mods.railcraft.common.core.RailcraftConfig;
+import mods.railcraft.common.util.misc.Game;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.gen.ChunkProviderServer;
+import net.minecraftforge.event.world.ChunkDataEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import org.apache.logging.log4j.Level;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Runs Railcraft ore generators on chunks that were generated before the generator existed.
+ *
+ * Every chunk saved while the World Module is loaded records the retrogen marker of each registered
+ * {@link GeneratorRailcraftOre}. Chunks loaded from disk without the marker of a retrogen enabled generator
+ * are queued and processed a few at a time at the end of the world tick, limited by a time budget.
+ * A queued chunk is only looked at again when it or one of the neighbors its ore can spill into loads,
+ * or every {@link #SWEEP_INTERVAL} ticks, which also forgets chunks that were unloaded in the meantime.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public enum RetrogenManager {
+    INSTANCE;
+
+    public static final String NBT_TAG = "railcraft.retrogen";
+    private static final int REPORT_INTERVAL = 400;
+    private static final int SWEEP_INTERVAL = 1200;
+
+    private final List<GeneratorRailcraftOre> generators = new ArrayList<>();
+    private final Map<World, Long2ObjectMap<Set<GeneratorRailcraftOre>>> pending = new MapMaker().weakKeys().makeMap();
+    private final Map<World, LongSet> ready = new MapMaker().weakKeys().makeMap();
+    private final Map<World, Deque<RegionJob>> jobs = new MapMaker().weakKeys().makeMap();
+
+    public void register(GeneratorRailcraftOre generator) {
+        generators.add(generator);
+    }
+
+    public boolean hasRetrogen() {
+        return generators.stream().anyMatch(GeneratorRailcraftOre::getAsBoolean);
+    }
+
+    public int getPendingCount(World world) {
+        Long2ObjectMap<Set<GeneratorRailcraftOre>> chunks = pending.get(world);
+        return chunks == null ? 0 : chunks.size();
+    }
+
+    public Collection<RegionJob> getJobs(World world) {
+        Deque<RegionJob> queue = jobs.get(world);
+        return queue == null ? Collections.emptyList() : Collections.unmodifiableCollection(queue);
+    }
+
+    private Long2ObjectMap<Set<GeneratorRailcraftOre>> pending(World world) {
+        return pending.computeIfAbsent(world, k -> new Long2ObjectLinkedOpenHashMap<>());
+    }
+
+    private LongSet ready(World world) {
+        return ready.computeIfAbsent(world, k -> new LongLinkedOpenHashSet());
+    }
+
+    @SubscribeEvent
+    public void chunkLoad(ChunkDataEvent.Load event) {
+        World world = event.getWorld();
+        if (Game.isClient(world))
+            return;
+        NBTTagCompound markers = event.getData().getCompoundTag(NBT_TAG);
+        Set<GeneratorRailcraftOre> missing = generators.stream()
+                .filter(GeneratorRailcraftOre::getAsBoolean)
+                .filter(gen -> !markers.getBoolean(gen.get()))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            Chunk chunk = event.getChunk();
+            long key = ChunkPos.asLong(chunk.x, chunk.z);
+            pending(world).put(key, missing);
+            ready(world).add(key);
+        }
+    }
+
+    /**
+     * A queued chunk waits for the chunks on its positive axes, so when any chunk loads
+     * the queued chunks it could have been holding up are worth another look.
+     */
+    @SubscribeEvent
+    public void neighborLoad(ChunkEvent.Load event) {
+        World world = event.getWorld();
+        if (Game.isClient(world))
+            return;
+        Long2ObjectMap<Set<GeneratorRailcraftOre>> chunks = pending.get(world);
+        if (chunks == null || chunks.isEmpty())
+            return;
+        Chunk chunk = event.getChunk();
+        for (int dx = 0; dx <= 1; dx++) {
+            for (int dz = 0; dz <= 1; dz++) {
+                long key = ChunkPos.asLong(chunk.x - dx, chunk.z - dz);
+                if (chunks.containsKey(key))
+                    ready(world).add(key);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void chunkSave(ChunkDataEvent.Save event) {
+        World world = event.getWorld();
+        if (Game.isClient(world))
+            return;
+        Chunk chunk = event.getChunk();
+        Long2ObjectMap<Set<GeneratorRailcraftOre>> chunks = pending.get(world);
+        Set<GeneratorRailcraftOre> missing = chunks == null ? null : chunks.get(ChunkPos.asLong(chunk.x, chunk.z));
+        NBTTagCompound markers = new NBTTagCompound();
+        for (GeneratorRailcraftOre gen : generators) {
+            if (missing == null || !missing.contains(gen))
+                markers.setBoolean(gen.get(), true);
+        }
+        event.getData().setTag(NBT_TAG, markers);
+    }
+
+    @SubscribeEvent
+    public void tick(TickEvent.WorldTickEvent event) {
+        if (event.side != Side.SERVER || event.phase != TickEvent.Phase.END)
+            return;
+        WorldServer world = (WorldServer) event.world;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RailcraftConfig.retrogenTickBudget());
+
+        Deque<RegionJob> queue = jobs.get(world);
+        if (queue != null && !queue.isEmpty()) {
+            RegionJob job = queue.peek();
+            job.process(world, deadline);
+            if (job.isDone()) {
+                queue.poll();
+                job.report(true);
+            }
+        }
+
+        Long2ObjectMap<Set<GeneratorRailcraftOre>> chunks = pending.get(world);
+        if (chunks == null || chunks.isEmpty())
+            return;
+        LongSet candidates = ready(world);
+        if (world.getTotalWorldTime() % SWEEP_INTERVAL == 0)
+            candidates.addAll(chunks.keySet());
+        ChunkProviderServer provider = world.getChunkProvider();
+        LongIterator it = candidates.iterator();
+        while (it.hasNext() && System.nanoTime() < deadline) {
+            long key = it.nextLong();
+            it.remove();
+            Set<GeneratorRailcraftOre> missing = chunks.get(key);
+            if (missing == null)
+                continue;
+            Chunk chunk = provider.getLoadedChunk((int) key, (int) (key >> 32));
+            // Unloaded chunks were saved without the markers, they will be queued again on load.
+            // Unpopulated chunks will receive the ore when they are populated normally.
+            if (chunk == null || !chunk.isTerrainPopulated()) {
+                chunks.remove(key);
+                continue;
+            }
+            // Otherwise it waits for a neighbor to load or the next sweep
+            if (canGenerate(world, chunk)) {
+                generate(world, chunk, missing);
+                chunks.remove(key);
+            }
+        }
+    }
+
+    /**
+     * The ore generators spill up to 8 blocks into the neighboring chunks on the positive axes,
+     * so those chunks have to be loaded to avoid triggering cascading chunk generation.
+     */
+    private boolean canGenerate(World world, Chunk chunk) {
+        BlockPos start = new BlockPos(chunk.x << 4, 0, chunk.z << 4);
+        return world.isAreaLoaded(start, start.add(31, 0, 31));
+    }
+
+    private void generate(WorldServer world, Chunk chunk, Collection<GeneratorRailcraftOre> gens) {
+        // Mirrors the seeding in GameRegistry.generateWorld so retrogen ore matches what a fresh chunk would get
+        long worldSeed = world.getSeed();
+        Random rand = new Random(worldSeed);
+        long xSeed = rand.nextLong() >> 2 + 1L;
+        long zSeed = rand.nextLong() >> 2 + 1L;
+        long chunkSeed = (xSeed * chunk.x + zSeed * chunk.z) ^ worldSeed;
+
+        ChunkProviderServer provider = world.getChunkProvider();
+        for (GeneratorRailcraftOre gen : gens) {
+            rand.setSeed(chunkSeed);
+            gen.generate(rand, chunk.x, chunk.z, world, provider.chunkGenerator, provider);
+        }
+        chunk.markDirty();
+    }
+
+    public RegionJob queueRegion(WorldServer world, ICommandSender sender, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+        RegionJob job = new RegionJob(sender,
+                Math.min(minChunkX, maxChunkX), Math.min(minChunkZ, maxChunkZ),
+                Math.max(minChunkX, maxChunkX), Math.max(minChunkZ, maxChunkZ));
+        jobs.computeIfAbsent(world, k -> new ArrayDeque<>()).add(job);
+        return job;
+    }
+
+    public void cancelRegions(World world) {
+        Deque<RegionJob> queue = jobs.remove(world);
+        if (queue != null)
+            queue.forEach(RegionJob::reportCancelled);
+    }
+
+    /**
+     * Walks a rectangle of chunks, loading any that exist on disk so they are picked up by the marker check.
+     * Chunks that were not loaded before are released again once they have been processed.
+     */
+    public final class RegionJob {
+        private final ICommandSender sender;
+        private final int minX, minZ, width;
+        private final int total;
+        private int next;
+        private int generated;
+        private long lastReport;
+
+        private RegionJob(ICommandSender sender, int minX, int minZ, int maxX, int maxZ) {
+            this.sender = sender;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.width = maxX - minX + 1;
+            this.total = width * (maxZ - minZ + 1);
+        }
+
+        public int getProgress() {
+            return next;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getGenerated() {
+            return generated;
+        }
+
+        public boolean isDone() {
+            return next >= total;
+        }
+
+        private void process(WorldServer world, long deadline) {
+            ChunkProviderServer provider = world.getChunkProvider();
+            List<Chunk> loaded = new ArrayList<>();
+            while (!isDone() && System.nanoTime() < deadline) {
+                int x = minX + next % width;
+                int z = minZ + next / width;
+                next++;
+                if (!provider.isChunkGeneratedAt(x, z))
+                    continue;
+                Chunk chunk = load(provider, x, z, loaded);
+                if (chunk == null || !chunk.isTerrainPopulated())
+                    continue;
+                load(provider, x + 1, z, loaded);
+                load(provider, x, z + 1, loaded);
+                load(provider, x + 1, z + 1, loaded);
+                Set<GeneratorRailcraftOre> missing = pending(world).remove(ChunkPos.asLong(x, z));
+                if (missing != null) {
+                    generate(world, chunk, missing);
+                    generated++;
+                }
+            }
+            for (Chunk chunk : loaded) {
+                if (!world.getPlayerChunkMap().contains(chunk.x, chunk.z))
+                    provider.queueUnload(chunk);
+            }
+            if (world.getTotalWorldTime() - lastReport >= REPORT_INTERVAL) {
+                lastReport = world.getTotalWorldTime();
+                report(false);
+            }
+        }
+
+        private Chunk load(ChunkProviderServer provider, int x, int z, List<Chunk> loaded) {
+            Chunk chunk = provider.getLoadedChunk(x, z);
+            if (chunk == null && provider.isChunkGeneratedAt(x, z)) {
+                chunk = provider.loadChunk(x, z);
+                if (chunk != null)
+                    loaded.add(chunk);
+            }
+            return chunk;
+        }
+
+        private void reportCancelled() {
+            CommandHelpers.sendLocalizedChatMessage(sender, "command.railcraft.railcraft.admin.retrogen.cancelled", next, total, next * 100 / total, generated);
+            Game.log(Level.INFO, "Railcraft Retrogen: cancelled after {0}/{1} chunks checked, {2} generated", next, total, generated);
+        }
+
+        private void report(boolean finished) {
+            String tag = finished ? "command.railcraft.railcraft.admin.retrogen.done" : "command.railcraft.railcraft.admin.retrogen.progress";
+            CommandHelpers.sendLocalizedChatMessage(sender, tag, next, total, next * 100 / total, generated);
+            Game.log(Level.INFO, "Railcraft Retrogen: {0}/{1} chunks checked, {2} generated", next, total, generated);
+        }
+    }
+}
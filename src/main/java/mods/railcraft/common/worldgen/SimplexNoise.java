@@ -149,6 +149,18 @@ public class SimplexNoise {  // Simplex noise in 2D, 3D and 4D
         return 70.0 * (n0 + n1 + n2);
     }
 
+    // 2D simplex noise sampled over a grid of integer coordinates, stored x major in out
+    // Each value is identical to noise((x + xOffset) * scale, (y + yOffset) * scale)
+    public static void noise(double[] out, int xStart, int yStart, int sizeX, int sizeY, int xOffset, int yOffset, double scale) {
+        int index = 0;
+        for (int dx = 0; dx < sizeX; dx++) {
+            double xin = (xStart + dx + xOffset) * scale;
+            for (int dy = 0; dy < sizeY; dy++) {
+                out[index++] = noise(xin, (yStart + dy + yOffset) * scale);
+            }
+        }
+    }
+
     // 3D simplex noise
     public static double noise(double xin, double yin, double zin) {
         double n0, n1, n2, n3; // Noise contributions from the four corners
@@ -270,6 +282,20 @@ public class SimplexNoise {  // Simplex noise in 2D, 3D and 4D
         return 32.0 * (n0 + n1 + n2 + n3);
     }
 
+    // 3D simplex noise sampled over a grid of integer coordinates, stored x major then y in out
+    public static void noise(double[] out, int xStart, int yStart, int zStart, int sizeX, int sizeY, int sizeZ, int xOffset, int yOffset, int zOffset, double scale) {
+        int index = 0;
+        for (int dx = 0; dx < sizeX; dx++) {
+            double xin = (xStart + dx + xOffset) * scale;
+            for (int dy = 0; dy < sizeY; dy++) {
+                double yin = (yStart + dy + yOffset) * scale;
+                for (int dz = 0; dz < sizeZ; dz++) {
+                    out[index++] = noise(xin, yin, (zStart + dz + zOffset) * scale);
+                }
+            }
+        }
+    }
+
 /*
   // 4D simplex noise, better simplex rank ordering method 2012-03-09
   public static double noise(double x, double y, double z, double w) {
@@ -0,0 +1,167 @@
+package tests;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import mods.railcraft.common.util.entity.EntitySensor;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.item.EntityArmorStand;
+import net.minecraft.entity.passive.EntityAnimal;
+import net.minecraft.entity.passive.EntityPig;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.message.MessageFormatMessage;
+
+import java.util.*;
+
+/**
+ * Checks that overlapping regions share one read of the entities per tick, that each region is only
+ * offered the entities near it, that a region far from everything does no work, and that every region
+ * and its listener still end up with exactly the entities a search of its own box would find.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public class EntitySensorTest {
+    private static final int ENTITIES = 200;
+    private static final int TICKS = 20;
+    /**
+     * A region is offered the entities of the sections it touches, which lie within this of its box.
+     */
+    private static final double REACH = 16 + World.MAX_ENTITY_RADIUS;
+
+    private static final List<EntityLivingBase> entities = new ArrayList<>();
+    private static final Long2ObjectOpenHashMap<List<EntityLivingBase>> sections = new Long2ObjectOpenHashMap<>();
+    private static final Long2IntOpenHashMap reads = new Long2IntOpenHashMap();
+
+    public static void main(String[] args) {
+        Bootstrap.register();
+        Random random = new Random(29);
+        for (int i = 0; i < ENTITIES; i++) {
+            EntityLivingBase entity = i % 4 == 0 ? new EntityArmorStand(null) : new EntityPig(null);
+            entity.setPosition(random.nextDouble() * 48, 60 + random.nextDouble() * 10, random.nextDouble() * 48);
+            entities.add(entity);
+        }
+
+        long single = run(1, new Random(29));
+        long shared = run(64, new Random(29));
+        LogManager.getLogger("Test").log(Level.INFO, new MessageFormatMessage("Entity Sensor Test: {0} entities, 1 region offered {1} per tick, 64 regions offered {2} per tick",
+                ENTITIES, single / TICKS, shared / TICKS));
+    }
+
+    /**
+     * @return the number of entities offered to all the regions but the idle one over the run
+     */
+    private static long run(int regionCount, Random random) {
+        EntitySensor sensor = new EntitySensor();
+        EntitySensor.SectionSource source = (x, y, z, sink) -> {
+            long key = key(x, y, z);
+            if (reads.addTo(key, 1) > 0)
+                throw new AssertionError("Section " + x + ", " + y + ", " + z + " read twice in one tick");
+            sections.getOrDefault(key, Collections.emptyList()).forEach(sink);
+        };
+        List<TileEntity> owners = new ArrayList<>();
+        List<AxisAlignedBB> boxes = new ArrayList<>();
+        List<EntitySensor.Region<? extends EntityLivingBase>> regions = new ArrayList<>();
+        List<Set<EntityLivingBase>> heard = new ArrayList<>();
+        bucket();
+        for (int i = 0; i < regionCount; i++) {
+            double x = 24 + random.nextGaussian() * 6;
+            double z = 24 + random.nextGaussian() * 6;
+            double size = 4 + random.nextInt(7);
+            AxisAlignedBB box = new AxisAlignedBB(x - size, 62, z - size, x + size, 67, z + size);
+            TileEntity owner = new TileEntity() {
+            };
+            Set<EntityLivingBase> seen = new HashSet<>();
+            EntitySensor.Listener<EntityLivingBase> listener = new EntitySensor.Listener<EntityLivingBase>() {
+                @Override
+                public void entered(EntityLivingBase entity) {
+                    if (!seen.add(entity))
+                        throw new AssertionError("Entity entered a region it was already in");
+                }
+
+                @Override
+                public void left(EntityLivingBase entity) {
+                    if (!seen.remove(entity))
+                        throw new AssertionError("Entity left a region it wasn't in");
+                }
+            };
+            reads.clear();
+            owners.add(owner);
+            boxes.add(box);
+            heard.add(seen);
+            // The listener only hears about changes after registration, so start it off with the initial fill
+            EntitySensor.Region<? extends EntityLivingBase> region = i % 2 == 0 ? sensor.add(owner, EntityAnimal.class, box, source) : sensor.add(owner, EntityLivingBase.class, box, source);
+            seen.addAll(region.getEntities());
+            region.setListener(listener);
+            regions.add(region);
+            check(regions, boxes, heard, "registration");
+        }
+        // Nothing ever comes near this one, so it should never be offered anything
+        EntitySensor.Region<EntityLivingBase> idle = sensor.add(new TileEntity() {
+        }, EntityLivingBase.class, new AxisAlignedBB(1000, 62, 1000, 1004, 67, 1004), source);
+
+        long offered = 0;
+        for (int tick = 0; tick < TICKS; tick++) {
+            for (EntityLivingBase entity : entities) {
+                entity.setPosition(entity.posX + random.nextGaussian(), entity.posY, entity.posZ + random.nextGaussian());
+            }
+            bucket();
+            reads.clear();
+            long before = sensor.getVisits();
+            long[] checks = regions.stream().mapToLong(EntitySensor.Region::getChecks).toArray();
+            sensor.tick(source);
+            long read = sensor.getVisits() - before;
+            if (read > ENTITIES)
+                throw new AssertionError(regionCount + " regions read " + read + " entities in one tick, there are only " + ENTITIES);
+            for (int i = 0; i < regions.size(); i++) {
+                long work = regions.get(i).getChecks() - checks[i];
+                AxisAlignedBB reach = boxes.get(i).grow(REACH);
+                long near = entities.stream().filter(entity -> reach.contains(entity.getPositionVector())).count();
+                if (work > near)
+                    throw new AssertionError("Region " + i + " was offered " + work + " entities in one tick, only " + near + " are near it");
+                offered += work;
+            }
+            if (idle.getChecks() != 0)
+                throw new AssertionError("A region with nothing near it was offered " + idle.getChecks() + " entities");
+            check(regions, boxes, heard, "tick " + tick);
+        }
+
+        owners.get(0).invalidate();
+        sensor.tick(source);
+        if (sensor.getRegionCount() != regionCount)
+            throw new AssertionError("Region of an invalid tile wasn't dropped");
+        return offered;
+    }
+
+    private static void check(List<EntitySensor.Region<? extends EntityLivingBase>> regions, List<AxisAlignedBB> boxes, List<Set<EntityLivingBase>> heard, String when) {
+        for (int i = 0; i < regions.size(); i++) {
+            Class<?> type = i % 2 == 0 ? EntityAnimal.class : EntityLivingBase.class;
+            AxisAlignedBB box = boxes.get(i);
+            Set<EntityLivingBase> expected = new HashSet<>();
+            for (EntityLivingBase entity : entities) {
+                if (type.isInstance(entity) && box.intersects(entity.getEntityBoundingBox()))
+                    expected.add(entity);
+            }
+            if (!expected.equals(new HashSet<>(regions.get(i).getEntities())))
+                throw new AssertionError("Region " + i + " has " + regions.get(i).getEntities().size() + " entities after " + when + ", expected " + expected.size());
+            if (!expected.equals(heard.get(i)))
+                throw new AssertionError("Listener of region " + i + " heard of " + heard.get(i).size() + " entities after " + when + ", expected " + expected.size());
+        }
+    }
+
+    private static void bucket() {
+        sections.clear();
+        for (EntityLivingBase entity : entities) {
+            long key = key(MathHelper.floor(entity.posX) >> 4, MathHelper.floor(entity.posY) >> 4, MathHelper.floor(entity.posZ) >> 4);
+            sections.computeIfAbsent(key, k -> new ArrayList<>()).add(entity);
+        }
+    }
+
+    private static long key(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFL) << 26 | ((long) z & 0x3FFFFFL) << 4 | y;
+    }
+}
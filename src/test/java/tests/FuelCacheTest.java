@@ -0,0 +1,76 @@
+package tests;
+
+import com.google.common.cache.CacheStats;
+import mods.railcraft.common.plugins.forge.FuelPlugin;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.message.MessageFormatMessage;
+
+/**
+ * Alternates between several fuels the way a steam plant with mixed fireboxes does and checks that the fuel
+ * cache keeps hitting and hands back the same values as a cold lookup.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public class FuelCacheTest {
+    private static final int ROUNDS = 1000;
+
+    public static void main(String[] args) {
+        Bootstrap.register();
+
+        ItemStack named = new ItemStack(Items.COAL);
+        named.setStackDisplayName("Named Coal");
+        ItemStack[] fuels = {
+                new ItemStack(Items.COAL),
+                new ItemStack(Items.BLAZE_ROD),
+                new ItemStack(Items.STICK),
+                new ItemStack(Blocks.PLANKS, 1, 2),
+                new ItemStack(Blocks.COBBLESTONE),
+                named
+        };
+        int[] expected = {1600, 1000, 100, 300, 0, 1600};
+
+        FuelPlugin.invalidateCache();
+        int[] cold = new int[fuels.length];
+        for (int i = 0; i < fuels.length; i++) {
+            cold[i] = FuelPlugin.getBurnTime(fuels[i]);
+            if (cold[i] != expected[i])
+                throw new AssertionError(fuels[i] + " burns for " + cold[i] + ", expected " + expected[i]);
+        }
+
+        CacheStats before = FuelPlugin.getCacheStats();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < fuels.length; i++) {
+                int burnTime = FuelPlugin.getBurnTime(fuels[i]);
+                if (burnTime != cold[i])
+                    throw new AssertionError(fuels[i] + " burns for " + burnTime + " from the cache, " + cold[i] + " cold");
+            }
+        }
+        CacheStats stats = FuelPlugin.getCacheStats().minus(before);
+        if (stats.missCount() != 0)
+            throw new AssertionError("Cache missed " + stats.missCount() + " times on fuels it has already seen");
+
+        // The cache keeps its own copy of the tag, renaming the stack afterwards mustn't change what's cached
+        named.setStackDisplayName("Renamed Coal");
+        before = FuelPlugin.getCacheStats();
+        FuelPlugin.getBurnTime(named);
+        ItemStack sameName = new ItemStack(Items.COAL);
+        sameName.setStackDisplayName("Named Coal");
+        FuelPlugin.getBurnTime(sameName);
+        if (FuelPlugin.getCacheStats().minus(before).missCount() != 1)
+            throw new AssertionError("Renaming a cached stack changed the cached key");
+
+        FuelPlugin.invalidateCache();
+        before = FuelPlugin.getCacheStats();
+        FuelPlugin.getBurnTime(fuels[0]);
+        if (FuelPlugin.getCacheStats().minus(before).missCount() != 1)
+            throw new AssertionError("Invalidated cache still hit");
+
+        LogManager.getLogger("Test").log(Level.INFO, new MessageFormatMessage("Fuel Cache Test: {0} lookups alternating {1} fuels, hit rate {2}, a last-fuel-only cache would have hit 0",
+                stats.requestCount(), fuels.length, stats.hitRate()));
+    }
+}
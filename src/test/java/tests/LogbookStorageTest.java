@@ -0,0 +1,80 @@
+package tests;
+
+import com.mojang.authlib.GameProfile;
+import mods.railcraft.common.blocks.logbook.VisitorLog;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.message.MessageFormatMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Logs a year of synthetic visits to a logbook and checks its saved size stays under a fixed limit the whole time.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public class LogbookStorageTest {
+    private static final int PLAYERS = 200;
+    private static final int VISITORS_PER_DAY = 40;
+    private static final int RETENTION_DAYS = 30;
+    private static final int SIZE_LIMIT = 32 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(29);
+        GameProfile[] players = new GameProfile[PLAYERS];
+        for (int i = 0; i < PLAYERS; i++) {
+            players[i] = new GameProfile(new UUID(random.nextLong(), random.nextLong()), "Player" + i);
+        }
+
+        VisitorLog log = new VisitorLog(RETENTION_DAYS);
+        LocalDate start = LocalDate.of(2018, 1, 1);
+        int visits = 0;
+        int maxSize = 0;
+        for (int day = 0; day < 365; day++) {
+            LocalDate date = start.plusDays(day);
+            log.rollUp(date);
+            for (int i = 0; i < VISITORS_PER_DAY; i++) {
+                // Some players come by a lot more often than others
+                int player = (int) (PLAYERS * Math.pow(random.nextDouble(), 2));
+                if (log.addVisit(date, players[player]))
+                    visits++;
+            }
+            // Seen again on the same day, must not count twice
+            log.addVisit(date, players[0]);
+            maxSize = Math.max(maxSize, size(log.writeToNBT()));
+        }
+        if (maxSize > SIZE_LIMIT)
+            throw new AssertionError("Logbook grew to " + maxSize + " bytes, limit is " + SIZE_LIMIT);
+
+        NBTTagCompound nbt = log.writeToNBT();
+        VisitorLog copy = VisitorLog.readFromNBT(nbt, RETENTION_DAYS);
+        if (!nbt.equals(copy.writeToNBT()))
+            throw new AssertionError("Logbook doesn't survive being saved and loaded");
+        if (log.getDays().size() > RETENTION_DAYS)
+            throw new AssertionError("Logbook kept names for " + log.getDays().size() + " days");
+        int counted = log.getWeeks().values().stream().mapToInt(Integer::intValue).sum()
+                + log.getMonths().values().stream().mapToInt(Integer::intValue).sum();
+        for (LocalDate day : log.getDays()) {
+            counted += log.getVisitors(day).size();
+        }
+        // Visits only fall off the end after two years, so nothing should be lost yet
+        if (counted != visits)
+            throw new AssertionError("Logbook counts " + counted + " visits, expected " + visits);
+
+        LogManager.getLogger("Test").log(Level.INFO, new MessageFormatMessage("Logbook Storage Test: {0} visits over a year, {1} bytes at most, {2} bytes at the end, {3} players kept",
+                visits, maxSize, size(nbt), log.getProfileCount()));
+    }
+
+    private static int size(NBTTagCompound nbt) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompressedStreamTools.write(nbt, new DataOutputStream(bytes));
+        return bytes.size();
+    }
+}
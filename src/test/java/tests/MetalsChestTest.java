@@ -0,0 +1,111 @@
+package tests;
+
+import mods.railcraft.common.util.chest.MetalsChestLogic;
+import mods.railcraft.common.util.chest.MetalsChestLogic.Condenser;
+import mods.railcraft.common.util.inventory.InvTools;
+import mods.railcraft.common.util.inventory.filters.StackFilters;
+import mods.railcraft.common.util.inventory.manipulators.InventoryManipulator;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.inventory.IInventory;
+import net.minecraft.inventory.InventoryBasic;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.message.MessageFormatMessage;
+
+import java.util.*;
+
+/**
+ * Fills a chest with mixed nuggets and ingots and checks that one bulk pass of the metals chest ends up
+ * with the same items as running the old one step at a time condensing until nothing changes.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public class MetalsChestTest {
+    private static final int SLOTS = 27;
+    private static final int FILLED_SLOTS = 20;
+
+    public static void main(String[] args) {
+        Bootstrap.register();
+
+        List<Condenser> condensers = Arrays.asList(
+                new Condenser(StackFilters.of(Items.IRON_NUGGET), StackFilters.of(Items.IRON_INGOT), StackFilters.of(Blocks.IRON_BLOCK),
+                        new ItemStack(Items.IRON_NUGGET), new ItemStack(Items.IRON_INGOT), new ItemStack(Blocks.IRON_BLOCK)),
+                new Condenser(StackFilters.of(Items.GOLD_NUGGET), StackFilters.of(Items.GOLD_INGOT), StackFilters.of(Blocks.GOLD_BLOCK),
+                        new ItemStack(Items.GOLD_NUGGET), new ItemStack(Items.GOLD_INGOT), new ItemStack(Blocks.GOLD_BLOCK)));
+
+        for (int seed = 0; seed < 10; seed++) {
+            IInventory incremental = fill(new Random(seed));
+            int steps = 0;
+            while (step(incremental, condensers)) {
+                steps++;
+            }
+
+            IInventory bulk = fill(new Random(seed));
+            //noinspection ConstantConditions
+            new MetalsChestLogic(null, bulk, condensers, SLOTS * 64).update();
+            if (!totals(bulk).equals(totals(incremental)))
+                throw new AssertionError("Seed " + seed + ": one bulk pass gave " + totals(bulk) + ", stepping gave " + totals(incremental));
+
+            IInventory budgeted = fill(new Random(seed));
+            //noinspection ConstantConditions
+            MetalsChestLogic logic = new MetalsChestLogic(null, budgeted, condensers, MetalsChestLogic.RATIO * 8);
+            int updates = 0;
+            Map<Item, Integer> before;
+            do {
+                before = totals(budgeted);
+                logic.update();
+                updates++;
+            } while (!before.equals(totals(budgeted)));
+            if (!totals(budgeted).equals(totals(incremental)))
+                throw new AssertionError("Seed " + seed + ": budgeted updates gave " + totals(budgeted) + ", stepping gave " + totals(incremental));
+
+            LogManager.getLogger("Test").log(Level.INFO, new MessageFormatMessage("Metals Chest Test: seed {0}, {1} single steps, 1 bulk pass, {2} passes of {3} items, result {4}",
+                    seed, steps, updates - 1, MetalsChestLogic.RATIO * 8, totals(bulk)));
+        }
+    }
+
+    private static IInventory fill(Random random) {
+        IInventory inventory = new InventoryBasic("metals", false, SLOTS);
+        Item[] items = {Items.IRON_NUGGET, Items.GOLD_NUGGET, Items.IRON_INGOT, Items.GOLD_INGOT};
+        for (int slot = 0; slot < FILLED_SLOTS; slot++) {
+            inventory.setInventorySlotContents(slot, new ItemStack(items[random.nextInt(items.length)], 1 + random.nextInt(64)));
+        }
+        return inventory;
+    }
+
+    /**
+     * How the chest used to condense, one nugget or ingot condensing per update.
+     */
+    private static boolean step(IInventory inventory, List<Condenser> condensers) {
+        InventoryManipulator im = InventoryManipulator.get(inventory);
+        for (Condenser condenser : condensers) {
+            if (im.canRemoveItems(condenser.nuggetFilter, 9) && im.canAddStack(condenser.ingot)) {
+                im.removeItems(condenser.nuggetFilter, 9);
+                im.addStack(condenser.ingot.copy());
+                return true;
+            }
+        }
+        for (Condenser condenser : condensers) {
+            if (im.canRemoveItems(condenser.ingotFilter, 9) && im.canAddStack(condenser.block)) {
+                im.removeItems(condenser.ingotFilter, 9);
+                im.addStack(condenser.block.copy());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<Item, Integer> totals(IInventory inventory) {
+        Map<Item, Integer> totals = new TreeMap<>(Comparator.comparing((Item item) -> String.valueOf(item.getRegistryName())));
+        for (int slot = 0; slot < inventory.getSizeInventory(); slot++) {
+            ItemStack stack = inventory.getStackInSlot(slot);
+            if (!InvTools.isEmpty(stack))
+                totals.merge(stack.getItem(), stack.getCount(), Integer::sum);
+        }
+        return totals;
+    }
+}
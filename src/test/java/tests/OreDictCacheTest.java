@@ -0,0 +1,99 @@
+package tests;
+
+import mods.railcraft.common.plugins.forge.OreDictPlugin;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.oredict.OreDictionary;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.message.MessageFormatMessage;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Checks every ore dictionary lookup of the plugin against asking the ore dictionary directly,
+ * for wildcard and single metadata entries, and again after new entries are registered and after item ids are remapped.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public class OreDictCacheTest {
+
+    public static void main(String[] args) {
+        Bootstrap.register();
+        MinecraftForge.EVENT_BUS.register(OreDictPlugin.getEventHandler());
+
+        List<ItemStack> stacks = new ArrayList<>(Arrays.asList(
+                new ItemStack(Items.IRON_INGOT),
+                new ItemStack(Items.GOLD_NUGGET),
+                new ItemStack(Items.DIAMOND),
+                new ItemStack(Items.DYE, 1, 4),
+                new ItemStack(Items.DYE, 1, 15),
+                new ItemStack(Blocks.LOG, 1, 0),
+                new ItemStack(Blocks.LOG, 1, 3),
+                new ItemStack(Blocks.PLANKS, 1, 2),
+                new ItemStack(Blocks.WOOL, 1, 14),
+                new ItemStack(Blocks.IRON_ORE),
+                new ItemStack(Blocks.STONE, 1, 1),
+                new ItemStack(Blocks.DIRT)
+        ));
+
+        int checks = compare(stacks);
+
+        OreDictPlugin.getOreTags(new ItemStack(Blocks.DIRT));
+        OreDictionary.registerOre("railcraftTestDirt", new ItemStack(Blocks.DIRT, 1, OreDictionary.WILDCARD_VALUE));
+        OreDictionary.registerOre("railcraftTestPodzol", new ItemStack(Blocks.DIRT, 1, 2));
+        stacks.add(new ItemStack(Blocks.DIRT, 1, 2));
+        if (!OreDictPlugin.isOreType("railcraftTestDirt", new ItemStack(Blocks.DIRT)))
+            throw new AssertionError("Ore registered after the table was built wasn't found");
+        if (!OreDictPlugin.getOreTags(new ItemStack(Blocks.DIRT, 1, 2)).containsAll(Arrays.asList("railcraftTestDirt", "railcraftTestPodzol")))
+            throw new AssertionError("Single metadata entry lost the wildcard tags of its item");
+        checks += compare(stacks);
+
+        OreDictPlugin.rebuildCache();
+        checks += compare(stacks);
+
+        // FML remaps item ids without registering any ore, Railcraft drops the table when it does
+        int builds = OreDictPlugin.getBuilds();
+        OreDictPlugin.invalidateCache();
+        checks += compare(stacks);
+        if (OreDictPlugin.getBuilds() != builds + 1)
+            throw new AssertionError("Table was built " + (OreDictPlugin.getBuilds() - builds) + " times after a remap, expected once");
+
+        LogManager.getLogger("Test").log(Level.INFO, new MessageFormatMessage("Ore Dictionary Cache Test: {0} lookups over {1} stacks and {2} ore names agree with the ore dictionary",
+                checks, stacks.size(), OreDictionary.getOreNames().length));
+    }
+
+    private static int compare(List<ItemStack> stacks) {
+        int checks = 0;
+        String[] names = OreDictionary.getOreNames();
+        for (ItemStack stack : stacks) {
+            int[] ids = OreDictionary.getOreIDs(stack);
+            for (String name : names) {
+                boolean expected = ArrayUtils.contains(ids, OreDictionary.getOreID(name));
+                if (OreDictPlugin.isOreType(name, stack) != expected)
+                    throw new AssertionError(stack + " in " + name + " was " + !expected + " from the cache");
+                checks++;
+            }
+
+            Set<String> expectedTags = Arrays.stream(ids).mapToObj(OreDictionary::getOreName).collect(Collectors.toSet());
+            List<String> tags = OreDictPlugin.getOreTags(stack);
+            if (tags.size() != expectedTags.size() || !expectedTags.containsAll(tags))
+                throw new AssertionError(stack + " has tags " + tags + " from the cache, expected " + expectedTags);
+            checks++;
+
+            for (ItemStack other : stacks) {
+                int[] otherIds = OreDictionary.getOreIDs(other);
+                boolean expected = Arrays.stream(otherIds).anyMatch(id -> ArrayUtils.contains(ids, id));
+                if (OreDictPlugin.matches(stack, other) != expected)
+                    throw new AssertionError(stack + " matching " + other + " was " + !expected + " from the cache");
+                checks++;
+            }
+        }
+        return checks;
+    }
+}
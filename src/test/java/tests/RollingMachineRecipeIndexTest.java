@@ -0,0 +1,244 @@
+package tests;
+
+import mods.railcraft.api.crafting.IRollingMachineCraftingManager;
+import mods.railcraft.api.crafting.IRollingMachineRecipe;
+import mods.railcraft.common.util.crafting.RollingMachineCraftingManager;
+import mods.railcraft.common.util.crafting.RollingRecipeIndex;
+import mods.railcraft.common.util.crafting.ShapedRollingMachineRecipe;
+import mods.railcraft.common.util.crafting.ShapelessRollingMachineRecipe;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.inventory.Container;
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.Ingredient;
+import net.minecraftforge.oredict.OreDictionary;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.message.MessageFormatMessage;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks the rolling machine recipe index finds the same recipe as testing every recipe in order,
+ * for a grid built from each recipe in the test and for random grids.
+ *
+ * The recipes are synthetic ones covering the ingredient kinds the index treats differently, plus the
+ * patterns and ore names of the recipes Railcraft registers. The real Railcraft recipes aren't used,
+ * their items only exist once the mod loader has registered them.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public class RollingMachineRecipeIndexTest {
+
+    public static void main(String[] args) {
+        Bootstrap.register();
+        IRollingMachineCraftingManager manager = RollingMachineCraftingManager.getInstance();
+        Ingredient iron = Ingredient.fromItem(Items.IRON_INGOT);
+        Ingredient gold = Ingredient.fromItem(Items.GOLD_INGOT);
+        Ingredient stick = Ingredient.fromItem(Items.STICK);
+        Ingredient anyWool = Ingredient.fromStacks(new ItemStack(Blocks.WOOL, 1, 32767));
+        Ingredient redWool = Ingredient.fromStacks(new ItemStack(Blocks.WOOL, 1, 14));
+        // Can't list what it matches, so the index has to test it every time
+        Ingredient anyIngot = new Ingredient(new ItemStack(Items.IRON_INGOT)) {
+            @Override
+            public boolean apply(@Nullable ItemStack stack) {
+                return stack != null && (stack.getItem() == Items.IRON_INGOT || stack.getItem() == Items.GOLD_INGOT);
+            }
+        };
+        Ingredient blank = Ingredient.EMPTY;
+
+        manager.newShapedRecipeBuilder().grid(new Ingredient[][]{
+                {iron, blank, iron},
+                {iron, stick, iron},
+                {iron, blank, iron}}).output(new ItemStack(Blocks.RAIL, 16)).buildAndRegister();
+        manager.newShapedRecipeBuilder().grid(new Ingredient[][]{
+                {gold, blank, gold},
+                {gold, stick, gold},
+                {gold, blank, gold}}).output(new ItemStack(Blocks.GOLDEN_RAIL, 6)).buildAndRegister();
+        manager.newShapedRecipeBuilder().grid(new Ingredient[][]{
+                {iron, iron},
+                {iron, iron}}).output(new ItemStack(Blocks.IRON_BLOCK)).buildAndRegister();
+        manager.newShapedRecipeBuilder().grid(new Ingredient[][]{
+                {iron, gold, blank},
+                {blank, stick, blank}}).allowsFlip(true).output(new ItemStack(Items.IRON_PICKAXE)).buildAndRegister();
+        manager.newShapedRecipeBuilder().grid(new Ingredient[][]{
+                {anyWool, anyWool, anyWool}}).output(new ItemStack(Items.BED)).buildAndRegister();
+        manager.newShapedRecipeBuilder().grid(new Ingredient[][]{
+                {redWool},
+                {stick}}).output(new ItemStack(Items.BANNER)).buildAndRegister();
+        manager.newShapedRecipeBuilder().grid(new Ingredient[][]{
+                {anyIngot, stick}}).output(new ItemStack(Items.IRON_SWORD)).buildAndRegister();
+        manager.newShapelessRecipeBuilder().add(iron).add(gold).add(stick).output(new ItemStack(Items.CLOCK)).buildAndRegister();
+        manager.newShapelessRecipeBuilder().add(stick).add(stick).output(new ItemStack(Items.ARROW)).buildAndRegister();
+        manager.newShapelessRecipeBuilder().add(anyWool).add(iron).output(new ItemStack(Items.SHEARS)).buildAndRegister();
+        manager.newShapelessRecipeBuilder().add(anyIngot).add(anyIngot).output(new ItemStack(Items.BUCKET)).buildAndRegister();
+        int synthetic = manager.getRecipes().size();
+        registerRailcraftPatterns(manager);
+
+
+        List<IRollingMachineRecipe> recipes = new ArrayList<>(manager.getRecipes());
+        RollingRecipeIndex index = new RollingRecipeIndex(recipes);
+        int checked = 0;
+        int found = 0;
+        for (IRollingMachineRecipe recipe : recipes) {
+            InventoryCrafting grid = newGrid();
+            if (recipe instanceof ShapedRollingMachineRecipe) {
+                ShapedRollingMachineRecipe shaped = (ShapedRollingMachineRecipe) recipe;
+                List<Ingredient> ingredients = shaped.getIngredients();
+                for (int i = 0; i < ingredients.size(); i++) {
+                    grid.setInventorySlotContents(i % shaped.getWidth() + i / shaped.getWidth() * 3, sample(ingredients.get(i)));
+                }
+            } else if (recipe instanceof ShapelessRollingMachineRecipe) {
+                List<Ingredient> ingredients = ((ShapelessRollingMachineRecipe) recipe).getIngredients();
+                for (int i = 0; i < ingredients.size(); i++) {
+                    // Spread out so shapeless recipes don't only ever see the top row
+                    grid.setInventorySlotContents(8 - i * 2, sample(ingredients.get(i)));
+                }
+            }
+            IRollingMachineRecipe match = compare(recipes, index, grid);
+            if (match == null)
+                throw new AssertionError("No recipe matches a grid built from " + recipe.getSampleOutput());
+            checked++;
+            found++;
+        }
+
+        ItemStack[] pool = {ItemStack.EMPTY, ItemStack.EMPTY, ItemStack.EMPTY, new ItemStack(Items.IRON_INGOT),
+                new ItemStack(Items.GOLD_INGOT), new ItemStack(Items.STICK), new ItemStack(Blocks.WOOL, 1, 14),
+                new ItemStack(Blocks.WOOL, 1, 3), new ItemStack(Items.DIAMOND), new ItemStack(Items.BRICK),
+                new ItemStack(Items.NETHERBRICK), new ItemStack(Items.REDSTONE), new ItemStack(Items.BLAZE_POWDER)};
+        Random random = new Random(29);
+        for (int trial = 0; trial < 100_000; trial++) {
+            InventoryCrafting grid = newGrid();
+            int fill = 1 + random.nextInt(9);
+            for (int slot = 0; slot < 9; slot++) {
+                if (random.nextInt(9) < fill)
+                    grid.setInventorySlotContents(slot, pool[random.nextInt(pool.length)].copy());
+            }
+            if (compare(recipes, index, grid) != null)
+                found++;
+            checked++;
+        }
+        LogManager.getLogger("Test").log(Level.INFO, new MessageFormatMessage("Rolling Machine Index Test: {0} synthetic and {1} Railcraft pattern recipes, {2} grids checked, {3} matched, no differences",
+                synthetic, recipes.size() - synthetic, checked, found));
+
+        // Swap a recipe out through the list the way scripts do, leaving the count unchanged
+        InventoryCrafting rail = newGrid();
+        for (int slot : new int[]{0, 2, 3, 5, 6, 8}) {
+            rail.setInventorySlotContents(slot, new ItemStack(Items.IRON_INGOT));
+        }
+        rail.setInventorySlotContents(4, new ItemStack(Items.STICK));
+        IRollingMachineRecipe before = manager.findMatching(rail);
+        if (before == null || before.getSampleOutput().getItem() != Item.getItemFromBlock(Blocks.RAIL))
+            throw new AssertionError("The manager found " + describe(before) + " for the rail grid");
+        manager.getRecipes().remove(before);
+        IRollingMachineRecipe replacement = manager.newShapedRecipeBuilder().grid(new Ingredient[][]{
+                {iron, blank, iron},
+                {iron, stick, iron},
+                {iron, blank, iron}}).output(new ItemStack(Blocks.ACTIVATOR_RAIL, 6)).build();
+        manager.getRecipes().add(replacement);
+        IRollingMachineRecipe after = manager.findMatching(rail);
+        if (after != replacement)
+            throw new AssertionError("After replacing the rail recipe the manager found " + describe(after));
+        LogManager.getLogger("Test").log(Level.INFO, "Rolling Machine Index Test: replacing a recipe through the recipe list updated the index");
+    }
+
+    /**
+     * The rail, post and bushing recipes Railcraft registers, with the same patterns and ore names.
+     * The Railcraft items can't be created without the mod loader, so the outputs are vanilla items
+     * and the metals are vanilla items registered under the ore names.
+     */
+    private static void registerRailcraftPatterns(IRollingMachineCraftingManager manager) {
+        OreDictionary.registerOre("ingotBronze", new ItemStack(Items.BRICK));
+        OreDictionary.registerOre("ingotSteel", new ItemStack(Items.NETHERBRICK));
+        OreDictionary.registerOre("dustObsidian", new ItemStack(Items.REDSTONE));
+        for (String metal : new String[]{"ingotIron", "ingotBronze", "ingotSteel"}) {
+            manager.addRecipe(new ItemStack(Blocks.RAIL, 8),
+                    "I I",
+                    "I I",
+                    "I I",
+                    'I', metal);
+            manager.addRecipe(new ItemStack(Blocks.IRON_BARS, 16),
+                    "III",
+                    " I ",
+                    "III",
+                    'I', metal);
+            manager.addRecipe(new ItemStack(Blocks.IRON_BARS, 16),
+                    "I I",
+                    "III",
+                    "I I",
+                    'I', metal);
+        }
+        manager.addRecipe(new ItemStack(Blocks.GOLDEN_RAIL, 8),
+                "R G",
+                "R G",
+                "R G",
+                'R', new ItemStack(Items.REDSTONE),
+                'G', new ItemStack(Items.GOLD_INGOT));
+        manager.addRecipe(new ItemStack(Blocks.DETECTOR_RAIL, 8),
+                "IBG",
+                "IBG",
+                "IBG",
+                'I', "ingotSteel",
+                'B', Items.BLAZE_POWDER,
+                'G', Items.GOLD_INGOT);
+        manager.addRecipe(new ItemStack(Blocks.ACTIVATOR_RAIL, 8),
+                "IDI",
+                "IDI",
+                "IDI",
+                'I', "ingotSteel",
+                'D', "dustObsidian");
+        manager.addRecipe(new ItemStack(Items.COMPARATOR, 2),
+                "II",
+                "II",
+                'I', "ingotBronze");
+    }
+
+    private static @Nullable IRollingMachineRecipe compare(List<IRollingMachineRecipe> recipes, RollingRecipeIndex index, InventoryCrafting grid) {
+        IRollingMachineRecipe expected = null;
+        for (IRollingMachineRecipe recipe : recipes) {
+            if (recipe.test(grid)) {
+                expected = recipe;
+                break;
+            }
+        }
+        IRollingMachineRecipe indexed = index.find(grid);
+        if (indexed != expected)
+            throw new AssertionError("Index found " + describe(indexed) + " but the linear scan found " + describe(expected) + " for " + describe(grid));
+        return indexed;
+    }
+
+    private static ItemStack sample(Ingredient ingredient) {
+        ItemStack[] stacks = ingredient.getMatchingStacks();
+        return stacks.length == 0 ? ItemStack.EMPTY : stacks[0].copy();
+    }
+
+    private static InventoryCrafting newGrid() {
+        return new InventoryCrafting(new Container() {
+            @Override
+            public boolean canInteractWith(EntityPlayer playerIn) {
+                return false;
+            }
+        }, 3, 3);
+    }
+
+    private static String describe(@Nullable IRollingMachineRecipe recipe) {
+        return recipe == null ? "nothing" : recipe.getSampleOutput().toString();
+    }
+
+    private static String describe(InventoryCrafting grid) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int slot = 0; slot < grid.getSizeInventory(); slot++) {
+            if (slot > 0)
+                builder.append(slot % 3 == 0 ? " / " : ", ");
+            builder.append(grid.getStackInSlot(slot).isEmpty() ? "-" : grid.getStackInSlot(slot).toString());
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,168 @@
+package tests;
+
+import mods.railcraft.common.blocks.multi.SteamPlant;
+import mods.railcraft.common.blocks.multi.TileBoiler;
+import mods.railcraft.common.blocks.multi.TileSteamTurbine;
+import mods.railcraft.common.fluids.Fluids;
+import mods.railcraft.common.fluids.tanks.FilteredTank;
+import mods.railcraft.common.fluids.tanks.StandardTank;
+import mods.railcraft.common.util.steam.IFuelProvider;
+import mods.railcraft.common.util.steam.SteamBoiler;
+import mods.railcraft.common.util.steam.SteamConstants;
+import mods.railcraft.common.util.steam.SteamTurbine;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fluids.Fluid;
+import net.minecraftforge.fluids.FluidRegistry;
+import net.minecraftforge.fluids.FluidStack;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.message.MessageFormatMessage;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs the same high pressure boiler feeding a turbine tick by tick the way the tiles do and in steps the way
+ * a steam plant does, and checks that the steam delivered to the turbine and the charge it produced agree.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public class SteamPlantTest {
+    private static final int TICKS = 6000;
+    private static final int TANKS = 8;
+    private static final int[] INTERVALS = {1, 5, 10};
+    /**
+     * The per tick push moves steam in whole buckets while the plant only moves what is above the buffer,
+     * which can leave the two a bucket or so apart at any moment, well under this over a run.
+     */
+    private static final double TOLERANCE = 0.02;
+
+    public static void main(String[] args) {
+        Bootstrap.register();
+        if (!Fluids.STEAM.isPresent())
+            FluidRegistry.registerFluid(new Fluid("steam", new ResourceLocation("railcraft:fluids/steam_still"), new ResourceLocation("railcraft:fluids/steam_flow")));
+
+        Plant perTile = new Plant();
+        for (int tick = 0; tick < TICKS; tick++) {
+            perTile.topUp();
+            perTile.boiler.tick(TANKS);
+            StandardTank steam = perTile.boiler.getTankSteam();
+            if (!steam.isEmpty() && (!perTile.boiler.isBoiling() || steam.getFluidAmount() >= steam.getCapacity() / 2))
+                move(steam, perTile.turbine.getTankSteam(), TileBoiler.TRANSFER_RATE);
+            perTile.turbine.tick();
+            perTile.charge += perTile.turbine.drainEnergy();
+            move(perTile.turbine.getTankWater(), perTile.boiler.getTankWater(), TileSteamTurbine.WATER_OUTPUT);
+        }
+        if (perTile.charge <= 0)
+            throw new AssertionError("The per tile model produced no charge");
+
+        for (int interval : INTERVALS) {
+            Plant plant = new Plant();
+            List<SteamPlant.IBoiler> boilers = Collections.singletonList(plant.asBoiler());
+            List<SteamPlant.ITurbine> turbines = Collections.singletonList(plant.asTurbine());
+            for (int tick = 1; tick <= TICKS; tick++) {
+                plant.topUp();
+                if (tick % interval == 0)
+                    SteamPlant.step(boilers, turbines, interval);
+            }
+            check("steam", interval, perTile.steamDelivered, plant.steamDelivered);
+            check("charge", interval, perTile.charge, plant.charge);
+            LogManager.getLogger("Test").log(Level.INFO, new MessageFormatMessage("Steam Plant Test: {0} ticks in steps of {1}, steam {2} vs {3} per tile, charge {4} vs {5} per tile",
+                    TICKS, interval, plant.steamDelivered, perTile.steamDelivered, plant.charge, perTile.charge));
+        }
+    }
+
+    private static void check(String what, int interval, double expected, double actual) {
+        if (Math.abs(actual - expected) > expected * TOLERANCE)
+            throw new AssertionError("Plant stepping every " + interval + " ticks gave " + what + " " + actual + ", per tile gave " + expected);
+    }
+
+    private static void move(StandardTank from, StandardTank to, int amount) {
+        FluidStack drained = from.drainInternal(amount, false);
+        if (drained == null)
+            return;
+        int filled = to.fillInternal(drained, true);
+        if (filled > 0)
+            from.drainInternal(filled, true);
+    }
+
+    /**
+     * A boiler on endless fuel and water, already hot with its steam buffer full, piped into a turbine with
+     * an endless rotor on a battery that always wants charge.
+     */
+    private static class Plant {
+        private final SteamBoiler boiler;
+        private final SteamTurbine turbine;
+        private double steamDelivered;
+        private double charge;
+
+        Plant() {
+            FilteredTank water = new FilteredTank(TANKS * 4 * 1000);
+            water.setFilter(Fluids.WATER);
+            FilteredTank steam = new FilteredTank(TANKS * TileBoiler.STEAM_HIGH * 1000);
+            steam.setFilter(Fluids.STEAM);
+            steam.setFluid(Fluids.STEAM.get(steam.getCapacity() / 2));
+            boiler = new SteamBoiler(water, steam).setFuelProvider(new IFuelProvider() {
+                @Override
+                public double getMoreFuel() {
+                    return 1600;
+                }
+
+                @Override
+                public double getHeatStep() {
+                    return SteamConstants.HEAT_STEP;
+                }
+            }).setTicksPerCycle(TileBoiler.TICKS_HIGH).setMaxHeat(TileBoiler.HEAT_HIGH);
+            boiler.setHeat(TileBoiler.HEAT_HIGH);
+
+            StandardTank turbineSteam = new FilteredTank(4 * 1000) {
+                @Override
+                public int fillInternal(@Nullable FluidStack resource, boolean doFill) {
+                    int filled = super.fillInternal(resource, doFill);
+                    if (doFill)
+                        steamDelivered += filled;
+                    return filled;
+                }
+            };
+            turbine = new SteamTurbine(turbineSteam, new StandardTank(4 * 1000)).setRotor(() -> true);
+        }
+
+        void topUp() {
+            StandardTank water = boiler.getTankWater();
+            if (water.getRemainingSpace() > 0)
+                water.fillInternal(Fluids.WATER.get(water.getRemainingSpace()), true);
+        }
+
+        SteamPlant.IBoiler asBoiler() {
+            return new SteamPlant.IBoiler() {
+                @Override
+                public SteamBoiler getSteamBoiler() {
+                    return boiler;
+                }
+
+                @Override
+                public void simulate(int ticks) {
+                    for (int i = 0; i < ticks; i++) {
+                        boiler.tick(TANKS);
+                    }
+                }
+            };
+        }
+
+        SteamPlant.ITurbine asTurbine() {
+            return new SteamPlant.ITurbine() {
+                @Override
+                public SteamTurbine getSteamTurbine() {
+                    return turbine;
+                }
+
+                @Override
+                public void simulate(int ticks) {
+                    charge += turbine.simulate(ticks, true);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package tests;
+
+import mods.railcraft.common.fluids.AdjacentFluidCache;
+import mods.railcraft.common.fluids.TankManager;
+import mods.railcraft.common.fluids.tanks.StandardTank;
+import mods.railcraft.common.util.misc.AdjacentTileCache;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.profiler.Profiler;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.GameType;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldProviderSurface;
+import net.minecraft.world.WorldSettings;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.chunk.IChunkProvider;
+import net.minecraft.world.storage.WorldInfo;
+import net.minecraftforge.fluids.FluidRegistry;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+import net.minecraftforge.fluids.capability.IFluidTankProperties;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.message.MessageFormatMessage;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Runs the balanced transfers of the tank manager against fake fluid handlers, checking that the amount is
+ * shared out fairly, that handlers taking less leave the rest to the others up to the per handler limit and that the neighbor cache
+ * only looks handlers up again when told to, also when fed by a real tile cache reaching into another chunk.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public class TankManagerTest {
+    private static final int CAPACITY = 100000;
+
+    public static void main(String[] args) {
+        Bootstrap.register();
+
+        fairness();
+        partialAcceptance();
+        fluidIndex();
+        invalidation();
+        tileCache();
+    }
+
+    private static void fairness() {
+        TankManager tankManager = tankManager(CAPACITY);
+        List<MockHandler> handlers = Arrays.asList(new MockHandler(CAPACITY, CAPACITY), new MockHandler(CAPACITY, CAPACITY), new MockHandler(CAPACITY, CAPACITY));
+        List<IFluidHandler> targets = new ArrayList<>(handlers);
+        for (int i = 0; i < 3; i++) {
+            int moved = tankManager.pushBalanced(targets, 0, 100);
+            if (moved != 100)
+                throw new AssertionError("Moved " + moved + " of 100 in one call");
+        }
+        for (MockHandler handler : handlers) {
+            if (handler.amount != 100)
+                throw new AssertionError("Unfair share, handlers got " + amounts(handlers));
+        }
+        LogManager.getLogger("Test").log(Level.INFO, new MessageFormatMessage("Tank Manager Test: 3 pushes of 100 to 3 handlers gave {0}", amounts(handlers)));
+    }
+
+    private static void partialAcceptance() {
+        TankManager tankManager = tankManager(CAPACITY);
+        MockHandler slow = new MockHandler(CAPACITY, 10);
+        MockHandler small = new MockHandler(15, CAPACITY);
+        MockHandler open = new MockHandler(CAPACITY, CAPACITY);
+        List<MockHandler> handlers = Arrays.asList(slow, small, open);
+        int moved = tankManager.pushBalanced(new ArrayList<>(handlers), 0, 90);
+        if (moved != 90 || slow.amount != 10 || small.amount != 15 || open.amount != 65)
+            throw new AssertionError("Moved " + moved + " of 90, handlers got " + amounts(handlers) + ", expected [10, 15, 65]");
+
+        // Capped at 30 each, the open handlers can't take what the slow one leaves
+        MockHandler cappedSlow = new MockHandler(CAPACITY, 10);
+        MockHandler cappedFirst = new MockHandler(CAPACITY, CAPACITY);
+        MockHandler cappedSecond = new MockHandler(CAPACITY, CAPACITY);
+        List<MockHandler> capped = Arrays.asList(cappedSlow, cappedFirst, cappedSecond);
+        moved = tankManager.pushBalanced(new ArrayList<>(capped), 0, 90, 30);
+        if (moved != 70 || cappedSlow.amount != 10 || cappedFirst.amount != 30 || cappedSecond.amount != 30)
+            throw new AssertionError("Moved " + moved + " of 90 capped at 30 each, handlers got " + amounts(capped) + ", expected [10, 30, 30]");
+
+        TankManager shortManager = tankManager(50);
+        MockHandler first = new MockHandler(CAPACITY, CAPACITY);
+        MockHandler second = new MockHandler(CAPACITY, CAPACITY);
+        moved = shortManager.pushBalanced(Arrays.asList(first, second), 0, 90);
+        if (moved != 50 || first.amount + second.amount != 50 || !shortManager.get(0).isEmpty())
+            throw new AssertionError("Moved " + moved + " out of a tank holding 50");
+
+        TankManager puller = new TankManager();
+        puller.add(new StandardTank(CAPACITY));
+        MockHandler source = new MockHandler(CAPACITY, CAPACITY);
+        source.amount = 30;
+        moved = puller.pullBalanced(Arrays.asList(source, new MockHandler(CAPACITY, CAPACITY)), 0, 100);
+        if (moved != 30 || puller.get(0).getFluidAmount() != 30)
+            throw new AssertionError("Pulled " + moved + ", expected everything the only full handler had");
+        LogManager.getLogger("Test").log(Level.INFO, new MessageFormatMessage("Tank Manager Test: push of 90 to slow, small and open handlers gave {0}", amounts(handlers)));
+    }
+
+    private static void fluidIndex() {
+        TankManager tankManager = new TankManager();
+        tankManager.add(new StandardTank(1000));
+        tankManager.add(new StandardTank(1000));
+        tankManager.fill(new FluidStack(FluidRegistry.WATER, 500), true);
+        tankManager.fill(new FluidStack(FluidRegistry.LAVA, 500), true);
+        tankManager.fill(new FluidStack(FluidRegistry.WATER, 200), true);
+        if (tankManager.get(0).getFluidAmount() != 700 || tankManager.get(1).getFluidAmount() != 500
+                || tankManager.get(1).getFluidType() != FluidRegistry.LAVA)
+            throw new AssertionError("Fluids went to the wrong tanks");
+        FluidStack drained = tankManager.drain(new FluidStack(FluidRegistry.LAVA, 300), true);
+        if (drained == null || drained.amount != 300 || tankManager.get(1).getFluidAmount() != 200)
+            throw new AssertionError("Drained the wrong tank");
+        tankManager.drain(new FluidStack(FluidRegistry.WATER, 700), true);
+        if (tankManager.fill(new FluidStack(FluidRegistry.LAVA, 100), true) != 100 || tankManager.get(1).getFluidAmount() != 300)
+            throw new AssertionError("Lava didn't go back to the tank already holding it");
+    }
+
+    private static void invalidation() {
+        Map<EnumFacing, TileEntity> tiles = new EnumMap<>(EnumFacing.class);
+        Map<TileEntity, IFluidHandler> capabilities = new HashMap<>();
+        for (EnumFacing side : EnumFacing.HORIZONTALS) {
+            TileEntity tile = new TileEntity() {
+            };
+            tiles.put(side, tile);
+            capabilities.put(tile, new MockHandler(CAPACITY, CAPACITY));
+        }
+        long[] clock = {0};
+        AdjacentFluidCache cache = new AdjacentFluidCache(tiles::get, (tile, side) -> capabilities.get(tile), () -> clock[0]);
+
+        for (int tick = 0; tick < AdjacentFluidCache.REFRESH_INTERVAL; tick++) {
+            clock[0] = tick;
+            List<IFluidHandler> handlers = cache.getHandlers(tile -> true, EnumFacing.VALUES);
+            if (handlers.size() != 4)
+                throw new AssertionError("Found " + handlers.size() + " handlers, expected 4");
+        }
+        if (cache.getLookups() != 4)
+            throw new AssertionError("Looked up " + cache.getLookups() + " handlers in " + AdjacentFluidCache.REFRESH_INTERVAL + " ticks, expected 4");
+
+        TileEntity replacement = new TileEntity() {
+        };
+        MockHandler replaced = new MockHandler(CAPACITY, CAPACITY);
+        capabilities.put(replacement, replaced);
+        tiles.put(EnumFacing.NORTH, replacement);
+        cache.changed(EnumFacing.NORTH);
+        List<IFluidHandler> handlers = cache.getHandlers(tile -> true, EnumFacing.NORTH);
+        if (cache.getLookups() != 5 || handlers.size() != 1 || handlers.get(0) != replaced)
+            throw new AssertionError("Changed side wasn't looked up again");
+
+        cache.purge();
+        cache.getHandlers(tile -> true, EnumFacing.VALUES);
+        if (cache.getLookups() != 9)
+            throw new AssertionError("Purge didn't drop every handler");
+
+        clock[0] += AdjacentFluidCache.REFRESH_INTERVAL;
+        cache.getHandlers(tile -> true, EnumFacing.VALUES);
+        if (cache.getLookups() != 13)
+            throw new AssertionError("Handlers weren't refreshed after " + AdjacentFluidCache.REFRESH_INTERVAL + " ticks");
+
+        if (!cache.getHandlers(tile -> tile != replacement, EnumFacing.VALUES).stream().noneMatch(h -> h == replaced))
+            throw new AssertionError("Filter wasn't applied to cached handlers");
+
+        // The tile cache may not have noticed yet, the handler still has to follow the tile on the side
+        TileEntity swapped = new TileEntity() {
+        };
+        MockHandler swappedHandler = new MockHandler(CAPACITY, CAPACITY);
+        capabilities.put(swapped, swappedHandler);
+        tiles.put(EnumFacing.SOUTH, swapped);
+        handlers = cache.getHandlers(tile -> true, EnumFacing.SOUTH);
+        if (cache.getLookups() != 14 || handlers.size() != 1 || handlers.get(0) != swappedHandler)
+            throw new AssertionError("Handler of a replaced tile was used before the tile cache noticed");
+        swapped.invalidate();
+        cache.getHandlers(tile -> true, EnumFacing.SOUTH);
+        if (cache.getLookups() != 15)
+            throw new AssertionError("Handler of an invalid tile was used");
+        LogManager.getLogger("Test").log(Level.INFO, new MessageFormatMessage("Tank Manager Test: {0} handler lookups", cache.getLookups()));
+    }
+
+    private static void tileCache() {
+        Map<BlockPos, TileEntity> placed = new HashMap<>();
+        World world = new World(null, new WorldInfo(new WorldSettings(29L, GameType.CREATIVE, false, false, WorldType.FLAT), "test"),
+                new WorldProviderSurface(), new Profiler(), false) {
+            @Override
+            protected IChunkProvider createChunkProvider() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            protected boolean isChunkLoaded(int x, int z, boolean allowEmpty) {
+                return true;
+            }
+
+            @Override
+            public @Nullable TileEntity getTileEntity(BlockPos pos) {
+                return placed.get(pos);
+            }
+        };
+        Map<TileEntity, IFluidHandler> capabilities = new HashMap<>();
+        // On the east edge of its chunk, so the east neighbor is never cached by the tile cache
+        TileEntity source = place(world, placed, new BlockPos(15, 64, 8));
+        for (EnumFacing side : EnumFacing.HORIZONTALS) {
+            capabilities.put(place(world, placed, source.getPos().offset(side)), new MockHandler(CAPACITY, CAPACITY));
+        }
+        AdjacentTileCache tileCache = new AdjacentTileCache(source);
+        AdjacentFluidCache cache = new AdjacentFluidCache(tileCache::getTileOnSide, (tile, side) -> capabilities.get(tile), world::getTotalWorldTime);
+        tileCache.addListener(cache);
+
+        for (int tick = 0; tick < AdjacentFluidCache.REFRESH_INTERVAL; tick++) {
+            world.setTotalWorldTime(tick);
+            for (int call = 0; call < 3; call++) {
+                List<IFluidHandler> handlers = cache.getHandlers(tile -> true, EnumFacing.VALUES);
+                if (handlers.size() != 4)
+                    throw new AssertionError("Found " + handlers.size() + " handlers, expected 4");
+            }
+        }
+        if (cache.getLookups() != 4)
+            throw new AssertionError("Looked up " + cache.getLookups() + " handlers through the tile cache in " + AdjacentFluidCache.REFRESH_INTERVAL + " ticks, expected 4");
+
+        // Tiles in other chunks are searched for on every call, so a new one is picked up right away
+        TileEntity replacement = place(world, placed, source.getPos().east());
+        MockHandler replaced = new MockHandler(CAPACITY, CAPACITY);
+        capabilities.put(replacement, replaced);
+        List<IFluidHandler> handlers = cache.getHandlers(tile -> true, EnumFacing.EAST);
+        if (cache.getLookups() != 5 || handlers.size() != 1 || handlers.get(0) != replaced)
+            throw new AssertionError("Tile replaced in another chunk wasn't looked up again");
+        cache.getHandlers(tile -> true, EnumFacing.EAST);
+        if (cache.getLookups() != 5)
+            throw new AssertionError("Unchanged tile in another chunk was looked up again");
+        LogManager.getLogger("Test").log(Level.INFO, new MessageFormatMessage("Tank Manager Test: {0} handler lookups through a tile cache", cache.getLookups()));
+    }
+
+    private static TileEntity place(World world, Map<BlockPos, TileEntity> placed, BlockPos pos) {
+        TileEntity tile = new TileEntity() {
+        };
+        tile.setWorld(world);
+        tile.setPos(pos);
+        placed.put(pos, tile);
+        return tile;
+    }
+
+    private static TankManager tankManager(int water) {
+        TankManager tankManager = new TankManager();
+        tankManager.add(new StandardTank(CAPACITY));
+        tankManager.get(0).setFluid(new FluidStack(FluidRegistry.WATER, water));
+        return tankManager;
+    }
+
+    private static List<Integer> amounts(List<MockHandler> handlers) {
+        List<Integer> amounts = new ArrayList<>();
+        handlers.forEach(h -> amounts.add(h.amount));
+        return amounts;
+    }
+
+    /**
+     * Holds water, taking at most a set amount per fill.
+     */
+    private static class MockHandler implements IFluidHandler {
+        private final int capacity;
+        private final int rate;
+        private int amount;
+
+        MockHandler(int capacity, int rate) {
+            this.capacity = capacity;
+            this.rate = rate;
+        }
+
+        @Override
+        public IFluidTankProperties[] getTankProperties() {
+            return new IFluidTankProperties[0];
+        }
+
+        @Override
+        public int fill(FluidStack resource, boolean doFill) {
+            int filled = Math.min(resource.amount, Math.min(rate, capacity - amount));
+            if (doFill)
+                amount += filled;
+            return filled;
+        }
+
+        @Override
+        public @Nullable FluidStack drain(FluidStack resource, boolean doDrain) {
+            return drain(resource.amount, doDrain);
+        }
+
+        @Override
+        public @Nullable FluidStack drain(int maxDrain, boolean doDrain) {
+            int drained = Math.min(maxDrain, amount);
+            if (drained <= 0)
+                return null;
+            if (doDrain)
+                amount -= drained;
+            return new FluidStack(FluidRegistry.WATER, drained);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package tests;
+
+import mods.railcraft.common.util.chest.VoidChestLogic;
+import net.minecraft.block.Block;
+import net.minecraft.init.Blocks;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.inventory.IInventory;
+import net.minecraft.inventory.InventoryBasic;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.message.MessageFormatMessage;
+
+/**
+ * Runs the void chest logic against a plain inventory, checking how much it destroys per update,
+ * that the filter keeps what it should and that the tally adds up and survives being saved.
+ *
+ * @author CovertJaguar <http://www.railcraft.info>
+ */
+public class VoidChestTest {
+    private static final int SLOTS = 27;
+    private static final int ITEMS_PER_OPERATION = 16;
+
+    public static void main(String[] args) {
+        Bootstrap.register();
+
+        IInventory inventory = new InventoryBasic("void", false, SLOTS);
+        for (int slot = 0; slot < SLOTS; slot++) {
+            inventory.setInventorySlotContents(slot, new ItemStack(Blocks.COBBLESTONE, 64));
+        }
+        //noinspection ConstantConditions
+        VoidChestLogic logic = new VoidChestLogic(null, inventory, ITEMS_PER_OPERATION);
+        int expected = SLOTS * 64;
+        int operations = 0;
+        while (count(inventory) > 0) {
+            int before = count(inventory);
+            logic.update();
+            operations++;
+            int destroyed = before - count(inventory);
+            if (destroyed != Math.min(ITEMS_PER_OPERATION, before))
+                throw new AssertionError("Destroyed " + destroyed + " items in one operation, expected " + Math.min(ITEMS_PER_OPERATION, before));
+        }
+        if (logic.getTotalDestroyed() != expected || logic.getDestroyed(new ItemStack(Blocks.COBBLESTONE)) != expected)
+            throw new AssertionError("Tally counts " + logic.getTotalDestroyed() + " items, expected " + expected);
+
+        fill(inventory);
+        logic.addFilter(new ItemStack(Blocks.DIRT));
+        drain(logic);
+        if (count(inventory, Blocks.DIRT) != SLOTS / 3 * 64 || count(inventory) != SLOTS / 3 * 64)
+            throw new AssertionError("Blacklist didn't keep exactly the dirt");
+
+        fill(inventory);
+        logic.setWhitelist(true);
+        drain(logic);
+        if (count(inventory, Blocks.DIRT) != 0 || count(inventory) != SLOTS / 3 * 64 * 2)
+            throw new AssertionError("Whitelist didn't destroy only the dirt");
+
+        logic.removeFilter(new ItemStack(Blocks.DIRT));
+        drain(logic);
+        if (count(inventory) != 0)
+            throw new AssertionError("Empty filter didn't let everything through");
+
+        NBTTagCompound nbt = new NBTTagCompound();
+        logic.writeToNBT(nbt);
+        //noinspection ConstantConditions
+        VoidChestLogic copy = new VoidChestLogic(null, new InventoryBasic("copy", false, SLOTS), ITEMS_PER_OPERATION);
+        copy.readFromNBT(nbt);
+        if (copy.getTotalDestroyed() != logic.getTotalDestroyed() || copy.getDestroyed(new ItemStack(Blocks.DIRT)) != logic.getDestroyed(new ItemStack(Blocks.DIRT)))
+            throw new AssertionError("Tally doesn't survive being saved and loaded");
+        if (copy.isWhitelist() != logic.isWhitelist())
+            throw new AssertionError("Filter mode doesn't survive being saved and loaded");
+
+        LogManager.getLogger("Test").log(Level.INFO, new MessageFormatMessage("Void Chest Test: {0} items in {1} operations of {2}, {3} destroyed in total, most destroyed {4}",
+                expected, operations, ITEMS_PER_OPERATION, logic.getTotalDestroyed(), logic.getMostDestroyed(1)));
+    }
+
+    private static void fill(IInventory inventory) {
+        for (int slot = 0; slot < SLOTS; slot++) {
+            switch (slot % 3) {
+                case 0:
+                    inventory.setInventorySlotContents(slot, new ItemStack(Blocks.DIRT, 64));
+                    break;
+                case 1:
+                    inventory.setInventorySlotContents(slot, new ItemStack(Blocks.COBBLESTONE, 64));
+                    break;
+                default:
+                    inventory.setInventorySlotContents(slot, new ItemStack(Blocks.STONE, 64));
+            }
+        }
+    }
+
+    private static void drain(VoidChestLogic logic) {
+        for (int i = 0; i < SLOTS * 64 / ITEMS_PER_OPERATION + 1; i++) {
+            logic.update();
+        }
+    }
+
+    private static int count(IInventory inventory) {
+        int count = 0;
+        for (int slot = 0; slot < inventory.getSizeInventory(); slot++) {
+            count += inventory.getStackInSlot(slot).getCount();
+        }
+        return count;
+    }
+
+    private static int count(IInventory inventory, Block block) {
+        int count = 0;
+        for (int slot = 0; slot < inventory.getSizeInventory(); slot++) {
+            ItemStack stack = inventory.getStackInSlot(slot);
+            if (stack.getItem() == Item.getItemFromBlock(block))
+                count += stack.getCount();
+        }
+        return count;
+    }
+}